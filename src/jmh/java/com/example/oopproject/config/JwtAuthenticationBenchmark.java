@@ -0,0 +1,90 @@
+package com.example.oopproject.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares bearer token validation in {@link JwtAuthenticationFilter} with the previous
+ * per-request path, which rebuilt the signing key and parser and verified the HMAC every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "yourVeryLongAndSecureSecretKeyHerePleaseMakeItVeryComplex123!@#";
+
+    private String token;
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter nonCachingFilter;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = Jwts.builder()
+                .setSubject("admin")
+                .claim("role", "ROLE_ADMIN")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 86400000))
+                .signWith(key)
+                .compact();
+
+        cachingFilter = new JwtAuthenticationFilter(SECRET, 10000);
+        nonCachingFilter = new JwtAuthenticationFilter(SECRET, 0);
+    }
+
+    /**
+     * The path before the parser was reused: key and parser built for every request.
+     */
+    @Benchmark
+    public Authentication perRequestParser() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        return new UsernamePasswordAuthenticationToken(claims.getSubject(), null,
+                Collections.singletonList(new SimpleGrantedAuthority(claims.get("role", String.class))));
+    }
+
+    /**
+     * Reused parser, HMAC verified on every request.
+     */
+    @Benchmark
+    public Authentication reusedParser() {
+        return nonCachingFilter.authenticate(token);
+    }
+
+    /**
+     * Reused parser with the verified-token cache (steady state: every lookup is a hit).
+     */
+    @Benchmark
+    public Authentication cachedToken() {
+        return cachingFilter.authenticate(token);
+    }
+}
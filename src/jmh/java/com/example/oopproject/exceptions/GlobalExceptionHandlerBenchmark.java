@@ -0,0 +1,77 @@
+package com.example.oopproject.exceptions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error rendering in {@link GlobalExceptionHandler}: building the response entity
+ * and writing its body as JSON, as the message converter does for a failed request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private WebRequest request;
+    private ResourceNotFoundException notFound;
+    private BadRequestException badRequest;
+    private MethodArgumentNotValidException invalidArgument;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/users/42"));
+
+        notFound = new ResourceNotFoundException("User not found with id: 42");
+        badRequest = new BadRequestException("Username already exists");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "user");
+        bindingResult.addError(new FieldError("user", "username", "Username is required"));
+        bindingResult.addError(new FieldError("user", "email", "Email is required"));
+        bindingResult.addError(new FieldError("user", "password", "Password is required"));
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("setUp"), -1);
+        invalidArgument = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] resourceNotFound() throws IOException {
+        return objectMapper.writeValueAsBytes(handler.resourceNotFoundException(notFound, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] badRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(handler.badRequestException(badRequest, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] validationFailed() throws IOException {
+        return objectMapper.writeValueAsBytes(handler.handleValidationExceptions(invalidArgument).getBody());
+    }
+}
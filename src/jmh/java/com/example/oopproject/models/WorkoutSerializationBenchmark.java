@@ -0,0 +1,98 @@
+package com.example.oopproject.models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson round trip of a {@link Workout} with 50 embedded {@link Exercise}s, using an
+ * ObjectMapper configured the way Spring Boot configures the one used for HTTP responses,
+ * in each of the response formats: JSON, Smile and CBOR. Serializing also counts the bytes
+ * written, reported as the secondary result {@code bytes}; divided by the serialize score it
+ * gives the payload size of the format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkoutSerializationBenchmark {
+
+    private static final int EXERCISES = 50;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private Workout workout;
+    private byte[] encoded;
+
+    /**
+     * Bytes written by serialize, reported by JMH next to its throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PayloadCounter {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        List<Exercise> exercises = new ArrayList<>(EXERCISES);
+        for (int i = 0; i < EXERCISES; i++) {
+            Exercise exercise = new Exercise("ex" + i, "Exercise " + i, 8 + i % 5, 3 + i % 2, "workout1");
+            exercise.setWeight(20.0 + i);
+            exercise.setEquipment(i % 2 == 0 ? "barbell" : "dumbbell");
+            exercise.setMuscleGroups(List.of("chest", "triceps"));
+            exercises.add(exercise);
+        }
+        workout = new Workout("user1", new Date(), 60, "strength", 450, exercises);
+        workout.setId("workout1");
+        workout.setName("Upper body");
+
+        encoded = objectMapper.writeValueAsBytes(workout);
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadCounter counter) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(workout);
+        counter.bytes += payload.length;
+        return payload;
+    }
+
+    @Benchmark
+    public Workout deserialize() throws IOException {
+        return objectMapper.readValue(encoded, Workout.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.repositories.ExerciseRepository;
+import com.example.oopproject.repositories.ExerciseRepositoryImpl;
+import com.example.oopproject.util.RequestCoalescer;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ExerciseService#getExercisesByFilter} over a large synthetic collection, compared
+ * with the previous implementation that loaded every exercise and filtered in a stream.
+ * <p>
+ * MongoDB is replaced by an in-memory mongo-java-server, so the numbers show the cost of
+ * transferring and mapping documents rather than real server-side query planning.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExerciseFilterBenchmark {
+
+    @Param({"1000", "10000"})
+    private int exercises;
+
+    private MongoServer server;
+    private MongoClient client;
+    private ExerciseRepository exerciseRepository;
+    private ExerciseService exerciseService;
+
+    @Setup
+    public void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create("mongodb://localhost:" + server.bind().getPort());
+        MongoTemplate mongoTemplate = new MongoTemplate(client, "benchmark");
+
+        exerciseRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(
+                ExerciseRepository.class, RepositoryFragments.just(new ExerciseRepositoryImpl(mongoTemplate)));
+        exerciseService = new ExerciseService(exerciseRepository, new RequestCoalescer(false));
+
+        List<Exercise> documents = new ArrayList<>(exercises);
+        for (int i = 0; i < exercises; i++) {
+            String name = (i % 10 == 0 ? "Push Up " : "Squat ") + i;
+            documents.add(new Exercise(name, 5 + i % 10, 2 + i % 4, "workout" + i % 100));
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Exercise.class).insert(documents).execute();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Benchmark
+    public List<Exercise> serverSideFilter() {
+        return exerciseService.getExercisesByFilter(10, 3, "push", null);
+    }
+
+    /**
+     * The implementation before the filter was pushed down into the query.
+     */
+    @Benchmark
+    public List<Exercise> findAllThenStreamFilter() {
+        Integer reps = 10;
+        Integer sets = 3;
+        String name = "push";
+
+        return exerciseRepository.findAll().stream()
+                .filter(exercise -> exercise.getReps() == reps)
+                .filter(exercise -> exercise.getSets() == sets)
+                .filter(exercise -> exercise.getName().toLowerCase().contains(name.toLowerCase()))
+                .collect(Collectors.toList());
+    }
+}
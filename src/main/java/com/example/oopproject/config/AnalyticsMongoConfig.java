@@ -0,0 +1,40 @@
+package com.example.oopproject.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Registers the {@code analyticsMongoTemplate} bean: a template on the application's database
+ * that reads with {@code app.mongodb.analytics.read-preference} (see
+ * {@link MongoClientFactory#createAnalyticsTemplate(MongoTemplate)}). Exports and heavy reads
+ * (the workout/exercise lookups) inject it with {@code @Qualifier("analyticsMongoTemplate")} so
+ * that they can run on secondaries. The rollup and leaderboard rebuilds, which replace their
+ * aggregates with what they read, read from the primary instead.
+ *
+ * <p>This is an auto-configuration (listed in {@code META-INF/spring}) ordered after
+ * {@link MongoDataAutoConfiguration}: a second {@link MongoTemplate} bean declared by a regular
+ * configuration would make Boot skip its own {@code mongoTemplate} in the profiles that rely on it.
+ * Unqualified injection points keep getting the main template, which is {@code @Primary} where
+ * a profile declares it and otherwise matched by its name {@code mongoTemplate}.</p>
+ */
+@AutoConfiguration(after = MongoDataAutoConfiguration.class)
+@ConditionalOnBean(MongoTemplate.class)
+public class AnalyticsMongoConfig {
+
+    /**
+     * Creates the analytics template from the application's main template.
+     *
+     * @param mongoTemplate the main template
+     * @param mongoClientFactory the factory holding the analytics read preference
+     * @return the analytics template
+     */
+    @Bean
+    public MongoTemplate analyticsMongoTemplate(@Qualifier("mongoTemplate") MongoTemplate mongoTemplate,
+                                                MongoClientFactory mongoClientFactory) {
+        return mongoClientFactory.createAnalyticsTemplate(mongoTemplate);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.oopproject.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the REST resources, chosen by content negotiation.
+ *
+ * <p>A client sending {@code Accept: application/x-jackson-smile} or {@code Accept: application/cbor}
+ * gets the same documents as JSON clients in the binary format, and may send request bodies in
+ * it as well. Both mappers are built from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so
+ * the {@code spring.jackson.*} settings, registered modules and Jackson annotations of the models
+ * apply exactly as for JSON. Clients that send no Accept header still get JSON.</p>
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    /**
+     * Converter reading and writing {@code application/x-jackson-smile}.
+     *
+     * @param builder Spring Boot's configured ObjectMapper builder (a new instance per injection point)
+     * @return the Smile converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Converter reading and writing {@code application/cbor}.
+     *
+     * @param builder Spring Boot's configured ObjectMapper builder (a new instance per injection point)
+     * @return the CBOR converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
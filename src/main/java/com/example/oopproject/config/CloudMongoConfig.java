@@ -1,11 +1,9 @@
 package com.example.oopproject.config;
 
-import com.mongodb.ConnectionString;
-import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +25,12 @@ public class CloudMongoConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(CloudMongoConfig.class);
 
+    /**
+     * Factory applying the tunable client settings and the metrics listener.
+     */
+    @Autowired
+    private MongoClientFactory mongoClientFactory;
+
     /**
      * MongoDB connection URI, injected from environment variable or default value.
      */
@@ -44,12 +48,7 @@ public class CloudMongoConfig {
         logger.info("Initializing MongoDB client for cloud environment...");
         logger.info("Using MongoDB URI: {}", mongoUri.replaceAll("://[^:]+:([^@]+)@", "://*****:*****@"));
 
-        ConnectionString connectionString = new ConnectionString(mongoUri);
-        MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
-                .applyConnectionString(connectionString)
-                .build();
-
-        return MongoClients.create(mongoClientSettings);
+        return mongoClientFactory.createClient(mongoUri);
     }
 
     /**
@@ -1,13 +1,12 @@
 package com.example.oopproject.config;
 
-import com.mongodb.ConnectionString;
-import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
@@ -24,6 +23,12 @@ public class DevMongoConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(DevMongoConfig.class);
 
+    /**
+     * Factory applying the tunable client settings and the metrics listener.
+     */
+    @Autowired
+    private MongoClientFactory mongoClientFactory;
+
     /**
      * Creates and returns a {@link MongoClient} configured to connect to
      * the local MongoDB server.
@@ -35,12 +40,7 @@ public class DevMongoConfig {
         logger.info("Initializing MongoDB client for development environment...");
         logger.info("Using local MongoDB at mongodb://localhost:27017");
 
-        ConnectionString connectionString = new ConnectionString("mongodb://localhost:27017");
-        MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
-                .applyConnectionString(connectionString)
-                .build();
-
-        return MongoClients.create(mongoClientSettings);
+        return mongoClientFactory.createClient("mongodb://localhost:27017");
     }
 
     /**
@@ -51,6 +51,7 @@ public class DevMongoConfig {
      * @throws Exception if there is an error creating the template
      */
     @Bean
+    @Primary
     public MongoTemplate mongoTemplate() throws Exception {
         logger.info("Creating MongoTemplate for development environment...");
         return new MongoTemplate(mongoClient(), "fitness_tracker");
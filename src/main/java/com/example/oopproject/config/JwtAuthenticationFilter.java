@@ -1,12 +1,18 @@
 package com.example.oopproject.config;
 
+import com.example.oopproject.util.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -19,6 +25,7 @@ import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -28,20 +35,56 @@ import java.util.List;
  * validates it, extracts user information and roles, and sets the
  * authentication in the Spring Security context.</p>
  *
+ * <p>The signing key and parser are built once. Tokens that have already been
+ * verified are kept in a {@link VerifiedTokenCache} until they expire, so repeated
+ * requests with the same bearer token skip the signature check.</p>
+ *
  * <p>If the token is invalid or missing, the filter does not authenticate the user.</p>
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final String jwtSecret;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache tokenCache;
 
     /**
-     * Constructs the filter with the JWT secret key.
+     * Constructs the filter with the JWT secret key and registers the token cache metrics.
      *
      * @param jwtSecret the secret key used to sign and verify JWT tokens
+     * @param cacheMaxSize the maximum number of verified tokens to cache
+     * @param meterRegistry the registry for the cache hit/miss metrics
      */
-    public JwtAuthenticationFilter(@Value("${jwt.secret:defaultSecretKey123!@#}") String jwtSecret) {
-        this.jwtSecret = jwtSecret;
+    @Autowired
+    public JwtAuthenticationFilter(@Value("${jwt.secret:defaultSecretKey123!@#}") String jwtSecret,
+                                   @Value("${jwt.cache.max-size:10000}") int cacheMaxSize,
+                                   MeterRegistry meterRegistry) {
+        this(jwtSecret, cacheMaxSize);
+
+        FunctionCounter.builder("jwt.cache.requests", tokenCache, VerifiedTokenCache::getHitCount)
+                .tag("result", "hit")
+                .description("Bearer tokens served from the verified-token cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.requests", tokenCache, VerifiedTokenCache::getMissCount)
+                .tag("result", "miss")
+                .description("Bearer tokens that required signature verification")
+                .register(meterRegistry);
+        Gauge.builder("jwt.cache.size", tokenCache, VerifiedTokenCache::size)
+                .description("Number of verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Constructs the filter without metrics.
+     *
+     * @param jwtSecret the secret key used to sign and verify JWT tokens
+     * @param cacheMaxSize the maximum number of verified tokens to cache; 0 disables caching
+     */
+    public JwtAuthenticationFilter(String jwtSecret, int cacheMaxSize) {
+        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.tokenCache = new VerifiedTokenCache(cacheMaxSize);
     }
 
     /**
@@ -63,25 +106,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                // Use a more robust key generation
-                SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(key)
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
-
-                String username = claims.getSubject();
-                String role = claims.get("role", String.class);
-
-                List<SimpleGrantedAuthority> authorities =
-                        Collections.singletonList(new SimpleGrantedAuthority(role));
-
-                Authentication authentication = new UsernamePasswordAuthenticationToken(
-                        username, null, authorities);
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authenticate(token));
             } catch (Exception e) {
                 // Token is invalid
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -91,4 +116,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Returns the authentication for a bearer token, verifying the token only if
+     * it is not already in the cache.
+     *
+     * @param token the raw JWT token
+     * @return the authentication built from the token's claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    Authentication authenticate(String token) {
+        long now = System.currentTimeMillis();
+        Authentication cached = tokenCache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        Authentication authentication = toAuthentication(claims);
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            tokenCache.put(token, authentication, expiration.getTime(), now);
+        }
+        return authentication;
+    }
+
+    private static Authentication toAuthentication(Claims claims) {
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+
+        List<SimpleGrantedAuthority> authorities =
+                Collections.singletonList(new SimpleGrantedAuthority(role));
+
+        return new UsernamePasswordAuthenticationToken(username, null, authorities);
+    }
 }
@@ -0,0 +1,180 @@
+package com.example.oopproject.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds every MongoDB client of the application from {@link MongoClientProperties}.
+ *
+ * <p>The profile-specific configurations create their clients with {@link #createClient(String)};
+ * clients auto-configured by Spring Boot (the reactive client of the "reactive" profile, or the
+ * client of a profile without its own configuration) get the same settings because this class
+ * is also registered as a {@link MongoClientSettingsBuilderCustomizer}. Either way the client
+ * gets the pool, timeout, compression and read preference settings and reports to
+ * {@link MongoMetricsListener}. A setting given as an option of the connection string
+ * (e.g. {@code ?maxPoolSize=20}) is left as the operator set it.</p>
+ *
+ * <p>{@link #createAnalyticsTemplate(MongoTemplate)} derives a template that reads with
+ * {@code app.mongodb.analytics.read-preference}, so exports and heavy aggregations can run on
+ * secondaries; it is the {@code analyticsMongoTemplate} bean (see {@link AnalyticsMongoConfig}). To try it locally, start a replica set (e.g. {@code mongod --replSet rs0} and
+ * {@code rs.initiate()} with two more members) and connect with {@code ?replicaSet=rs0}; the
+ * {@code mongodb.commands} metrics and the server logs show which member served the reads.</p>
+ */
+@Component
+public class MongoClientFactory implements MongoClientSettingsBuilderCustomizer {
+
+    private final MongoClientProperties properties;
+    private final MongoMetricsListener mongoMetricsListener;
+    private final Environment environment;
+
+    /**
+     * Constructs the factory.
+     *
+     * @param properties the tunable client settings
+     * @param mongoMetricsListener the listener publishing command and pool metrics
+     * @param environment the environment holding the URI of auto-configured clients ({@code spring.data.mongodb.uri})
+     */
+    @Autowired
+    public MongoClientFactory(MongoClientProperties properties, MongoMetricsListener mongoMetricsListener,
+                              Environment environment) {
+        this.properties = properties;
+        this.mongoMetricsListener = mongoMetricsListener;
+        this.environment = environment;
+    }
+
+    /**
+     * Constructs a factory for clients that are all created with {@link #createClient(String)}.
+     *
+     * @param properties the tunable client settings
+     * @param mongoMetricsListener the listener publishing command and pool metrics
+     */
+    public MongoClientFactory(MongoClientProperties properties, MongoMetricsListener mongoMetricsListener) {
+        this(properties, mongoMetricsListener, null);
+    }
+
+    /**
+     * Creates a client for the given connection string with the configured settings.
+     *
+     * @param connectionString the MongoDB URI
+     * @return the new client
+     */
+    public MongoClient createClient(String connectionString) {
+        return MongoClients.create(createSettings(connectionString));
+    }
+
+    /**
+     * Builds the client settings for the given connection string.
+     *
+     * @param connectionString the MongoDB URI
+     * @return the settings, with the configured options filling in those the URI does not set
+     */
+    public MongoClientSettings createSettings(String connectionString) {
+        ConnectionString uri = new ConnectionString(connectionString);
+        MongoClientSettings.Builder builder = MongoClientSettings.builder().applyConnectionString(uri);
+        customize(builder, uri);
+        return builder.build();
+    }
+
+    /**
+     * Applies the configured settings and the metrics listener to the builder of an auto-configured
+     * client, except for the options set in {@code spring.data.mongodb.uri}.
+     *
+     * @param builder the builder, with the connection string already applied
+     */
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        String uri = environment == null ? null : environment.getProperty("spring.data.mongodb.uri");
+        customize(builder, uri == null ? null : new ConnectionString(uri));
+    }
+
+    /**
+     * Applies the configured settings that the connection string leaves unset, and the metrics listener.
+     */
+    private void customize(MongoClientSettings.Builder builder, ConnectionString uri) {
+        MongoClientProperties.Pool pool = properties.getPool();
+        MongoClientProperties.Timeouts timeouts = properties.getTimeouts();
+
+        builder.applyToConnectionPoolSettings(settings -> {
+                    if (uri == null || uri.getMaxConnectionPoolSize() == null) {
+                        settings.maxSize(pool.getMaxSize());
+                    }
+                    if (uri == null || uri.getMinConnectionPoolSize() == null) {
+                        settings.minSize(pool.getMinSize());
+                    }
+                    if (uri == null || uri.getMaxWaitTime() == null) {
+                        settings.maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    if (uri == null || uri.getMaxConnecting() == null) {
+                        settings.maxConnecting(pool.getMaxConnecting());
+                    }
+                    if (uri == null || uri.getMaxConnectionIdleTime() == null) {
+                        settings.maxConnectionIdleTime(pool.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    settings.addConnectionPoolListener(mongoMetricsListener);
+                })
+                .applyToSocketSettings(settings -> {
+                    if (uri == null || uri.getConnectTimeout() == null) {
+                        settings.connectTimeout((int) timeouts.getConnect().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    if (uri == null || uri.getSocketTimeout() == null) {
+                        settings.readTimeout((int) timeouts.getSocketRead().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                })
+                .applyToClusterSettings(settings -> {
+                    if (uri == null || uri.getServerSelectionTimeout() == null) {
+                        settings.serverSelectionTimeout(timeouts.getServerSelection().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                })
+                .addCommandListener(mongoMetricsListener);
+        if (uri == null || uri.getCompressorList().isEmpty()) {
+            builder.compressorList(properties.getCompressors().stream().map(MongoClientFactory::compressor).toList());
+        }
+        if (uri == null || uri.getReadPreference() == null) {
+            builder.readPreference(readPreference(properties.getReadPreference(), null));
+        }
+    }
+
+    /**
+     * Creates a template on the same database as the given one that reads with the analytics
+     * read preference. Writes through it still go to the primary.
+     *
+     * @param mongoTemplate the application's main template
+     * @return the analytics template
+     */
+    public MongoTemplate createAnalyticsTemplate(MongoTemplate mongoTemplate) {
+        MongoTemplate analyticsTemplate = new MongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        MongoClientProperties.Analytics analytics = properties.getAnalytics();
+        analyticsTemplate.setReadPreference(readPreference(analytics.getReadPreference(), analytics.getMaxStaleness()));
+        return analyticsTemplate;
+    }
+
+    static MongoCompressor compressor(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unknown MongoDB compressor '" + name + "', expected zstd, snappy or zlib");
+        };
+    }
+
+    static ReadPreference readPreference(String name, Duration maxStaleness) {
+        if (maxStaleness == null || "primary".equalsIgnoreCase(name)) {
+            return ReadPreference.valueOf(name);
+        }
+        return ReadPreference.valueOf(name, List.of(), maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.oopproject.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tunable MongoDB client settings ({@code app.mongodb.*}), applied by {@link MongoClientFactory}
+ * to every client the application creates, whatever profile it runs with.
+ *
+ * <p>The connection string still decides where to connect; these settings take precedence over
+ * the pool, timeout, compression and read preference options it may contain.</p>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.mongodb")
+public class MongoClientProperties {
+
+    /** Connection pool settings. */
+    private final Pool pool = new Pool();
+
+    /** Socket and server selection timeouts. */
+    private final Timeouts timeouts = new Timeouts();
+
+    /** Wire compressors offered to the server, in order of preference: zstd, snappy or zlib. */
+    private List<String> compressors = new ArrayList<>(List.of("zstd", "snappy"));
+
+    /** Read preference of the main MongoTemplate and repositories. */
+    private String readPreference = "primary";
+
+    /** Read preference of the analytics MongoTemplate. */
+    private final Analytics analytics = new Analytics();
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Timeouts getTimeouts() {
+        return timeouts;
+    }
+
+    public List<String> getCompressors() {
+        return compressors;
+    }
+
+    public void setCompressors(List<String> compressors) {
+        this.compressors = compressors;
+    }
+
+    public String getReadPreference() {
+        return readPreference;
+    }
+
+    public void setReadPreference(String readPreference) {
+        this.readPreference = readPreference;
+    }
+
+    public Analytics getAnalytics() {
+        return analytics;
+    }
+
+    /**
+     * Connection pool settings, per server.
+     */
+    public static class Pool {
+
+        /** Maximum number of open connections; requests beyond it wait in the queue. */
+        private int maxSize = 100;
+
+        /** Connections kept open even when idle. */
+        private int minSize = 0;
+
+        /** How long a request may wait in the queue for a connection before it fails. */
+        private Duration maxWaitTime = Duration.ofSeconds(2);
+
+        /** Maximum number of connections being opened at the same time. */
+        private int maxConnecting = 2;
+
+        /** Idle connections are closed after this long; 0 keeps them open. */
+        private Duration maxIdleTime = Duration.ZERO;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        public Duration getMaxWaitTime() {
+            return maxWaitTime;
+        }
+
+        public void setMaxWaitTime(Duration maxWaitTime) {
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public int getMaxConnecting() {
+            return maxConnecting;
+        }
+
+        public void setMaxConnecting(int maxConnecting) {
+            this.maxConnecting = maxConnecting;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+    }
+
+    /**
+     * Socket and server selection timeouts.
+     */
+    public static class Timeouts {
+
+        /** Time allowed to open a socket. */
+        private Duration connect = Duration.ofSeconds(10);
+
+        /** Time allowed for a reply to arrive on an open socket; 0 waits forever. */
+        private Duration socketRead = Duration.ZERO;
+
+        /** Time allowed to find a suitable server before an operation fails. */
+        private Duration serverSelection = Duration.ofSeconds(30);
+
+        public Duration getConnect() {
+            return connect;
+        }
+
+        public void setConnect(Duration connect) {
+            this.connect = connect;
+        }
+
+        public Duration getSocketRead() {
+            return socketRead;
+        }
+
+        public void setSocketRead(Duration socketRead) {
+            this.socketRead = socketRead;
+        }
+
+        public Duration getServerSelection() {
+            return serverSelection;
+        }
+
+        public void setServerSelection(Duration serverSelection) {
+            this.serverSelection = serverSelection;
+        }
+    }
+
+    /**
+     * Settings of the analytics MongoTemplate used for exports and heavy aggregations.
+     */
+    public static class Analytics {
+
+        /** Read preference, e.g. secondary or secondaryPreferred (falls back to the primary). */
+        private String readPreference = "secondaryPreferred";
+
+        /** Secondaries lagging behind the primary by more than this are not read from; empty for no limit (at least 90s). */
+        private Duration maxStaleness;
+
+        public String getReadPreference() {
+            return readPreference;
+        }
+
+        public void setReadPreference(String readPreference) {
+            this.readPreference = readPreference;
+        }
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+    }
+}
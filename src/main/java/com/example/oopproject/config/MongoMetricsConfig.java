@@ -0,0 +1,50 @@
+package com.example.oopproject.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Wiring for the MongoDB command and connection pool metrics of {@link MongoMetricsListener}.
+ *
+ * <p>{@link MongoClientFactory} adds the listener to every client the application creates.
+ * Every Spring Data repository proxy gets an interceptor that records which repository method
+ * is running, so the listener can tag the commands it sends.</p>
+ */
+@Configuration
+public class MongoMetricsConfig {
+
+    /**
+     * Registers the repository method interceptor on every repository factory before it creates its proxy.
+     *
+     * @return the post processor
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMethodTagger() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    repositoryMethodInterceptor(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor repositoryMethodInterceptor(Class<?> repositoryInterface) {
+        String prefix = repositoryInterface.getSimpleName() + ".";
+        return invocation -> {
+            String previous = MongoMetricsListener.setRepositoryMethod(prefix + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                MongoMetricsListener.setRepositoryMethod(previous);
+            }
+        };
+    }
+}
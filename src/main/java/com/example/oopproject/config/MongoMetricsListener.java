@@ -0,0 +1,223 @@
+package com.example.oopproject.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MongoDB driver listener that publishes command latency and connection pool usage to Micrometer.
+ *
+ * <p>Every command is timed as {@code mongodb.commands} (with a percentile histogram, so
+ * Prometheus gets buckets) and tagged with the collection, the command name, the repository
+ * method that issued it and whether it succeeded. The repository method is taken from
+ * {@link #currentRepositoryMethod()}, which the repository interceptor set up in
+ * {@link MongoMetricsConfig} fills in for the duration of each repository call; commands
+ * issued through {@code MongoTemplate} directly are tagged {@code "none"}.</p>
+ *
+ * <p>For the connection pool, the time spent waiting to check out a connection is timed as
+ * {@code mongodb.pool.checkout}, and {@code mongodb.pool.size} / {@code mongodb.pool.checkedout}
+ * gauges are registered per server.</p>
+ */
+@Component
+public class MongoMetricsListener implements CommandListener, ConnectionPoolListener {
+
+    private static final String NONE = "none";
+
+    /** Commands whose first field is not a collection name. */
+    private static final Set<String> NON_COLLECTION_COMMANDS =
+            Set.of("hello", "ismaster", "isMaster", "ping", "buildInfo", "endSessions", "listDatabases",
+                    "killCursors", "saslStart", "saslContinue", "abortTransaction", "commitTransaction");
+
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    /** Tags captured when a command starts, keyed by driver request ID until it completes. */
+    private final Map<Integer, Tags> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<ServerAddress, PoolStats> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the listener.
+     *
+     * @param meterRegistry the registry the metrics are published to
+     */
+    @Autowired
+    public MongoMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Marks the repository method running on the current thread, so that the commands it sends
+     * are tagged with it.
+     *
+     * @param method the method name, e.g. {@code "WorkoutRepository.findByUserId"}, or null to clear
+     * @return the previously set method, to be restored when the call returns
+     */
+    public static String setRepositoryMethod(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        if (method == null) {
+            REPOSITORY_METHOD.remove();
+        } else {
+            REPOSITORY_METHOD.set(method);
+        }
+        return previous;
+    }
+
+    /**
+     * Gets the repository method running on the current thread.
+     *
+     * @return the method name, or {@code "none"} outside a repository call
+     */
+    public static String currentRepositoryMethod() {
+        String method = REPOSITORY_METHOD.get();
+        return method != null ? method : NONE;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // the sync driver calls this on the thread that issued the command
+        inFlight.put(event.getRequestId(), Tags.of(
+                "collection", collectionName(event.getCommandName(), event.getCommand()),
+                "command", event.getCommandName(),
+                "repository.method", currentRepositoryMethod()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "success", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "failure", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        ServerAddress address = event.getServerId().getAddress();
+        pools.computeIfAbsent(address, key -> new PoolStats(key.toString()));
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        PoolStats stats = pools.remove(event.getServerId().getAddress());
+        if (stats != null) {
+            stats.meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        poolOf(event.getConnectionId().getServerId().getAddress()).size.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        poolOf(event.getConnectionId().getServerId().getAddress()).size.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        PoolStats stats = poolOf(event.getConnectionId().getServerId().getAddress());
+        stats.checkedOut.incrementAndGet();
+        checkoutTimer(stats.server, "success").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        String server = event.getServerId().getAddress().toString();
+        checkoutTimer(server, "failure").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        poolOf(event.getConnectionId().getServerId().getAddress()).checkedOut.decrementAndGet();
+    }
+
+    private void record(int requestId, String commandName, String status, long elapsedNanos) {
+        Tags tags = inFlight.remove(requestId);
+        if (tags == null) {
+            tags = Tags.of("collection", NONE, "command", commandName, "repository.method", NONE);
+        }
+        Timer.builder("mongodb.commands")
+                .description("Latency of MongoDB commands")
+                .tags(tags.and("status", status))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer checkoutTimer(String server, String status) {
+        return Timer.builder("mongodb.pool.checkout")
+                .description("Time spent waiting for a pooled MongoDB connection")
+                .tags("server.address", server, "status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private PoolStats poolOf(ServerAddress address) {
+        return pools.computeIfAbsent(address, key -> new PoolStats(key.toString()));
+    }
+
+    /**
+     * Extracts the collection a command operates on: the value of the first field for CRUD and
+     * aggregate commands, or the {@code collection} field for {@code getMore}.
+     */
+    static String collectionName(String commandName, BsonDocument command) {
+        if (NON_COLLECTION_COMMANDS.contains(commandName)) {
+            return NONE;
+        }
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : NONE;
+    }
+
+    /**
+     * Connection counts of one server's pool, exposed as gauges.
+     */
+    private final class PoolStats {
+        private final String server;
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger checkedOut = new AtomicInteger();
+        private final List<Meter> meters = new ArrayList<>();
+
+        private PoolStats(String server) {
+            this.server = server;
+            meters.add(Gauge.builder("mongodb.pool.size", size, AtomicInteger::get)
+                    .description("Connections currently open in the pool")
+                    .tag("server.address", server)
+                    .register(meterRegistry));
+            meters.add(Gauge.builder("mongodb.pool.checkedout", checkedOut, AtomicInteger::get)
+                    .description("Connections currently checked out of the pool")
+                    .tag("server.address", server)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.oopproject.config;
 
 import com.mongodb.ConnectionString;
-import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
@@ -23,6 +23,12 @@ public class ProdMongoConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(ProdMongoConfig.class);
 
+    /**
+     * Factory applying the tunable client settings and the metrics listener.
+     */
+    @Autowired
+    private MongoClientFactory mongoClientFactory;
+
     /**
      * MongoDB connection URI injected from environment or application properties.
      */
@@ -47,12 +53,7 @@ public class ProdMongoConfig {
             throw new IllegalStateException("MongoDB URI is not properly configured");
         }
 
-        ConnectionString connectionString = new ConnectionString(mongoUri);
-        MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
-                .applyConnectionString(connectionString)
-                .build();
-
-        return MongoClients.create(mongoClientSettings);
+        return mongoClientFactory.createClient(mongoUri);
     }
 
     /**
@@ -62,6 +63,7 @@ public class ProdMongoConfig {
      * @throws Exception if creating the MongoTemplate fails
      */
     @Bean
+    @Primary
     public MongoTemplate mongoTemplate() throws Exception {
         logger.info("Creating MongoTemplate for production environment...");
         // Extract database name from the connection URI or use a default
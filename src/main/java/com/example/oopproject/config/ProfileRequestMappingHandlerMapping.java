@@ -0,0 +1,29 @@
+package com.example.oopproject.config;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Profiles;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+
+/**
+ * Request mapping that honours {@link Profile @Profile} on handler methods.
+ *
+ * <p>Spring only evaluates {@code @Profile} on components and {@code @Bean} methods. This mapping
+ * also skips the handler methods whose profiles are not active, so that endpoints needing
+ * features of a MongoDB server (merge patch, batch insert, NDJSON export, rollups) are not
+ * mapped at all with the {@code memory} profile and answer like any unknown route.</p>
+ */
+public class ProfileRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
+
+    @Override
+    protected RequestMappingInfo getMappingForMethod(Method method, Class<?> handlerType) {
+        Profile profile = AnnotatedElementUtils.findMergedAnnotation(method, Profile.class);
+        if (profile != null && !obtainApplicationContext().getEnvironment().acceptsProfiles(Profiles.of(profile.value()))) {
+            return null;
+        }
+        return super.getMappingForMethod(method, handlerType);
+    }
+}
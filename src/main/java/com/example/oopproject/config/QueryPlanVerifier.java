@@ -0,0 +1,179 @@
+package com.example.oopproject.config;
+
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Startup check that every repository query shape is served by an index.
+ *
+ * <p>For each derived query in the repositories, the equivalent filter is sent to MongoDB
+ * with {@code explain} and the winning plan is searched for a {@code COLLSCAN} stage.
+ * Any query shape that would scan the whole collection is reported as a warning.
+ * Unanchored case-insensitive regex queries ({@code ...ContainingIgnoreCase}) cannot use an
+ * index on their own and are therefore not checked.</p>
+ *
+ * <p>Disable with {@code app.index-check.enabled=false}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.index-check.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryPlanVerifier implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean asyncChecks;
+
+    /**
+     * Constructs the verifier.
+     *
+     * @param mongoTemplate the template used to run the explain commands
+     * @param asyncChecks whether to run the check on a background thread
+     *                    ({@code app.startup.async-checks}) instead of delaying the startup
+     */
+    @Autowired
+    public QueryPlanVerifier(MongoTemplate mongoTemplate,
+                             @Value("${app.startup.async-checks:false}") boolean asyncChecks) {
+        this.mongoTemplate = mongoTemplate;
+        this.asyncChecks = asyncChecks;
+    }
+
+    /**
+     * Runs the check at startup. Failures are logged and never stop the application.
+     *
+     * @param args the application arguments (not used)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (asyncChecks) {
+            Thread.ofVirtual().name("index-check").start(this::check);
+        } else {
+            check();
+        }
+    }
+
+    private void check() {
+        try {
+            List<String> collectionScans = findCollectionScans();
+            if (collectionScans.isEmpty()) {
+                logger.info("Index check passed: all {} repository query shapes use an index", queryShapes().size());
+            } else {
+                collectionScans.forEach(shape -> logger.warn("Index check: COLLSCAN for {}", shape));
+            }
+        } catch (Exception e) {
+            logger.warn("Index check could not be completed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Explains every query shape and returns the ones whose winning plan scans the collection.
+     *
+     * @return descriptions of the query shapes that need a collection scan
+     */
+    public List<String> findCollectionScans() {
+        List<String> collectionScans = new ArrayList<>();
+
+        for (QueryShape shape : queryShapes()) {
+            Document explain = mongoTemplate.getCollection(shape.collection())
+                    .find(shape.filter())
+                    .sort(shape.sort())
+                    .explain(ExplainVerbosity.QUERY_PLANNER);
+
+            Object queryPlanner = explain.get("queryPlanner");
+            if (queryPlanner instanceof Document planner && containsStage(planner.get("winningPlan"), "COLLSCAN")) {
+                collectionScans.add(shape.collection() + "." + shape.repositoryMethod());
+            }
+        }
+        return collectionScans;
+    }
+
+    /**
+     * The filters issued by the repository query methods, with placeholder values.
+     */
+    static List<QueryShape> queryShapes() {
+        Date now = new Date();
+        Document noSort = new Document();
+
+        return List.of(
+                new QueryShape("workouts", "findByUserId", new Document("userId", "?"), noSort),
+                new QueryShape("workouts", "findByWorkoutType", new Document("workoutType", "?"), noSort),
+                new QueryShape("workouts", "findByDateBetween",
+                        new Document("date", new Document("$gt", now).append("$lt", now)), noSort),
+                new QueryShape("workouts", "streamByDateGreaterThanEqual",
+                        new Document("date", new Document("$gte", now)), noSort),
+                new QueryShape("workouts", "findByUserIdAndWorkoutType",
+                        new Document("userId", "?").append("workoutType", "?"), noSort),
+                new QueryShape("workouts", "findPageAfter(date)", new Document(),
+                        new Document("date", 1).append("_id", 1)),
+                new QueryShape("workouts", "findPageAfter(duration)", new Document(),
+                        new Document("duration", 1).append("_id", 1)),
+                new QueryShape("workouts", "findWithExercisesBetween",
+                        new Document("date", new Document("$gte", now).append("$lt", now)),
+                        new Document("date", 1).append("_id", 1)),
+
+                new QueryShape("exercises", "findByName", new Document("name", "?"), noSort),
+                new QueryShape("exercises", "findByMuscleGroupsContaining", new Document("muscleGroups", "?"), noSort),
+                new QueryShape("exercises", "findByEquipment", new Document("equipment", "?"), noSort),
+                new QueryShape("exercises", "findByDifficultyLevel", new Document("difficultyLevel", 1), noSort),
+                new QueryShape("exercises", "findByReps", new Document("reps", 1), noSort),
+                new QueryShape("exercises", "findBySets", new Document("sets", 1), noSort),
+                new QueryShape("exercises", "findByWorkoutId", new Document("workoutId", "?"), noSort),
+                new QueryShape("exercises", "findByRepsAndSets", new Document("reps", 1).append("sets", 1), noSort),
+                new QueryShape("exercises", "findPageAfter(name)", new Document(),
+                        new Document("name", 1).append("_id", 1)),
+                new QueryShape("exercises", "findPageAfter(reps)", new Document(),
+                        new Document("reps", 1).append("_id", 1)),
+
+                new QueryShape("fitness_goals", "findByUserId", new Document("userId", "?"), noSort),
+                new QueryShape("fitness_goals", "findByUserIdAndGoalType",
+                        new Document("userId", "?").append("goalType", "?"), noSort),
+                new QueryShape("fitness_goals", "findByUserIdAndStatus",
+                        new Document("userId", "?").append("status", "?"), noSort),
+                new QueryShape("fitness_goals", "findByTargetDateBefore",
+                        new Document("targetDate", new Document("$lt", now)), noSort),
+                new QueryShape("fitness_goals", "GoalExpirySweeper.sweep",
+                        new Document("status", new Document("$nin", List.of("completed", "abandoned", "expired")))
+                                .append("targetDate", new Document("$lt", now)), noSort),
+
+                new QueryShape("workout_rollups", "getStats",
+                        new Document("userId", "?").append("period", "WEEK"), new Document("periodStart", 1)),
+
+                new QueryShape("users", "findByUsername", new Document("username", "?"), noSort),
+                new QueryShape("users", "findByEmail", new Document("email", "?"), noSort)
+        );
+    }
+
+    /**
+     * Searches an explain plan tree (nested documents and arrays) for a stage name.
+     */
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    /**
+     * A repository query expressed as the filter and sort it sends to MongoDB.
+     */
+    record QueryShape(String collection, String repositoryMethod, Document filter, Document sort) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.oopproject.config;
+
+import com.example.oopproject.exceptions.ErrorDetails;
+import com.example.oopproject.util.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Filter limiting the request rate of every client, so that one misbehaving client cannot
+ * saturate the database through the expensive endpoints.
+ *
+ * <p>It runs in the security filter chain right after {@link JwtAuthenticationFilter}, and
+ * limits authenticated requests by user and the others by remote address. Each client has a
+ * token bucket per route configured in {@link RateLimitProperties}; a request finding its
+ * bucket empty is rejected with {@code 429 Too Many Requests} and a {@code Retry-After}
+ * header telling when the next one will be accepted.</p>
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String DEFAULT_ROUTE = "default";
+
+    private final boolean enabled;
+    private final List<Route> routes;
+    private final Route defaultRoute;
+    private final RateLimiter<BucketKey> rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs the filter from the configured limits and registers its metrics.
+     *
+     * @param properties the rate limit settings
+     * @param objectMapper the mapper writing the error body of rejected requests
+     * @param meterRegistry the registry for the allowed/rejected counters
+     */
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, System::nanoTime);
+
+        List<Route> allRoutes = new ArrayList<>(routes);
+        allRoutes.add(defaultRoute);
+        for (Route route : allRoutes) {
+            FunctionCounter.builder("rate.limit.requests", route.allowed, LongAdder::sum)
+                    .tag("route", route.name)
+                    .tag("result", "allowed")
+                    .description("Requests let through by the rate limiter")
+                    .register(meterRegistry);
+            FunctionCounter.builder("rate.limit.requests", route.rejected, LongAdder::sum)
+                    .tag("route", route.name)
+                    .tag("result", "rejected")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("rate.limit.buckets", rateLimiter, RateLimiter::size)
+                .description("Number of client token buckets currently kept")
+                .register(meterRegistry);
+        FunctionCounter.builder("rate.limit.evictions", rateLimiter, RateLimiter::getEvictionCount)
+                .description("Idle client token buckets dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Constructs the filter without metrics.
+     *
+     * @param properties the rate limit settings
+     * @param objectMapper the mapper writing the error body of rejected requests
+     * @param nanoClock the source of {@link System#nanoTime()}-like times
+     */
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.enabled = properties.isEnabled();
+        this.routes = properties.getRoutes().entrySet().stream()
+                .map(entry -> Route.of(entry.getKey(), entry.getValue()))
+                .toList();
+        this.defaultRoute = new Route(DEFAULT_ROUTE, null, Set.of(), properties.getDefaultLimit());
+        this.rateLimiter = new RateLimiter<>(properties.getStripes(), properties.getIdleTimeout(), nanoClock);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    /**
+     * Takes a token from the client's bucket for the matching route and either passes the
+     * request on or rejects it.
+     *
+     * @param request the incoming HTTP request
+     * @param response the HTTP response
+     * @param filterChain the filter chain to proceed with processing
+     * @throws ServletException if servlet errors occur
+     * @throws IOException if I/O errors occur
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Route route = routeOf(request);
+        if (route.limit.getCapacity() <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(new BucketKey(subjectOf(request), route.name),
+                route.limit.getCapacity(), route.limit.getRefillPerSecond());
+        if (waitNanos == 0) {
+            route.allowed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        route.rejected.increment();
+        reject(request, response, waitNanos);
+    }
+
+    /**
+     * Returns the first configured route matching the request, or the default route.
+     *
+     * @param request the incoming HTTP request
+     * @return the route whose limit applies
+     */
+    Route routeOf(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        for (Route route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    private static String subjectOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                "Too many requests, retry in " + retryAfterSeconds + " s",
+                "uri=" + request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorDetails);
+    }
+
+    /**
+     * A named limit and the requests it applies to, with its decision counts.
+     */
+    static final class Route {
+
+        private final String name;
+        private final PathPattern pattern;
+        private final Set<String> methods;
+        private final RateLimitProperties.Limit limit;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Route(String name, PathPattern pattern, Set<String> methods, RateLimitProperties.Limit limit) {
+            if (limit.getCapacity() > 0 && !(limit.getRefillPerSecond() > 0)) {
+                throw new IllegalArgumentException("Rate limit route '" + name + "' needs a positive refill rate");
+            }
+            this.name = name;
+            this.pattern = pattern;
+            this.methods = methods;
+            this.limit = limit;
+        }
+
+        static Route of(String name, RateLimitProperties.Route properties) {
+            if (properties.getPath() == null) {
+                throw new IllegalArgumentException("Rate limit route '" + name + "' has no path");
+            }
+            Set<String> methods = properties.getMethods().stream()
+                    .map(method -> method.trim().toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            return new Route(name, PathPatternParser.defaultInstance.parse(properties.getPath()), methods, properties);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getAllowedCount() {
+            return allowed.sum();
+        }
+
+        long getRejectedCount() {
+            return rejected.sum();
+        }
+    }
+
+    private record BucketKey(String subject, String route) {
+    }
+}
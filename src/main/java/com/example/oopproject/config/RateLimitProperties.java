@@ -0,0 +1,130 @@
+package com.example.oopproject.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-client request limits ({@code app.rate-limit.*}), enforced by {@link RateLimitFilter}.
+ *
+ * <p>Every client (the authenticated user, otherwise the remote address) gets one token bucket
+ * per route. A request uses the first route whose path and method match it, in the order the
+ * routes are configured, and the default limit when none does. A capacity of 0 leaves the
+ * requests of a route unlimited.</p>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /** Whether requests are rate limited at all. */
+    private boolean enabled = true;
+
+    /** How long the bucket of a client that stopped sending requests is kept once it is full again. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** Number of map stripes the buckets are spread over, rounded up to a power of two. */
+    private int stripes = 16;
+
+    /** Limit of the requests matching no route. */
+    private final Limit defaultLimit = new Limit();
+
+    /** Limits of specific endpoints, by route name. */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Limit getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * A token bucket size and refill rate.
+     */
+    public static class Limit {
+
+        /** Largest burst of requests allowed; 0 disables the limit. */
+        private long capacity = 0;
+
+        /** Requests allowed per second once the burst is used up. */
+        private double refillPerSecond = 10;
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    /**
+     * The limit of the requests to one endpoint.
+     */
+    public static class Route extends Limit {
+
+        /** Path pattern of the endpoint, e.g. {@code /api/workouts/**}. */
+        private String path;
+
+        /** HTTP methods limited by this route; empty for all of them. */
+        private List<String> methods = new ArrayList<>();
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+    }
+}
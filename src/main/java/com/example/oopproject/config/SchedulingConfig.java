@@ -0,0 +1,31 @@
+package com.example.oopproject.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the workout rollup rebuild.
+ * Each job reads its schedule from a property and is off when the cron expression is {@code "-"}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Keeps the beans with {@code @Scheduled} methods eager when {@code spring.main.lazy-initialization}
+     * is on: their jobs are only registered once the bean exists, and nothing else may ever create it.
+     *
+     * @return the filter excluding those beans from lazy initialization
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.oopproject.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,7 +16,7 @@ import java.util.Arrays;
 
 /**
  * Security configuration class that sets up HTTP security, CORS, session management,
- * and JWT authentication filter.
+ * JWT authentication filter and rate limiting.
  *
  * @since 1.0
  */
@@ -24,15 +25,18 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Constructor for SecurityConfig.
      *
      * @param jwtAuthenticationFilter the JWT authentication filter to apply before the
      *                                UsernamePasswordAuthenticationFilter
+     * @param rateLimitFilter the rate limiting filter to apply after the JWT authentication filter
      */
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     /**
@@ -40,7 +44,8 @@ public class SecurityConfig {
      *
      * <p>Disables CSRF, configures CORS, sets session management to stateless,
      * and configures route authorization rules. Adds JWT authentication filter
-     * before the UsernamePasswordAuthenticationFilter.</p>
+     * before the UsernamePasswordAuthenticationFilter, and the rate limiting filter
+     * right after it so that it knows the authenticated user.</p>
      *
      * @param http the HttpSecurity to configure
      * @return the configured SecurityFilterChain
@@ -74,11 +79,27 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
 
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Keeps the rate limiting filter out of the servlet filter chain, where Spring Boot would
+     * register it as it is a bean: it must only run inside the security filter chain, once the
+     * user is authenticated.
+     *
+     * @param rateLimitFilter the rate limiting filter
+     * @return the disabled registration
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     /**
      * Configures the CORS settings for the application.
      *
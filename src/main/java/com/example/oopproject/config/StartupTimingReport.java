@@ -0,0 +1,80 @@
+package com.example.oopproject.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Logs the slowest startup steps once the application is ready, when the startup is recorded
+ * with a {@link BufferingApplicationStartup} (see {@code FitnessApiApplication.main}).
+ *
+ * <p>The steps are those of Spring's startup tracking, e.g. {@code spring.beans.instantiate}
+ * for each bean, {@code spring.context.refresh} for the whole context. Nested steps are
+ * included in their parent's duration. The full timeline is served at
+ * {@code /actuator/startup}.</p>
+ */
+@Component
+public class StartupTimingReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingReport.class);
+
+    private final int top;
+
+    /**
+     * Constructs the report.
+     *
+     * @param top the number of slowest steps to log, 0 to log none
+     */
+    @Autowired
+    public StartupTimingReport(@Value("${app.startup.report.top:10}") int top) {
+        this.top = top;
+    }
+
+    /**
+     * Logs the report when the application is ready.
+     *
+     * @param event the ready event, giving access to the application's startup recorder
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (top > 0 && event.getSpringApplication().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            logger.info("Startup phases (slowest {}, after {}):\n{}", top, event.getTimeTaken(), format(startup.getBufferedTimeline(), top));
+        }
+    }
+
+    /**
+     * Formats the slowest steps of a timeline, one per line with their duration and tags.
+     *
+     * @param timeline the recorded timeline
+     * @param top the number of steps to include
+     * @return the report lines
+     */
+    static String format(StartupTimeline timeline, int top) {
+        return timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(top)
+                .map(event -> String.format("%8d ms  %s%s", event.getDuration().toMillis(),
+                        event.getStartupStep().getName(), tags(event.getStartupStep())))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String tags(StartupStep step) {
+        List<String> tags = StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .toList();
+        return tags.isEmpty() ? "" : " " + tags;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.oopproject.config;
+
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Startup migration giving documents written before the entities had a {@code @Version}
+ * the initial version 0.
+ *
+ * <p>Spring Data treats an entity whose version is null as new, so saving such a document
+ * after reading it would try to insert it again and fail on the duplicate ID. The migration
+ * therefore runs as a {@link SmartLifecycle} in an early phase, before the web server (which
+ * starts in one of the last phases) accepts any request. Once every document has a version
+ * the update matches nothing; failures are logged and never stop the application.</p>
+ *
+ * <p>Disable with {@code app.version-backfill.enabled=false}. The fast-startup profile does,
+ * so a database written before versioning must have been migrated by a regular instance
+ * before fast-startup instances take writes.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.version-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class VersionBackfill implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionBackfill.class);
+
+    /**
+     * Phase of the migration, far before that of the web server ({@code SmartLifecycle.DEFAULT_PHASE - 2048}).
+     */
+    static final int PHASE = 0;
+
+    static final List<Class<?>> VERSIONED_ENTITIES = List.of(Workout.class, Exercise.class, FitnessGoal.class, User.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs the migration.
+     *
+     * @param mongoTemplate the template used to update the collections
+     */
+    @Autowired
+    public VersionBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    private volatile boolean running;
+
+    /**
+     * Runs the migration when the context starts.
+     */
+    @Override
+    public void start() {
+        backfill();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Sets the initial version on every document of the versioned collections that has none.
+     */
+    void backfill() {
+        for (Class<?> entityType : VERSIONED_ENTITIES) {
+            try {
+                long updated = mongoTemplate.updateMulti(new Query(where("version").exists(false)),
+                        new Update().set("version", 0L), entityType).getModifiedCount();
+                if (updated > 0) {
+                    logger.info("Set the initial version on {} {} document(s)", updated, entityType.getSimpleName());
+                }
+            } catch (Exception e) {
+                logger.warn("Could not set the initial version on {} documents: {}", entityType.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
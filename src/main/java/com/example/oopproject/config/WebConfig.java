@@ -1,9 +1,11 @@
 package com.example.oopproject.config;
 
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -21,4 +23,18 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH")
                 .allowCredentials(true);
     }
+
+    /**
+     * Maps the controllers with {@link ProfileRequestMappingHandlerMapping}, leaving out the
+     * handler methods whose {@code @Profile} is not active.
+     */
+    @Bean
+    public WebMvcRegistrations profileWebMvcRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+                return new ProfileRequestMappingHandlerMapping();
+            }
+        };
+    }
 }
@@ -3,11 +3,19 @@ package com.example.oopproject.controllers;
 import com.example.oopproject.models.Exercise;
 import com.example.oopproject.models.Workout;
 import com.example.oopproject.services.ExerciseService;
+import com.example.oopproject.services.GoalExpirySweeper;
+import com.example.oopproject.services.WorkoutRollupService;
 import com.example.oopproject.services.WorkoutService;
+import com.example.oopproject.util.NdjsonExporter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for admin-related operations on workouts and exercises.
@@ -23,6 +31,16 @@ public class AdminController {
     @Autowired
     private ExerciseService exerciseService;
 
+    // not available with the memory profile, whose endpoints using them are not mapped
+    @Autowired(required = false)
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired(required = false)
+    private WorkoutRollupService workoutRollupService;
+
+    @Autowired(required = false)
+    private GoalExpirySweeper goalExpirySweeper;
+
     /**
      * Creates a new workout.
      * @param workout the workout data to create
@@ -62,6 +80,17 @@ public class AdminController {
         return workoutService.getAllWorkouts();
     }
 
+    /**
+     * Streams all workouts as newline-delimited JSON (Accept: application/x-ndjson).
+     * @param response the HTTP response the workouts are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping(value = "/workouts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Profile("!memory")
+    public void streamAllWorkouts(HttpServletResponse response) throws IOException {
+        ndjsonExporter.export(Workout.class, response);
+    }
+
 
     /**
      * Creates a new exercise.
@@ -101,4 +130,36 @@ public class AdminController {
     public List<Exercise> getAllExercises() {
         return exerciseService.getAllExercises();
     }
+
+    /**
+     * Streams all exercises as newline-delimited JSON (Accept: application/x-ndjson).
+     * @param response the HTTP response the exercises are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping(value = "/exercises", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Profile("!memory")
+    public void streamAllExercises(HttpServletResponse response) throws IOException {
+        ndjsonExporter.export(Exercise.class, response);
+    }
+
+    /**
+     * Recomputes the per-user workout rollups from the workouts collection.
+     * @return the number of rollups written
+     */
+    @PostMapping("/rollups/rebuild")
+    @Profile("!memory")
+    public Map<String, Integer> rebuildRollups() {
+        return Map.of("rollups", workoutRollupService.rebuild());
+    }
+
+    /**
+     * Marks every fitness goal past its target date that is still open as expired,
+     * without waiting for the scheduled sweep.
+     * @return the number of goals expired
+     */
+    @PostMapping("/goals/expire")
+    @Profile("!memory")
+    public Map<String, Long> expireGoals() {
+        return Map.of("expired", goalExpirySweeper.sweep());
+    }
 }
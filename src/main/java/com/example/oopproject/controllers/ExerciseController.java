@@ -1,19 +1,34 @@
 package com.example.oopproject.controllers;
 
+import com.example.oopproject.dto.BatchResult;
+import com.example.oopproject.dto.CursorPage;
 import com.example.oopproject.models.Exercise;
 import com.example.oopproject.repositories.ExerciseRepository;
+import com.example.oopproject.services.BatchInsertService;
+import com.example.oopproject.services.ExerciseService;
+import com.example.oopproject.services.MergePatchService;
+import com.example.oopproject.util.ETags;
+import com.example.oopproject.util.NdjsonExporter;
+import com.example.oopproject.util.RequestCoalescer;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing Exercise entities.
@@ -26,6 +41,23 @@ public class ExerciseController {
     @Autowired
     private ExerciseRepository exerciseRepository;
 
+    // not available with the memory profile, whose endpoints using them are not mapped
+    @Autowired(required = false)
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired(required = false)
+    private BatchInsertService batchInsertService;
+
+    @Autowired(required = false)
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private ExerciseService exerciseService;
+
+    // filters collapsed by the service must not outlive the writes made here
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
     /**
      * Create a new exercise.
      *
@@ -34,7 +66,23 @@ public class ExerciseController {
      */
     @PostMapping
     public Exercise createExercise(@RequestBody Exercise exercise) {
-        return exerciseRepository.save(exercise);
+        Exercise saved = exerciseRepository.save(exercise);
+        requestCoalescer.invalidate(ExerciseService.QUERIES);
+        return saved;
+    }
+
+    /**
+     * Create many exercises in one request.
+     *
+     * @param exercises Exercise objects to create
+     * @return Per-item outcome of the batch
+     */
+    @PostMapping("/batch")
+    @Profile("!memory")
+    public BatchResult createExercises(@RequestBody List<Exercise> exercises) {
+        BatchResult result = batchInsertService.insertAll(exercises, Exercise.class, Exercise::getId, Exercise::setId);
+        requestCoalescer.invalidate(ExerciseService.QUERIES);
+        return result;
     }
 
     /**
@@ -47,6 +95,18 @@ public class ExerciseController {
         return exerciseRepository.findAll();
     }
 
+    /**
+     * Stream all exercises as newline-delimited JSON (Accept: application/x-ndjson).
+     *
+     * @param response HTTP response the exercises are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Profile("!memory")
+    public void streamAllExercises(HttpServletResponse response) throws IOException {
+        ndjsonExporter.export(Exercise.class, response);
+    }
+
     /**
      * Retrieve paginated and sorted exercises.
      *
@@ -69,55 +129,104 @@ public class ExerciseController {
     }
 
     /**
-     * Retrieve an exercise by its ID.
+     * Retrieve exercises page by page using an opaque continuation cursor.
+     * Pass the returned nextCursor back as the cursor parameter to get the following page.
+     *
+     * @param cursor    Cursor returned with the previous page, omitted for the first page
+     * @param size      Page size
+     * @param sortBy    Field to sort by ("name" or "reps")
+     * @param direction Sort direction ("asc" or "desc")
+     * @return Exercises of the page and the cursor for the next page
+     */
+    @GetMapping("/scroll")
+    public CursorPage<Exercise> scrollExercises(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction
+    ) {
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return exerciseRepository.findPageAfter(cursor, size, sortBy, sortDirection);
+    }
+
+    /**
+     * Retrieve an exercise by its ID, with its version as ETag.
      *
      * @param id Exercise ID
-     * @return ResponseEntity containing Exercise if found, or 404 Not Found
+     * @return ResponseEntity containing Exercise if found, 304 Not Modified if If-None-Match
+     *         holds its current ETag, or 404 Not Found
      */
     @GetMapping("/{id}")
     public ResponseEntity<Exercise> getExerciseById(@PathVariable String id) {
         Optional<Exercise> exercise = exerciseRepository.findById(id);
-        return exercise.map(ResponseEntity::ok)
+        return exercise.map(found -> ETags.ok(found, found.getVersion()))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * Update an existing exercise by ID, or create it if not present.
      *
+     * With If-Match, only the exercise at that ETag is updated and nothing is created.
+     *
      * @param id              Exercise ID
      * @param updatedExercise  Exercise object with updated data
-     * @return Updated or newly created Exercise
+     * @param ifMatch         optional ETag the update is conditional on
+     * @return Updated or newly created Exercise, or 412 Precondition Failed
      */
     @PutMapping("/{id}")
-    public Exercise updateExercise(@PathVariable String id, @RequestBody Exercise updatedExercise) {
-        return exerciseRepository.findById(id)
-                .map(exercise -> {
-                    exercise.setName(updatedExercise.getName());
-                    exercise.setReps(updatedExercise.getReps());
-                    exercise.setSets(updatedExercise.getSets());
-                    exercise.setWorkoutId(updatedExercise.getWorkoutId());
-                    // Added from first code: weight, equipment, muscleGroups
-                    exercise.setWeight(updatedExercise.getWeight());
-                    exercise.setEquipment(updatedExercise.getEquipment());
-                    exercise.setMuscleGroups(updatedExercise.getMuscleGroups());
-                    return exerciseRepository.save(exercise);
-                })
-                .orElseGet(() -> {
-                    updatedExercise.setId(id);
-                    return exerciseRepository.save(updatedExercise);
-                });
+    public ResponseEntity<Exercise> updateExercise(@PathVariable String id, @RequestBody Exercise updatedExercise,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Exercise saved = exerciseService.updateExercise(id, updatedExercise, ETags.expectedVersion(ifMatch));
+        return ETags.ok(saved, saved.getVersion());
+    }
+
+    /**
+     * Partially update an exercise with a JSON merge patch, applied atomically.
+     *
+     * Members set to null are removed. With If-Match, only the exercise at that ETag is patched.
+     *
+     * @param id      Exercise ID
+     * @param patch   merge patch with the fields to change
+     * @param ifMatch optional ETag the patch is conditional on
+     * @return Patched Exercise, NOT_FOUND if not present, or PRECONDITION_FAILED if it has another version
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchService.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Profile("!memory")
+    public ResponseEntity<Exercise> patchExercise(@PathVariable String id, @RequestBody JsonNode patch,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Exercise patched = mergePatchService.apply(Exercise.class, id, patch, ETags.expectedVersion(ifMatch), Set.of())
+                .current();
+        requestCoalescer.invalidate(ExerciseService.QUERIES);
+        return ETags.ok(patched, patched.getVersion());
     }
 
     /**
      * Delete an exercise by its ID.
      *
+     * With If-Match, only the exercise at that ETag is deleted.
+     *
      * @param id Exercise ID
-     * @return ResponseEntity with status NO_CONTENT if deleted, or NOT_FOUND if not present
+     * @param ifMatch optional ETag the delete is conditional on
+     * @return ResponseEntity with status NO_CONTENT if deleted, NOT_FOUND if not present,
+     *         or PRECONDITION_FAILED if it has another version
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteExercise(@PathVariable String id) {
+    public ResponseEntity<Void> deleteExercise(@PathVariable String id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        if (expectedVersion != null) {
+            return exerciseRepository.findById(id)
+                    .map(exercise -> {
+                        ETags.requireVersion(expectedVersion, exercise.getVersion(), "Exercise " + id);
+                        exerciseRepository.delete(exercise);
+                        requestCoalescer.invalidate(ExerciseService.QUERIES);
+                        return new ResponseEntity<Void>(HttpStatus.NO_CONTENT);
+                    })
+                    .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        }
         if (exerciseRepository.existsById(id)) {
             exerciseRepository.deleteById(id);
+            requestCoalescer.invalidate(ExerciseService.QUERIES);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -140,15 +249,45 @@ public class ExerciseController {
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String workoutId
     ) {
-        List<Exercise> allExercises = exerciseRepository.findAll();
-        List<Exercise> filtered = allExercises.stream()
-                .filter(e -> (reps == null || e.getReps() == reps))
-                .filter(e -> (sets == null || e.getSets() == sets))
-                .filter(e -> (!StringUtils.hasText(name) || e.getName().toLowerCase().contains(name.toLowerCase())))
-                .filter(e -> (!StringUtils.hasText(workoutId) || e.getWorkoutId().equals(workoutId)))
-                .toList();
+        List<Exercise> filtered = exerciseService.getExercisesByFilter(
+                reps, sets, textOrNull(name), textOrNull(workoutId));
 
         return new ResponseEntity<>(filtered, HttpStatus.OK);
     }
-}
 
+    /**
+     * Retrieve a page of exercises filtered by optional criteria: reps, sets, name, and workoutId.
+     *
+     * @param reps      Optional filter for number of repetitions
+     * @param sets      Optional filter for number of sets
+     * @param name      Optional filter for exercise name (partial, case-insensitive)
+     * @param workoutId Optional filter for associated workout ID
+     * @param page      Page number (0-based)
+     * @param size      Page size
+     * @param sortBy    Field to sort by
+     * @param direction Sort direction ("asc" or "desc")
+     * @return Page of filtered Exercise objects
+     */
+    @GetMapping("/filter/paged")
+    public Page<Exercise> getExercisesByFilterPaged(
+            @RequestParam(required = false) Integer reps,
+            @RequestParam(required = false) Integer sets,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String workoutId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction
+    ) {
+        Sort sort = direction.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+        return exerciseRepository.findByFilter(reps, sets, textOrNull(name), textOrNull(workoutId), pageable);
+    }
+
+    /**
+     * Blank request parameters mean no filtering on that field.
+     */
+    private static String textOrNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+}
@@ -2,15 +2,25 @@ package com.example.oopproject.controllers;
 
 import com.example.oopproject.models.FitnessGoal;
 import com.example.oopproject.services.FitnessGoalService;
+import com.example.oopproject.services.MergePatchService;
+import com.example.oopproject.util.ETags;
+import com.example.oopproject.util.NdjsonExporter;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -22,10 +32,13 @@ import java.util.List;
 public class FitnessGoalController {
 
     private final FitnessGoalService fitnessGoalService;
+    // not available with the memory profile, whose export endpoint is not mapped
+    private final ObjectProvider<NdjsonExporter> ndjsonExporter;
 
     @Autowired
-    public FitnessGoalController(FitnessGoalService fitnessGoalService) {
+    public FitnessGoalController(FitnessGoalService fitnessGoalService, ObjectProvider<NdjsonExporter> ndjsonExporter) {
         this.fitnessGoalService = fitnessGoalService;
+        this.ndjsonExporter = ndjsonExporter;
     }
 
     /**
@@ -39,6 +52,18 @@ public class FitnessGoalController {
         return new ResponseEntity<>(fitnessGoals, HttpStatus.OK);
     }
 
+    /**
+     * Stream all fitness goals as newline-delimited JSON (Accept: application/x-ndjson).
+     *
+     * @param response HTTP response the fitness goals are written to
+     * @throws IOException if the response cannot be written
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Profile("!memory")
+    public void streamAllFitnessGoals(HttpServletResponse response) throws IOException {
+        ndjsonExporter.getObject().export(FitnessGoal.class, response);
+    }
+
     /**
      * Retrieve paginated and sorted fitness goals.
      *
@@ -67,7 +92,27 @@ public class FitnessGoalController {
     @GetMapping("/{id}")
     public ResponseEntity<FitnessGoal> getFitnessGoalById(@PathVariable String id) {
         FitnessGoal fitnessGoal = fitnessGoalService.getFitnessGoalById(id);
-        return new ResponseEntity<>(fitnessGoal, HttpStatus.OK);
+        return ETags.ok(fitnessGoal, fitnessGoal.getVersion());
+    }
+
+    /**
+     * Partially update a fitness goal with a JSON merge patch, applied atomically.
+     * Members set to null are removed. With If-Match, only the goal at that ETag is patched.
+     *
+     * @param id      FitnessGoal ID
+     * @param patch   merge patch with the fields to change
+     * @param ifMatch optional ETag the patch is conditional on
+     * @return patched FitnessGoal object, or 412 Precondition Failed
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchService.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Profile("!memory")
+    public ResponseEntity<FitnessGoal> patchFitnessGoal(
+            @PathVariable String id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        FitnessGoal fitnessGoal = fitnessGoalService.patchFitnessGoal(id, patch, ETags.expectedVersion(ifMatch));
+        return ETags.ok(fitnessGoal, fitnessGoal.getVersion());
     }
 
     /**
@@ -0,0 +1,91 @@
+package com.example.oopproject.controllers;
+
+import com.example.oopproject.dto.LeaderboardPage;
+import com.example.oopproject.services.LeaderboardService;
+import com.example.oopproject.services.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Date;
+
+/**
+ * REST controller for the weekly and monthly leaderboards of users ranked by total calories
+ * burned or total workout duration. The leaderboards are kept in memory by {@link LeaderboardService}.
+ */
+@RestController
+@RequestMapping("/api/leaderboards")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+    private final UserService userService;
+
+    @Autowired
+    public LeaderboardController(LeaderboardService leaderboardService, UserService userService) {
+        this.leaderboardService = leaderboardService;
+        this.userService = userService;
+    }
+
+    /**
+     * Get the top users of a period, or a later range of ranks.
+     *
+     * @param period "week" or "month" (default "week")
+     * @param metric "calories" or "duration" (default "calories")
+     * @param date optional day of the period (yyyy-MM-dd), the current period if omitted
+     * @param offset number of users skipped from the top (default 0)
+     * @param limit maximum number of entries, at most 100 (default 10)
+     * @return the leaderboard entries, best first
+     */
+    @GetMapping
+    public ResponseEntity<LeaderboardPage> getLeaderboard(
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(defaultValue = "calories") String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return new ResponseEntity<>(leaderboardService.getLeaderboard(period, metric, date, offset, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Get a user's rank in a period (404 if the user has no workouts in it).
+     *
+     * @param userId the user ID
+     * @param period "week" or "month" (default "week")
+     * @param metric "calories" or "duration" (default "calories")
+     * @param date optional day of the period (yyyy-MM-dd), the current period if omitted
+     * @return the user's entry
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<LeaderboardPage> getUserRank(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(defaultValue = "calories") String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date) {
+
+        return new ResponseEntity<>(leaderboardService.getRank(userId, period, metric, date), HttpStatus.OK);
+    }
+
+    /**
+     * Get the authenticated user's rank in a period (404 if they have no workouts in it).
+     *
+     * @param principal the authenticated user
+     * @param period "week" or "month" (default "week")
+     * @param metric "calories" or "duration" (default "calories")
+     * @param date optional day of the period (yyyy-MM-dd), the current period if omitted
+     * @return the user's entry
+     */
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardPage> getMyRank(
+            Principal principal,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(defaultValue = "calories") String metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date) {
+
+        String userId = userService.getUserByUsername(principal.getName()).getId();
+        return new ResponseEntity<>(leaderboardService.getRank(userId, period, metric, date), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.oopproject.controllers;
+
+import com.example.oopproject.exceptions.ResourceNotFoundException;
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.repositories.reactive.ReactiveExerciseRepository;
+import com.example.oopproject.repositories.reactive.ReactiveFitnessGoalRepository;
+import com.example.oopproject.repositories.reactive.ReactiveUserRepository;
+import com.example.oopproject.repositories.reactive.ReactiveWorkoutRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only endpoints served through the reactive MongoDB repositories, available with the
+ * "reactive" profile under {@code /api/reactive}.
+ *
+ * <p>They mirror the most used GET endpoints of the blocking controllers. The request thread
+ * is released while MongoDB is queried and only taken back to write the response, so the
+ * number of requests waiting on the database is not bounded by the servlet thread pool.</p>
+ *
+ * <p>Collections are returned as a JSON array by default. Spring MVC writes a {@link Flux} as a
+ * JSON array only once it has collected every element into a list, so a JSON collection is
+ * held in memory in full and its first byte is sent after its last document was read; only
+ * the request thread is saved. With {@code Accept: application/x-ndjson} each document is
+ * written and flushed as soon as it arrives, and the next one is only requested from the
+ * driver once the previous one was written, which carries the client's read speed back to
+ * the MongoDB cursor. Large collections should therefore be read as NDJSON.</p>
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactive")
+public class ReactiveReadController {
+
+    @Autowired
+    private ReactiveWorkoutRepository workoutRepository;
+
+    @Autowired
+    private ReactiveExerciseRepository exerciseRepository;
+
+    @Autowired
+    private ReactiveFitnessGoalRepository fitnessGoalRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    /**
+     * Get all workouts.
+     *
+     * @return All Workout objects, as a JSON array or NDJSON stream
+     */
+    @GetMapping(value = "/workouts", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Workout> getAllWorkouts() {
+        return workoutRepository.findAll();
+    }
+
+    /**
+     * Get a workout by its ID.
+     *
+     * @param id Workout ID
+     * @return Workout object, or 404 Not Found
+     */
+    @GetMapping("/workouts/{id}")
+    public Mono<ResponseEntity<Workout>> getWorkoutById(@PathVariable String id) {
+        return workoutRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Search workouts by workout type (and optional userId).
+     *
+     * @param workoutType Type of workout
+     * @param userId      Optional user ID
+     * @return Matching Workout objects, as a JSON array or NDJSON stream
+     */
+    @GetMapping(value = "/workouts/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Workout> searchWorkouts(@RequestParam String workoutType,
+                                        @RequestParam(required = false) String userId) {
+        return (userId != null && !userId.isEmpty())
+                ? workoutRepository.findByUserIdAndWorkoutType(userId, workoutType)
+                : workoutRepository.findByWorkoutType(workoutType);
+    }
+
+    /**
+     * Get all workouts of a user.
+     *
+     * @param userId User ID
+     * @return Workout objects of the user, as a JSON array or NDJSON stream
+     */
+    @GetMapping(value = "/workouts/user/{userId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Workout> getWorkoutsByUserId(@PathVariable String userId) {
+        return workoutRepository.findByUserId(userId);
+    }
+
+    /**
+     * Get all exercises.
+     *
+     * @return All Exercise objects, as a JSON array or NDJSON stream
+     */
+    @GetMapping(value = "/exercises", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Exercise> getAllExercises() {
+        return exerciseRepository.findAll();
+    }
+
+    /**
+     * Get an exercise by its ID.
+     *
+     * @param id Exercise ID
+     * @return Exercise object, or 404 Not Found
+     */
+    @GetMapping("/exercises/{id}")
+    public Mono<ResponseEntity<Exercise>> getExerciseById(@PathVariable String id) {
+        return exerciseRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get all exercises of a workout.
+     *
+     * @param workoutId Workout ID
+     * @return Exercise objects of the workout, as a JSON array or NDJSON stream
+     */
+    @GetMapping(value = "/exercises/workout/{workoutId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Exercise> getExercisesByWorkoutId(@PathVariable String workoutId) {
+        return exerciseRepository.findByWorkoutId(workoutId);
+    }
+
+    /**
+     * Get all fitness goals.
+     *
+     * @return All FitnessGoal objects, as a JSON array or NDJSON stream
+     */
+    @GetMapping(value = "/fitness-goals", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<FitnessGoal> getAllFitnessGoals() {
+        return fitnessGoalRepository.findAll();
+    }
+
+    /**
+     * Get a fitness goal by its ID.
+     *
+     * @param id FitnessGoal ID
+     * @return FitnessGoal object, or 404 Not Found
+     */
+    @GetMapping("/fitness-goals/{id}")
+    public Mono<FitnessGoal> getFitnessGoalById(@PathVariable String id) {
+        return fitnessGoalRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Fitness goal not found with id: " + id)));
+    }
+
+    /**
+     * Get all fitness goals of a user.
+     *
+     * @param userId User ID
+     * @return FitnessGoal objects of the user, as a JSON array or NDJSON stream
+     */
+    @GetMapping(value = "/fitness-goals/user/{userId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<FitnessGoal> getFitnessGoalsByUserId(@PathVariable String userId) {
+        return fitnessGoalRepository.findByUserId(userId);
+    }
+
+    /**
+     * Get a user by ID.
+     *
+     * @param id User ID
+     * @return User object, or 404 Not Found
+     */
+    @GetMapping("/users/{id}")
+    public Mono<User> getUserById(@PathVariable String id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with id: " + id)));
+    }
+
+    /**
+     * Get a user by username.
+     *
+     * @param username Username
+     * @return User object, or 404 Not Found
+     */
+    @GetMapping("/users/username/{username}")
+    public Mono<User> getUserByUsername(@PathVariable String username) {
+        return userRepository.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with username: " + username)));
+    }
+}
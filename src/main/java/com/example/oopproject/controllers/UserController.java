@@ -1,16 +1,32 @@
 package com.example.oopproject.controllers;
 
+import com.example.oopproject.dto.UserDashboard;
 import com.example.oopproject.models.User;
+import com.example.oopproject.models.WorkoutRollup;
+import com.example.oopproject.services.DashboardService;
+import com.example.oopproject.services.MergePatchService;
 import com.example.oopproject.services.UserService;
+import com.example.oopproject.services.WorkoutRollupService;
+import com.example.oopproject.util.ETags;
+import com.example.oopproject.util.NdjsonExporter;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -21,10 +37,18 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    // not available with the memory profile, whose endpoints using them are not mapped
+    private final ObjectProvider<NdjsonExporter> ndjsonExporter;
+    private final ObjectProvider<WorkoutRollupService> workoutRollupService;
+    private final DashboardService dashboardService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectProvider<NdjsonExporter> ndjsonExporter,
+                          ObjectProvider<WorkoutRollupService> workoutRollupService, DashboardService dashboardService) {
         this.userService = userService;
+        this.ndjsonExporter = ndjsonExporter;
+        this.workoutRollupService = workoutRollupService;
+        this.dashboardService = dashboardService;
     }
 
     /**
@@ -35,6 +59,16 @@ public class UserController {
         List<User> users = userService.getAllUsers();
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
+
+    /**
+     * Stream all users as newline-delimited JSON (Accept: application/x-ndjson).
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Profile("!memory")
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        ndjsonExporter.getObject().export(User.class, response);
+    }
+
     /**
      * Get paginated list of users with sorting.
      * @param page page number (default 0)
@@ -53,12 +87,45 @@ public class UserController {
     }
 
     /**
-     * Get user by ID.
+     * Get user by ID, with its version as ETag (304 when If-None-Match holds it).
      */
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable String id) {
         User user = userService.getUserById(id);
-        return new ResponseEntity<>(user, HttpStatus.OK);
+        return ETags.ok(user, user.getVersion());
+    }
+
+    /**
+     * Get a user's workout totals per day, week or month, read from the pre-aggregated rollups.
+     * @param period "day", "week" or "month" (default "week")
+     * @param from optional first period start to include (yyyy-MM-dd)
+     * @param to optional last period start to include (yyyy-MM-dd)
+     */
+    @GetMapping("/{id}/stats")
+    @Profile("!memory")
+    public ResponseEntity<List<WorkoutRollup>> getUserStats(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to) {
+
+        userService.getUserById(id);
+        return new ResponseEntity<>(workoutRollupService.getObject().getStats(id, period, from, to), HttpStatus.OK);
+    }
+
+    /**
+     * Get the user, their goals, their workouts and optionally one workout's exercises in one call.
+     * The parts are loaded in parallel; parts that fail or time out are listed in "incomplete".
+     * @param workoutType optional workout type to narrow the workouts
+     * @param workoutId optional workout whose exercises are included
+     */
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<UserDashboard> getUserDashboard(
+            @PathVariable String id,
+            @RequestParam(required = false) String workoutType,
+            @RequestParam(required = false) String workoutId) {
+
+        return new ResponseEntity<>(dashboardService.getDashboard(id, workoutType, workoutId), HttpStatus.OK);
     }
 
     /**
@@ -67,7 +134,7 @@ public class UserController {
     @GetMapping("/username/{username}")
     public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
         User user = userService.getUserByUsername(username);
-        return new ResponseEntity<>(user, HttpStatus.OK);
+        return ETags.ok(user, user.getVersion());
     }
 
     /**
@@ -76,7 +143,7 @@ public class UserController {
     @GetMapping("/email/{email}")
     public ResponseEntity<User> getUserByEmail(@PathVariable String email) {
         User user = userService.getUserByEmail(email);
-        return new ResponseEntity<>(user, HttpStatus.OK);
+        return ETags.ok(user, user.getVersion());
     }
 
     /**
@@ -89,23 +156,42 @@ public class UserController {
     }
 
     /**
-     * Update existing user by ID.
+     * Update existing user by ID. With If-Match, only the user at that ETag is updated (412 otherwise).
      */
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(
             @PathVariable String id,
-            @Valid @RequestBody User user) {
+            @Valid @RequestBody User user,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        User updatedUser = userService.updateUser(id, user, ETags.expectedVersion(ifMatch));
+        return ETags.ok(updatedUser, updatedUser.getVersion());
+    }
+
+    /**
+     * Partially update a user with a JSON merge patch, applied atomically.
+     * Members set to null are removed. With If-Match, only the user at that ETag is patched (412 otherwise).
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchService.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Profile("!memory")
+    public ResponseEntity<User> patchUser(
+            @PathVariable String id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        User updatedUser = userService.updateUser(id, user);
-        return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        User patchedUser = userService.patchUser(id, patch, ETags.expectedVersion(ifMatch));
+        return ETags.ok(patchedUser, patchedUser.getVersion());
     }
 
     /**
-     * Delete user by ID.
+     * Delete user by ID. With If-Match, only the user at that ETag is deleted (412 otherwise).
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable String id) {
-        userService.deleteUser(id);
+    public ResponseEntity<Void> deleteUser(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        userService.deleteUser(id, ETags.expectedVersion(ifMatch));
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 }
@@ -1,14 +1,29 @@
 package com.example.oopproject.controllers;
 
+import com.example.oopproject.dto.BatchResult;
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.exceptions.BadRequestException;
 import com.example.oopproject.models.Workout;
 import com.example.oopproject.repositories.WorkoutRepository;
+import com.example.oopproject.services.MergePatchService;
+import com.example.oopproject.services.WorkoutService;
+import com.example.oopproject.util.ETags;
+import com.example.oopproject.util.NdjsonExporter;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
 
@@ -22,13 +37,29 @@ public class WorkoutController {
     @Autowired
     private WorkoutRepository workoutRepository;
 
+    // not available with the memory profile, whose endpoint using it is not mapped
+    @Autowired(required = false)
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private WorkoutService workoutService;
+
     /**
      * Create a new workout.
      */
     @PostMapping
     public ResponseEntity<Workout> createWorkout(@RequestBody Workout workout) {
-        Workout savedWorkout = workoutRepository.save(workout);
-        return new ResponseEntity<>(savedWorkout, HttpStatus.CREATED);
+        return new ResponseEntity<>(workoutService.createWorkout(workout), HttpStatus.CREATED);
+    }
+
+    /**
+     * Create many workouts in one request. Invalid or rejected items are reported
+     * individually and do not stop the rest of the batch.
+     */
+    @PostMapping("/batch")
+    @Profile("!memory")
+    public ResponseEntity<BatchResult> createWorkouts(@RequestBody List<Workout> workouts) {
+        return ResponseEntity.ok(workoutService.createWorkouts(workouts));
     }
 
     /**
@@ -40,44 +71,88 @@ public class WorkoutController {
     }
 
     /**
-     * Get a workout by its ID.
+     * Stream all workouts as newline-delimited JSON (Accept: application/x-ndjson).
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Profile("!memory")
+    public void streamAllWorkouts(HttpServletResponse response) throws IOException {
+        ndjsonExporter.export(Workout.class, response);
+    }
+
+    /**
+     * Get a workout by its ID. Answers 304 without a body when If-None-Match holds its current ETag.
      */
     @GetMapping("/{id}")
     public ResponseEntity<Workout> getWorkoutById(@PathVariable String id) {
         return workoutRepository.findById(id)
+                .map(workout -> ETags.ok(workout, workout.getVersion()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Get a workout together with its exercises from the exercises collection, in one round trip.
+     */
+    @GetMapping("/{id}/full")
+    public ResponseEntity<Workout> getFullWorkout(@PathVariable String id) {
+        return workoutRepository.findWithExercises(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     /**
-     * Update a workout by ID.
+     * Get the workouts between two dates (both inclusive, yyyy-MM-dd), optionally of one user,
+     * each together with its exercises from the exercises collection, in one round trip.
+     * The workouts are returned by date, page by page: pass the returned nextCursor back as
+     * the cursor parameter to get the following page.
+     */
+    @GetMapping("/full")
+    public ResponseEntity<CursorPage<Workout>> getFullWorkoutsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+
+        if (endDate.before(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        Date endExclusive = Date.from(endDate.toInstant().plus(1, ChronoUnit.DAYS));
+        return ResponseEntity.ok(workoutRepository.findWithExercisesBetween(startDate, endExclusive, userId, cursor, size));
+    }
+
+    /**
+     * Update a workout by ID. With If-Match, only the workout at that ETag is updated (412 otherwise).
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Workout> updateWorkout(@PathVariable String id, @RequestBody Workout updatedWorkout) {
-        return workoutRepository.findById(id)
-                .map(existingWorkout -> {
-                    existingWorkout.setName(updatedWorkout.getName());
-                    existingWorkout.setDate(updatedWorkout.getDate());
-                    existingWorkout.setDuration(updatedWorkout.getDuration());
-                    existingWorkout.setCaloriesBurned(updatedWorkout.getCaloriesBurned());
-                    existingWorkout.setWorkoutType(updatedWorkout.getWorkoutType());
-                    Workout saved = workoutRepository.save(existingWorkout);
-                    return ResponseEntity.ok(saved);
-                })
-                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    public ResponseEntity<Workout> updateWorkout(@PathVariable String id, @RequestBody Workout updatedWorkout,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Workout saved = workoutService.updateWorkout(id, updatedWorkout, ETags.expectedVersion(ifMatch));
+        return saved != null
+                ? ETags.ok(saved, saved.getVersion())
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
     /**
-     * Delete a workout by ID.
+     * Partially update a workout with a JSON merge patch, applied atomically.
+     * Members set to null are removed. With If-Match, only the workout at that ETag is patched (412 otherwise).
+     */
+    @PatchMapping(value = "/{id}", consumes = {MergePatchService.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Profile("!memory")
+    public ResponseEntity<Workout> patchWorkout(@PathVariable String id, @RequestBody JsonNode patch,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Workout patched = workoutService.patchWorkout(id, patch, ETags.expectedVersion(ifMatch));
+        return ETags.ok(patched, patched.getVersion());
+    }
+
+    /**
+     * Delete a workout by ID. With If-Match, only the workout at that ETag is deleted (412 otherwise).
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteWorkout(@PathVariable String id) {
-        if (workoutRepository.existsById(id)) {
-            workoutRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<Void> deleteWorkout(@PathVariable String id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return workoutService.deleteWorkout(id, ETags.expectedVersion(ifMatch))
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     /**
@@ -96,6 +171,21 @@ public class WorkoutController {
         return ResponseEntity.ok(workoutPage.getContent());
     }
 
+    /**
+     * Get workouts page by page using an opaque continuation cursor, sorted by "date" or "duration".
+     * Pass the returned nextCursor back as the cursor parameter to get the following page.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<Workout>> scrollWorkouts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "date") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(workoutRepository.findPageAfter(cursor, size, sortBy, direction));
+    }
+
     /**
      * Filter workouts by a date range.
      */
@@ -123,10 +213,6 @@ public class WorkoutController {
             @RequestParam String workoutType,
             @RequestParam(required = false) String userId) {
 
-        List<Workout> results = (userId != null && !userId.isEmpty())
-                ? workoutRepository.findByUserIdAndWorkoutType(userId, workoutType)
-                : workoutRepository.findByWorkoutType(workoutType);
-
-        return ResponseEntity.ok(results);
+        return ResponseEntity.ok(workoutService.searchWorkouts(workoutType, userId));
     }
 }
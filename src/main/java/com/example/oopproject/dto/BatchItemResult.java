@@ -0,0 +1,125 @@
+package com.example.oopproject.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of one item of a batch insert.
+ * <p>
+ * The index refers to the position of the item in the request body.
+ */
+public class BatchItemResult {
+
+    /** The item was written to the database. */
+    public static final String INSERTED = "inserted";
+
+    /** The item failed validation and was not written. */
+    public static final String INVALID = "invalid";
+
+    /** The item was valid but the database rejected it (e.g. duplicate key). */
+    public static final String FAILED = "failed";
+
+    /**
+     * The write was sent but not acknowledged (e.g. a timeout or lost connection), so the item
+     * may or may not have been written. Its pre-assigned ID is reported: retrying the item with
+     * that ID either writes it or fails with a duplicate key, never writing it twice.
+     */
+    public static final String UNKNOWN = "unknown";
+
+    private int index;
+    private String id;
+    private String status;
+    private List<String> errors;
+
+    /**
+     * Default constructor.
+     */
+    public BatchItemResult() {
+    }
+
+    /**
+     * Constructs a BatchItemResult.
+     *
+     * @param index the position of the item in the request
+     * @param id the ID of the item, or null if it was not inserted and may not have been
+     * @param status one of {@link #INSERTED}, {@link #INVALID}, {@link #FAILED} or {@link #UNKNOWN}
+     * @param errors the error messages, empty if the item was inserted
+     */
+    public BatchItemResult(int index, String id, String status, List<String> errors) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.errors = errors;
+    }
+
+    /**
+     * Gets the position of the item in the request.
+     *
+     * @return the item index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the position of the item in the request.
+     *
+     * @param index the item index
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Gets the ID of the inserted item.
+     *
+     * @return the ID, or null if the item was not inserted and may not have been
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the inserted item.
+     *
+     * @param id the ID
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the outcome of the item.
+     *
+     * @return the status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the outcome of the item.
+     *
+     * @param status the status
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the validation or write errors of the item.
+     *
+     * @return the error messages
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets the validation or write errors of the item.
+     *
+     * @param errors the error messages
+     */
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.oopproject.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the response of a batch insert.
+ * <p>
+ * Contains overall counts and one {@link BatchItemResult} per item of the request,
+ * in request order.
+ */
+public class BatchResult {
+    private int received;
+    private int inserted;
+    private int failed;
+    private int unknown;
+    private List<BatchItemResult> items;
+
+    /**
+     * Default constructor.
+     */
+    public BatchResult() {
+    }
+
+    /**
+     * Constructs a BatchResult from the per-item results.
+     *
+     * @param items the per-item results, in request order
+     */
+    public BatchResult(List<BatchItemResult> items) {
+        this.items = items;
+        this.received = items.size();
+        this.inserted = (int) items.stream()
+                .filter(item -> BatchItemResult.INSERTED.equals(item.getStatus()))
+                .count();
+        this.unknown = (int) items.stream()
+                .filter(item -> BatchItemResult.UNKNOWN.equals(item.getStatus()))
+                .count();
+        this.failed = received - inserted - unknown;
+    }
+
+    /**
+     * Gets the number of items in the request.
+     *
+     * @return the received count
+     */
+    public int getReceived() {
+        return received;
+    }
+
+    /**
+     * Sets the number of items in the request.
+     *
+     * @param received the received count
+     */
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    /**
+     * Gets the number of items written to the database.
+     *
+     * @return the inserted count
+     */
+    public int getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Sets the number of items written to the database.
+     *
+     * @param inserted the inserted count
+     */
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    /**
+     * Gets the number of items that were invalid or rejected by the database.
+     *
+     * @return the failed count
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Sets the number of items that were invalid or rejected by the database.
+     *
+     * @param failed the failed count
+     */
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Gets the number of items whose write was not acknowledged, which may have been written.
+     *
+     * @return the unknown count
+     */
+    public int getUnknown() {
+        return unknown;
+    }
+
+    /**
+     * Sets the number of items whose write was not acknowledged, which may have been written.
+     *
+     * @param unknown the unknown count
+     */
+    public void setUnknown(int unknown) {
+        this.unknown = unknown;
+    }
+
+    /**
+     * Gets the per-item results.
+     *
+     * @return the item results, in request order
+     */
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the per-item results.
+     *
+     * @param items the item results
+     */
+    public void setItems(List<BatchItemResult> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.oopproject.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of a keyset (cursor-based) paginated listing.
+ * <p>
+ * Contains the items of the page and an opaque cursor that the client passes back
+ * to fetch the following page. The cursor is null when there are no more items.
+ *
+ * @param <T> the type of the items in the page
+ */
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Default constructor.
+     */
+    public CursorPage() {
+    }
+
+    /**
+     * Constructs a CursorPage with the specified items and continuation cursor.
+     *
+     * @param items the items of this page
+     * @param nextCursor the cursor for the next page, or null if this is the last page
+     */
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the items of this page.
+     *
+     * @return the items
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the items of this page.
+     *
+     * @param items the items
+     */
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the cursor for the next page.
+     *
+     * @return the next cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the cursor for the next page.
+     *
+     * @param nextCursor the next cursor
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.oopproject.dto;
+
+/**
+ * Data Transfer Object (DTO) for one user's place on a leaderboard.
+ */
+public class LeaderboardEntry {
+    private long rank;
+    private String userId;
+    private long value;
+
+    /**
+     * Default constructor.
+     */
+    public LeaderboardEntry() {
+    }
+
+    /**
+     * Constructs a LeaderboardEntry.
+     *
+     * @param rank the 1-based rank
+     * @param userId the user ID
+     * @param value the user's total of the ranked metric
+     */
+    public LeaderboardEntry(long rank, String userId, long value) {
+        this.rank = rank;
+        this.userId = userId;
+        this.value = value;
+    }
+
+    /**
+     * Gets the rank, 1 being the highest total.
+     *
+     * @return the rank
+     */
+    public long getRank() {
+        return rank;
+    }
+
+    /**
+     * Sets the rank.
+     *
+     * @param rank the rank
+     */
+    public void setRank(long rank) {
+        this.rank = rank;
+    }
+
+    /**
+     * Gets the user ID.
+     *
+     * @return the user ID
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the user ID.
+     *
+     * @param userId the user ID
+     */
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the user's total: calories burned or minutes of workout.
+     *
+     * @return the total
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Sets the user's total.
+     *
+     * @param value the total
+     */
+    public void setValue(long value) {
+        this.value = value;
+    }
+}
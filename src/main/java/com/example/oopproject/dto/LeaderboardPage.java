@@ -0,0 +1,132 @@
+package com.example.oopproject.dto;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for part of a weekly or monthly leaderboard.
+ * <p>
+ * Holds the period and metric the users are ranked by, the number of users on the
+ * leaderboard and the requested entries: a range of ranks, or a single user's entry.
+ */
+public class LeaderboardPage {
+    private String period;
+    private Date periodStart;
+    private String metric;
+    private int totalUsers;
+    private List<LeaderboardEntry> entries;
+
+    /**
+     * Default constructor.
+     */
+    public LeaderboardPage() {
+    }
+
+    /**
+     * Constructs a LeaderboardPage.
+     *
+     * @param period the period length, "week" or "month"
+     * @param periodStart the first day of the period (UTC midnight)
+     * @param metric the ranked metric, "calories" or "duration"
+     * @param totalUsers the number of users on the leaderboard
+     * @param entries the requested entries, best first
+     */
+    public LeaderboardPage(String period, Date periodStart, String metric, int totalUsers,
+                           List<LeaderboardEntry> entries) {
+        this.period = period;
+        this.periodStart = periodStart;
+        this.metric = metric;
+        this.totalUsers = totalUsers;
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the period length.
+     *
+     * @return "week" or "month"
+     */
+    public String getPeriod() {
+        return period;
+    }
+
+    /**
+     * Sets the period length.
+     *
+     * @param period "week" or "month"
+     */
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    /**
+     * Gets the first day of the period.
+     *
+     * @return the period start (UTC midnight)
+     */
+    public Date getPeriodStart() {
+        return periodStart;
+    }
+
+    /**
+     * Sets the first day of the period.
+     *
+     * @param periodStart the period start
+     */
+    public void setPeriodStart(Date periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    /**
+     * Gets the ranked metric.
+     *
+     * @return "calories" or "duration"
+     */
+    public String getMetric() {
+        return metric;
+    }
+
+    /**
+     * Sets the ranked metric.
+     *
+     * @param metric "calories" or "duration"
+     */
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * Gets the number of users on the leaderboard, i.e. with workouts in the period.
+     *
+     * @return the user count
+     */
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+
+    /**
+     * Sets the number of users on the leaderboard.
+     *
+     * @param totalUsers the user count
+     */
+    public void setTotalUsers(int totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    /**
+     * Gets the entries.
+     *
+     * @return the entries, best first
+     */
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Sets the entries.
+     *
+     * @param entries the entries
+     */
+    public void setEntries(List<LeaderboardEntry> entries) {
+        this.entries = entries;
+    }
+}
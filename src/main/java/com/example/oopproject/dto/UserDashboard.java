@@ -0,0 +1,120 @@
+package com.example.oopproject.dto;
+
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for everything the home screen shows for one user.
+ * <p>
+ * The parts are loaded in parallel. A part that failed or did not finish in time is
+ * null and its name ({@code "user"}, {@code "goals"}, {@code "workouts"} or
+ * {@code "exercises"}) is listed in {@link #getIncomplete()}.
+ */
+public class UserDashboard {
+    private User user;
+    private List<FitnessGoal> goals;
+    private List<Workout> workouts;
+    private List<Exercise> exercises;
+    private List<String> incomplete = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     */
+    public UserDashboard() {
+    }
+
+    /**
+     * Gets the user.
+     *
+     * @return the user, or null if it could not be loaded
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Sets the user.
+     *
+     * @param user the user
+     */
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Gets the user's fitness goals.
+     *
+     * @return the goals, or null if they could not be loaded
+     */
+    public List<FitnessGoal> getGoals() {
+        return goals;
+    }
+
+    /**
+     * Sets the user's fitness goals.
+     *
+     * @param goals the goals
+     */
+    public void setGoals(List<FitnessGoal> goals) {
+        this.goals = goals;
+    }
+
+    /**
+     * Gets the user's workouts.
+     *
+     * @return the workouts, or null if they could not be loaded
+     */
+    public List<Workout> getWorkouts() {
+        return workouts;
+    }
+
+    /**
+     * Sets the user's workouts.
+     *
+     * @param workouts the workouts
+     */
+    public void setWorkouts(List<Workout> workouts) {
+        this.workouts = workouts;
+    }
+
+    /**
+     * Gets the exercises of the selected workout.
+     *
+     * @return the exercises, or null if none were requested or they could not be loaded
+     */
+    public List<Exercise> getExercises() {
+        return exercises;
+    }
+
+    /**
+     * Sets the exercises of the selected workout.
+     *
+     * @param exercises the exercises
+     */
+    public void setExercises(List<Exercise> exercises) {
+        this.exercises = exercises;
+    }
+
+    /**
+     * Gets the names of the parts that failed or timed out.
+     *
+     * @return the incomplete part names, empty if the dashboard is complete
+     */
+    public List<String> getIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * Sets the names of the parts that failed or timed out.
+     *
+     * @param incomplete the incomplete part names
+     */
+    public void setIncomplete(List<String> incomplete) {
+        this.incomplete = incomplete;
+    }
+}
@@ -1,15 +1,18 @@
 /**
  * This package contains Data Transfer Object (DTO) classes
- * used for transferring authentication-related data between
- * the client and the server.
+ * used for transferring data between the client and the server.
  *
  * <p>DTOs in this package include:
  * <ul>
  *     <li>{@link com.example.oopproject.dto.AuthRequest} - used to receive login credentials.</li>
  *     <li>{@link com.example.oopproject.dto.AuthResponse} - used to return authentication tokens.</li>
+ *     <li>{@link com.example.oopproject.dto.CursorPage} - used to return one page of a cursor-based listing.</li>
+ *     <li>{@link com.example.oopproject.dto.BatchResult} - used to return the per-item outcome of a batch insert.</li>
+ *     <li>{@link com.example.oopproject.dto.UserDashboard} - used to return a user's home screen data in one response.</li>
+ *     <li>{@link com.example.oopproject.dto.LeaderboardPage} - used to return the top users or one user's rank on a leaderboard.</li>
  * </ul>
  *
  * <p>These classes are typically used in RESTful API endpoints to
- * encapsulate request and response payloads related to user authentication.
+ * encapsulate request and response payloads.
  */
 package com.example.oopproject.dto;
@@ -1,8 +1,13 @@
 package com.example.oopproject.exceptions;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -57,17 +62,88 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles PreconditionFailedException.
+     *
+     * @param ex      the exception thrown
+     * @param request the current web request
+     * @return ResponseEntity with error details and PRECONDITION_FAILED status
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<?> preconditionFailedException(
+            PreconditionFailedException ex, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false));
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles a save rejected because another request changed the document after it was read.
+     * A conditional request (If-Match) gets PRECONDITION_FAILED, any other CONFLICT.
+     *
+     * @param ex      the exception thrown
+     * @param request the current web request
+     * @return ResponseEntity with error details and PRECONDITION_FAILED or CONFLICT status
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> optimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                "The resource was modified by another request, reload it and retry",
+                request.getDescription(false));
+
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED
+                : HttpStatus.CONFLICT;
+        return new ResponseEntity<>(errorDetails, status);
+    }
+
+    /**
+     * Handles a write rejected by a unique index, e.g. a patch setting a username that is taken.
+     *
+     * @param ex      the exception thrown
+     * @param request the current web request
+     * @return ResponseEntity with error details and CONFLICT status
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<?> duplicateKeyException(
+            DuplicateKeyException ex, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(),
+                "A resource with the same unique value already exists",
+                request.getDescription(false));
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles generic exceptions.
      *
      * @param ex      the exception thrown
      * @param request the current web request
-     * @return ResponseEntity with error details and INTERNAL_SERVER_ERROR status
+     * @return ResponseEntity with error details and INTERNAL_SERVER_ERROR status, or the status
+     *         Spring MVC assigned to a request it could not map or read (404, 405, 406, 415, ...)
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> globalExceptionHandler(
             Exception ex, WebRequest request) {
 
+        if (ex instanceof HttpMediaTypeNotAcceptableException notAcceptable) {
+            // no representation of the error is acceptable either
+            return ResponseEntity.status(notAcceptable.getStatusCode()).headers(notAcceptable.getHeaders()).build();
+        }
+        if (ex instanceof ErrorResponse errorResponse) {
+            return new ResponseEntity<>(new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false)),
+                    errorResponse.getHeaders(), errorResponse.getStatusCode());
+        }
+
         ErrorDetails errorDetails = new ErrorDetails(
                 new Date(),
                 ex.getMessage(),
@@ -0,0 +1,22 @@
+package com.example.oopproject.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a conditional write (If-Match) targets a version of a resource
+ * that is no longer the current one.
+ * Triggers a 412 Precondition Failed HTTP response.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructs a new PreconditionFailedException with the specified detail message.
+     *
+     * @param message the detail message explaining the exception
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.oopproject.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -10,18 +14,31 @@ import java.util.List;
  * Represents an exercise entity stored in the MongoDB collection "exercises".
  */
 @Document(collection = "exercises")
+@CompoundIndex(name = "workout_reps_sets_idx", def = "{'workoutId': 1, 'reps': 1, 'sets': 1}")
+@CompoundIndex(name = "name_id_idx", def = "{'name': 1, '_id': 1}")
+@CompoundIndex(name = "reps_id_idx", def = "{'reps': 1, '_id': 1}")
+@CompoundIndex(name = "reps_sets_idx", def = "{'reps': 1, 'sets': 1}")
 public class Exercise {
 
     @Id
     private String id;
 
+    // incremented on every save; optimistic locking and ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     private String name;
     private int reps;
+    @Indexed
     private int sets;
     private String workoutId;
     private double weight;
+    @Indexed
     private String equipment;
+    @Indexed
     private int difficultyLevel;
+    @Indexed
     private List<String> muscleGroups;
 
     /**
@@ -89,6 +106,24 @@ public class Exercise {
         this.id = id;
     }
 
+    /**
+     * Gets the version of the exercise.
+     *
+     * @return the version, or null if the exercise was never saved
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the exercise.
+     *
+     * @param version the version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Gets the name of the exercise.
      *
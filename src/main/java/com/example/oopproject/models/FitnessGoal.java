@@ -1,6 +1,10 @@
 package com.example.oopproject.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.Min;
@@ -9,16 +13,24 @@ import jakarta.validation.constraints.NotNull;
 import java.util.Date;
 
 @Document(collection = "fitness_goals")
+@CompoundIndex(name = "user_goal_type_idx", def = "{'userId': 1, 'goalType': 1}")
+@CompoundIndex(name = "user_status_idx", def = "{'userId': 1, 'status': 1}")
+@CompoundIndex(name = "status_target_date_idx", def = "{'status': 1, 'targetDate': 1}")
 public class FitnessGoal {
 
     @Id
     private String id;
 
+    // incremented on every save; optimistic locking and ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @NotBlank(message = "User ID is required")
     private String userId;
 
     @NotBlank(message = "Goal type is required")
-    private String goalType; // e.g., "weight", "endurance", "strength"
+    private String goalType; // e.g., "weight", "endurance", "strength"; "calories", "duration" and "sessions" advance from workouts
 
     @NotBlank(message = "Goal description is required")
     private String description;
@@ -28,10 +40,11 @@ public class FitnessGoal {
     private double currentValue; // e.g., current weight for weight loss goal
 
     @NotNull(message = "Target date is required")
+    @Indexed
     private Date targetDate;
 
     private Date startDate;
-    private String status; // e.g., "in progress", "completed", "abandoned"
+    private String status; // e.g., "in progress", "completed", "abandoned", "expired"
     private Date completedDate;
     private Date createdAt;
     private Date updatedAt;
@@ -67,6 +80,14 @@ public class FitnessGoal {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getUserId() {
         return userId;
     }
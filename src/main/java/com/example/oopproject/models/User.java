@@ -1,6 +1,9 @@
 package com.example.oopproject.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.Email;
@@ -25,9 +28,17 @@ public class User {
     @Id
     private String id;
 
+    /**
+     * Version incremented on every save, used for optimistic locking and as the ETag.
+     */
+    @Version
+    @JsonIgnore
+    private Long version;
+
     /**
      * Username of the user.
      */
+    @Indexed(unique = true)
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
     private String username;
@@ -35,6 +46,7 @@ public class User {
     /**
      * Email address of the user.
      */
+    @Indexed(unique = true)
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
     private String email;
@@ -156,6 +168,24 @@ public class User {
         this.id = id;
     }
 
+    /**
+     * Gets the version of the user.
+     *
+     * @return the version, or null if the user was never saved
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the user.
+     *
+     * @param version the version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Gets the username.
      * @return the username
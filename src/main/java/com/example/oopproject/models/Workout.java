@@ -1,6 +1,10 @@
 package com.example.oopproject.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.bson.types.ObjectId;
@@ -15,6 +19,9 @@ import java.util.List;
  * Represents a workout session for a user.
  */
 @Document(collection = "workouts")
+@CompoundIndex(name = "date_id_idx", def = "{'date': 1, '_id': 1}")
+@CompoundIndex(name = "duration_id_idx", def = "{'duration': 1, '_id': 1}")
+@CompoundIndex(name = "user_type_idx", def = "{'userId': 1, 'workoutType': 1}")
 public class Workout {
 
     /**
@@ -23,6 +30,13 @@ public class Workout {
     @Id
     private String id;
 
+    /**
+     * Version incremented on every save, used for optimistic locking and as the ETag.
+     */
+    @Version
+    @JsonIgnore
+    private Long version;
+
     /**
      * Name of the workout.
      */
@@ -51,6 +65,7 @@ public class Workout {
      * Type of the workout, e.g., "cardio", "strength", "flexibility".
      */
     @NotBlank(message = "Workout type is required")
+    @Indexed
     private String workoutType;
 
     /**
@@ -118,6 +133,24 @@ public class Workout {
         this.id = id;
     }
 
+    /**
+     * Gets the version of the workout.
+     *
+     * @return the version, or null if the workout was never saved
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the workout.
+     *
+     * @param version the version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Gets the workout ID as a string.
      *
@@ -0,0 +1,285 @@
+package com.example.oopproject.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pre-aggregated workout totals of one user for one day, week or month.
+ * <p>
+ * Rollups are kept up to date incrementally whenever a workout is created, updated
+ * or deleted, so reading a user's statistics costs one document per period instead
+ * of one per workout. Periods are computed in UTC; weeks start on Monday.
+ */
+@Document(collection = "workout_rollups")
+@CompoundIndex(name = "user_period_start_idx", def = "{'userId': 1, 'period': 1, 'periodStart': 1}")
+public class WorkoutRollup {
+
+    /**
+     * Length of the period covered by a rollup.
+     */
+    public enum Period {
+        DAY, WEEK, MONTH;
+
+        /**
+         * Returns the first day of the period containing the given date.
+         *
+         * @param date the date of a workout
+         * @return the start of the period (UTC midnight)
+         */
+        public LocalDate startOf(Date date) {
+            LocalDate day = date.toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+
+        /**
+         * Parses a period name such as {@code "week"}, ignoring case.
+         *
+         * @param value the period name
+         * @return the matching period
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Period fromString(String value) {
+            return Period.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Identifier built from user ID, period and period start, e.g. {@code "u1:WEEK:2025-05-12"}.
+     */
+    @Id
+    private String id;
+
+    /**
+     * ID of the user the totals belong to.
+     */
+    private String userId;
+
+    /**
+     * Length of the period covered.
+     */
+    private Period period;
+
+    /**
+     * First day of the period (UTC midnight).
+     */
+    private Date periodStart;
+
+    /**
+     * Number of workouts in the period.
+     */
+    private long count;
+
+    /**
+     * Sum of workout durations in minutes.
+     */
+    private long totalDuration;
+
+    /**
+     * Sum of calories burned.
+     */
+    private long totalCaloriesBurned;
+
+    /**
+     * Number of workouts per workout type.
+     */
+    private Map<String, Long> countByType = new HashMap<>();
+
+    /**
+     * When the rollup was last changed, by a workout change or a rebuild.
+     */
+    private Date updatedAt;
+
+    /**
+     * Default constructor.
+     */
+    public WorkoutRollup() {
+    }
+
+    /**
+     * Builds the identifier of the rollup for a user, period and period start.
+     *
+     * @param userId the user ID
+     * @param period the period length
+     * @param periodStart the first day of the period
+     * @return the rollup identifier
+     */
+    public static String idOf(String userId, Period period, LocalDate periodStart) {
+        return userId + ":" + period + ":" + periodStart;
+    }
+
+    /**
+     * Gets the rollup ID.
+     *
+     * @return the rollup ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the rollup ID.
+     *
+     * @param id the rollup ID
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the user ID.
+     *
+     * @return the user ID
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the user ID.
+     *
+     * @param userId the user ID
+     */
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the period length.
+     *
+     * @return the period
+     */
+    public Period getPeriod() {
+        return period;
+    }
+
+    /**
+     * Sets the period length.
+     *
+     * @param period the period
+     */
+    public void setPeriod(Period period) {
+        this.period = period;
+    }
+
+    /**
+     * Gets the first day of the period.
+     *
+     * @return the period start
+     */
+    public Date getPeriodStart() {
+        return periodStart;
+    }
+
+    /**
+     * Sets the first day of the period.
+     *
+     * @param periodStart the period start
+     */
+    public void setPeriodStart(Date periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    /**
+     * Gets the number of workouts.
+     *
+     * @return the workout count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Sets the number of workouts.
+     *
+     * @param count the workout count
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Gets the total duration in minutes.
+     *
+     * @return the total duration
+     */
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    /**
+     * Sets the total duration in minutes.
+     *
+     * @param totalDuration the total duration
+     */
+    public void setTotalDuration(long totalDuration) {
+        this.totalDuration = totalDuration;
+    }
+
+    /**
+     * Gets the total calories burned.
+     *
+     * @return the total calories burned
+     */
+    public long getTotalCaloriesBurned() {
+        return totalCaloriesBurned;
+    }
+
+    /**
+     * Sets the total calories burned.
+     *
+     * @param totalCaloriesBurned the total calories burned
+     */
+    public void setTotalCaloriesBurned(long totalCaloriesBurned) {
+        this.totalCaloriesBurned = totalCaloriesBurned;
+    }
+
+    /**
+     * Gets the number of workouts per workout type.
+     *
+     * @return the counts keyed by workout type
+     */
+    public Map<String, Long> getCountByType() {
+        return countByType;
+    }
+
+    /**
+     * Sets the number of workouts per workout type.
+     *
+     * @param countByType the counts keyed by workout type
+     */
+    public void setCountByType(Map<String, Long> countByType) {
+        this.countByType = countByType;
+    }
+
+    /**
+     * Gets the time of the last change.
+     *
+     * @return the last change time
+     */
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the time of the last change.
+     *
+     * @param updatedAt the last change time
+     */
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
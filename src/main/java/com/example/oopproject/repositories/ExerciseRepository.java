@@ -8,10 +8,11 @@ import java.util.List;
 
 /**
  * Repository interface for managing Exercise entities in MongoDB.
- * Extends MongoRepository to provide CRUD operations.
+ * Extends MongoRepository to provide CRUD operations and
+ * {@link ExerciseRepositoryCustom} for server-side filtering and cursor pagination.
  */
 @Repository
-public interface ExerciseRepository extends MongoRepository<Exercise, String> {
+public interface ExerciseRepository extends MongoRepository<Exercise, String>, ExerciseRepositoryCustom {
 
     /**
      * Finds exercises by their exact name.
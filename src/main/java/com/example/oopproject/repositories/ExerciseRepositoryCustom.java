@@ -0,0 +1,52 @@
+package com.example.oopproject.repositories;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Exercise;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Custom query methods for Exercise entities that are built with
+ * {@link org.springframework.data.mongodb.core.MongoTemplate} instead of derived queries.
+ */
+public interface ExerciseRepositoryCustom {
+
+    /**
+     * Finds exercises matching every provided filter in a single MongoDB query.
+     * Null parameters mean no filtering on that field.
+     *
+     * @param reps the number of reps to match, or null
+     * @param sets the number of sets to match, or null
+     * @param name substring of the exercise name (case-insensitive), or null
+     * @param workoutId the workout ID to match, or null
+     * @return a list of exercises matching all provided filters
+     */
+    List<Exercise> findByFilter(Integer reps, Integer sets, String name, String workoutId);
+
+    /**
+     * Finds a page of exercises matching every provided filter in a single MongoDB query.
+     * Null parameters mean no filtering on that field.
+     *
+     * @param reps the number of reps to match, or null
+     * @param sets the number of sets to match, or null
+     * @param name substring of the exercise name (case-insensitive), or null
+     * @param workoutId the workout ID to match, or null
+     * @param pageable pagination and sorting information
+     * @return a page of exercises matching all provided filters
+     */
+    Page<Exercise> findByFilter(Integer reps, Integer sets, String name, String workoutId, Pageable pageable);
+
+    /**
+     * Finds the page of exercises following the given cursor using keyset pagination.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of exercises in the page
+     * @param sortBy the field to sort by
+     * @param direction the sort direction
+     * @return the page of exercises and the cursor for the next page
+     */
+    CursorPage<Exercise> findPageAfter(String cursor, int size, String sortBy, Sort.Direction direction);
+}
@@ -0,0 +1,89 @@
+package com.example.oopproject.repositories;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Exercise;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of {@link ExerciseRepositoryCustom}.
+ * Translates the optional filter parameters into one MongoDB query so that
+ * filtering happens on the server instead of in application memory, and
+ * provides keyset pagination through {@link KeysetCursor}.
+ */
+public class ExerciseRepositoryImpl implements ExerciseRepositoryCustom {
+
+    /** Fields exercises can be paginated by with a cursor, each backed by a {@code (field, _id)} index. */
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("name", "reps");
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructor injecting the MongoTemplate used to run the filter queries.
+     * @param mongoTemplate the template for MongoDB access
+     */
+    @Autowired
+    public ExerciseRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Exercise> findByFilter(Integer reps, Integer sets, String name, String workoutId) {
+        return mongoTemplate.find(filterQuery(reps, sets, name, workoutId), Exercise.class);
+    }
+
+    @Override
+    public Page<Exercise> findByFilter(Integer reps, Integer sets, String name, String workoutId, Pageable pageable) {
+        Query query = filterQuery(reps, sets, name, workoutId).with(pageable);
+        List<Exercise> content = mongoTemplate.find(query, Exercise.class);
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Exercise.class));
+    }
+
+    @Override
+    public CursorPage<Exercise> findPageAfter(String cursor, int size, String sortBy, Sort.Direction direction) {
+        return KeysetCursor.findPage(mongoTemplate, Exercise.class, CURSOR_SORT_FIELDS,
+                cursor, size, sortBy, direction);
+    }
+
+    /**
+     * Builds the filter query. Equality predicates come first so that the
+     * workoutId/reps/sets compound index can be used; the name predicate is an
+     * unanchored case-insensitive regex and is applied to the remaining documents.
+     *
+     * @param reps the number of reps to match, or null
+     * @param sets the number of sets to match, or null
+     * @param name substring of the exercise name, or null
+     * @param workoutId the workout ID to match, or null
+     * @return the query matching all provided filters
+     */
+    static Query filterQuery(Integer reps, Integer sets, String name, String workoutId) {
+        Criteria criteria = new Criteria();
+
+        if (workoutId != null) {
+            criteria.and("workoutId").is(workoutId);
+        }
+        if (reps != null) {
+            criteria.and("reps").is(reps);
+        }
+        if (sets != null) {
+            criteria.and("sets").is(sets);
+        }
+        if (name != null) {
+            criteria.and("name").regex(Pattern.quote(name), "i");
+        }
+
+        return new Query(criteria);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.oopproject.repositories;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.exceptions.BadRequestException;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset (seek) pagination over a MongoDB collection.
+ * <p>
+ * Instead of skipping {@code page * size} documents, each page starts right after the
+ * sort key and {@code _id} of the last document of the previous page. Those two values
+ * are encoded into an opaque, URL-safe cursor. With an index on {@code (sortField, _id)}
+ * every page costs the same regardless of its depth, and documents inserted concurrently
+ * never shift items between pages.
+ */
+public final class KeysetCursor {
+
+    /**
+     * The largest page a cursor request may ask for.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String ID_FIELD = "_id";
+
+    private final String sortField;
+    private final Sort.Direction direction;
+    private final Object sortValue;
+    private final Object id;
+
+    private KeysetCursor(String sortField, Sort.Direction direction, Object sortValue, Object id) {
+        this.sortField = sortField;
+        this.direction = direction;
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    /**
+     * Finds the page of documents that follows the given cursor.
+     *
+     * @param mongoTemplate the template used to run the query
+     * @param entityType the mapped entity class
+     * @param allowedSortFields the fields that may be used as the sort key
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of documents in the page
+     * @param sortField the field to sort by
+     * @param direction the sort direction
+     * @param <T> the entity type
+     * @return the page of documents and the cursor for the next page
+     * @throws BadRequestException if the sort field is not allowed, the size is out of range or the cursor is invalid
+     */
+    static <T> CursorPage<T> findPage(MongoTemplate mongoTemplate, Class<T> entityType, Set<String> allowedSortFields,
+                                      String cursor, int size, String sortField, Sort.Direction direction) {
+        KeysetCursor after = parse(allowedSortFields, cursor, size, sortField, direction);
+
+        Query query = new Query()
+                .with(Sort.by(direction, sortField, ID_FIELD))
+                .limit(size + 1);
+
+        if (after != null) {
+            query.addCriteria(after.toCriteria());
+        }
+
+        return toPage(mongoTemplate, mongoTemplate.find(query, entityType), size, sortField, direction);
+    }
+
+    /**
+     * Turns the result of a query limited to {@code size + 1} documents into a page: the extra
+     * document only tells that there is a next page, whose cursor follows the page's last document.
+     *
+     * @param mongoTemplate the template whose converter writes the last document
+     * @param found the documents found, at most {@code size + 1}
+     * @param size the page size
+     * @param sortField the field the documents are sorted by
+     * @param direction the sort direction
+     * @param <T> the entity type
+     * @return the page of documents and the cursor for the next page
+     */
+    static <T> CursorPage<T> toPage(MongoTemplate mongoTemplate, List<T> found, int size,
+                                    String sortField, Sort.Direction direction) {
+        List<T> items = new ArrayList<>(found);
+        String nextCursor = null;
+
+        if (items.size() > size) {
+            items.remove(size);
+            Document last = new Document();
+            mongoTemplate.getConverter().write(items.get(size - 1), last);
+            nextCursor = after(sortField, direction, last);
+        }
+
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Checks a page request and decodes its cursor. Used directly by repositories that
+     * page through documents not held in MongoDB, so that their cursors are interchangeable.
+     *
+     * @param allowedSortFields the fields that may be used as the sort key
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of documents in the page
+     * @param sortField the field to sort by
+     * @param direction the sort direction
+     * @return the decoded cursor, or null for the first page
+     * @throws BadRequestException if the sort field is not allowed, the size is out of range or the cursor is invalid
+     */
+    public static KeysetCursor parse(Set<String> allowedSortFields, String cursor, int size,
+                                     String sortField, Sort.Direction direction) {
+        if (!allowedSortFields.contains(sortField)) {
+            throw new BadRequestException("Cannot paginate by field: " + sortField);
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        if (size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be at most " + MAX_PAGE_SIZE);
+        }
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        KeysetCursor after = decode(cursor);
+        if (!after.sortField.equals(sortField) || after.direction != direction) {
+            throw new BadRequestException("Cursor does not match the requested sort order");
+        }
+        return after;
+    }
+
+    /**
+     * Encodes the cursor of the page following the given document.
+     *
+     * @param sortField the field the pages are sorted by
+     * @param direction the sort direction
+     * @param last the last document of the page, as written by the MongoConverter
+     * @return the cursor for the next page
+     */
+    public static String after(String sortField, Sort.Direction direction, Document last) {
+        return new KeysetCursor(sortField, direction, last.get(sortField), last.get(ID_FIELD)).encode();
+    }
+
+    /**
+     * @return the sort key of the last document of the previous page
+     */
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    /**
+     * @return the {@code _id} of the last document of the previous page
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * Builds the criteria matching every document that sorts after this cursor.
+     * MongoDB sorts null (and missing) values first, so they need their own branches.
+     */
+    Criteria toCriteria() {
+        boolean ascending = direction.isAscending();
+        Criteria sameKeyLaterId = ascending
+                ? Criteria.where(sortField).is(sortValue).and(ID_FIELD).gt(id)
+                : Criteria.where(sortField).is(sortValue).and(ID_FIELD).lt(id);
+
+        if (sortValue == null) {
+            return ascending
+                    ? new Criteria().orOperator(sameKeyLaterId, Criteria.where(sortField).ne(null))
+                    : sameKeyLaterId;
+        }
+
+        return ascending
+                ? new Criteria().orOperator(Criteria.where(sortField).gt(sortValue), sameKeyLaterId)
+                : new Criteria().orOperator(Criteria.where(sortField).lt(sortValue), sameKeyLaterId,
+                        Criteria.where(sortField).is(null));
+    }
+
+    private String encode() {
+        Document document = new Document("f", sortField)
+                .append("d", direction.name())
+                .append("v", sortValue)
+                .append("id", id);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static KeysetCursor decode(String cursor) {
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Document document = Document.parse(json);
+            return new KeysetCursor(
+                    document.getString("f"),
+                    Sort.Direction.valueOf(document.getString("d")),
+                    document.get("v"),
+                    document.get("id"));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -9,10 +9,11 @@ import java.util.List;
 
 /**
  * Repository interface for managing Workout entities in MongoDB.
- * Provides CRUD operations and custom query methods.
+ * Provides CRUD operations, derived query methods and the
+ * custom queries from {@link WorkoutRepositoryCustom}.
  */
 @Repository
-public interface WorkoutRepository extends MongoRepository<Workout, String> {
+public interface WorkoutRepository extends MongoRepository<Workout, String>, WorkoutRepositoryCustom {
 
     /**
      * Finds all workouts by a specific user ID.
@@ -0,0 +1,62 @@
+package com.example.oopproject.repositories;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Workout;
+import org.springframework.data.domain.Sort;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Custom query methods for Workout entities that are built with
+ * {@link org.springframework.data.mongodb.core.MongoTemplate} instead of derived queries.
+ * The heavy reads (the joins over a date range and the streams) go through the analytics template.
+ */
+public interface WorkoutRepositoryCustom {
+
+    /**
+     * Finds the page of workouts following the given cursor using keyset pagination.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of workouts in the page
+     * @param sortBy the field to sort by
+     * @param direction the sort direction
+     * @return the page of workouts and the cursor for the next page
+     */
+    CursorPage<Workout> findPageAfter(String cursor, int size, String sortBy, Sort.Direction direction);
+
+    /**
+     * Finds a workout together with its exercises from the exercises collection, in one
+     * aggregation. The returned workout's exercises replace the embedded copies.
+     *
+     * @param id the workout ID
+     * @return the workout with its exercises, or empty if no workout has this ID
+     */
+    Optional<Workout> findWithExercises(String id);
+
+    /**
+     * Finds one page of the workouts in a date range together with their exercises from the
+     * exercises collection, in one aggregation, ordered by date. Only the workouts of the page
+     * are joined; the next page starts after the returned cursor.
+     *
+     * @param start the earliest workout date (inclusive)
+     * @param end the latest workout date (exclusive)
+     * @param userId only workouts of this user, or null for all users
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of workouts in the page
+     * @return the workouts of the page with their exercises, and the cursor for the next page
+     * @throws com.example.oopproject.exceptions.BadRequestException if the size is out of range or the cursor is invalid
+     */
+    CursorPage<Workout> findWithExercisesBetween(Date start, Date end, String userId, String cursor, int size);
+
+    /**
+     * Streams the workouts on or after a date through a cursor; the stream must be closed.
+     * Used to rebuild in-memory aggregates whose replayed changes assume the stream saw every
+     * acknowledged write, so the workouts are read from the primary rather than a lagging secondary.
+     *
+     * @param date the first date included
+     * @return the workouts from that date on
+     */
+    Stream<Workout> streamByDateGreaterThanEqual(Date date);
+}
@@ -0,0 +1,108 @@
+package com.example.oopproject.repositories;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Workout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.UnsetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link WorkoutRepositoryCustom}.
+ */
+public class WorkoutRepositoryImpl implements WorkoutRepositoryCustom {
+
+    /**
+     * Temporary field holding the workout ID as a string, the type {@code Exercise.workoutId}
+     * is stored with, so the lookup can use the exercises' workoutId index.
+     */
+    private static final String WORKOUT_KEY = "workoutKey";
+
+    /** Field the date range joins are paginated by. */
+    private static final String DATE_FIELD = "date";
+
+    /** Fields workouts can be paginated by with a cursor, each backed by a {@code (field, _id)} index. */
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("date", "duration");
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoTemplate analyticsMongoTemplate;
+
+    /**
+     * Constructor injecting the MongoTemplates used to run the custom queries.
+     * @param mongoTemplate the template for MongoDB access
+     * @param analyticsMongoTemplate the template for the heavy reads, which may be served by secondaries
+     */
+    @Autowired
+    public WorkoutRepositoryImpl(MongoTemplate mongoTemplate,
+                                 @Qualifier("analyticsMongoTemplate") MongoTemplate analyticsMongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.analyticsMongoTemplate = analyticsMongoTemplate;
+    }
+
+    @Override
+    public CursorPage<Workout> findPageAfter(String cursor, int size, String sortBy, Sort.Direction direction) {
+        return KeysetCursor.findPage(mongoTemplate, Workout.class, CURSOR_SORT_FIELDS,
+                cursor, size, sortBy, direction);
+    }
+
+    @Override
+    public Optional<Workout> findWithExercises(String id) {
+        List<Workout> workouts = aggregateWithExercises(mongoTemplate, where("_id").is(id), null, 1);
+        return workouts.stream().findFirst();
+    }
+
+    @Override
+    public CursorPage<Workout> findWithExercisesBetween(Date start, Date end, String userId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.parse(Set.of(DATE_FIELD), cursor, size, DATE_FIELD, Sort.Direction.ASC);
+        Criteria criteria = where(DATE_FIELD).gte(start).lt(end);
+        if (userId != null) {
+            criteria.and("userId").is(userId);
+        }
+        if (after != null) {
+            criteria = new Criteria().andOperator(criteria, after.toCriteria());
+        }
+        List<Workout> workouts = aggregateWithExercises(analyticsMongoTemplate, criteria,
+                Sort.by(DATE_FIELD, "_id"), size + 1);
+        return KeysetCursor.toPage(analyticsMongoTemplate, workouts, size, DATE_FIELD, Sort.Direction.ASC);
+    }
+
+    @Override
+    public Stream<Workout> streamByDateGreaterThanEqual(Date date) {
+        return mongoTemplate.stream(new Query(where("date").gte(date)), Workout.class);
+    }
+
+    /**
+     * Matches at most {@code limit} workouts and joins each to the exercises whose workoutId is the workout's ID.
+     */
+    private List<Workout> aggregateWithExercises(MongoTemplate template, Criteria criteria, Sort sort, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(criteria));
+        if (sort != null) {
+            stages.add(Aggregation.sort(sort));
+        }
+        stages.add(Aggregation.limit(limit));
+        stages.add(Aggregation.addFields()
+                .addField(WORKOUT_KEY).withValue(ConvertOperators.valueOf("_id").convertToString())
+                .build());
+        stages.add(Aggregation.lookup("exercises", WORKOUT_KEY, "workoutId", "exercises"));
+        stages.add(UnsetOperation.unset(WORKOUT_KEY));
+
+        return template.aggregate(Aggregation.newAggregation(Workout.class, stages), Workout.class)
+                .getMappedResults();
+    }
+}
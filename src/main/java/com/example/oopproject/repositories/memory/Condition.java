@@ -0,0 +1,112 @@
+package com.example.oopproject.repositories.memory;
+
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * A predicate on one document field, the in-memory counterpart of a
+ * {@link org.springframework.data.mongodb.core.query.Criteria} in a derived query.
+ * Field names are those of the stored documents.
+ */
+sealed interface Condition {
+
+    /**
+     * The document field the condition applies to.
+     */
+    String field();
+
+    /**
+     * Whether the document satisfies the condition.
+     */
+    boolean test(Document document);
+
+    /**
+     * The same condition with its values converted, e.g. to the types the converter stores.
+     */
+    Condition map(UnaryOperator<Object> conversion);
+
+    /**
+     * Equality, or for array fields containment ({@code findByXxx}, {@code findByXxxContaining}).
+     */
+    static Condition is(String field, Object value) {
+        return new Equals(field, value);
+    }
+
+    /**
+     * Range with optional bounds ({@code findByXxxBetween}, {@code findByXxxBefore}, ...).
+     */
+    static Condition range(String field, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        return new Range(field, from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * Case-insensitive substring match ({@code findByXxxContainingIgnoreCase}).
+     */
+    static Condition containsIgnoreCase(String field, String text) {
+        return new ContainsIgnoreCase(field, text);
+    }
+
+    record Equals(String field, Object value) implements Condition {
+
+        @Override
+        public boolean test(Document document) {
+            return Values.matches(document.get(field), value);
+        }
+
+        @Override
+        public Condition map(UnaryOperator<Object> conversion) {
+            return new Equals(field, conversion.apply(value));
+        }
+    }
+
+    record Range(String field, Object from, boolean fromInclusive, Object to, boolean toInclusive) implements Condition {
+
+        @Override
+        public boolean test(Document document) {
+            Object value = document.get(field);
+            if (value == null || value instanceof Collection<?>) {
+                return false;
+            }
+            if (from != null) {
+                int comparison = Values.compare(value, from);
+                if (!Values.sameKind(value, from) || comparison < 0 || comparison == 0 && !fromInclusive) {
+                    return false;
+                }
+            }
+            if (to != null) {
+                int comparison = Values.compare(value, to);
+                return Values.sameKind(value, to) && (comparison < 0 || comparison == 0 && toInclusive);
+            }
+            return true;
+        }
+
+        @Override
+        public Condition map(UnaryOperator<Object> conversion) {
+            return new Range(field, conversion.apply(from), fromInclusive, conversion.apply(to), toInclusive);
+        }
+    }
+
+    record ContainsIgnoreCase(String field, String text) implements Condition {
+
+        @Override
+        public boolean test(Document document) {
+            return matches(document.get(field));
+        }
+
+        @Override
+        public Condition map(UnaryOperator<Object> conversion) {
+            return this;
+        }
+
+        /**
+         * Whether a single field value contains the text, ignoring case.
+         */
+        boolean matches(Object value) {
+            return value instanceof String string
+                    && string.toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT));
+        }
+    }
+}
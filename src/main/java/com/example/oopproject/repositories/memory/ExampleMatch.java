@@ -0,0 +1,140 @@
+package com.example.oopproject.repositories.memory;
+
+import org.bson.Document;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.UntypedExampleMatcher;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Query by example on stored documents, the in-memory counterpart of the query that
+ * {@code MongoExampleMapper} builds from an {@link Example}.
+ * <p>
+ * The probe is written by the converter like the stored entities, and each of its fields that
+ * is set and not ignored by the {@link ExampleMatcher} becomes a condition; all of them must
+ * match, or one of them with {@code matchingAny()}. Nested objects are matched field by field
+ * and arrays as a whole. Strings follow the matcher's string matching and case sensitivity,
+ * and with {@code NullHandler.INCLUDE} a property left null in the probe only matches null or
+ * missing values. A probe of a subtype only matches documents written for that type or its
+ * subtypes, unless the matcher is an {@link UntypedExampleMatcher}.
+ */
+final class ExampleMatch implements Predicate<Document> {
+
+    private final List<Predicate<Document>> conditions;
+    private final boolean any;
+
+    private ExampleMatch(List<Predicate<Document>> conditions, boolean any) {
+        this.conditions = conditions;
+        this.any = any;
+    }
+
+    /**
+     * @param example the probe and how to match it
+     * @param domainType the entity type of the repository
+     * @param converter the converter the documents were written with
+     * @return the predicate matching the documents the example selects
+     */
+    static ExampleMatch of(Example<?> example, Class<?> domainType, MongoConverter converter) {
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        Document probe = new Document();
+        converter.write(example.getProbe(), probe);
+
+        List<Predicate<Document>> conditions = new ArrayList<>();
+        collect(converter, converter.getMappingContext().getRequiredPersistentEntity(example.getProbeType()),
+                probe, "", "", accessor, conditions);
+        ExampleMatch match = new ExampleMatch(conditions, example.getMatcher().isAnyMatching());
+
+        Class<?> probeType = example.getProbeType();
+        if (probeType == domainType || example.getMatcher() instanceof UntypedExampleMatcher) {
+            return match;
+        }
+        return new ExampleMatch(List.of(document -> {
+            TypeInformation<?> stored = converter.getTypeMapper().readType(document);
+            return stored != null && probeType.isAssignableFrom(stored.getType());
+        }, match), false);
+    }
+
+    @Override
+    public boolean test(Document document) {
+        if (conditions.isEmpty()) {
+            return true;
+        }
+        return any
+                ? conditions.stream().anyMatch(condition -> condition.test(document))
+                : conditions.stream().allMatch(condition -> condition.test(document));
+    }
+
+    private static void collect(MongoConverter converter, MongoPersistentEntity<?> entity, Document probe,
+                                String pathPrefix, String fieldPrefix, ExampleMatcherAccessor accessor,
+                                List<Predicate<Document>> conditions) {
+        for (MongoPersistentProperty property : entity) {
+            String path = pathPrefix + property.getName();
+            if (accessor.isIgnoredPath(path)) {
+                continue;
+            }
+
+            String field = fieldPrefix + property.getFieldName();
+            Object value = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probe.get(property.getFieldName())))
+                    .orElse(null);
+            if (value == null) {
+                if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    conditions.add(document -> Values.matches(get(document, field), null));
+                }
+            } else if (value instanceof Document nested && property.isEntity()
+                    && !property.isCollectionLike() && !property.isMap()) {
+                collect(converter, converter.getMappingContext().getRequiredPersistentEntity(property), nested,
+                        path + ".", field + ".", accessor, conditions);
+            } else if (value instanceof String text) {
+                Predicate<String> matcher = stringMatcher(text, accessor.getStringMatcherForPath(path),
+                        accessor.isIgnoreCaseForPath(path));
+                conditions.add(document -> get(document, field) instanceof String actual && matcher.test(actual));
+            } else {
+                conditions.add(document -> Values.matches(get(document, field), value));
+            }
+        }
+    }
+
+    private static Predicate<String> stringMatcher(String expected, ExampleMatcher.StringMatcher matcher,
+                                                   boolean ignoreCase) {
+        if (matcher == ExampleMatcher.StringMatcher.REGEX) {
+            Pattern pattern = Pattern.compile(expected, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+            return actual -> pattern.matcher(actual).find();
+        }
+        String probe = ignoreCase ? expected.toLowerCase(Locale.ROOT) : expected;
+        return actual -> {
+            String value = ignoreCase ? actual.toLowerCase(Locale.ROOT) : actual;
+            return switch (matcher) {
+                case STARTING -> value.startsWith(probe);
+                case ENDING -> value.endsWith(probe);
+                case CONTAINING -> value.contains(probe);
+                default -> value.equals(probe);
+            };
+        };
+    }
+
+    /**
+     * The value at a dotted path through nested documents, or null if it is missing.
+     */
+    private static Object get(Document document, String field) {
+        Object value = document;
+        for (String key : field.split("\\.")) {
+            if (!(value instanceof Document nested)) {
+                return null;
+            }
+            value = nested.get(key);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.oopproject.repositories.memory;
+
+import org.bson.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary index from the values of one document field to the IDs of the documents holding
+ * them. Array fields are indexed by element (multikey); null and missing values under
+ * {@link Values#NULL}. The documents holding one value are kept in ID order.
+ */
+abstract class FieldIndex {
+
+    private final String field;
+
+    FieldIndex(String field) {
+        this.field = field;
+    }
+
+    String field() {
+        return field;
+    }
+
+    /**
+     * The map from value to document IDs backing this index.
+     */
+    abstract Map<Object, NavigableSet<String>> entries();
+
+    /**
+     * Moves a document from the keys of its previous version to those of its current one.
+     * Keys present in both stay untouched, so concurrent lookups of them never miss the document.
+     * @param id the document ID
+     * @param previous the document before the change, or null if it is new
+     * @param current the document after the change, or null if it was removed
+     */
+    void update(String id, Document previous, Document current) {
+        List<Object> before = previous == null ? List.of() : Values.keys(previous.get(field));
+        List<Object> after = current == null ? List.of() : Values.keys(current.get(field));
+
+        for (Object key : after) {
+            if (!before.contains(key)) {
+                entries().computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+            }
+        }
+        for (Object key : before) {
+            if (!after.contains(key)) {
+                entries().computeIfPresent(key, (k, holders) -> {
+                    holders.remove(id);
+                    return holders.isEmpty() ? null : holders;
+                });
+            }
+        }
+    }
+
+    void clear() {
+        entries().clear();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.oopproject.repositories.memory;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash index serving equality lookups on one field. A unique index rejects a second document
+ * with the same non-null value, like a MongoDB unique index.
+ */
+final class HashIndex extends FieldIndex {
+
+    private final boolean unique;
+    private final Map<Object, NavigableSet<String>> ids = new ConcurrentHashMap<>();
+
+    HashIndex(String field, boolean unique) {
+        super(field);
+        this.unique = unique;
+    }
+
+    @Override
+    Map<Object, NavigableSet<String>> entries() {
+        return ids;
+    }
+
+    /**
+     * The IDs of the documents whose field equals (or, for arrays, contains) the value, in ID order.
+     */
+    Set<String> get(Object value) {
+        NavigableSet<String> matching = ids.get(value == null ? Values.NULL : Values.normalize(value));
+        return matching == null ? Collections.emptySet() : Collections.unmodifiableSet(matching);
+    }
+
+    /**
+     * The distinct values in the index, for matches that cannot be looked up by hash
+     * (e.g. substrings) but are cheaper to test once per value than once per document.
+     */
+    Set<Object> values() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Checks that storing the document would not break uniqueness.
+     * @throws DuplicateKeyException if another document has the same value
+     */
+    void checkUnique(String id, Document document) {
+        if (!unique) {
+            return;
+        }
+        for (Object key : Values.keys(document.get(field()))) {
+            if (key == Values.NULL) {
+                continue;
+            }
+            Set<String> holders = ids.get(key);
+            if (holders != null && holders.stream().anyMatch(holder -> !holder.equals(id))) {
+                throw new DuplicateKeyException("Duplicate key in unique index on '" + field() + "': " + key);
+            }
+        }
+    }
+}
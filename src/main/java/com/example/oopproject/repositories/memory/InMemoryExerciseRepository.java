@@ -0,0 +1,137 @@
+package com.example.oopproject.repositories.memory;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.repositories.ExerciseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.oopproject.repositories.memory.Condition.containsIgnoreCase;
+import static com.example.oopproject.repositories.memory.Condition.is;
+
+/**
+ * In-memory {@link ExerciseRepository} of the "memory" profile.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryExerciseRepository extends InMemoryRepository<Exercise> implements ExerciseRepository {
+
+    /** Fields exercises can be paginated by with a cursor, each backed by a {@code (field, _id)} index. */
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("name", "reps");
+
+    /**
+     * Constructor declaring the indexes of the derived queries and cursor sort fields.
+     * @param converter the converter mapping exercises to documents
+     */
+    @Autowired
+    public InMemoryExerciseRepository(MongoConverter converter) {
+        super(Exercise.class, converter);
+        hashIndex("name", false);
+        hashIndex("muscleGroups", false);
+        hashIndex("equipment", false);
+        hashIndex("difficultyLevel", false);
+        hashIndex("reps", false);
+        hashIndex("sets", false);
+        hashIndex("workoutId", false);
+        CURSOR_SORT_FIELDS.forEach(this::sortedIndex);
+    }
+
+    @Override
+    public List<Exercise> findByName(String name) {
+        return find(is("name", name));
+    }
+
+    @Override
+    public List<Exercise> findByMuscleGroupsContaining(String muscleGroup) {
+        return find(is("muscleGroups", muscleGroup));
+    }
+
+    @Override
+    public List<Exercise> findByEquipment(String equipment) {
+        return find(is("equipment", equipment));
+    }
+
+    @Override
+    public List<Exercise> findByDifficultyLevel(int difficultyLevel) {
+        return find(is("difficultyLevel", difficultyLevel));
+    }
+
+    @Override
+    public List<Exercise> findByNameContainingIgnoreCase(String name) {
+        return find(containsIgnoreCase("name", name));
+    }
+
+    @Override
+    public List<Exercise> findByReps(int reps) {
+        return find(is("reps", reps));
+    }
+
+    @Override
+    public List<Exercise> findBySets(int sets) {
+        return find(is("sets", sets));
+    }
+
+    @Override
+    public List<Exercise> findByWorkoutId(String workoutId) {
+        return find(is("workoutId", workoutId));
+    }
+
+    @Override
+    public List<Exercise> findByNameContainingIgnoreCaseAndReps(String name, int reps) {
+        return find(containsIgnoreCase("name", name), is("reps", reps));
+    }
+
+    @Override
+    public List<Exercise> findByNameContainingIgnoreCaseAndSets(String name, int sets) {
+        return find(containsIgnoreCase("name", name), is("sets", sets));
+    }
+
+    @Override
+    public List<Exercise> findByRepsAndSets(int reps, int sets) {
+        return find(is("reps", reps), is("sets", sets));
+    }
+
+    @Override
+    public List<Exercise> findByFilter(Integer reps, Integer sets, String name, String workoutId) {
+        return find(filter(reps, sets, name, workoutId));
+    }
+
+    @Override
+    public Page<Exercise> findByFilter(Integer reps, Integer sets, String name, String workoutId, Pageable pageable) {
+        return findPage(pageable, filter(reps, sets, name, workoutId));
+    }
+
+    @Override
+    public CursorPage<Exercise> findPageAfter(String cursor, int size, String sortBy, Sort.Direction direction) {
+        return findPageAfter(CURSOR_SORT_FIELDS, cursor, size, sortBy, direction);
+    }
+
+    /**
+     * The conditions of the provided filters; null parameters mean no filtering on that field.
+     */
+    private static Condition[] filter(Integer reps, Integer sets, String name, String workoutId) {
+        List<Condition> conditions = new ArrayList<>();
+        if (workoutId != null) {
+            conditions.add(is("workoutId", workoutId));
+        }
+        if (reps != null) {
+            conditions.add(is("reps", reps));
+        }
+        if (sets != null) {
+            conditions.add(is("sets", sets));
+        }
+        if (name != null) {
+            conditions.add(containsIgnoreCase("name", name));
+        }
+        return conditions.toArray(Condition[]::new);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.oopproject.repositories.memory;
+
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.repositories.FitnessGoalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.example.oopproject.repositories.memory.Condition.is;
+import static com.example.oopproject.repositories.memory.Condition.range;
+
+/**
+ * In-memory {@link FitnessGoalRepository} of the "memory" profile.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryFitnessGoalRepository extends InMemoryRepository<FitnessGoal> implements FitnessGoalRepository {
+
+    /**
+     * Constructor declaring the indexes of the derived queries.
+     * @param converter the converter mapping goals to documents
+     */
+    @Autowired
+    public InMemoryFitnessGoalRepository(MongoConverter converter) {
+        super(FitnessGoal.class, converter);
+        hashIndex("userId", false);
+        hashIndex("goalType", false);
+        hashIndex("status", false);
+        sortedIndex("targetDate");
+    }
+
+    @Override
+    public List<FitnessGoal> findByUserId(String userId) {
+        return find(is("userId", userId));
+    }
+
+    @Override
+    public List<FitnessGoal> findByUserIdAndGoalType(String userId, String goalType) {
+        return find(is("userId", userId), is("goalType", goalType));
+    }
+
+    @Override
+    public List<FitnessGoal> findByUserIdAndStatus(String userId, String status) {
+        return find(is("userId", userId), is("status", status));
+    }
+
+    @Override
+    public List<FitnessGoal> findByTargetDateBefore(Date date) {
+        return find(range("targetDate", null, false, date, false));
+    }
+}
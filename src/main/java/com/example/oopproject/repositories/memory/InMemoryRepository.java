@@ -0,0 +1,701 @@
+package com.example.oopproject.repositories.memory;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.repositories.KeysetCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base class of the in-memory repositories.
+ * <p>
+ * Entities are stored as the documents the {@link MongoConverter} writes for MongoDB, so field
+ * names, ID and number types behave as they do there, and every read returns a fresh copy.
+ * Documents are kept in a concurrent map ordered by ID, with the hash and sorted secondary
+ * indexes each subclass declares for its query methods. Queries pick the most selective
+ * indexed condition and check the others against the candidate documents.
+ * <p>
+ * Writes are serialized; reads do not lock and, like MongoDB reads without a transaction,
+ * may observe a write that is in progress on another document.
+ * Save, insert and delete follow {@code SimpleMongoRepository}, including optimistic locking
+ * on {@code @Version} properties. Query by example is evaluated on the documents by
+ * {@link ExampleMatch}, without indexes.
+ *
+ * @param <T> the entity type
+ */
+public abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    private static final String ID_FIELD = "_id";
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final Class<T> type;
+    private final MongoConverter converter;
+    private final MongoPersistentEntity<?> persistentEntity;
+    private final MongoPersistentProperty idProperty;
+    private final MongoPersistentProperty versionProperty;
+
+    private final ConcurrentSkipListMap<String, Document> documents = new ConcurrentSkipListMap<>();
+    private final Map<String, HashIndex> hashIndexes = new LinkedHashMap<>();
+    private final Map<String, SortedIndex> sortedIndexes = new LinkedHashMap<>();
+    private final Object writeLock = new Object();
+
+    /**
+     * @param type the entity type
+     * @param converter the converter mapping entities to documents
+     */
+    protected InMemoryRepository(Class<T> type, MongoConverter converter) {
+        this.type = type;
+        this.converter = converter;
+        this.persistentEntity = converter.getMappingContext().getRequiredPersistentEntity(type);
+        this.idProperty = persistentEntity.getRequiredIdProperty();
+        this.versionProperty = persistentEntity.getVersionProperty();
+    }
+
+    /**
+     * Declares a hash index serving equality and substring conditions on a property.
+     * @param property the entity property
+     * @param unique whether two documents may not share a non-null value
+     */
+    protected final void hashIndex(String property, boolean unique) {
+        String field = fieldName(property);
+        hashIndexes.put(field, new HashIndex(field, unique));
+    }
+
+    /**
+     * Declares a sorted index serving range conditions, sorts and cursor pagination on a property.
+     * @param property the entity property
+     */
+    protected final void sortedIndex(String property) {
+        String field = fieldName(property);
+        sortedIndexes.put(field, new SortedIndex(field));
+    }
+
+    /**
+     * @return the name of the collection the documents would be stored in by MongoDB
+     */
+    public String getCollectionName() {
+        return persistentEntity.getCollection();
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        Assert.notNull(entity, "Entity must not be null");
+        synchronized (writeLock) {
+            return persistentEntity.isNew(entity) ? doInsert(entity) : doUpdate(entity);
+        }
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        return stream(entities).map(this::save).toList();
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        Assert.notNull(entity, "Entity must not be null");
+        synchronized (writeLock) {
+            return doInsert(entity);
+        }
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        return stream(entities).map(this::insert).toList();
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        Assert.notNull(id, "The given id must not be null");
+        return Optional.ofNullable(documents.get(Values.idKey(id))).map(this::read);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        Assert.notNull(id, "The given id must not be null");
+        return documents.containsKey(Values.idKey(id));
+    }
+
+    @Override
+    public List<T> findAll() {
+        return documents.values().stream().map(this::read).toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        return stream(ids).map(Values::idKey).distinct().sorted()
+                .map(documents::get).filter(Objects::nonNull).map(this::read).toList();
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return ordered(sort).map(this::read).toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(pageable.getSort()));
+        }
+        List<T> content = ordered(pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::read)
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, this::count);
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        Assert.notNull(id, "The given id must not be null");
+        synchronized (writeLock) {
+            remove(Values.idKey(id));
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        Assert.notNull(entity, "Entity must not be null");
+        PersistentPropertyAccessor<T> accessor = persistentEntity.getPropertyAccessor(entity);
+        Object id = accessor.getProperty(idProperty);
+        if (id == null) {
+            return;
+        }
+
+        String key = Values.idKey(id);
+        synchronized (writeLock) {
+            if (versionProperty != null) {
+                Document existing = documents.get(key);
+                Object version = accessor.getProperty(versionProperty);
+                if (existing == null || !sameVersion(existing, version)) {
+                    throw new OptimisticLockingFailureException(String.format(
+                            "The entity with id %s with version %s in %s cannot be deleted; Was it modified or deleted in the meantime",
+                            key, version, getCollectionName()));
+                }
+            }
+            remove(key);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        synchronized (writeLock) {
+            documents.clear();
+            hashIndexes.values().forEach(FieldIndex::clear);
+            sortedIndexes.values().forEach(FieldIndex::clear);
+        }
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::one);
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::all);
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return findBy(example, query -> query.sortBy(sort).all());
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return findBy(example, query -> query.page(pageable));
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::count);
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::exists);
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        Assert.notNull(example, "Example must not be null");
+        Assert.notNull(queryFunction, "Query function must not be null");
+        return queryFunction.apply(new ExampleQuery<>(ExampleMatch.of(example, type, converter), example.getProbeType(),
+                example.getProbeType(), Sort.unsorted(), 0, List.of()));
+    }
+
+    /**
+     * Finds the entities matching all conditions, in ID order.
+     * @param conditions the conditions, on document field names
+     * @return the matching entities
+     */
+    protected List<T> find(Condition... conditions) {
+        return select(conditions).map(this::read).toList();
+    }
+
+    /**
+     * Finds the entities matching all conditions in the given order.
+     * @param sort the order, on entity properties
+     * @param conditions the conditions, on document field names
+     * @return the matching entities
+     */
+    protected List<T> find(Sort sort, Condition... conditions) {
+        return select(conditions).sorted(comparator(sort)).map(this::read).toList();
+    }
+
+    /**
+     * Finds a page of the entities matching all conditions.
+     * @param pageable the page and its order, on entity properties
+     * @param conditions the conditions, on document field names
+     * @return the page of matching entities
+     */
+    protected Page<T> findPage(Pageable pageable, Condition... conditions) {
+        List<Document> matching = select(conditions).toList();
+        Stream<Document> ordered = pageable.getSort().isSorted()
+                ? matching.stream().sorted(comparator(pageable.getSort()))
+                : matching.stream();
+        if (pageable.isPaged()) {
+            ordered = ordered.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(ordered.map(this::read).toList(), pageable, matching::size);
+    }
+
+    /**
+     * Finds the first entity, in ID order, matching all conditions.
+     * @param conditions the conditions, on document field names
+     * @return the entity, or empty if none matches
+     */
+    protected Optional<T> findFirst(Condition... conditions) {
+        return select(conditions).findFirst().map(this::read);
+    }
+
+    /**
+     * Whether any entity matches all conditions.
+     * @param conditions the conditions, on document field names
+     * @return true if one does
+     */
+    protected boolean exists(Condition... conditions) {
+        return select(conditions).findAny().isPresent();
+    }
+
+    /**
+     * Finds the entity with the highest ID.
+     * @return the entity, or empty if there are none
+     */
+    protected Optional<T> findLast() {
+        return Optional.ofNullable(documents.lastEntry()).map(entry -> read(entry.getValue()));
+    }
+
+    /**
+     * Finds the page of entities following a keyset cursor, with cursors interchangeable with
+     * those of the MongoDB repositories (see {@link KeysetCursor}).
+     * @param allowedSortFields the properties that may be used as the sort key
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of entities in the page
+     * @param sortBy the property to sort by
+     * @param direction the sort direction
+     * @return the page of entities and the cursor for the next page
+     */
+    protected CursorPage<T> findPageAfter(Set<String> allowedSortFields, String cursor, int size,
+                                          String sortBy, Sort.Direction direction) {
+        KeysetCursor after = KeysetCursor.parse(allowedSortFields, cursor, size, sortBy, direction);
+        String field = fieldName(sortBy);
+        Sort sort = Sort.by(direction, sortBy, idProperty.getName());
+
+        Stream<Document> ordered;
+        if (after == null) {
+            ordered = ordered(sort);
+        } else {
+            Document position = new Document(field, after.getSortValue()).append(ID_FIELD, after.getId());
+            Comparator<Document> comparator = comparator(sort);
+            SortedIndex index = sortedIndexes.get(field);
+            Stream<Document> candidates = index != null
+                    ? documents(index.ordered(after.getSortValue() == null ? Values.NULL : after.getSortValue(),
+                            direction.isAscending()))
+                    : documents.values().stream().sorted(comparator);
+            ordered = candidates.dropWhile(document -> comparator.compare(document, position) <= 0);
+        }
+
+        List<Document> page = new ArrayList<>(ordered.limit(size + 1L).toList());
+        String nextCursor = null;
+        if (page.size() > size) {
+            page.remove(size);
+            nextCursor = KeysetCursor.after(field, direction, page.get(size - 1));
+        }
+        return new CursorPage<>(page.stream().map(this::read).toList(), nextCursor);
+    }
+
+    /**
+     * Copies all documents for a snapshot, consistent as of one point between two writes.
+     */
+    List<Document> snapshot() {
+        synchronized (writeLock) {
+            return new ArrayList<>(documents.values());
+        }
+    }
+
+    /**
+     * Replaces all documents with those of a snapshot.
+     * @throws DuplicateKeyException if the documents break a unique index
+     */
+    void restore(List<Document> snapshot) {
+        synchronized (writeLock) {
+            deleteAll();
+            for (Document document : snapshot) {
+                store(Values.idKey(document.get(ID_FIELD)), null, document);
+            }
+        }
+    }
+
+    private <S extends T> S doInsert(S entity) {
+        PersistentPropertyAccessor<S> accessor = persistentEntity.getPropertyAccessor(entity);
+        if (accessor.getProperty(idProperty) == null) {
+            ObjectId id = new ObjectId();
+            accessor.setProperty(idProperty, idProperty.getType() == ObjectId.class ? id : id.toHexString());
+        }
+        if (versionProperty != null) {
+            accessor.setProperty(versionProperty, versionValue(0));
+        }
+
+        Document document = write(accessor.getBean());
+        String key = Values.idKey(document.get(ID_FIELD));
+        if (documents.containsKey(key)) {
+            throw new DuplicateKeyException("Duplicate key in collection " + getCollectionName() + ": " + key);
+        }
+        store(key, null, document);
+        return accessor.getBean();
+    }
+
+    private <S extends T> S doUpdate(S entity) {
+        PersistentPropertyAccessor<S> accessor = persistentEntity.getPropertyAccessor(entity);
+        String key = Values.idKey(accessor.getProperty(idProperty));
+        Document existing = documents.get(key);
+
+        if (versionProperty != null) {
+            Object version = accessor.getProperty(versionProperty);
+            if (existing == null || !sameVersion(existing, version)) {
+                throw new OptimisticLockingFailureException(String.format(
+                        "Cannot save entity %s with version %s to collection %s; Has it been modified meanwhile",
+                        key, version, getCollectionName()));
+            }
+            accessor.setProperty(versionProperty, versionValue(((Number) version).longValue() + 1));
+        }
+
+        store(key, existing, write(accessor.getBean()));
+        return accessor.getBean();
+    }
+
+    private void store(String key, Document previous, Document document) {
+        for (HashIndex index : hashIndexes.values()) {
+            index.checkUnique(key, document);
+        }
+        documents.put(key, document);
+        hashIndexes.values().forEach(index -> index.update(key, previous, document));
+        sortedIndexes.values().forEach(index -> index.update(key, previous, document));
+    }
+
+    private void remove(String key) {
+        Document removed = documents.remove(key);
+        if (removed != null) {
+            hashIndexes.values().forEach(index -> index.update(key, removed, null));
+            sortedIndexes.values().forEach(index -> index.update(key, removed, null));
+        }
+    }
+
+    /**
+     * The documents matching all conditions, in ID order. Candidates come from the smallest
+     * index lookup; without an indexed condition all documents are scanned.
+     */
+    private Stream<Document> select(Condition... conditions) {
+        List<Condition> converted = Arrays.stream(conditions)
+                .map(condition -> condition.map(value -> value == null ? null : converter.convertToMongoType(value)))
+                .toList();
+
+        Set<String> candidates = null;
+        for (Condition condition : converted) {
+            Set<String> ids = lookup(condition);
+            if (ids != null && (candidates == null || ids.size() < candidates.size())) {
+                candidates = ids;
+            }
+        }
+
+        Stream<Document> scanned = candidates == null
+                ? documents.values().stream()
+                : documents(candidates.stream().sorted());
+        return scanned.filter(document -> converted.stream().allMatch(condition -> condition.test(document)));
+    }
+
+    /**
+     * The IDs of the documents an index finds for the condition, or null if none serves it.
+     */
+    private Set<String> lookup(Condition condition) {
+        HashIndex hashIndex = hashIndexes.get(condition.field());
+        SortedIndex sortedIndex = sortedIndexes.get(condition.field());
+
+        if (condition instanceof Condition.Equals equals && hashIndex != null) {
+            return hashIndex.get(equals.value());
+        }
+        if (condition instanceof Condition.Range range && sortedIndex != null) {
+            return sortedIndex.range(range.from(), range.fromInclusive(), range.to(), range.toInclusive());
+        }
+        if (condition instanceof Condition.ContainsIgnoreCase contains && hashIndex != null) {
+            return hashIndex.values().stream()
+                    .filter(contains::matches)
+                    .flatMap(value -> hashIndex.get(value).stream())
+                    .collect(Collectors.toSet());
+        }
+        return null;
+    }
+
+    /**
+     * All documents in the given order. A sort on one indexed property (optionally followed
+     * by the ID in the same direction) is read from the index instead of sorting.
+     */
+    private Stream<Document> ordered(Sort sort) {
+        if (sort.isUnsorted()) {
+            return documents.values().stream();
+        }
+
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order first = orders.get(0);
+        SortedIndex index = sortedIndexes.get(fieldName(first.getProperty()));
+        boolean idTieBreak = orders.size() == 1
+                || orders.size() == 2 && fieldName(orders.get(1).getProperty()).equals(ID_FIELD)
+                        && orders.get(1).getDirection() == first.getDirection();
+
+        if (index != null && !first.isIgnoreCase() && idTieBreak) {
+            return documents(index.ordered(null, first.isAscending()));
+        }
+        return documents.values().stream().sorted(comparator(sort));
+    }
+
+    /**
+     * Orders documents by the given sort, then by ID; null and missing values sort first.
+     */
+    private Comparator<Document> comparator(Sort sort) {
+        Comparator<Document> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            String field = fieldName(order.getProperty());
+            boolean ignoreCase = order.isIgnoreCase();
+            Comparator<Document> byField = (a, b) ->
+                    Values.compare(sortKey(a.get(field), ignoreCase), sortKey(b.get(field), ignoreCase));
+            comparator = comparator.thenComparing(order.isAscending() ? byField : byField.reversed());
+        }
+        return comparator.thenComparing((a, b) -> Values.compare(a.get(ID_FIELD), b.get(ID_FIELD)));
+    }
+
+    private Stream<Document> documents(Stream<String> ids) {
+        return ids.map(documents::get).filter(Objects::nonNull);
+    }
+
+    private String fieldName(String property) {
+        MongoPersistentProperty persistentProperty = persistentEntity.getPersistentProperty(property);
+        return persistentProperty == null ? property : persistentProperty.getFieldName();
+    }
+
+    private Document write(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    private T read(Document document) {
+        return converter.read(type, document);
+    }
+
+    private boolean sameVersion(Document document, Object version) {
+        return document.get(versionProperty.getFieldName()) instanceof Number stored
+                && version instanceof Number expected
+                && stored.longValue() == expected.longValue();
+    }
+
+    private Object versionValue(long version) {
+        Class<?> versionType = versionProperty.getType();
+        return versionType == Integer.class || versionType == int.class ? (Object) (int) version : (Object) version;
+    }
+
+    private static Object sortKey(Object value, boolean ignoreCase) {
+        return ignoreCase && value instanceof String string ? string.toLowerCase() : value;
+    }
+
+    private static <E> Stream<E> stream(Iterable<E> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+
+    /**
+     * Fluent query by example over the documents, with the sort, limit, field projection and
+     * result type of {@link FluentQuery.FetchableFluentQuery}.
+     *
+     * @param <S> the probe type
+     * @param <R> the result type
+     */
+    private final class ExampleQuery<S, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+        private final ExampleMatch match;
+        private final Class<S> probeType;
+        private final Class<R> resultType;
+        private final Sort sort;
+        private final int limit;
+        private final List<String> fields;
+
+        ExampleQuery(ExampleMatch match, Class<S> probeType, Class<R> resultType, Sort sort, int limit,
+                     List<String> fields) {
+            this.match = match;
+            this.probeType = probeType;
+            this.resultType = resultType;
+            this.sort = sort;
+            this.limit = limit;
+            this.fields = fields;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            Assert.notNull(sort, "Sort must not be null");
+            return new ExampleQuery<>(match, probeType, resultType, this.sort.and(sort), limit, fields);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            Assert.isTrue(limit >= 0, "Limit must not be negative");
+            return new ExampleQuery<>(match, probeType, resultType, sort, limit, fields);
+        }
+
+        @Override
+        public <P> FluentQuery.FetchableFluentQuery<P> as(Class<P> resultType) {
+            Assert.notNull(resultType, "Result type must not be null");
+            return new ExampleQuery<>(match, probeType, resultType, sort, limit, fields);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return new ExampleQuery<>(match, probeType, resultType, sort, limit,
+                    properties.stream().map(InMemoryRepository.this::fieldName).toList());
+        }
+
+        @Override
+        public R oneValue() {
+            List<R> results = results(sort, 0, 2);
+            if (results.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, results.size());
+            }
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        @Override
+        public R firstValue() {
+            List<R> results = results(sort, 0, 1);
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        @Override
+        public List<R> all() {
+            return results(sort, 0, limit);
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            Assert.notNull(pageable, "Pageable must not be null");
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(results(sort.and(pageable.getSort()), 0, limit));
+            }
+            List<R> content = results(sort.and(pageable.getSort()), pageable.getOffset(), pageable.getPageSize());
+            return PageableExecutionUtils.getPage(content, pageable, this::count);
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return documents.values().stream().filter(match).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return documents.values().stream().anyMatch(match);
+        }
+
+        private List<R> results(Sort order, long offset, int maxResults) {
+            Stream<Document> matching = documents.values().stream().filter(match);
+            if (order.isSorted()) {
+                matching = matching.sorted(comparator(order));
+            }
+            matching = matching.skip(offset);
+            if (maxResults > 0) {
+                matching = matching.limit(maxResults);
+            }
+            return matching.map(this::convert).toList();
+        }
+
+        @SuppressWarnings("unchecked")
+        private R convert(Document document) {
+            Document source = document;
+            if (!fields.isEmpty()) {
+                source = new Document(ID_FIELD, document.get(ID_FIELD));
+                for (String field : fields) {
+                    if (document.containsKey(field)) {
+                        source.put(field, document.get(field));
+                    }
+                }
+            }
+
+            if (resultType.isAssignableFrom(probeType)) {
+                return (R) converter.read(probeType, source);
+            }
+            if (resultType.isInterface()) {
+                return PROJECTIONS.createProjection(resultType, converter.read(probeType, source));
+            }
+            return converter.read(resultType, source);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.oopproject.repositories.memory;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Stream;
+
+/**
+ * Snapshots of the in-memory repositories on disk, so that their data survives a restart.
+ * <p>
+ * Each collection is written to {@code <collection>.jsonl} in the snapshot directory, one
+ * document per line in MongoDB extended JSON, which keeps dates, object IDs and number types
+ * and can be imported with {@code mongoimport}. Files are written to a temporary file and
+ * moved into place, so a crash never leaves a partial snapshot. The snapshots are loaded at
+ * startup, saved every {@code app.memory.snapshot.interval} and once more at shutdown.
+ * <p>
+ * Enabled by setting {@code app.memory.snapshot.path}. Never lazily initialized, as no other
+ * bean depends on it.
+ */
+@Component
+@Lazy(false)
+@Profile("memory")
+@ConditionalOnProperty(name = "app.memory.snapshot.path")
+public class InMemorySnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySnapshots.class);
+
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private final List<InMemoryRepository<?>> repositories;
+    private final TaskScheduler taskScheduler;
+    private final Path directory;
+    private final Duration interval;
+
+    private ScheduledFuture<?> saveTask;
+
+    /**
+     * Constructor injecting the dependencies.
+     * @param repositories the repositories to snapshot
+     * @param taskScheduler the scheduler running the periodic save
+     * @param directory the directory holding the snapshot files
+     * @param interval the time between two snapshots
+     */
+    @Autowired
+    public InMemorySnapshots(List<InMemoryRepository<?>> repositories,
+                             TaskScheduler taskScheduler,
+                             @Value("${app.memory.snapshot.path}") Path directory,
+                             @Value("${app.memory.snapshot.interval:5m}") Duration interval) {
+        this.repositories = repositories;
+        this.taskScheduler = taskScheduler;
+        this.directory = directory;
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        load();
+        saveTask = taskScheduler.scheduleWithFixedDelay(this::save, taskScheduler.getClock().instant().plus(interval), interval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (saveTask != null) {
+            saveTask.cancel(false);
+        }
+        save();
+    }
+
+    /**
+     * Replaces the contents of every repository that has a snapshot file with that snapshot.
+     * @throws IOException if a snapshot cannot be read
+     */
+    public void load() throws IOException {
+        for (InMemoryRepository<?> repository : repositories) {
+            Path file = fileOf(repository);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                List<Document> documents = lines.filter(line -> !line.isBlank()).map(Document::parse).toList();
+                repository.restore(documents);
+                logger.info("Loaded {} documents into {} from {}", documents.size(), repository.getCollectionName(), file);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of every repository. Failures are logged, the next save retries.
+     */
+    public synchronized void save() {
+        try {
+            Files.createDirectories(directory);
+            for (InMemoryRepository<?> repository : repositories) {
+                write(repository);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Could not write the in-memory snapshot to {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void write(InMemoryRepository<?> repository) throws IOException {
+        Path file = fileOf(repository);
+        Path temporary = Files.createTempFile(directory, repository.getCollectionName(), ".tmp");
+        try {
+            List<Document> documents = repository.snapshot();
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                for (Document document : documents) {
+                    writer.write(document.toJson(JSON_SETTINGS));
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Saved {} documents of {} to {}", documents.size(), repository.getCollectionName(), file);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Path fileOf(InMemoryRepository<?> repository) {
+        return directory.resolve(repository.getCollectionName() + ".jsonl");
+    }
+}
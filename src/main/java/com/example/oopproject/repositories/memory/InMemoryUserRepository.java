@@ -0,0 +1,52 @@
+package com.example.oopproject.repositories.memory;
+
+import com.example.oopproject.models.User;
+import com.example.oopproject.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+import static com.example.oopproject.repositories.memory.Condition.is;
+
+/**
+ * In-memory {@link UserRepository} of the "memory" profile. Usernames and emails are unique,
+ * as with the unique indexes in MongoDB.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
+
+    /**
+     * Constructor declaring the unique username and email indexes.
+     * @param converter the converter mapping users to documents
+     */
+    @Autowired
+    public InMemoryUserRepository(MongoConverter converter) {
+        super(User.class, converter);
+        hashIndex("username", true);
+        hashIndex("email", true);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return findFirst(is("username", username));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findFirst(is("email", email));
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return exists(is("username", username));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return exists(is("email", email));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.oopproject.repositories.memory;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.repositories.KeysetCursor;
+import com.example.oopproject.repositories.WorkoutRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.example.oopproject.repositories.memory.Condition.is;
+import static com.example.oopproject.repositories.memory.Condition.range;
+
+/**
+ * In-memory {@link WorkoutRepository} of the "memory" profile. The exercise joins read
+ * the exercises from {@link InMemoryExerciseRepository}.
+ */
+@Repository
+@Profile("memory")
+public class InMemoryWorkoutRepository extends InMemoryRepository<Workout> implements WorkoutRepository {
+
+    /** Fields workouts can be paginated by with a cursor, each backed by a {@code (field, _id)} index. */
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("date", "duration");
+
+    private final InMemoryExerciseRepository exerciseRepository;
+
+    /**
+     * Constructor declaring the indexes of the derived queries and cursor sort fields.
+     * @param converter the converter mapping workouts to documents
+     * @param exerciseRepository the repository the exercises are joined from
+     */
+    @Autowired
+    public InMemoryWorkoutRepository(MongoConverter converter, InMemoryExerciseRepository exerciseRepository) {
+        super(Workout.class, converter);
+        this.exerciseRepository = exerciseRepository;
+        hashIndex("userId", false);
+        hashIndex("workoutType", false);
+        CURSOR_SORT_FIELDS.forEach(this::sortedIndex);
+    }
+
+    @Override
+    public List<Workout> findByUserId(String userId) {
+        return find(is("userId", userId));
+    }
+
+    @Override
+    public List<Workout> findByWorkoutType(String workoutType) {
+        return find(is("workoutType", workoutType));
+    }
+
+    @Override
+    public List<Workout> findByDateBetween(Date startDate, Date endDate) {
+        return find(range("date", startDate, false, endDate, false));
+    }
+
+    @Override
+    public Stream<Workout> streamByDateGreaterThanEqual(Date date) {
+        return find(range("date", date, true, null, false)).stream();
+    }
+
+    @Override
+    public List<Workout> findByUserIdAndWorkoutType(String userId, String workoutType) {
+        return find(is("userId", userId), is("workoutType", workoutType));
+    }
+
+    @Override
+    public List<Workout> findTopByOrderByIdDesc() {
+        return findLast().map(List::of).orElse(List.of());
+    }
+
+    @Override
+    public CursorPage<Workout> findPageAfter(String cursor, int size, String sortBy, Sort.Direction direction) {
+        return findPageAfter(CURSOR_SORT_FIELDS, cursor, size, sortBy, direction);
+    }
+
+    @Override
+    public Optional<Workout> findWithExercises(String id) {
+        return findById(id).map(this::withExercises);
+    }
+
+    @Override
+    public CursorPage<Workout> findWithExercisesBetween(Date start, Date end, String userId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.parse(Set.of("date"), cursor, size, "date", Sort.Direction.ASC);
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(range("date", start, true, end, false));
+        if (userId != null) {
+            conditions.add(is("userId", userId));
+        }
+        Stream<Workout> ordered = find(Sort.by("date", "id"), conditions.toArray(Condition[]::new)).stream();
+        if (after != null) {
+            Date afterDate = (Date) after.getSortValue();
+            String afterId = String.valueOf(after.getId());
+            ordered = ordered.dropWhile(workout -> workout.getDate().before(afterDate)
+                    || workout.getDate().equals(afterDate) && workout.getId().compareTo(afterId) <= 0);
+        }
+
+        List<Workout> page = new ArrayList<>(ordered.limit(size + 1L).toList());
+        String nextCursor = null;
+        if (page.size() > size) {
+            page.remove(size);
+            Workout last = page.get(size - 1);
+            nextCursor = KeysetCursor.after("date", Sort.Direction.ASC,
+                    new Document("date", last.getDate()).append("_id", last.getId()));
+        }
+        return new CursorPage<>(page.stream().map(this::withExercises).toList(), nextCursor);
+    }
+
+    /**
+     * Replaces the embedded exercises with those whose workoutId is the workout's ID.
+     */
+    private Workout withExercises(Workout workout) {
+        workout.setExercises(exerciseRepository.findByWorkoutId(workout.getId()));
+        return workout;
+    }
+}
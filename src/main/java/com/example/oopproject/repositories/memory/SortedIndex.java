@@ -0,0 +1,59 @@
+package com.example.oopproject.repositories.memory;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Sorted index serving range queries and sorts on one field. Values are ordered by
+ * {@link Values#compare}, null and missing values first.
+ */
+final class SortedIndex extends FieldIndex {
+
+    private final ConcurrentSkipListMap<Object, NavigableSet<String>> ids = new ConcurrentSkipListMap<>(Values::compare);
+
+    SortedIndex(String field) {
+        super(field);
+    }
+
+    @Override
+    Map<Object, NavigableSet<String>> entries() {
+        return ids;
+    }
+
+    /**
+     * The IDs of the documents whose value lies in the range, in value order. A null bound
+     * leaves that side open; null values are never in a range, as for {@code $lt}/{@code $gt}.
+     */
+    Set<String> range(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        NavigableMap<Object, NavigableSet<String>> range = ids.tailMap(Values.NULL, false);
+        if (from != null) {
+            range = range.tailMap(Values.normalize(from), fromInclusive);
+        }
+        if (to != null) {
+            range = range.headMap(Values.normalize(to), toInclusive);
+        }
+        Set<String> result = new LinkedHashSet<>();
+        range.values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * The IDs of the documents in (value, ID) order, ascending or descending, starting at the
+     * given value. Only the part of the index that is consumed is visited.
+     * @param from the first value to include, or null to start at the first value in that order
+     * @param ascending the direction
+     */
+    Stream<String> ordered(Object from, boolean ascending) {
+        NavigableMap<Object, NavigableSet<String>> entries = ascending ? ids : ids.descendingMap();
+        if (from != null) {
+            entries = entries.tailMap(Values.normalize(from), true);
+        }
+        return entries.values().stream()
+                .flatMap(holders -> (ascending ? holders : holders.descendingSet()).stream());
+    }
+}
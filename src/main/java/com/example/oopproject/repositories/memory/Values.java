@@ -0,0 +1,133 @@
+package com.example.oopproject.repositories.memory;
+
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Comparison and equality of document values the way MongoDB applies them to queries,
+ * for the value types the entities use.
+ */
+final class Values {
+
+    /** Index key standing for null and missing values, which the concurrent maps cannot hold. */
+    static final Object NULL = new Object() {
+        @Override
+        public String toString() {
+            return "null";
+        }
+    };
+
+    private Values() {
+    }
+
+    /**
+     * Maps numbers to one type per kind, so that an {@code int} field matches an {@code Integer}
+     * or {@code Long} argument as it does in MongoDB.
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Number) value).doubleValue();
+        }
+        return value;
+    }
+
+    /**
+     * The index keys of a value: the elements of an array (multikey), otherwise the value itself.
+     */
+    static List<Object> keys(Object value) {
+        List<Object> keys = new ArrayList<>();
+        if (value instanceof Collection<?> elements) {
+            elements.forEach(element -> keys.add(element == null ? NULL : normalize(element)));
+        } else {
+            keys.add(value == null ? NULL : normalize(value));
+        }
+        return keys;
+    }
+
+    /**
+     * Equality match of a query value against a document value: an array matches when one of
+     * its elements does, and null matches a null or missing value.
+     */
+    static boolean matches(Object documentValue, Object expected) {
+        Object key = expected == null ? NULL : normalize(expected);
+        return keys(documentValue).contains(key) || Objects.equals(documentValue, expected);
+    }
+
+    /**
+     * Orders values like a MongoDB sort: null first, then numbers, strings, object IDs,
+     * booleans and dates; values of one kind by their natural order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object a, Object b) {
+        if (a == NULL) {
+            a = null;
+        }
+        if (b == NULL) {
+            b = null;
+        }
+        int rank = Integer.compare(rank(a), rank(b));
+        if (rank != 0 || a == null) {
+            return rank;
+        }
+        if (a instanceof Number x && b instanceof Number y) {
+            if (isIntegral(x) && isIntegral(y)) {
+                return Long.compare(x.longValue(), y.longValue());
+            }
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        if (a instanceof Comparable comparable && a.getClass().isInstance(b)) {
+            return comparable.compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    /**
+     * Whether two values are of the same kind in the sort order, which range queries require:
+     * like MongoDB, a date range never matches a string.
+     */
+    static boolean sameKind(Object a, Object b) {
+        return rank(a) == rank(b);
+    }
+
+    /**
+     * The primary key of a stored document, as the repositories use it: the hex string of an
+     * ObjectId, otherwise the ID's string form.
+     */
+    static String idKey(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    private static int rank(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number) {
+            return 1;
+        }
+        if (value instanceof String) {
+            return 2;
+        }
+        if (value instanceof ObjectId) {
+            return 3;
+        }
+        if (value instanceof Boolean) {
+            return 4;
+        }
+        if (value instanceof Date) {
+            return 5;
+        }
+        return 6;
+    }
+}
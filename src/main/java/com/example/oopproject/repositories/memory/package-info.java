@@ -0,0 +1,6 @@
+/**
+ * In-memory implementations of the repositories in the parent package, used instead of the
+ * MongoDB ones when the "memory" profile is active. Documents are kept in their MongoDB form,
+ * with hash and sorted secondary indexes for the derived queries, and can be snapshotted to disk.
+ */
+package com.example.oopproject.repositories.memory;
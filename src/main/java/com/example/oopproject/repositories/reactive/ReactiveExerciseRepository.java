@@ -0,0 +1,20 @@
+package com.example.oopproject.repositories.reactive;
+
+import com.example.oopproject.models.Exercise;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link com.example.oopproject.repositories.ExerciseRepository}
+ * for the read endpoints of the "reactive" profile.
+ */
+public interface ReactiveExerciseRepository extends ReactiveMongoRepository<Exercise, String> {
+
+    /**
+     * Finds all exercises belonging to a specific workout.
+     *
+     * @param workoutId the ID of the workout
+     * @return the exercises of the workout
+     */
+    Flux<Exercise> findByWorkoutId(String workoutId);
+}
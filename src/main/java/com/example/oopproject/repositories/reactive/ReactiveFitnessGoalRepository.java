@@ -0,0 +1,20 @@
+package com.example.oopproject.repositories.reactive;
+
+import com.example.oopproject.models.FitnessGoal;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link com.example.oopproject.repositories.FitnessGoalRepository}
+ * for the read endpoints of the "reactive" profile.
+ */
+public interface ReactiveFitnessGoalRepository extends ReactiveMongoRepository<FitnessGoal, String> {
+
+    /**
+     * Finds all fitness goals by user ID.
+     *
+     * @param userId the user ID
+     * @return the goals of the user
+     */
+    Flux<FitnessGoal> findByUserId(String userId);
+}
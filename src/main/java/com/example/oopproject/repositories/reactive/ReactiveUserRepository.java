@@ -0,0 +1,20 @@
+package com.example.oopproject.repositories.reactive;
+
+import com.example.oopproject.models.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link com.example.oopproject.repositories.UserRepository}
+ * for the read endpoints of the "reactive" profile.
+ */
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+
+    /**
+     * Finds a user by username.
+     *
+     * @param username the username
+     * @return the user, or empty if none has this username
+     */
+    Mono<User> findByUsername(String username);
+}
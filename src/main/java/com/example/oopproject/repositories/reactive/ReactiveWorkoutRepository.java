@@ -0,0 +1,37 @@
+package com.example.oopproject.repositories.reactive;
+
+import com.example.oopproject.models.Workout;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link com.example.oopproject.repositories.WorkoutRepository}
+ * for the read endpoints of the "reactive" profile.
+ */
+public interface ReactiveWorkoutRepository extends ReactiveMongoRepository<Workout, String> {
+
+    /**
+     * Finds all workouts by a specific user ID.
+     *
+     * @param userId the ID of the user
+     * @return the workouts of the user, emitted as the cursor is read
+     */
+    Flux<Workout> findByUserId(String userId);
+
+    /**
+     * Finds all workouts of a specific type.
+     *
+     * @param workoutType the type of the workout (e.g., "cardio")
+     * @return the workouts matching the type
+     */
+    Flux<Workout> findByWorkoutType(String workoutType);
+
+    /**
+     * Finds all workouts of a specific type for a specific user.
+     *
+     * @param userId the ID of the user
+     * @param workoutType the type of the workout
+     * @return the workouts matching both criteria
+     */
+    Flux<Workout> findByUserIdAndWorkoutType(String userId, String workoutType);
+}
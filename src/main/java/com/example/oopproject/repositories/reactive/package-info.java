@@ -0,0 +1,6 @@
+/**
+ * Reactive Spring Data repositories used by the read endpoints of the "reactive" profile.
+ * They map the same collections as the repositories in the parent package but return
+ * {@code Flux}/{@code Mono} and are only created when that profile is active.
+ */
+package com.example.oopproject.repositories.reactive;
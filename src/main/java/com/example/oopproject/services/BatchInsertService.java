@@ -0,0 +1,184 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.dto.BatchItemResult;
+import com.example.oopproject.dto.BatchResult;
+import com.example.oopproject.exceptions.BadRequestException;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Service for inserting large batches of documents.
+ * <p>
+ * Items are validated in parallel, then the valid ones are written with unordered
+ * bulk inserts in chunks of {@code app.batch.chunk-size} documents. Every item gets its
+ * own result, so one bad record never aborts the rest of the batch.
+ * The batch endpoints using it are left out with the memory profile.
+ */
+@Service
+@Profile("!memory")
+public class BatchInsertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchInsertService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxItems;
+
+    /**
+     * Constructor injecting the MongoTemplate, the bean validator and the batch limits.
+     * @param mongoTemplate the template used for bulk writes
+     * @param validator the validator applied to every item
+     * @param chunkSize number of documents per bulk write
+     * @param maxItems maximum number of items accepted in one request
+     */
+    @Autowired
+    public BatchInsertService(MongoTemplate mongoTemplate,
+                              Validator validator,
+                              @Value("${app.batch.chunk-size:1000}") int chunkSize,
+                              @Value("${app.batch.max-items:10000}") int maxItems) {
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Validates and inserts a batch of entities.
+     * Items without an ID get a new ObjectId before they are written.
+     * @param items the entities to insert
+     * @param entityType the mapped entity class
+     * @param idGetter reads the ID of an entity
+     * @param idSetter assigns the ID of an entity
+     * @param <T> the entity type
+     * @return the per-item outcome of the batch
+     * @throws BadRequestException if the batch is empty or larger than the configured maximum
+     */
+    public <T> BatchResult insertAll(List<T> items, Class<T> entityType,
+                                     Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one item");
+        }
+        if (items.size() > maxItems) {
+            throw new BadRequestException("Batch must not contain more than " + maxItems + " items");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+
+        IntStream.range(0, items.size()).parallel().forEach(index -> {
+            List<String> errors = validate(items.get(index));
+            if (!errors.isEmpty()) {
+                results[index] = new BatchItemResult(index, null, BatchItemResult.INVALID, errors);
+            }
+        });
+
+        List<Integer> validIndexes = IntStream.range(0, items.size())
+                .filter(index -> results[index] == null)
+                .boxed()
+                .collect(Collectors.toList());
+
+        for (int start = 0; start < validIndexes.size(); start += chunkSize) {
+            List<Integer> chunk = validIndexes.subList(start, Math.min(start + chunkSize, validIndexes.size()));
+            insertChunk(items, chunk, entityType, idGetter, idSetter, results);
+        }
+
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    /**
+     * Sets the {@code @Version} of a new document to 0, as MongoTemplate.insert does; bulk
+     * inserts leave it unset, and a document without a version would later be saved as new.
+     */
+    private static <T> void initializeVersion(MongoPersistentEntity<?> persistentEntity, T item) {
+        MongoPersistentProperty versionProperty = persistentEntity.getVersionProperty();
+        if (versionProperty != null) {
+            PersistentPropertyAccessor<T> accessor = persistentEntity.getPropertyAccessor(item);
+            if (accessor.getProperty(versionProperty) == null) {
+                accessor.setProperty(versionProperty, 0L);
+            }
+        }
+    }
+
+    private <T> List<String> validate(T item) {
+        if (item == null) {
+            return List.of("Item must not be null");
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private <T> void insertChunk(List<T> items, List<Integer> chunk, Class<T> entityType,
+                                 Function<T, String> idGetter, BiConsumer<T, String> idSetter,
+                                 BatchItemResult[] results) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityType);
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(entityType);
+        List<T> documents = new ArrayList<>(chunk.size());
+
+        for (int index : chunk) {
+            T item = items.get(index);
+            if (idGetter.apply(item) == null) {
+                idSetter.accept(item, new ObjectId().toHexString());
+            }
+            initializeVersion(persistentEntity, item);
+            documents.add(item);
+        }
+        bulkOperations.insert(documents);
+
+        List<String> chunkErrors = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+        String unacknowledged = null;
+        try {
+            bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            // unordered: only the listed documents were rejected, the others were written
+            for (BulkWriteError error : e.getErrors()) {
+                chunkErrors.set(error.getIndex(), error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            // no per-document outcome: any part of the chunk may have been written before the failure
+            logger.error("Bulk insert of {} {} documents failed: {}", chunk.size(),
+                    entityType.getSimpleName(), e.getMessage());
+            unacknowledged = String.valueOf(e.getMessage());
+        }
+
+        for (int position = 0; position < chunk.size(); position++) {
+            int index = chunk.get(position);
+            String id = idGetter.apply(items.get(index));
+            String error = chunkErrors.get(position);
+            if (unacknowledged != null) {
+                results[index] = new BatchItemResult(index, id, BatchItemResult.UNKNOWN, List.of(unacknowledged));
+            } else if (error == null) {
+                results[index] = new BatchItemResult(index, id, BatchItemResult.INSERTED, List.of());
+            } else {
+                results[index] = new BatchItemResult(index, null, BatchItemResult.FAILED, List.of(error));
+            }
+        }
+    }
+}
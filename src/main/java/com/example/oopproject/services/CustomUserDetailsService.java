@@ -1,7 +1,6 @@
 package com.example.oopproject.services;
 
 import com.example.oopproject.models.User;
-import com.example.oopproject.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -13,16 +12,17 @@ import java.util.ArrayList;
 /**
  * Service to load user-specific data for authentication.
  * Implements Spring Security's UserDetailsService to retrieve user details by username.
+ * Lookups go through the {@link UserCache}.
  */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         return new org.springframework.security.core.userdetails.User(
@@ -0,0 +1,135 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.dto.UserDashboard;
+import com.example.oopproject.exceptions.ResourceNotFoundException;
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service assembling a user's dashboard from several independent lookups.
+ * <p>
+ * The user, goals, workouts and exercises are loaded concurrently, each on its own virtual
+ * thread, so the response takes about as long as the slowest lookup. All lookups share one
+ * deadline ({@code app.dashboard.branch-timeout}); a lookup that fails or misses it is
+ * cancelled and reported in {@link UserDashboard#getIncomplete()} while the other parts are
+ * still returned. No lookup outlives the request.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private final UserService userService;
+    private final FitnessGoalService fitnessGoalService;
+    private final WorkoutService workoutService;
+    private final ExerciseService exerciseService;
+    private final Duration branchTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructor injecting the services the dashboard is built from.
+     * @param userService service for the user lookup
+     * @param fitnessGoalService service for the goals lookup
+     * @param workoutService service for the workouts lookup
+     * @param exerciseService service for the exercises lookup
+     * @param branchTimeout how long the lookups may take before they are left out
+     */
+    @Autowired
+    public DashboardService(UserService userService,
+                            FitnessGoalService fitnessGoalService,
+                            WorkoutService workoutService,
+                            ExerciseService exerciseService,
+                            @Value("${app.dashboard.branch-timeout:2s}") Duration branchTimeout) {
+        this.userService = userService;
+        this.fitnessGoalService = fitnessGoalService;
+        this.workoutService = workoutService;
+        this.exerciseService = exerciseService;
+        this.branchTimeout = branchTimeout;
+    }
+
+    /**
+     * Loads a user's dashboard.
+     * @param userId the user ID
+     * @param workoutType only include workouts of this type, or null for all
+     * @param workoutId the workout whose exercises are shown, or null to skip exercises
+     * @return the dashboard, possibly with some parts missing
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    public UserDashboard getDashboard(String userId, String workoutType, String workoutId) {
+        long deadline = System.nanoTime() + branchTimeout.toNanos();
+
+        Future<User> user = executor.submit(() -> userService.getUserById(userId));
+        Future<List<FitnessGoal>> goals = executor.submit(() -> fitnessGoalService.getFitnessGoalsByUserId(userId));
+        Future<List<Workout>> workouts = executor.submit(() -> workoutType != null
+                ? workoutService.searchWorkouts(workoutType, userId)
+                : workoutService.getWorkoutsByUserId(userId));
+        Future<List<Exercise>> exercises = workoutId != null
+                ? executor.submit(() -> exerciseService.getExercisesByFilter(null, null, null, workoutId))
+                : null;
+
+        UserDashboard dashboard = new UserDashboard();
+        try {
+            dashboard.setUser(await("user", user, deadline, dashboard));
+            dashboard.setGoals(await("goals", goals, deadline, dashboard));
+            dashboard.setWorkouts(await("workouts", workouts, deadline, dashboard));
+            if (exercises != null) {
+                dashboard.setExercises(await("exercises", exercises, deadline, dashboard));
+            }
+        } finally {
+            // a no-op for completed lookups; stops the rest when the user was not found
+            for (Future<?> branch : new Future<?>[]{user, goals, workouts, exercises}) {
+                if (branch != null) {
+                    branch.cancel(true);
+                }
+            }
+        }
+        return dashboard;
+    }
+
+    /**
+     * Waits for one lookup until the shared deadline. Failures other than a missing user
+     * are recorded as an incomplete part.
+     */
+    private <T> T await(String part, Future<T> branch, long deadline, UserDashboard dashboard) {
+        try {
+            return branch.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Dashboard part '{}' did not finish within {}", part, branchTimeout);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ResourceNotFoundException notFound) {
+                throw notFound;
+            }
+            logger.warn("Dashboard part '{}' failed: {}", part, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        branch.cancel(true);
+        dashboard.getIncomplete().add(part);
+        return null;
+    }
+
+    /**
+     * Stops the virtual thread executor when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
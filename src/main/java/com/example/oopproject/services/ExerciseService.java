@@ -1,7 +1,11 @@
 package com.example.oopproject.services;
 
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.exceptions.PreconditionFailedException;
 import com.example.oopproject.models.Exercise;
 import com.example.oopproject.repositories.ExerciseRepository;
+import com.example.oopproject.util.ETags;
+import com.example.oopproject.util.RequestCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -9,26 +13,33 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Service class for managing Exercise entities.
  * Provides CRUD operations and filtering/pagination capabilities.
+ * Concurrent identical filter queries are collapsed into one query by the {@link RequestCoalescer}.
  */
 @Service
 public class ExerciseService {
 
     private final ExerciseRepository exerciseRepository;
+    private final RequestCoalescer requestCoalescer;
+
+    /** Name of the exercise filter queries in the {@link RequestCoalescer} and its metrics. */
+    public static final String QUERIES = "exercises";
 
     /**
-     * Constructor for ExerciseService with dependency injection of ExerciseRepository.
+     * Constructor for ExerciseService with dependency injection of ExerciseRepository and the request coalescer.
      * @param exerciseRepository the repository to manage Exercise data access
+     * @param requestCoalescer coalescer collapsing concurrent identical filter queries
      */
     @Autowired
-    public ExerciseService(ExerciseRepository exerciseRepository) {
+    public ExerciseService(ExerciseRepository exerciseRepository, RequestCoalescer requestCoalescer) {
         this.exerciseRepository = exerciseRepository;
+        this.requestCoalescer = requestCoalescer;
     }
 
     /**
@@ -37,7 +48,9 @@ public class ExerciseService {
      * @return the created Exercise
      */
     public Exercise createExercise(Exercise exercise) {
-        return exerciseRepository.save(exercise);
+        Exercise savedExercise = exerciseRepository.save(exercise);
+        requestCoalescer.invalidate(QUERIES);
+        return savedExercise;
     }
 
     /**
@@ -55,8 +68,22 @@ public class ExerciseService {
      * @return the updated or newly created Exercise
      */
     public Exercise updateExercise(String id, Exercise updatedExercise) {
-        return exerciseRepository.findById(id)
+        return updateExercise(id, updatedExercise, null);
+    }
+
+    /**
+     * Updates an existing Exercise by ID if it is still at the expected version,
+     * or creates it if not found and no version is expected.
+     * @param id the ID of the Exercise to update
+     * @param updatedExercise the Exercise data to update
+     * @param expectedVersion the version the caller last read (If-Match), or null to write unconditionally
+     * @return the updated or newly created Exercise
+     * @throws PreconditionFailedException if the exercise has another version or does not exist
+     */
+    public Exercise updateExercise(String id, Exercise updatedExercise, Long expectedVersion) {
+        Exercise savedExercise = exerciseRepository.findById(id)
                 .map(exercise -> {
+                    ETags.requireVersion(expectedVersion, exercise.getVersion(), "Exercise " + id);
                     exercise.setName(updatedExercise.getName());
                     exercise.setReps(updatedExercise.getReps());
                     exercise.setSets(updatedExercise.getSets());
@@ -68,9 +95,14 @@ public class ExerciseService {
                     return exerciseRepository.save(exercise);
                 })
                 .orElseGet(() -> {
+                    if (expectedVersion != null) {
+                        throw new PreconditionFailedException("Exercise " + id + " does not exist");
+                    }
                     updatedExercise.setId(id);
                     return exerciseRepository.save(updatedExercise);
                 });
+        requestCoalescer.invalidate(QUERIES);
+        return savedExercise;
     }
 
     /**
@@ -80,6 +112,7 @@ public class ExerciseService {
     public void deleteExercise(String id) {
         if (exerciseRepository.existsById(id)) {
             exerciseRepository.deleteById(id);
+            requestCoalescer.invalidate(QUERIES);
         }
     }
 
@@ -109,9 +142,24 @@ public class ExerciseService {
         return exerciseRepository.findAll(pageable);
     }
 
+    /**
+     * Retrieves the page of exercises following the given cursor.
+     * Unlike {@link #getExercisesPaginated}, the cost of a page does not grow with its depth.
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the size of the page
+     * @param sortBy the field to sort by
+     * @param direction the sort direction ("asc" or "desc")
+     * @return the exercises of the page and the cursor for the next page
+     */
+    public CursorPage<Exercise> getExercisesAfter(String cursor, int size, String sortBy, String direction) {
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return exerciseRepository.findPageAfter(cursor, size, sortBy, sortDirection);
+    }
+
     /**
      * Filters exercises by reps, sets, name, and workoutId criteria.
      * Null parameters mean no filtering on that field.
+     * The filter is executed as a single MongoDB query.
      * @param reps the number of reps to filter by, or null
      * @param sets the number of sets to filter by, or null
      * @param name substring to filter by exercise name, or null
@@ -119,14 +167,30 @@ public class ExerciseService {
      * @return list of Exercise entities matching all provided filters
      */
     public List<Exercise> getExercisesByFilter(Integer reps, Integer sets, String name, String workoutId) {
-        List<Exercise> exercises = exerciseRepository.findAll();
-
-        return exercises.stream()
-                .filter(exercise -> reps == null || exercise.getReps() == reps)
-                .filter(exercise -> sets == null || exercise.getSets() == sets)
-                .filter(exercise -> name == null || exercise.getName().toLowerCase().contains(name.toLowerCase()))
-                .filter(exercise -> workoutId == null || exercise.getWorkoutId().equals(workoutId))
-                .collect(Collectors.toList());
+        return requestCoalescer.coalesce(QUERIES, Arrays.asList("byFilter", reps, sets, name, workoutId),
+                () -> exerciseRepository.findByFilter(reps, sets, name, workoutId));
     }
-}
 
+    /**
+     * Filters exercises by reps, sets, name, and workoutId criteria and returns one page of results.
+     * Null parameters mean no filtering on that field.
+     * @param reps the number of reps to filter by, or null
+     * @param sets the number of sets to filter by, or null
+     * @param name substring to filter by exercise name, or null
+     * @param workoutId the workout ID to filter by, or null
+     * @param page the page number (zero-based)
+     * @param size the size of the page
+     * @param sortBy the field to sort by
+     * @param direction the sort direction ("asc" or "desc")
+     * @return a Page of Exercise entities matching all provided filters
+     */
+    public Page<Exercise> getExercisesByFilter(Integer reps, Integer sets, String name, String workoutId,
+                                               int page, int size, String sortBy, String direction) {
+        Sort sort = direction.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() :
+                Sort.by(sortBy).ascending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+        return exerciseRepository.findByFilter(reps, sets, name, workoutId, pageable);
+    }
+}
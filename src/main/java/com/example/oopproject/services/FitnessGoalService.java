@@ -3,30 +3,55 @@ package com.example.oopproject.services;
 import com.example.oopproject.exceptions.ResourceNotFoundException;
 import com.example.oopproject.models.FitnessGoal;
 import com.example.oopproject.repositories.FitnessGoalRepository;
+import com.example.oopproject.util.RequestCoalescer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 /**
  * Service class for managing FitnessGoal entities.
  * Provides methods for CRUD operations and querying fitness goals by various criteria.
+ * Concurrent identical lookups by user are collapsed into one query by the {@link RequestCoalescer}.
  */
 @Service
 public class FitnessGoalService {
 
     private final FitnessGoalRepository fitnessGoalRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<MergePatchService> mergePatchService;
+    private final RequestCoalescer requestCoalescer;
+
+    /** Name of the goal lookups in the {@link RequestCoalescer} and its metrics. */
+    static final String QUERIES = "fitness-goals";
 
     /**
-     * Constructor injecting FitnessGoalRepository.
+     * Constructor injecting FitnessGoalRepository, MongoTemplate, the merge patch service and the request coalescer.
      * @param fitnessGoalRepository repository for FitnessGoal persistence
+     * @param mongoTemplate template used for atomic updates
+     * @param mergePatchService service applying merge patches, missing with the memory profile
+     * @param requestCoalescer coalescer collapsing concurrent identical lookups
      */
     @Autowired
-    public FitnessGoalService(FitnessGoalRepository fitnessGoalRepository) {
+    public FitnessGoalService(FitnessGoalRepository fitnessGoalRepository, MongoTemplate mongoTemplate,
+                              ObjectProvider<MergePatchService> mergePatchService, RequestCoalescer requestCoalescer) {
         this.fitnessGoalRepository = fitnessGoalRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.mergePatchService = mergePatchService;
+        this.requestCoalescer = requestCoalescer;
     }
 
     /**
@@ -63,7 +88,8 @@ public class FitnessGoalService {
      * @return list of FitnessGoal entities for the user
      */
     public List<FitnessGoal> getFitnessGoalsByUserId(String userId) {
-        return fitnessGoalRepository.findByUserId(userId);
+        return requestCoalescer.coalesce(QUERIES, Arrays.asList("byUserId", userId),
+                () -> fitnessGoalRepository.findByUserId(userId));
     }
 
     /**
@@ -73,7 +99,8 @@ public class FitnessGoalService {
      * @return list of FitnessGoal entities matching criteria
      */
     public List<FitnessGoal> getFitnessGoalsByUserIdAndType(String userId, String goalType) {
-        return fitnessGoalRepository.findByUserIdAndGoalType(userId, goalType);
+        return requestCoalescer.coalesce(QUERIES, Arrays.asList("byUserIdAndType", userId, goalType),
+                () -> fitnessGoalRepository.findByUserIdAndGoalType(userId, goalType));
     }
 
     /**
@@ -83,7 +110,8 @@ public class FitnessGoalService {
      * @return list of FitnessGoal entities matching criteria
      */
     public List<FitnessGoal> getFitnessGoalsByUserIdAndStatus(String userId, String status) {
-        return fitnessGoalRepository.findByUserIdAndStatus(userId, status);
+        return requestCoalescer.coalesce(QUERIES, Arrays.asList("byUserIdAndStatus", userId, status),
+                () -> fitnessGoalRepository.findByUserIdAndStatus(userId, status));
     }
 
     /**
@@ -101,7 +129,9 @@ public class FitnessGoalService {
      * @return the created FitnessGoal
      */
     public FitnessGoal createFitnessGoal(FitnessGoal fitnessGoal) {
-        return fitnessGoalRepository.save(fitnessGoal);
+        FitnessGoal savedGoal = fitnessGoalRepository.save(fitnessGoal);
+        requestCoalescer.invalidate(QUERIES);
+        return savedGoal;
     }
 
     /**
@@ -132,35 +162,73 @@ public class FitnessGoalService {
 
         fitnessGoal.setUpdatedAt(new Date());
 
-        return fitnessGoalRepository.save(fitnessGoal);
+        FitnessGoal savedGoal = fitnessGoalRepository.save(fitnessGoal);
+        requestCoalescer.invalidate(QUERIES);
+        return savedGoal;
     }
 
     /**
      * Updates the progress of a fitness goal by setting the current value and optionally the status.
      * Sets completed date if status is changed to completed.
      * Updates the updatedAt timestamp.
+     * The goal is modified in place with a single findAndModify, so progress reported concurrently
+     * by the workout events is never overwritten with a stale copy.
      * @param id the ID of the FitnessGoal
      * @param currentValue the current progress value
      * @param status the status (optional)
      * @return the updated FitnessGoal entity
+     * @throws ResourceNotFoundException if fitness goal is not found
      */
     public FitnessGoal updateGoalProgress(String id, double currentValue, String status) {
-        FitnessGoal fitnessGoal = getFitnessGoalById(id);
-
-        fitnessGoal.setCurrentValue(currentValue);
+        Date now = new Date();
+        Update update = new Update().set("currentValue", currentValue).set("updatedAt", now).inc("version", 1);
 
         if (status != null && !status.isEmpty()) {
-            fitnessGoal.setStatus(status);
+            update.set("status", status);
 
-            // If status is changed to completed, set the completed date
-            if ("completed".equals(status) && fitnessGoal.getCompletedDate() == null) {
-                fitnessGoal.setCompletedDate(new Date());
+            // If status is changed to completed, set the completed date unless it already has one
+            if ("completed".equals(status)) {
+                update.min("completedDate", now);
             }
         }
 
-        fitnessGoal.setUpdatedAt(new Date());
+        FitnessGoal fitnessGoal = mongoTemplate.findAndModify(new Query(where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), FitnessGoal.class);
+        if (fitnessGoal == null) {
+            throw new ResourceNotFoundException("Fitness goal not found with id: " + id);
+        }
+        requestCoalescer.invalidate(QUERIES);
+        return fitnessGoal;
+    }
 
-        return fitnessGoalRepository.save(fitnessGoal);
+    /**
+     * Applies a JSON merge patch to a fitness goal with a single atomic update.
+     * A status patched to completed also sets the completed date unless the patch sets it.
+     * @param id the ID of the FitnessGoal
+     * @param patch the merge patch
+     * @param expectedVersion the version the caller last read (If-Match), or null to patch unconditionally
+     * @return the patched FitnessGoal entity
+     * @throws ResourceNotFoundException if fitness goal is not found
+     * @throws com.example.oopproject.exceptions.PreconditionFailedException if the goal has another version
+     */
+    public FitnessGoal patchFitnessGoal(String id, JsonNode patch, Long expectedVersion) {
+        // completion is part of the same update, so the goal is written once with one new version
+        boolean completes = patch != null && "completed".equals(patch.path("status").asText(null))
+                && !patch.has("completedDate");
+        Date now = new Date();
+        FitnessGoal fitnessGoal = mergePatchService.getObject().apply(FitnessGoal.class, id, patch, expectedVersion, Set.of(),
+                update -> {
+                    if (completes) {
+                        // $min keeps a completed date the goal already has
+                        update.min("completedDate", now);
+                    }
+                }).current();
+        requestCoalescer.invalidate(QUERIES);
+
+        if (completes && fitnessGoal.getCompletedDate() == null) {
+            fitnessGoal.setCompletedDate(now);
+        }
+        return fitnessGoal;
     }
 
     /**
@@ -170,5 +238,6 @@ public class FitnessGoalService {
     public void deleteFitnessGoal(String id) {
         FitnessGoal fitnessGoal = getFitnessGoalById(id);
         fitnessGoalRepository.delete(fitnessGoal);
+        requestCoalescer.invalidate(QUERIES);
     }
 }
@@ -0,0 +1,157 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.util.RequestCoalescer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service marking fitness goals whose target date has passed as "expired".
+ * <p>
+ * A sweep walks the overdue goals that are not completed, abandoned or expired yet with a
+ * cursor on the {@code status_target_date_idx} index, fetching only their ID and target date
+ * {@code app.goals.expiry-sweep.batch-size} at a time, and expires each batch with one
+ * {@code updateMany}. Memory use therefore does not depend on how many goals are overdue,
+ * and goals that are completed while the sweep runs are left alone. An expired goal leaves
+ * the index range the cursor scans, so it is never visited twice. Each batch that expires
+ * goals invalidates the goal lookups collapsed by the {@link RequestCoalescer}.
+ * <p>
+ * Metrics: {@code fitness_goals.expired} counts the expired goals (its rate is the sweep
+ * throughput), {@code fitness_goals.expiry.sweep} times the sweeps and
+ * {@code fitness_goals.expiry.lag} holds how long past its target date the oldest goal of the
+ * last sweep was, which grows when the sweeper falls behind.
+ * Goals do not expire with the memory profile, which has no sweeper.
+ */
+@Service
+@Profile("!memory")
+public class GoalExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoalExpirySweeper.class);
+
+    static final String EXPIRED = "expired";
+    static final List<String> TERMINAL_STATUSES = List.of("completed", "abandoned", EXPIRED);
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final RequestCoalescer requestCoalescer;
+
+    private final Counter expiredCounter;
+    private final Timer sweepTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    /**
+     * Constructs the sweeper and registers its metrics.
+     * @param mongoTemplate the template used to read and update the goals
+     * @param batchSize the number of goals read per cursor batch and expired per update
+     * @param meterRegistry the registry for the sweep metrics
+     * @param requestCoalescer coalescer whose goal lookups are invalidated when goals expire
+     */
+    @Autowired
+    public GoalExpirySweeper(MongoTemplate mongoTemplate,
+                             @Value("${app.goals.expiry-sweep.batch-size:1000}") int batchSize,
+                             MeterRegistry meterRegistry,
+                             RequestCoalescer requestCoalescer) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.requestCoalescer = requestCoalescer;
+
+        this.expiredCounter = Counter.builder("fitness_goals.expired")
+                .description("Fitness goals marked as expired by the sweeper")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("fitness_goals.expiry.sweep")
+                .description("Duration of the expired goal sweeps")
+                .register(meterRegistry);
+        Gauge.builder("fitness_goals.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("How long past its target date the oldest goal expired by the last sweep was")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expires every goal whose target date is before the start of the sweep.
+     * Runs on {@code app.goals.expiry-sweep.cron}.
+     * @return the number of goals expired
+     */
+    @Scheduled(cron = "${app.goals.expiry-sweep.cron:-}", zone = "UTC")
+    public long sweep() {
+        Timer.Sample sample = Timer.start();
+        try {
+            return sweep(new Date());
+        } finally {
+            sample.stop(sweepTimer);
+        }
+    }
+
+    private long sweep(Date cutoff) {
+        long started = System.nanoTime();
+        Date oldestTargetDate = null;
+        long expired = 0;
+
+        Query overdue = new Query(where("status").nin(TERMINAL_STATUSES).and("targetDate").lt(cutoff))
+                .cursorBatchSize(batchSize);
+        overdue.fields().include("targetDate");
+
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Stream<FitnessGoal> goals = mongoTemplate.stream(overdue, FitnessGoal.class)) {
+            Iterator<FitnessGoal> iterator = goals.iterator();
+            while (iterator.hasNext()) {
+                FitnessGoal goal = iterator.next();
+                if (oldestTargetDate == null || goal.getTargetDate().before(oldestTargetDate)) {
+                    oldestTargetDate = goal.getTargetDate();
+                }
+                batch.add(goal.getId());
+                if (batch.size() == batchSize) {
+                    expired += expire(batch, cutoff);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            expired += expire(batch, cutoff);
+        }
+
+        lagSeconds.set(oldestTargetDate == null ? 0 : TimeUnit.MILLISECONDS.toSeconds(cutoff.getTime() - oldestTargetDate.getTime()));
+        if (expired > 0) {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            logger.info("Expired {} fitness goal(s) in {} s ({} goals/s)", expired,
+                    String.format("%.1f", seconds), Math.round(expired / Math.max(seconds, 0.001)));
+        }
+        return expired;
+    }
+
+    /**
+     * Expires one batch of goals, skipping any that reached a terminal status since they were read.
+     */
+    private long expire(List<String> ids, Date cutoff) {
+        Query query = new Query(where("_id").in(ids).and("status").nin(TERMINAL_STATUSES).and("targetDate").lt(cutoff));
+        Update update = new Update().set("status", EXPIRED).set("updatedAt", new Date()).inc("version", 1);
+        long modified = mongoTemplate.updateMulti(query, update, FitnessGoal.class).getModifiedCount();
+        if (modified > 0) {
+            requestCoalescer.invalidate(FitnessGoalService.QUERIES);
+        }
+        expiredCounter.increment(modified);
+        return modified;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.util.RequestCoalescer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service advancing fitness goals from the workouts a user records.
+ * <p>
+ * Goals of type {@code "calories"}, {@code "duration"} (minutes) and {@code "sessions"}
+ * (number of workouts) are tracked automatically: every {@link WorkoutChangedEvent} adds
+ * its difference to a per-user, per-day delta kept in memory, and every
+ * {@code app.goals.progress-window} the pending deltas are applied to the matching
+ * "in progress" goals with {@code $inc} updates sent as one unordered bulk write. A user
+ * logging ten workouts in a burst therefore costs one update per goal type instead of ten.
+ * A workout only counts for goals whose period (start date to target date) contains its day.
+ * Goals that reached their target are then switched to "completed" by a single update,
+ * and the goal lookups collapsed by the {@link RequestCoalescer} are invalidated.
+ * Both updates increment the goal's {@code version}, so its ETag changes and a concurrent
+ * save of a stale copy fails instead of overwriting the progress.
+ * <p>
+ * Pending deltas are flushed on shutdown; a crash loses at most one window of progress.
+ * Not created with the memory profile, where goals are not updated from workouts.
+ */
+@Service
+@Profile("!memory")
+public class GoalProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoalProgressService.class);
+
+    static final String IN_PROGRESS = "in progress";
+    static final String COMPLETED = "completed";
+
+    /**
+     * The goal types updated from workouts, with the value each workout contributes.
+     */
+    enum Metric {
+        CALORIES("calories"),
+        DURATION("duration"),
+        SESSIONS("sessions");
+
+        private final String goalType;
+
+        Metric(String goalType) {
+            this.goalType = goalType;
+        }
+
+        String goalType() {
+            return goalType;
+        }
+
+        private static List<String> goalTypes() {
+            return Arrays.stream(values()).map(Metric::goalType).toList();
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskScheduler taskScheduler;
+    private final Duration window;
+    private final RequestCoalescer requestCoalescer;
+
+    private final Map<PendingKey, Delta> pending = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Constructor injecting the dependencies.
+     * @param mongoTemplate the template used to update the goals
+     * @param taskScheduler the scheduler running the periodic flush
+     * @param window how long workout changes are collected before they are applied
+     * @param requestCoalescer coalescer whose goal lookups are invalidated after each flush
+     */
+    @Autowired
+    public GoalProgressService(MongoTemplate mongoTemplate,
+                               TaskScheduler taskScheduler,
+                               @Value("${app.goals.progress-window:2s}") Duration window,
+                               RequestCoalescer requestCoalescer) {
+        this.mongoTemplate = mongoTemplate;
+        this.taskScheduler = taskScheduler;
+        this.window = window;
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    @PostConstruct
+    public void start() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flush, window);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flush();
+    }
+
+    /**
+     * Queues the goal progress caused by a workout change.
+     * @param event the change
+     */
+    @EventListener
+    public void onWorkoutChanged(WorkoutChangedEvent event) {
+        add(event.getPrevious(), -1);
+        add(event.getCurrent(), 1);
+    }
+
+    /**
+     * Applies the pending progress to the goals and completes the goals that reached their target.
+     * @return the number of goals completed
+     */
+    public synchronized long flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FitnessGoal.class);
+        Set<String> userIds = new HashSet<>();
+        Date now = new Date();
+        int updates = 0;
+
+        for (PendingKey key : List.copyOf(pending.keySet())) {
+            // changes arriving from here on start a new delta for the next flush
+            Delta delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            for (Metric metric : Metric.values()) {
+                double amount = delta.of(metric);
+                if (amount != 0) {
+                    bulkOperations.updateMulti(goalsCounting(key, metric),
+                            new Update().inc("currentValue", amount).inc("version", 1).set("updatedAt", now));
+                    userIds.add(key.userId());
+                    updates++;
+                }
+            }
+        }
+
+        if (updates == 0) {
+            return 0;
+        }
+
+        try {
+            bulkOperations.execute();
+
+            Query reached = new Query(where("userId").in(userIds)
+                    .and("goalType").in(Metric.goalTypes())
+                    .and("status").is(IN_PROGRESS)
+                    .andOperator(Criteria.expr(ComparisonOperators.valueOf("currentValue").greaterThanEqualTo("targetValue"))));
+            Update complete = new Update().set("status", COMPLETED).set("completedDate", now).set("updatedAt", now)
+                    .inc("version", 1);
+            long completed = mongoTemplate.updateMulti(reached, complete, FitnessGoal.class).getModifiedCount();
+            if (completed > 0) {
+                logger.info("{} fitness goal(s) reached their target", completed);
+            }
+            return completed;
+        } catch (DataAccessException e) {
+            // not retried: part of the bulk write may have been applied already
+            logger.error("Could not apply the progress of {} goal update(s) for {} user(s)", updates, userIds.size(), e);
+            return 0;
+        } finally {
+            requestCoalescer.invalidate(FitnessGoalService.QUERIES);
+        }
+    }
+
+    private void add(Workout workout, int sign) {
+        if (workout == null || workout.getUserId() == null || workout.getDate() == null) {
+            return;
+        }
+        PendingKey key = new PendingKey(workout.getUserId(), LocalDate.ofInstant(workout.getDate().toInstant(), ZoneOffset.UTC));
+        Delta delta = new Delta(sign * workout.getCaloriesBurned(), sign * workout.getDuration(), sign);
+        pending.merge(key, delta, Delta::plus);
+    }
+
+    private static Query goalsCounting(PendingKey key, Metric metric) {
+        Date dayStart = Date.from(key.day().atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date dayEnd = Date.from(key.day().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        return new Query(where("userId").is(key.userId())
+                .and("goalType").is(metric.goalType())
+                .and("status").is(IN_PROGRESS)
+                .and("startDate").lt(dayEnd)
+                .and("targetDate").gte(dayStart));
+    }
+
+    private record PendingKey(String userId, LocalDate day) {
+    }
+
+    private record Delta(double calories, double duration, long sessions) {
+
+        Delta plus(Delta other) {
+            return new Delta(calories + other.calories, duration + other.duration, sessions + other.sessions);
+        }
+
+        double of(Metric metric) {
+            return switch (metric) {
+                case CALORIES -> calories;
+                case DURATION -> duration;
+                case SESSIONS -> sessions;
+            };
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.dto.LeaderboardEntry;
+import com.example.oopproject.services.LeaderboardService.Metric;
+import com.example.oopproject.util.OrderStatisticSkipList;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The workout totals of every user in one week or month, ranked by calories and by duration.
+ * Users whose workouts were all deleted or moved to another period leave the leaderboard.
+ * All methods are synchronized.
+ */
+final class Leaderboard {
+
+    private final Map<String, Totals> totals = new HashMap<>();
+    private final OrderStatisticSkipList<String> byCalories = new OrderStatisticSkipList<>();
+    private final OrderStatisticSkipList<String> byDuration = new OrderStatisticSkipList<>();
+
+    /**
+     * A user's totals in the period.
+     */
+    record Totals(long workouts, long calories, long duration) {
+
+        Totals plus(Totals other) {
+            return new Totals(workouts + other.workouts, calories + other.calories, duration + other.duration);
+        }
+    }
+
+    /**
+     * Adds (or with negative values subtracts) workouts to a user's totals and moves the user accordingly.
+     */
+    synchronized void add(String userId, Totals delta) {
+        Totals updated = totals.merge(userId, delta, Totals::plus);
+        if (updated.workouts() <= 0) {
+            totals.remove(userId);
+            byCalories.remove(userId);
+            byDuration.remove(userId);
+            return;
+        }
+        byCalories.put(userId, updated.calories());
+        byDuration.put(userId, updated.duration());
+    }
+
+    /**
+     * The entries from a rank on, best first.
+     */
+    synchronized List<LeaderboardEntry> range(Metric metric, long fromRank, int count) {
+        return ranking(metric).range(fromRank, count).stream()
+                .map(entry -> new LeaderboardEntry(entry.rank(), entry.member(), entry.score()))
+                .toList();
+    }
+
+    /**
+     * A user's entry, or null if the user has no workouts in the period.
+     */
+    synchronized LeaderboardEntry entryOf(Metric metric, String userId) {
+        OrderStatisticSkipList<String> ranking = ranking(metric);
+        long rank = ranking.rank(userId);
+        return rank == 0 ? null : new LeaderboardEntry(rank, userId, ranking.score(userId));
+    }
+
+    synchronized int size() {
+        return totals.size();
+    }
+
+    /**
+     * A copy of the totals by user.
+     */
+    synchronized Map<String, Totals> totals() {
+        return Map.copyOf(totals);
+    }
+
+    private OrderStatisticSkipList<String> ranking(Metric metric) {
+        return metric == Metric.CALORIES ? byCalories : byDuration;
+    }
+}
@@ -0,0 +1,501 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.dto.LeaderboardEntry;
+import com.example.oopproject.dto.LeaderboardPage;
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.exceptions.ResourceNotFoundException;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.models.WorkoutRollup.Period;
+import com.example.oopproject.repositories.WorkoutRepository;
+import com.example.oopproject.services.Leaderboard.Totals;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Service maintaining the weekly and monthly leaderboards of users ranked by calories burned
+ * and by workout duration.
+ * <p>
+ * Each week and month has an in-memory {@link Leaderboard} holding every user's totals in two
+ * order-statistic skip lists, so the top users and the rank of one user are read in O(log n)
+ * without aggregating the workouts collection. Every {@link WorkoutChangedEvent} moves the
+ * workout's user on the boards of its week and month. Periods are computed in UTC like the
+ * {@link com.example.oopproject.models.WorkoutRollup rollups}; the current period and the
+ * previous {@code app.leaderboards.history} ones are kept, older workouts are ignored.
+ * <p>
+ * The boards are rebuilt from the workouts in the background at startup, and again on
+ * {@code app.leaderboards.rebuild-cron} to correct any drift, such as workouts written by another
+ * instance. When {@code app.leaderboards.snapshot.path} is set, they are also saved to that file
+ * every {@code app.leaderboards.snapshot.interval} and at shutdown; at startup the snapshot is
+ * loaded first, so the boards are served at once. Without a snapshot the boards only hold the
+ * changes since startup until the first rebuild completes.
+ * <p>
+ * Changes made while a rebuild streams the workouts keep moving users on the boards being served,
+ * and are also buffered; when the stream ends they are replayed on the rebuilt boards before those
+ * replace the current ones. A change the stream already read, recognized by the workout's version,
+ * is not replayed, so no change is lost or counted twice.
+ * Never lazily initialized, so that the rebuild starts with the application.
+ */
+@Service
+@Lazy(false)
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    /** Largest number of entries returned by one request. */
+    static final int MAX_LIMIT = 100;
+
+    private static final List<Period> PERIODS = List.of(Period.WEEK, Period.MONTH);
+
+    /** Version recorded for a workout once its deletion is replayed. */
+    private static final long DELETED = Long.MAX_VALUE;
+
+    /**
+     * The workout totals users are ranked by.
+     */
+    public enum Metric {
+        CALORIES, DURATION;
+
+        /**
+         * Parses a metric name such as {@code "calories"}, ignoring case.
+         *
+         * @param value the metric name
+         * @return the matching metric
+         * @throws BadRequestException if the name is unknown
+         */
+        public static Metric fromString(String value) {
+            try {
+                return Metric.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown metric '" + value + "', expected calories or duration");
+            }
+        }
+    }
+
+    /**
+     * Identifies the board of one week or month.
+     */
+    record BoardKey(Period period, LocalDate start) {
+    }
+
+    private final WorkoutRepository workoutRepository;
+    private final TaskScheduler taskScheduler;
+    private final int history;
+    private final Path snapshotFile;
+    private final Duration snapshotInterval;
+    private final Clock clock;
+
+    private volatile Map<BoardKey, Leaderboard> boards = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> snapshotTask;
+    private volatile Thread startupRebuild;
+
+    /** Changes are applied under the read lock; the rebuild swaps the boards under the write lock. */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    /** Changes made while a rebuild runs, null otherwise. */
+    private Queue<WorkoutChangedEvent> pending;
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Constructor injecting the dependencies.
+     * @param workoutRepository the repository the boards are rebuilt from
+     * @param taskScheduler the scheduler running the periodic snapshot
+     * @param history the number of past weeks and months kept besides the current ones
+     * @param snapshotPath the snapshot file, or empty for no snapshots
+     * @param snapshotInterval the time between two snapshots
+     */
+    @Autowired
+    public LeaderboardService(WorkoutRepository workoutRepository,
+                              TaskScheduler taskScheduler,
+                              @Value("${app.leaderboards.history:12}") int history,
+                              @Value("${app.leaderboards.snapshot.path:}") String snapshotPath,
+                              @Value("${app.leaderboards.snapshot.interval:5m}") Duration snapshotInterval) {
+        this(workoutRepository, taskScheduler, history,
+                snapshotPath.isBlank() ? null : Path.of(snapshotPath), snapshotInterval, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor with an explicit clock.
+     * @param workoutRepository the repository the boards are rebuilt from
+     * @param taskScheduler the scheduler running the periodic snapshot
+     * @param history the number of past weeks and months kept besides the current ones
+     * @param snapshotFile the snapshot file, or null for no snapshots
+     * @param snapshotInterval the time between two snapshots
+     * @param clock the clock deciding the current period
+     */
+    LeaderboardService(WorkoutRepository workoutRepository, TaskScheduler taskScheduler, int history,
+                       Path snapshotFile, Duration snapshotInterval, Clock clock) {
+        this.workoutRepository = workoutRepository;
+        this.taskScheduler = taskScheduler;
+        this.history = history;
+        this.snapshotFile = snapshotFile;
+        this.snapshotInterval = snapshotInterval;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (snapshotFile != null) {
+            loadSnapshot();
+        }
+        startupRebuild = Thread.ofVirtual().name("leaderboard-rebuild").start(this::rebuildQuietly);
+        if (snapshotFile != null) {
+            snapshotTask = taskScheduler.scheduleWithFixedDelay(this::saveSnapshot,
+                    taskScheduler.getClock().instant().plus(snapshotInterval), snapshotInterval);
+        }
+    }
+
+    /**
+     * Waits for the rebuild started by {@link #start()} to complete.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitStartupRebuild() throws InterruptedException {
+        Thread rebuild = startupRebuild;
+        if (rebuild != null) {
+            rebuild.join();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (snapshotTask != null) {
+            snapshotTask.cancel(false);
+        }
+        if (snapshotFile != null) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * Moves the user of a changed workout on the boards of its week and month.
+     * @param event the change
+     */
+    @EventListener
+    public void onWorkoutChanged(WorkoutChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            apply(boards, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a range of a leaderboard, best first.
+     * @param period "week" or "month"
+     * @param metric "calories" or "duration"
+     * @param date a day of the period, or null for the current one
+     * @param offset the number of users skipped from the top
+     * @param limit the maximum number of entries, at most {@value #MAX_LIMIT}
+     * @return the entries; empty if nobody has workouts in the period or the period is no longer kept
+     * @throws BadRequestException if a parameter is invalid
+     */
+    public LeaderboardPage getLeaderboard(String period, String metric, Date date, int offset, int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Expected offset >= 0 and 1 <= limit <= " + MAX_LIMIT);
+        }
+        Metric parsedMetric = Metric.fromString(metric);
+        BoardKey key = boardKey(period, date);
+        Leaderboard board = boards.get(key);
+        if (board == null) {
+            return page(key, parsedMetric, 0, List.of());
+        }
+        return page(key, parsedMetric, board.size(), board.range(parsedMetric, offset + 1L, limit));
+    }
+
+    /**
+     * Retrieves a user's rank on a leaderboard.
+     * @param userId the user ID
+     * @param period "week" or "month"
+     * @param metric "calories" or "duration"
+     * @param date a day of the period, or null for the current one
+     * @return the page holding the user's entry
+     * @throws BadRequestException if a parameter is invalid
+     * @throws ResourceNotFoundException if the user has no workouts in the period
+     */
+    public LeaderboardPage getRank(String userId, String period, String metric, Date date) {
+        Metric parsedMetric = Metric.fromString(metric);
+        BoardKey key = boardKey(period, date);
+        Leaderboard board = boards.get(key);
+        LeaderboardEntry entry = board == null ? null : board.entryOf(parsedMetric, userId);
+        if (entry == null) {
+            throw new ResourceNotFoundException("User " + userId + " has no workouts in the "
+                    + key.period().name().toLowerCase(Locale.ROOT) + " starting " + key.start());
+        }
+        return page(key, parsedMetric, board.size(), List.of(entry));
+    }
+
+    /**
+     * Recomputes the kept boards from the workouts collection and replaces the current ones,
+     * replaying the changes made meanwhile.
+     * @return the number of boards built
+     */
+    @Scheduled(cron = "${app.leaderboards.rebuild-cron:0 0 4 * * *}", zone = "UTC")
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            Queue<WorkoutChangedEvent> changes = new ConcurrentLinkedQueue<>();
+            swapLock.writeLock().lock();
+            try {
+                pending = changes;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            Map<BoardKey, Leaderboard> rebuilt = new ConcurrentHashMap<>();
+            // the version each streamed workout was counted at, to recognize the changes the stream already read
+            Map<String, Long> counted = new HashMap<>();
+            try {
+                Date from = toDate(PERIODS.stream().map(this::oldestKept).min(LocalDate::compareTo).orElseThrow());
+                try (Stream<Workout> workouts = workoutRepository.streamByDateGreaterThanEqual(from)) {
+                    workouts.forEach(workout -> {
+                        add(rebuilt, workout, 1);
+                        if (workout.getId() != null && workout.getVersion() != null) {
+                            counted.put(workout.getId(), workout.getVersion());
+                        }
+                    });
+                }
+            } catch (RuntimeException | Error e) {
+                swapLock.writeLock().lock();
+                try {
+                    pending = null;
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                replay(rebuilt, changes, counted);
+                boards = rebuilt;
+                pending = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            logger.info("Rebuilt {} leaderboards, replaying {} changes made meanwhile", rebuilt.size(), changes.size());
+            return rebuilt.size();
+        }
+    }
+
+    /**
+     * Writes all boards to the snapshot file, one user's totals in one period per line.
+     * Failures are logged, the next save retries.
+     */
+    public synchronized void saveSnapshot() {
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    for (Map.Entry<BoardKey, Leaderboard> board : boards.entrySet()) {
+                        for (Map.Entry<String, Totals> user : board.getValue().totals().entrySet()) {
+                            writer.write(new Document("period", board.getKey().period().name())
+                                    .append("periodStart", board.getKey().start().toString())
+                                    .append("userId", user.getKey())
+                                    .append("workouts", user.getValue().workouts())
+                                    .append("calories", user.getValue().calories())
+                                    .append("duration", user.getValue().duration())
+                                    .toJson());
+                            writer.newLine();
+                        }
+                    }
+                }
+                Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Could not write the leaderboard snapshot to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the boards with those of the snapshot file, skipping the periods no longer kept.
+     * @return true if a snapshot was loaded
+     */
+    boolean loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return false;
+        }
+        Map<BoardKey, Leaderboard> loaded = new ConcurrentHashMap<>();
+        try (Stream<String> lines = Files.lines(snapshotFile, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).map(Document::parse).forEach(line -> {
+                BoardKey key = new BoardKey(Period.valueOf(line.getString("period")),
+                        LocalDate.parse(line.getString("periodStart")));
+                if (isKept(key)) {
+                    loaded.computeIfAbsent(key, k -> new Leaderboard()).add(line.getString("userId"),
+                            new Totals(longOf(line, "workouts"), longOf(line, "calories"), longOf(line, "duration")));
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read the leaderboard snapshot {}, rebuilding instead: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+        boards = loaded;
+        logger.info("Loaded {} leaderboards from {}", loaded.size(), snapshotFile);
+        return true;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            logger.error("Could not rebuild the leaderboards: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the changes made during a rebuild to the rebuilt boards, skipping those the stream
+     * already read. Each save increments a workout's version by one, so a change to version
+     * {@code v} is new to the stream if it counted the workout at {@code v - 1}, replacing what it
+     * counted, or did not see the workout at all, adding it; a deletion only removes what was counted.
+     * Changes to workouts without ID or version cannot be recognized and are applied as they are.
+     */
+    private void replay(Map<BoardKey, Leaderboard> rebuilt, Queue<WorkoutChangedEvent> changes,
+                        Map<String, Long> counted) {
+        List<WorkoutChangedEvent> ordered = new ArrayList<>(changes);
+        // listeners of concurrent writes may queue the changes of one workout out of order
+        ordered.sort(Comparator.comparing(LeaderboardService::workoutId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingLong(LeaderboardService::resultingVersion));
+        for (WorkoutChangedEvent change : ordered) {
+            String id = workoutId(change);
+            long version = resultingVersion(change);
+            if (id == null || version < 0) {
+                apply(rebuilt, change);
+                continue;
+            }
+            Long seen = counted.get(id);
+            if (seen != null && seen >= version) {
+                continue;
+            }
+            if (change.getCurrent() == null) {
+                if (seen != null) {
+                    add(rebuilt, change.getPrevious(), -1);
+                }
+            } else {
+                if (seen != null) {
+                    add(rebuilt, change.getPrevious(), -1);
+                }
+                add(rebuilt, change.getCurrent(), 1);
+            }
+            counted.put(id, version);
+        }
+    }
+
+    private void apply(Map<BoardKey, Leaderboard> target, WorkoutChangedEvent change) {
+        add(target, change.getPrevious(), -1);
+        add(target, change.getCurrent(), 1);
+    }
+
+    private static String workoutId(WorkoutChangedEvent change) {
+        Workout workout = change.getCurrent() != null ? change.getCurrent() : change.getPrevious();
+        return workout == null ? null : workout.getId();
+    }
+
+    /**
+     * The version the change leaves the workout at, {@link #DELETED} for a deletion, or -1 if unknown.
+     */
+    private static long resultingVersion(WorkoutChangedEvent change) {
+        if (change.getCurrent() == null) {
+            return change.getPrevious() == null || change.getPrevious().getVersion() == null ? -1 : DELETED;
+        }
+        return change.getCurrent().getVersion() == null ? -1 : change.getCurrent().getVersion();
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or subtracts ({@code sign = -1}) a workout on the boards of its week and month.
+     */
+    private void add(Map<BoardKey, Leaderboard> target, Workout workout, int sign) {
+        if (workout == null || workout.getUserId() == null || workout.getDate() == null) {
+            return;
+        }
+        Totals delta = new Totals(sign, (long) sign * workout.getCaloriesBurned(), (long) sign * workout.getDuration());
+        for (Period period : PERIODS) {
+            BoardKey key = new BoardKey(period, period.startOf(workout.getDate()));
+            if (!isKept(key)) {
+                continue;
+            }
+            Leaderboard board = target.get(key);
+            if (board == null) {
+                board = target.computeIfAbsent(key, k -> new Leaderboard());
+                // a new period has started, the oldest one falls out of the history
+                target.keySet().removeIf(existing -> !isKept(existing));
+            }
+            board.add(workout.getUserId(), delta);
+        }
+    }
+
+    private BoardKey boardKey(String period, Date date) {
+        Period parsedPeriod;
+        try {
+            parsedPeriod = Period.fromString(period);
+        } catch (IllegalArgumentException e) {
+            parsedPeriod = null;
+        }
+        if (!PERIODS.contains(parsedPeriod)) {
+            throw new BadRequestException("Unknown period '" + period + "', expected week or month");
+        }
+        return new BoardKey(parsedPeriod, parsedPeriod.startOf(date != null ? date : Date.from(clock.instant())));
+    }
+
+    private boolean isKept(BoardKey key) {
+        return !key.start().isBefore(oldestKept(key.period()));
+    }
+
+    private LocalDate oldestKept(Period period) {
+        LocalDate current = period.startOf(Date.from(clock.instant()));
+        return period == Period.WEEK ? current.minusWeeks(history) : current.minusMonths(history);
+    }
+
+    private static LeaderboardPage page(BoardKey key, Metric metric, int totalUsers, List<LeaderboardEntry> entries) {
+        return new LeaderboardPage(key.period().name().toLowerCase(Locale.ROOT), toDate(key.start()),
+                metric.name().toLowerCase(Locale.ROOT), totalUsers, entries);
+    }
+
+    private static long longOf(Document document, String field) {
+        return ((Number) document.get(field)).longValue();
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.exceptions.PreconditionFailedException;
+import com.example.oopproject.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service applying JSON Merge Patch documents (RFC 7396) to entities with a single
+ * {@code findAndModify}.
+ * <p>
+ * Each member of the patch becomes a {@code $set} of that field, or an {@code $unset} when it
+ * is null; the version is incremented with {@code $inc} and {@code updatedAt} refreshed when
+ * the entity has one. Only the patched fields are written, the document is never read first,
+ * and a patch sent with an expected version (If-Match) only matches that version, so there is
+ * no window in which a concurrent change could be overwritten.
+ * <p>
+ * The values are converted to the entity's field types and checked against the field's
+ * bean validation constraints before anything is written. The ID, the version,
+ * {@code createdAt} and the fields a caller declares read-only cannot be patched. Arrays and
+ * nested objects are replaced as a whole.
+ * <p>
+ * Needs MongoDB and is not created with the memory profile, which maps no PATCH endpoints.
+ */
+@Service
+@Profile("!memory")
+public class MergePatchService {
+
+    /** Media type of JSON Merge Patch request bodies. */
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    private static final Set<String> NEVER_PATCHED = Set.of("id", "version", "createdAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Constructor injecting the dependencies.
+     * @param mongoTemplate the template used to modify the documents
+     * @param objectMapper the mapper converting patch values to field types
+     * @param validator the validator applied to every patched value
+     */
+    @Autowired
+    public MergePatchService(MongoTemplate mongoTemplate, ObjectMapper objectMapper, Validator validator) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Applies a merge patch to one document.
+     * @param entityType the entity class
+     * @param id the document ID
+     * @param patch the merge patch, a JSON object
+     * @param expectedVersion the version the caller last read (If-Match), or null to patch unconditionally
+     * @param readOnlyFields further fields that may not be patched
+     * @param <T> the entity type
+     * @return the entity before and after the patch
+     * @throws BadRequestException if the patch is not an object, names unknown or read-only fields, or holds invalid values
+     * @throws ResourceNotFoundException if there is no document with this ID
+     * @throws PreconditionFailedException if the document is not at the expected version
+     */
+    public <T> Patched<T> apply(Class<T> entityType, String id, JsonNode patch, Long expectedVersion,
+                                Set<String> readOnlyFields) {
+        return apply(entityType, id, patch, expectedVersion, readOnlyFields, update -> {
+        });
+    }
+
+    /**
+     * Applies a merge patch to one document together with further changes made by the caller,
+     * all in the same {@code findAndModify}.
+     * The further changes are not reflected in {@link Patched#current()}; the caller applies them itself.
+     * @param entityType the entity class
+     * @param id the document ID
+     * @param patch the merge patch, a JSON object
+     * @param expectedVersion the version the caller last read (If-Match), or null to patch unconditionally
+     * @param readOnlyFields further fields that may not be patched
+     * @param furtherChanges adds changes of fields that are not in the patch to the update
+     * @param <T> the entity type
+     * @return the entity before and after the patch
+     * @throws BadRequestException if the patch is not an object, names unknown or read-only fields, or holds invalid values
+     * @throws ResourceNotFoundException if there is no document with this ID
+     * @throws PreconditionFailedException if the document is not at the expected version
+     */
+    public <T> Patched<T> apply(Class<T> entityType, String id, JsonNode patch, Long expectedVersion,
+                                Set<String> readOnlyFields, Consumer<Update> furtherChanges) {
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(entityType);
+        Map<MongoPersistentProperty, Object> values = convert(entityType, persistentEntity, patch, readOnlyFields);
+
+        Date now = new Date();
+        Update update = new Update().inc("version", 1);
+        values.forEach((property, value) -> {
+            if (value == null) {
+                update.unset(property.getFieldName());
+            } else {
+                update.set(property.getFieldName(), value);
+            }
+        });
+        MongoPersistentProperty updatedAt = persistentEntity.getPersistentProperty("updatedAt");
+        if (updatedAt != null && !values.containsKey(updatedAt)) {
+            update.set(updatedAt.getFieldName(), now);
+        }
+        furtherChanges.accept(update);
+
+        Criteria criteria = where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        T previous = mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(false), entityType);
+        if (previous == null) {
+            if (expectedVersion != null && mongoTemplate.exists(new Query(where("_id").is(id)), entityType)) {
+                throw new PreconditionFailedException(entityType.getSimpleName() + " " + id
+                        + " has been modified: If-Match \"" + expectedVersion + "\" is not the current version");
+            }
+            throw new ResourceNotFoundException(entityType.getSimpleName() + " not found with id: " + id);
+        }
+
+        // the new state is derived from the old one rather than read back, to keep one round trip
+        T current = copy(previous, entityType);
+        PersistentPropertyAccessor<T> accessor = persistentEntity.getPropertyAccessor(current);
+        values.forEach(accessor::setProperty);
+        if (updatedAt != null && !values.containsKey(updatedAt)) {
+            accessor.setProperty(updatedAt, now);
+        }
+        MongoPersistentProperty version = persistentEntity.getVersionProperty();
+        if (version != null) {
+            Object previousVersion = accessor.getProperty(version);
+            accessor.setProperty(version, previousVersion == null ? 1L : ((Number) previousVersion).longValue() + 1);
+        }
+        return new Patched<>(previous, accessor.getBean());
+    }
+
+    private <T> Map<MongoPersistentProperty, Object> convert(Class<T> entityType, MongoPersistentEntity<?> persistentEntity,
+                                                             JsonNode patch, Set<String> readOnlyFields) {
+        if (patch == null || !patch.isObject() || patch.isEmpty()) {
+            throw new BadRequestException("A merge patch must be a JSON object with at least one member");
+        }
+
+        Map<MongoPersistentProperty, Object> values = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            String name = member.getKey();
+            MongoPersistentProperty property = persistentEntity.getPersistentProperty(name);
+            Field field = property == null ? null : property.getField();
+            if (field == null || property.isTransient() || !property.isWritable()) {
+                throw new BadRequestException("Unknown field '" + name + "'");
+            }
+            if (NEVER_PATCHED.contains(name) || readOnlyFields.contains(name) || property.isIdProperty() || property.isVersionProperty()) {
+                throw new BadRequestException("Field '" + name + "' cannot be patched");
+            }
+
+            Object value = null;
+            if (!member.getValue().isNull()) {
+                try {
+                    value = objectMapper.convertValue(member.getValue(), objectMapper.constructType(field.getGenericType()));
+                } catch (IllegalArgumentException e) {
+                    throw new BadRequestException("Invalid value for '" + name + "'");
+                }
+            } else if (field.getType().isPrimitive()) {
+                throw new BadRequestException("Field '" + name + "' cannot be removed");
+            }
+
+            Set<ConstraintViolation<T>> violations = validator.validateValue(entityType, name, value);
+            if (!violations.isEmpty()) {
+                throw new BadRequestException(violations.stream()
+                        .map(violation -> name + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+            values.put(property, value);
+        }
+        return values;
+    }
+
+    private <T> T copy(T entity, Class<T> entityType) {
+        MongoConverter converter = mongoTemplate.getConverter();
+        Document document = new Document();
+        converter.write(entity, document);
+        return converter.read(entityType, document);
+    }
+
+    /**
+     * An entity as it was before and after a patch.
+     * @param previous the entity before the patch
+     * @param current the entity after the patch
+     * @param <T> the entity type
+     */
+    public record Patched<T>(T previous, T current) {
+    }
+}
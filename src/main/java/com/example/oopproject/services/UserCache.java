@@ -0,0 +1,210 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.User;
+import com.example.oopproject.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@link User} entities in front of {@link UserRepository}.
+ * <p>
+ * Users are stored once, keyed by ID, with a maximum size and a time-to-live
+ * ({@code app.user-cache.max-size}, {@code app.user-cache.ttl}). Username and email
+ * are secondary keys that resolve to the ID, so all three lookups share one entry.
+ * A secondary key is only trusted if the cached user still carries it, which makes
+ * stale index entries harmless. Writers call {@link #invalidate(String)} after saving
+ * or deleting a user. A user loaded while any user was being invalidated is returned but
+ * not cached, since it may have been read before the change: loads and invalidations are
+ * ordered by running both inside a {@code compute} on the user's entry.
+ * <p>
+ * Hit/miss counts, hit ratio, evictions, size and repository load latency are
+ * published as {@code user.cache.*} metrics.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> usersById;
+    private final Map<String, String> idsByUsername = new ConcurrentHashMap<>();
+    private final Map<String, String> idsByEmail = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Timer loadTimer;
+
+    /**
+     * Constructs the cache and registers its metrics.
+     *
+     * @param userRepository the repository users are loaded from on a miss
+     * @param maxSize the maximum number of cached users; 0 disables caching
+     * @param ttl how long a user stays cached after it was loaded
+     * @param meterRegistry the registry for the cache metrics
+     */
+    @Autowired
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.user-cache.max-size:10000}") long maxSize,
+                     @Value("${app.user-cache.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                // runs synchronously, so the secondary keys never outlive their entry
+                .evictionListener((String id, User user, RemovalCause cause) -> {
+                    evictions.increment();
+                    removeSecondaryKeys(id, user);
+                })
+                .build();
+
+        FunctionCounter.builder("user.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("User lookups served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("User lookups that went to MongoDB")
+                .register(meterRegistry);
+        Gauge.builder("user.cache.hit.ratio", this, UserCache::hitRatio)
+                .description("Share of user lookups served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.evictions", evictions, LongAdder::sum)
+                .description("Users removed from the cache because of size or TTL")
+                .register(meterRegistry);
+        Gauge.builder("user.cache.size", usersById, Cache::estimatedSize)
+                .description("Number of users currently cached")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("user.cache.load")
+                .description("Time to load a user from MongoDB on a cache miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds a user by ID.
+     *
+     * @param id the user ID
+     * @return the user, or empty if no user has this ID
+     */
+    public Optional<User> findById(String id) {
+        return lookup(usersById.getIfPresent(id), () -> userRepository.findById(id));
+    }
+
+    /**
+     * Finds a user by username.
+     *
+     * @param username the username
+     * @return the user, or empty if no user has this username
+     */
+    public Optional<User> findByUsername(String username) {
+        User cached = cachedBySecondaryKey(idsByUsername.get(username));
+        if (cached != null && !username.equals(cached.getUsername())) {
+            cached = null;
+        }
+        return lookup(cached, () -> userRepository.findByUsername(username));
+    }
+
+    /**
+     * Finds a user by email.
+     *
+     * @param email the email
+     * @return the user, or empty if no user has this email
+     */
+    public Optional<User> findByEmail(String email) {
+        User cached = cachedBySecondaryKey(idsByEmail.get(email));
+        if (cached != null && !email.equals(cached.getEmail())) {
+            cached = null;
+        }
+        return lookup(cached, () -> userRepository.findByEmail(email));
+    }
+
+    /**
+     * Removes a user and its username and email keys from the cache.
+     * Must be called after the user has been updated or deleted in MongoDB.
+     *
+     * @param id the ID of the changed user
+     */
+    public void invalidate(String id) {
+        usersById.asMap().compute(id, (key, removed) -> {
+            invalidations.incrementAndGet();
+            if (removed != null) {
+                removeSecondaryKeys(id, removed);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Gets the share of lookups that were served from the cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 before the first lookup
+     */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private User cachedBySecondaryKey(String id) {
+        return id == null ? null : usersById.getIfPresent(id);
+    }
+
+    private Optional<User> lookup(User cached, Supplier<Optional<User>> loader) {
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        Optional<User> loaded = loadTimer.record(loader);
+        loaded.filter(user -> user.getId() != null).ifPresent(user -> put(user, generation));
+        return loaded;
+    }
+
+    /**
+     * Caches a loaded user unless an invalidation ran since {@code generation} was read. Runs
+     * inside a compute on the user's entry, so an invalidation of the same user either comes
+     * first and is seen here, or comes after and removes the entry again.
+     */
+    private void put(User user, long generation) {
+        usersById.asMap().compute(user.getId(), (id, current) -> {
+            if (invalidations.get() != generation) {
+                return current;
+            }
+            // secondary keys first, so an eviction of the new entry also removes them
+            if (user.getUsername() != null) {
+                idsByUsername.put(user.getUsername(), id);
+            }
+            if (user.getEmail() != null) {
+                idsByEmail.put(user.getEmail(), id);
+            }
+            return user;
+        });
+    }
+
+    private void removeSecondaryKeys(String id, User user) {
+        if (user.getUsername() != null) {
+            idsByUsername.remove(user.getUsername(), id);
+        }
+        if (user.getEmail() != null) {
+            idsByEmail.remove(user.getEmail(), id);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.example.oopproject.exceptions.BadRequestException;
 import com.example.oopproject.exceptions.ResourceNotFoundException;
 import com.example.oopproject.models.User;
 import com.example.oopproject.repositories.UserRepository;
+import com.example.oopproject.util.ETags;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service class for managing User entities.
@@ -20,14 +24,21 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ObjectProvider<MergePatchService> mergePatchService;
 
     /**
-     * Constructor injecting UserRepository.
+     * Constructor injecting UserRepository, the user cache and the merge patch service.
      * @param userRepository repository for User persistence
+     * @param userCache read-through cache for user lookups
+     * @param mergePatchService service applying merge patches, missing with the memory profile
      */
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserCache userCache,
+                       ObjectProvider<MergePatchService> mergePatchService) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -54,7 +65,7 @@ public class UserService {
      * @throws ResourceNotFoundException if user is not found
      */
     public User getUserById(String id) {
-        return userRepository.findById(id)
+        return userCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 
@@ -65,7 +76,7 @@ public class UserService {
      * @throws ResourceNotFoundException if user is not found
      */
     public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userCache.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
 
@@ -76,7 +87,7 @@ public class UserService {
      * @throws ResourceNotFoundException if user is not found
      */
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userCache.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
 
@@ -105,14 +116,30 @@ public class UserService {
      * Updates an existing user by ID.
      * Validates changes to username and email for uniqueness.
      * Updates password only if provided.
-     * Updates the updatedAt timestamp.
+     * Updates the updatedAt timestamp and evicts the user from the cache.
      * @param id the user ID
      * @param userDetails the updated User data
      * @return the updated User entity
      * @throws BadRequestException if new username or email already exists
      */
     public User updateUser(String id, User userDetails) {
-        User user = getUserById(id);
+        return updateUser(id, userDetails, null);
+    }
+
+    /**
+     * Updates an existing user by ID if it is still at the expected version.
+     * @param id the user ID
+     * @param userDetails the updated User data
+     * @param expectedVersion the version the caller last read (If-Match), or null to update unconditionally
+     * @return the updated User entity
+     * @throws BadRequestException if new username or email already exists
+     * @throws com.example.oopproject.exceptions.PreconditionFailedException if the user has another version
+     */
+    public User updateUser(String id, User userDetails, Long expectedVersion) {
+        // read from MongoDB so the cached instance is never modified in place
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        ETags.requireVersion(expectedVersion, user.getVersion(), "User " + id);
 
         // Check if username is changed and unique
         if (!user.getUsername().equals(userDetails.getUsername()) &&
@@ -142,15 +169,49 @@ public class UserService {
         user.setFitnessGoal(userDetails.getFitnessGoal());
         user.setUpdatedAt(new Date());
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userCache.invalidate(id);
+        return savedUser;
+    }
+
+    /**
+     * Applies a JSON merge patch to a user with a single atomic update and evicts it from the cache.
+     * The role and the password cannot be patched, the password is changed through
+     * {@link #updateUser} only; a username or email already taken is rejected by the unique indexes.
+     * @param id the user ID
+     * @param patch the merge patch
+     * @param expectedVersion the version the caller last read (If-Match), or null to patch unconditionally
+     * @return the patched User entity
+     * @throws ResourceNotFoundException if user is not found
+     * @throws BadRequestException if the patch changes the role or the password, or holds invalid values
+     * @throws com.example.oopproject.exceptions.PreconditionFailedException if the user has another version
+     */
+    public User patchUser(String id, JsonNode patch, Long expectedVersion) {
+        User patchedUser = mergePatchService.getObject().apply(User.class, id, patch, expectedVersion, Set.of("role", "password")).current();
+        userCache.invalidate(id);
+        return patchedUser;
     }
 
     /**
-     * Deletes a user by ID.
+     * Deletes a user by ID and evicts it from the cache.
      * @param id the user ID
      */
     public void deleteUser(String id) {
-        User user = getUserById(id);
+        deleteUser(id, null);
+    }
+
+    /**
+     * Deletes a user by ID if it is still at the expected version, and evicts it from the cache.
+     * @param id the user ID
+     * @param expectedVersion the version the caller last read (If-Match), or null to delete unconditionally
+     * @throws com.example.oopproject.exceptions.PreconditionFailedException if the user has another version
+     */
+    public void deleteUser(String id, Long expectedVersion) {
+        // read from MongoDB: the delete is checked against the version, which a cached copy may not have
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        ETags.requireVersion(expectedVersion, user.getVersion(), "User " + id);
         userRepository.delete(user);
+        userCache.invalidate(id);
     }
 }
@@ -0,0 +1,60 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.Workout;
+
+/**
+ * Published whenever a workout is created, updated or deleted, by {@link WorkoutService}
+ * and by the workout endpoints that write through the repository directly.
+ * <p>
+ * A creation has no previous state, a deletion no current state; an update carries a
+ * copy of the workout as it was before the change (see {@link WorkoutRollupService#snapshot(Workout)}).
+ */
+public class WorkoutChangedEvent {
+
+    private final Workout previous;
+    private final Workout current;
+
+    private WorkoutChangedEvent(Workout previous, Workout current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    /**
+     * @param workout the saved workout
+     * @return the event for a new workout
+     */
+    public static WorkoutChangedEvent created(Workout workout) {
+        return new WorkoutChangedEvent(null, workout);
+    }
+
+    /**
+     * @param previous a copy of the workout as it was before the change
+     * @param updated the saved workout
+     * @return the event for a changed workout
+     */
+    public static WorkoutChangedEvent updated(Workout previous, Workout updated) {
+        return new WorkoutChangedEvent(previous, updated);
+    }
+
+    /**
+     * @param workout the deleted workout
+     * @return the event for a deleted workout
+     */
+    public static WorkoutChangedEvent deleted(Workout workout) {
+        return new WorkoutChangedEvent(workout, null);
+    }
+
+    /**
+     * @return the workout before the change, or null for a creation
+     */
+    public Workout getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return the workout after the change, or null for a deletion
+     */
+    public Workout getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,508 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.models.WorkoutRollup;
+import com.example.oopproject.models.WorkoutRollup.Period;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service maintaining the per-user daily, weekly and monthly workout rollups.
+ * <p>
+ * Every workout change is applied to the three rollups it falls into with atomic
+ * {@code $inc} upserts, sent to MongoDB as one unordered bulk write (one for a whole batch
+ * of new workouts). Because the
+ * counters are only ever incremented, concurrent writers never overwrite each other.
+ * {@link #rebuild()} recomputes everything from the workouts collection to repair drift.
+ * Workout writes run through {@link #write(Supplier)} together with the rollup changes they
+ * make, so that the rebuild sees either both or neither.
+ * The rollups live in MongoDB only, so there is no rollup service with the memory profile.
+ */
+@Service
+@Profile("!memory")
+public class WorkoutRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkoutRollupService.class);
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    /** Version of a workout once its deletion is replayed. */
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final MongoTemplate mongoTemplate;
+
+    /** Workout writes hold the read lock; the rebuild takes the write lock around each user's turn. */
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    /** The user whose rollups are being rebuilt and the changes to their workouts meanwhile, or null. */
+    private String rebuildingUser;
+    private Queue<Change> pending;
+    private final Object rebuildMonitor = new Object();
+
+    /**
+     * Constructor injecting the MongoTemplate.
+     * @param mongoTemplate the template used to update and read the rollups, and to read the workouts
+     */
+    @Autowired
+    public WorkoutRollupService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Runs a workout write that records its rollup changes, so that a concurrent {@link #rebuild()}
+     * sees the workout and its rollup change both or neither.
+     * @param write the write, calling one of the {@code record} methods
+     * @param <T> the result type
+     * @return the result of the write
+     */
+    public <T> T write(Supplier<T> write) {
+        rebuildLock.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a newly created workout to its rollups.
+     * @param workout the saved workout
+     */
+    public void recordCreated(Workout workout) {
+        record(List.of(new Change(null, workout)));
+    }
+
+    /**
+     * Adds a batch of newly created workouts to their rollups with a single bulk write.
+     * @param workouts the saved workouts
+     */
+    public void recordAllCreated(Collection<Workout> workouts) {
+        record(workouts.stream().map(workout -> new Change(null, workout)).toList());
+    }
+
+    /**
+     * Moves a changed workout from the rollups of its previous values to those of its new values.
+     * @param previous a copy of the workout as it was before the change
+     * @param updated the saved workout
+     */
+    public void recordUpdated(Workout previous, Workout updated) {
+        record(List.of(new Change(previous, updated)));
+    }
+
+    /**
+     * Removes a deleted workout from its rollups.
+     * @param workout the deleted workout
+     */
+    public void recordDeleted(Workout workout) {
+        record(List.of(new Change(workout, null)));
+    }
+
+    /**
+     * Retrieves a user's rollups for one period length, oldest first.
+     * @param userId the user ID
+     * @param period the period name: "day", "week" or "month"
+     * @param from only rollups starting on or after this date, or null
+     * @param to only rollups starting on or before this date, or null
+     * @return the matching rollups
+     * @throws BadRequestException if the period name is unknown
+     */
+    public List<WorkoutRollup> getStats(String userId, String period, Date from, Date to) {
+        Period parsedPeriod;
+        try {
+            parsedPeriod = Period.fromString(period);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown period '" + period + "', expected day, week or month");
+        }
+
+        Criteria criteria = where("userId").is(userId).and("period").is(parsedPeriod);
+        if (from != null || to != null) {
+            Criteria range = criteria.and("periodStart");
+            if (from != null) {
+                range.gte(from);
+            }
+            if (to != null) {
+                range.lte(to);
+            }
+        }
+
+        Query query = new Query(criteria).with(Sort.by("periodStart"));
+        List<WorkoutRollup> rollups = mongoTemplate.find(query, WorkoutRollup.class);
+        // types whose workouts were all moved or deleted are left at zero by $inc
+        rollups.forEach(rollup -> rollup.getCountByType().values().removeIf(count -> count == 0));
+        return rollups;
+    }
+
+    /**
+     * Recomputes all rollups from the workouts collection and writes them over the stored ones.
+     * <p>
+     * The users are walked through the {@code userId} index and rebuilt one at a time from the
+     * primary, so only one user's workouts and rollups are held in memory. A user's rollups are
+     * upserted with {@code $set} in unordered bulk writes of at most {@value #REBUILD_CHUNK_SIZE}.
+     * The changes made to the user's workouts while they are read are buffered and replayed on the
+     * rewritten rollups, skipping those the read already saw (recognized by the workout's version),
+     * so no change is lost or counted twice. The live collection is never emptied: at the end, the
+     * rollups that were neither rebuilt nor changed since the rebuild started (those of deleted
+     * workouts) are removed.
+     * @return the number of rollups written
+     */
+    @Scheduled(cron = "${app.rollups.rebuild-cron:-}", zone = "UTC")
+    public int rebuild() {
+        synchronized (rebuildMonitor) {
+            Date started = new Date();
+            int rebuilt = 0;
+            for (String userId = nextUserId(null); userId != null; userId = nextUserId(userId)) {
+                rebuilt += rebuildUser(userId, started);
+            }
+
+            Query stale = new Query(new Criteria().orOperator(
+                    where("updatedAt").lt(started), where("updatedAt").exists(false)));
+            long removed = mongoTemplate.remove(stale, WorkoutRollup.class).getDeletedCount();
+            logger.info("Rebuilt {} workout rollups, removed {} stale ones", rebuilt, removed);
+            return rebuilt;
+        }
+    }
+
+    /**
+     * The smallest user ID with workouts after the given one, read from the {@code userId} index.
+     */
+    private String nextUserId(String previous) {
+        Query query = new Query(previous == null ? where("userId").gte("") : where("userId").gt(previous))
+                .with(Sort.by("userId")).limit(1);
+        query.fields().include("userId");
+        Workout next = mongoTemplate.findOne(query, Workout.class);
+        return next == null ? null : next.getUserId();
+    }
+
+    private int rebuildUser(String userId, Date started) {
+        Queue<Change> changes = new ConcurrentLinkedQueue<>();
+        buffer(userId, changes);
+
+        Map<String, WorkoutRollup> rollups = new HashMap<>();
+        // the version each workout was counted at, to recognize the changes the read already saw
+        Map<String, Long> counted = new HashMap<>();
+        try {
+            for (Workout workout : mongoTemplate.find(new Query(where("userId").is(userId)), Workout.class)) {
+                if (isCounted(workout)) {
+                    count(rollups, workout);
+                    if (workout.getId() != null && workout.getVersion() != null) {
+                        counted.put(workout.getId(), workout.getVersion());
+                    }
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            buffer(null, null);
+            throw e;
+        }
+
+        rebuildLock.writeLock().lock();
+        try {
+            overwrite(rollups.values(), started);
+            replay(userId, changes, counted);
+            return rollups.size();
+        } finally {
+            rebuildingUser = null;
+            pending = null;
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts buffering the changes to a user's workouts, or stops with a null user.
+     */
+    private void buffer(String userId, Queue<Change> changes) {
+        rebuildLock.writeLock().lock();
+        try {
+            rebuildingUser = userId;
+            pending = changes;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private static void count(Map<String, WorkoutRollup> rollups, Workout workout) {
+        for (Period period : Period.values()) {
+            LocalDate start = period.startOf(workout.getDate());
+            WorkoutRollup rollup = rollups.computeIfAbsent(
+                    WorkoutRollup.idOf(workout.getUserId(), period, start),
+                    id -> newRollup(id, workout.getUserId(), period, start));
+            rollup.setCount(rollup.getCount() + 1);
+            rollup.setTotalDuration(rollup.getTotalDuration() + workout.getDuration());
+            rollup.setTotalCaloriesBurned(rollup.getTotalCaloriesBurned() + workout.getCaloriesBurned());
+            rollup.getCountByType().merge(typeKey(workout.getWorkoutType()), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Writes recomputed rollups over the stored ones with {@code $set} upserts.
+     */
+    private void overwrite(Collection<WorkoutRollup> rollups, Date started) {
+        BulkOperations bulkOperations = null;
+        int pendingWrites = 0;
+        for (WorkoutRollup rollup : rollups) {
+            if (bulkOperations == null) {
+                bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkoutRollup.class);
+            }
+            Update update = new Update()
+                    .set("userId", rollup.getUserId())
+                    .set("period", rollup.getPeriod())
+                    .set("periodStart", rollup.getPeriodStart())
+                    .set("count", rollup.getCount())
+                    .set("totalDuration", rollup.getTotalDuration())
+                    .set("totalCaloriesBurned", rollup.getTotalCaloriesBurned())
+                    .set("countByType", rollup.getCountByType())
+                    .set("updatedAt", started);
+            bulkOperations.upsert(new Query(where("_id").is(rollup.getId())), update);
+            if (++pendingWrites == REBUILD_CHUNK_SIZE) {
+                bulkOperations.execute();
+                bulkOperations = null;
+                pendingWrites = 0;
+            }
+        }
+        if (bulkOperations != null) {
+            bulkOperations.execute();
+        }
+    }
+
+    /**
+     * Applies the changes made to a user's workouts while they were read to the rewritten rollups.
+     * Each save increments a workout's version by one, so a change to version {@code v} is new to
+     * the read if it counted the workout at {@code v - 1}, replacing what it counted, or did not see
+     * the workout at all, adding it; a deletion only removes what was counted. Only the user's side
+     * of a change is replayed: a workout moved to or from another user is counted there by that
+     * user's own turn or was already applied to its rebuilt rollups. Changes to workouts without ID
+     * or version cannot be recognized and are applied as they are.
+     */
+    private void replay(String userId, Queue<Change> changes, Map<String, Long> counted) {
+        List<Change> ordered = new ArrayList<>(changes);
+        // writers of one workout may have queued their changes out of order
+        ordered.sort(Comparator.comparing(Change::workoutId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparingLong(Change::resultingVersion));
+        List<Workout> added = new ArrayList<>();
+        List<Workout> removed = new ArrayList<>();
+        for (Change change : ordered) {
+            String id = change.workoutId();
+            long version = change.resultingVersion();
+            Long seen = id == null || version < 0 ? null : counted.get(id);
+            if (seen != null && seen >= version) {
+                continue;
+            }
+            if ((seen != null || id == null || version < 0) && change.isOf(change.previous(), userId)) {
+                removed.add(change.previous());
+            }
+            if (change.isOf(change.current(), userId)) {
+                added.add(change.current());
+            }
+            if (id != null && version >= 0) {
+                counted.put(id, version);
+            }
+        }
+        apply(added, removed);
+    }
+
+    /**
+     * Applies changes to the rollups, and buffers those of the user being rebuilt.
+     */
+    private void record(List<Change> changes) {
+        rebuildLock.readLock().lock();
+        try {
+            List<Workout> added = new ArrayList<>();
+            List<Workout> removed = new ArrayList<>();
+            for (Change change : changes) {
+                if (change.previous() != null) {
+                    removed.add(change.previous());
+                }
+                if (change.current() != null) {
+                    added.add(change.current());
+                }
+                if (rebuildingUser != null && (change.isOf(change.previous(), rebuildingUser)
+                        || change.isOf(change.current(), rebuildingUser))) {
+                    pending.add(change);
+                }
+            }
+            apply(added, removed);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the created and subtracts the removed workouts from their day, week and month rollups.
+     * The changes are summed per rollup first, so each rollup gets one {@code $inc} upsert, and
+     * all of them are sent as one unordered bulk write.
+     */
+    private void apply(Collection<Workout> added, Collection<Workout> removed) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        added.stream().filter(WorkoutRollupService::isCounted).forEach(workout -> addDelta(deltas, workout, 1));
+        removed.stream().filter(WorkoutRollupService::isCounted).forEach(workout -> addDelta(deltas, workout, -1));
+        deltas.values().removeIf(Delta::isZero);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WorkoutRollup.class);
+        List<String> decremented = new ArrayList<>();
+        Date now = new Date();
+
+        deltas.forEach((id, delta) -> {
+            Update update = new Update()
+                    .inc("count", delta.count)
+                    .inc("totalDuration", delta.duration)
+                    .inc("totalCaloriesBurned", delta.calories)
+                    .set("updatedAt", now)
+                    .setOnInsert("userId", delta.userId)
+                    .setOnInsert("period", delta.period)
+                    .setOnInsert("periodStart", toDate(delta.periodStart));
+            delta.countByType.forEach((type, count) -> {
+                if (count != 0) {
+                    update.inc("countByType." + type, count);
+                }
+            });
+            bulkOperations.upsert(new Query(where("_id").is(id)), update);
+            if (delta.count < 0) {
+                decremented.add(id);
+            }
+        });
+
+        try {
+            bulkOperations.execute();
+            if (!decremented.isEmpty()) {
+                mongoTemplate.remove(new Query(where("_id").in(decremented).and("count").lte(0)), WorkoutRollup.class);
+            }
+        } catch (RuntimeException e) {
+            // the workouts themselves are already saved; the next rebuild corrects the rollups
+            logger.error("Could not update {} workout rollups: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    private static void addDelta(Map<String, Delta> deltas, Workout workout, int sign) {
+        for (Period period : Period.values()) {
+            LocalDate start = period.startOf(workout.getDate());
+            deltas.computeIfAbsent(WorkoutRollup.idOf(workout.getUserId(), period, start),
+                    id -> new Delta(workout.getUserId(), period, start)).add(workout, sign);
+        }
+    }
+
+    /**
+     * Copies the fields the rollups are computed from, to be passed to
+     * {@link #recordUpdated} after the original workout has been modified.
+     * @param workout the workout to copy
+     * @return a detached copy holding user, date, duration, type and calories
+     */
+    public static Workout snapshot(Workout workout) {
+        return new Workout(workout.getUserId(), workout.getDate(), workout.getDuration(),
+                workout.getWorkoutType(), workout.getCaloriesBurned(), null);
+    }
+
+    private static boolean isCounted(Workout workout) {
+        return workout != null && workout.getUserId() != null && workout.getDate() != null;
+    }
+
+    private static WorkoutRollup newRollup(String id, String userId, Period period, LocalDate start) {
+        WorkoutRollup rollup = new WorkoutRollup();
+        rollup.setId(id);
+        rollup.setUserId(userId);
+        rollup.setPeriod(period);
+        rollup.setPeriodStart(toDate(start));
+        return rollup;
+    }
+
+    /**
+     * A workout change: no previous state for a creation, no current state for a deletion.
+     */
+    private record Change(Workout previous, Workout current) {
+
+        String workoutId() {
+            Workout workout = current != null ? current : previous;
+            return workout.getId();
+        }
+
+        /**
+         * The version the change leaves the workout at, {@link #DELETED} for a deletion, or -1 if unknown.
+         */
+        long resultingVersion() {
+            if (current == null) {
+                return previous.getVersion() == null ? -1 : DELETED;
+            }
+            return current.getVersion() == null ? -1 : current.getVersion();
+        }
+
+        boolean isOf(Workout workout, String userId) {
+            return workout != null && userId.equals(workout.getUserId());
+        }
+    }
+
+    /**
+     * The sum of the workout changes falling into one rollup.
+     */
+    private static final class Delta {
+
+        private final String userId;
+        private final Period period;
+        private final LocalDate periodStart;
+        private final Map<String, Long> countByType = new HashMap<>();
+        private long count;
+        private long duration;
+        private long calories;
+
+        Delta(String userId, Period period, LocalDate periodStart) {
+            this.userId = userId;
+            this.period = period;
+            this.periodStart = periodStart;
+        }
+
+        void add(Workout workout, int sign) {
+            count += sign;
+            duration += (long) sign * workout.getDuration();
+            calories += (long) sign * workout.getCaloriesBurned();
+            countByType.merge(typeKey(workout.getWorkoutType()), (long) sign, Long::sum);
+        }
+
+        boolean isZero() {
+            return count == 0 && duration == 0 && calories == 0
+                    && countByType.values().stream().allMatch(value -> value == 0);
+        }
+    }
+
+    /**
+     * Workout types become field names in the rollup document, so '.' and a leading '$' are replaced.
+     */
+    static String typeKey(String workoutType) {
+        if (workoutType == null || workoutType.isBlank()) {
+            return "unknown";
+        }
+        String key = workoutType.replace('.', '_');
+        return key.startsWith("$") ? "_" + key.substring(1) : key;
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
@@ -1,8 +1,18 @@
 package com.example.oopproject.services;
 
+import com.example.oopproject.dto.BatchItemResult;
+import com.example.oopproject.dto.BatchResult;
+import com.example.oopproject.dto.CursorPage;
 import com.example.oopproject.models.Workout;
 import com.example.oopproject.repositories.WorkoutRepository;
+import com.example.oopproject.util.ETags;
+import com.example.oopproject.util.RequestCoalescer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -11,21 +21,53 @@ import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Service class for managing Workout entities.
  * Provides methods to create, read, update, delete,
  * paginate, filter by date, and search workouts.
+ * Every write keeps the rollups up to date, publishes a {@link WorkoutChangedEvent}
+ * and invalidates the collapsed lookups; the REST endpoints write through this service.
+ * Concurrent identical lookups by user and searches are collapsed into one query by the {@link RequestCoalescer}.
  */
 @Service
 public class WorkoutService {
 
+    private static final Logger logger = LoggerFactory.getLogger(WorkoutService.class);
+
     @Autowired
     private WorkoutRepository workoutRepository;
 
+    // there are no rollups, batch inserts or merge patches with the memory profile
+    @Autowired(required = false)
+    private WorkoutRollupService workoutRollupService;
+
+    @Autowired(required = false)
+    private BatchInsertService batchInsertService;
+
+    @Autowired(required = false)
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    /** Name of the workout lookups in the {@link RequestCoalescer} and its metrics. */
+    public static final String QUERIES = "workouts";
+
+    /** Number of times an unconditional delete reads the workout again after a concurrent update. */
+    static final int DELETE_ATTEMPTS = 3;
+
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
 
     /**
@@ -34,7 +76,44 @@ public class WorkoutService {
      * @return the saved Workout entity
      */
     public Workout createWorkout(Workout workout) {
-        return workoutRepository.save(workout);
+        Workout savedWorkout = write(() -> {
+            Workout saved = workoutRepository.save(workout);
+            if (workoutRollupService != null) {
+                workoutRollupService.recordCreated(saved);
+            }
+            return saved;
+        });
+        requestCoalescer.invalidate(QUERIES);
+        eventPublisher.publishEvent(WorkoutChangedEvent.created(savedWorkout));
+        return savedWorkout;
+    }
+
+    /**
+     * Inserts many workouts at once. Invalid or rejected items are reported individually
+     * and do not stop the rest of the batch; only the inserted ones are recorded.
+     * Items whose write was not acknowledged are looked up by their pre-assigned ID: those
+     * found are reported and recorded as inserted, the others stay unknown.
+     * Not available with the memory profile.
+     * @param workouts the Workout entities to create
+     * @return the per-item outcome of the batch
+     * @throws com.example.oopproject.exceptions.BadRequestException if the batch is empty or too large
+     */
+    public BatchResult createWorkouts(List<Workout> workouts) {
+        List<Workout> inserted = new ArrayList<>();
+        BatchResult result = write(() -> {
+            BatchResult batch = reconcile(
+                    batchInsertService.insertAll(workouts, Workout.class, Workout::getId, Workout::setId));
+            batch.getItems().stream()
+                    .filter(item -> BatchItemResult.INSERTED.equals(item.getStatus()))
+                    .forEach(item -> inserted.add(workouts.get(item.getIndex())));
+            if (workoutRollupService != null) {
+                workoutRollupService.recordAllCreated(inserted);
+            }
+            return batch;
+        });
+        requestCoalescer.invalidate(QUERIES);
+        inserted.forEach(workout -> eventPublisher.publishEvent(WorkoutChangedEvent.created(workout)));
+        return result;
     }
 
     /**
@@ -63,24 +142,115 @@ public class WorkoutService {
      * @return the updated Workout entity, or null if not found
      */
     public Workout updateWorkout(String id, Workout updatedWorkout) {
+        return updateWorkout(id, updatedWorkout, null);
+    }
+
+    /**
+     * Updates an existing workout by ID if it is still at the expected version.
+     * @param id the workout ID to update
+     * @param updatedWorkout Workout object with updated data
+     * @param expectedVersion the version the caller last read (If-Match), or null to update unconditionally
+     * @return the updated Workout entity, or null if not found
+     * @throws com.example.oopproject.exceptions.PreconditionFailedException if the workout has another version
+     */
+    public Workout updateWorkout(String id, Workout updatedWorkout, Long expectedVersion) {
         Optional<Workout> workout = workoutRepository.findById(id);
         if (workout.isPresent()) {
             Workout existingWorkout = workout.get();
+            ETags.requireVersion(expectedVersion, existingWorkout.getVersion(), "Workout " + id);
+            Workout previous = WorkoutRollupService.snapshot(existingWorkout);
+            existingWorkout.setName(updatedWorkout.getName());
             existingWorkout.setWorkoutType(updatedWorkout.getWorkoutType());
             existingWorkout.setDuration(updatedWorkout.getDuration());
             existingWorkout.setCaloriesBurned(updatedWorkout.getCaloriesBurned());
             existingWorkout.setDate(updatedWorkout.getDate());
-            return workoutRepository.save(existingWorkout);
+            Workout savedWorkout = write(() -> {
+                Workout saved = workoutRepository.save(existingWorkout);
+                if (workoutRollupService != null) {
+                    workoutRollupService.recordUpdated(previous, saved);
+                }
+                return saved;
+            });
+            requestCoalescer.invalidate(QUERIES);
+            eventPublisher.publishEvent(WorkoutChangedEvent.updated(previous, savedWorkout));
+            return savedWorkout;
         }
         return null;
     }
 
+    /**
+     * Partially updates a workout with a JSON merge patch, applied atomically.
+     * Not available with the memory profile.
+     * @param id the workout ID to patch
+     * @param patch the merge patch; members set to null are removed
+     * @param expectedVersion the version the caller last read (If-Match), or null to patch unconditionally
+     * @return the patched Workout entity
+     * @throws com.example.oopproject.exceptions.ResourceNotFoundException if the workout does not exist
+     * @throws com.example.oopproject.exceptions.PreconditionFailedException if the workout has another version
+     */
+    public Workout patchWorkout(String id, JsonNode patch, Long expectedVersion) {
+        MergePatchService.Patched<Workout> patched = write(() -> {
+            MergePatchService.Patched<Workout> result = mergePatchService.apply(Workout.class, id, patch,
+                    expectedVersion, Set.of());
+            if (workoutRollupService != null) {
+                workoutRollupService.recordUpdated(result.previous(), result.current());
+            }
+            return result;
+        });
+        requestCoalescer.invalidate(QUERIES);
+        eventPublisher.publishEvent(WorkoutChangedEvent.updated(patched.previous(), patched.current()));
+        return patched.current();
+    }
+
     /**
      * Deletes a workout by its ID.
      * @param id the workout ID to delete
+     * @return true if the workout was deleted, false if it did not exist
+     */
+    public boolean deleteWorkout(String id) {
+        return deleteWorkout(id, null);
+    }
+
+    /**
+     * Deletes a workout by its ID if it is still at the expected version.
+     * <p>
+     * Only the version that was read is deleted, so that the rollups and the listeners of the
+     * {@link WorkoutChangedEvent} subtract exactly what was removed. Without an expected version,
+     * a workout updated in the meantime is read again; one deleted in the meantime was deleted
+     * by the other request, which published the change.
+     * @param id the workout ID to delete
+     * @param expectedVersion the version the caller last read (If-Match), or null to delete unconditionally
+     * @return true if the workout was deleted, false if it did not exist
+     * @throws com.example.oopproject.exceptions.PreconditionFailedException if the workout has another version
+     * @throws OptimisticLockingFailureException if the workout changed between reading and deleting it,
+     *         with an expected version or after {@value #DELETE_ATTEMPTS} attempts
      */
-    public void deleteWorkout(String id) {
-        workoutRepository.deleteById(id);
+    public boolean deleteWorkout(String id, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<Workout> workout = workoutRepository.findById(id);
+            if (workout.isEmpty()) {
+                return false;
+            }
+            Workout deleted = workout.get();
+            ETags.requireVersion(expectedVersion, deleted.getVersion(), "Workout " + id);
+            try {
+                write(() -> {
+                    workoutRepository.delete(deleted);
+                    if (workoutRollupService != null) {
+                        workoutRollupService.recordDeleted(deleted);
+                    }
+                    return deleted;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null || attempt == DELETE_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            requestCoalescer.invalidate(QUERIES);
+            eventPublisher.publishEvent(WorkoutChangedEvent.deleted(deleted));
+            return true;
+        }
     }
 
     /**
@@ -102,6 +272,20 @@ public class WorkoutService {
         return workoutPage.getContent();
     }
 
+    /**
+     * Retrieves the page of workouts following the given cursor.
+     * Unlike {@link #getPaginatedWorkouts}, the cost of a page does not grow with its depth.
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size number of items per page
+     * @param sortBy field to sort by
+     * @param sortDir direction of sorting ("asc" or "desc")
+     * @return the workouts of the page and the cursor for the next page
+     */
+    public CursorPage<Workout> getWorkoutsAfter(String cursor, int size, String sortBy, String sortDir) {
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return workoutRepository.findPageAfter(cursor, size, sortBy, direction);
+    }
+
     /**
      * Filters workouts by a date range.
      * @param startDateStr start date in "yyyy-MM-dd" format
@@ -116,6 +300,16 @@ public class WorkoutService {
         return workoutRepository.findByDateBetween(startDate, endDate);
     }
 
+    /**
+     * Retrieves all workouts of a user.
+     * @param userId the user ID
+     * @return list of the user's workouts
+     */
+    public List<Workout> getWorkoutsByUserId(String userId) {
+        return requestCoalescer.coalesce(QUERIES, Arrays.asList("byUserId", userId),
+                () -> workoutRepository.findByUserId(userId));
+    }
+
     /**
      * Searches workouts by workout type and optionally filters by user ID.
      * @param workoutType the workout type to search for
@@ -124,9 +318,46 @@ public class WorkoutService {
      */
     public List<Workout> searchWorkouts(String workoutType, String userId) {
         if (userId != null && !userId.isEmpty()) {
-            return workoutRepository.findByUserIdAndWorkoutType(userId, workoutType);
+            return requestCoalescer.coalesce(QUERIES, Arrays.asList("byUserIdAndType", userId, workoutType),
+                    () -> workoutRepository.findByUserIdAndWorkoutType(userId, workoutType));
         } else {
-            return workoutRepository.findByWorkoutType(workoutType);
+            return requestCoalescer.coalesce(QUERIES, Arrays.asList("byType", workoutType),
+                    () -> workoutRepository.findByWorkoutType(workoutType));
         }
     }
+
+    /**
+     * Runs a workout write together with the rollup change it records, see {@link WorkoutRollupService#write}.
+     */
+    /**
+     * Reports the unknown items of a batch that were in fact written as inserted.
+     */
+    private BatchResult reconcile(BatchResult batch) {
+        List<String> unknownIds = batch.getItems().stream()
+                .filter(item -> BatchItemResult.UNKNOWN.equals(item.getStatus()))
+                .map(BatchItemResult::getId)
+                .toList();
+        if (unknownIds.isEmpty()) {
+            return batch;
+        }
+
+        Set<String> written = new HashSet<>();
+        try {
+            workoutRepository.findAllById(unknownIds).forEach(workout -> written.add(workout.getId()));
+        } catch (RuntimeException e) {
+            logger.warn("Could not check which of {} unacknowledged workouts were written: {}",
+                    unknownIds.size(), e.getMessage());
+            return batch;
+        }
+
+        return new BatchResult(batch.getItems().stream()
+                .map(item -> BatchItemResult.UNKNOWN.equals(item.getStatus()) && written.contains(item.getId())
+                        ? new BatchItemResult(item.getIndex(), item.getId(), BatchItemResult.INSERTED, List.of())
+                        : item)
+                .toList());
+    }
+
+    private <T> T write(Supplier<T> write) {
+        return workoutRollupService != null ? workoutRollupService.write(write) : write.get();
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.oopproject.util;
+
+import com.example.oopproject.exceptions.PreconditionFailedException;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Entity tags derived from the {@code @Version} of the documents.
+ *
+ * <p>The tag of a document is its version in quotes, e.g. {@code "3"}. Responses carrying a
+ * tag let Spring MVC answer a GET whose {@code If-None-Match} holds the same tag with
+ * {@code 304 Not Modified} and no body. Writes sent with {@code If-Match} are only applied
+ * to that version ({@link #requireVersion}), anything else fails with
+ * {@code 412 Precondition Failed}. Documents saved before versioning have no tag.</p>
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Formats a version as a strong entity tag.
+     *
+     * @param version the document version, may be null
+     * @return the quoted tag, or null if the document has no version
+     */
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Builds a 200 response with the body and, if the document has a version, its tag.
+     *
+     * @param body the document
+     * @param version the document version, may be null
+     * @param <T> the document type
+     * @return the response
+     */
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(of(version));
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * Reads the version a conditional write expects from its {@code If-Match} header.
+     *
+     * @param ifMatch the header value, may be null
+     * @return the expected version, or null if the write is unconditional (no header or {@code *})
+     * @throws PreconditionFailedException if the header holds a tag this application never issues,
+     *                                     which therefore cannot match
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // If-Match uses the strong comparison, a weak tag never matches
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + tag + " does not match the current version");
+    }
+
+    /**
+     * Checks a conditional write against the current version of the document.
+     *
+     * @param expected the version from {@code If-Match}, or null for an unconditional write
+     * @param current the version of the stored document
+     * @param description what is written, for the error message, e.g. "Workout 42"
+     * @throws PreconditionFailedException if the document has changed since the expected version
+     */
+    public static void requireVersion(Long expected, Long current, String description) {
+        if (expected != null && !expected.equals(current)) {
+            throw new PreconditionFailedException(description + " has been modified: If-Match " + of(expected)
+                    + ", current " + (current == null ? "unversioned" : of(current)));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.oopproject.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a whole MongoDB collection to the HTTP response as newline-delimited JSON.
+ * <p>
+ * Documents are read through a server-side cursor ({@link MongoTemplate#stream}) and
+ * written one at a time, so memory use does not grow with the size of the collection.
+ * If the client disconnects, the next flush fails and the cursor is closed.
+ * <p>
+ * Exports read through the analytics template, so with a replica set they are served by a
+ * secondary ({@code app.mongodb.analytics.read-preference}) instead of loading the primary.
+ * With the memory profile there is no exporter and no NDJSON endpoint.
+ */
+@Component
+@Profile("!memory")
+public class NdjsonExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonExporter.class);
+
+    /** Number of documents fetched from MongoDB per cursor batch. */
+    private static final int CURSOR_BATCH_SIZE = 500;
+
+    /** Number of documents written between flushes to the client. */
+    private static final int FLUSH_EVERY = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+
+    /**
+     * Constructor injecting the MongoTemplate and the application's ObjectMapper.
+     *
+     * @param mongoTemplate the analytics template used to open the cursor
+     * @param objectMapper the mapper used to serialize each document
+     */
+    @Autowired
+    public NdjsonExporter(@Qualifier("analyticsMongoTemplate") MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        // flushing is batched below instead of after every document
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Streams every document of the given entity type to the response, one JSON object per line.
+     *
+     * @param entityType the mapped entity class of the collection to export
+     * @param response the HTTP response to write to
+     * @param <T> the entity type
+     * @throws IOException if the response cannot be opened
+     */
+    public <T> void export(Class<T> entityType, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        Query query = new Query().cursorBatchSize(CURSOR_BATCH_SIZE);
+        long written = 0;
+
+        try (Stream<T> documents = mongoTemplate.stream(query, entityType);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<T> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                objectWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            // Most likely the client went away; the cursor has been closed by try-with-resources
+            logger.debug("NDJSON export of {} stopped after {} documents: {}",
+                    entityType.getSimpleName(), written, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.oopproject.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Set of members ranked by a score, highest first, ties broken by member in ascending order.
+ * <p>
+ * A skip list whose links also store their span, i.e. how many members they skip, as in
+ * Redis sorted sets. Adding, moving or removing a member, looking up the rank of a member and
+ * finding the member at a rank all take O(log n) expected time; reading {@code k} members from
+ * a rank takes O(log n + k). Scores are looked up by member in a hash map.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <K> the member type
+ */
+public class OrderStatisticSkipList<K extends Comparable<K>> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node<K> head = new Node<>(null, 0, MAX_LEVEL);
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private int level = 1;
+
+    /**
+     * A member and its score at a given rank.
+     *
+     * @param rank the 1-based rank
+     * @param member the member
+     * @param score the score
+     */
+    public record Entry<K>(long rank, K member, long score) {
+    }
+
+    /**
+     * Sets the score of a member, adding the member if it is not in the list yet.
+     *
+     * @param member the member
+     * @param score the new score
+     */
+    public void put(K member, long score) {
+        Node<K> node = nodes.get(member);
+        if (node != null) {
+            if (node.score == score) {
+                return;
+            }
+            nodes.remove(member);
+            unlink(node);
+        }
+        nodes.put(member, insert(member, score));
+    }
+
+    /**
+     * Removes a member.
+     *
+     * @param member the member
+     * @return true if the member was in the list
+     */
+    public boolean remove(K member) {
+        Node<K> node = nodes.remove(member);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Returns the score of a member.
+     *
+     * @param member the member
+     * @return the score, or null if the member is not in the list
+     */
+    public Long score(K member) {
+        Node<K> node = nodes.get(member);
+        return node == null ? null : node.score;
+    }
+
+    /**
+     * Returns the rank of a member.
+     *
+     * @param member the member
+     * @return the 1-based rank, or 0 if the member is not in the list
+     */
+    public long rank(K member) {
+        Node<K> node = nodes.get(member);
+        if (node == null) {
+            return 0;
+        }
+        long rank = 0;
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], node.member, node.score) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the members from a rank on.
+     *
+     * @param fromRank the 1-based rank of the first member
+     * @param count the maximum number of members
+     * @return the members with their ranks and scores, best first
+     */
+    public List<Entry<K>> range(long fromRank, int count) {
+        if (fromRank < 1 || fromRank > size() || count <= 0) {
+            return List.of();
+        }
+        List<Entry<K>> entries = new ArrayList<>((int) Math.min(count, size() - fromRank + 1));
+        long rank = 0;
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && rank + x.span[i] <= fromRank) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+        }
+        for (; x != null && entries.size() < count; x = x.next[0], rank++) {
+            entries.add(new Entry<>(rank, x.member, x.score));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the number of members.
+     *
+     * @return the member count
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Links a new node, {@link #nodes} holding only the members already linked.
+     */
+    private Node<K> insert(K member, long score) {
+        @SuppressWarnings("unchecked")
+        Node<K>[] update = new Node[MAX_LEVEL];
+        long[] rank = new long[MAX_LEVEL];
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], member, score) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = nodes.size();
+            }
+            level = nodeLevel;
+        }
+
+        Node<K> node = new Node<>(member, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        return node;
+    }
+
+    private void unlink(Node<K> node) {
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], node.member, node.score) < 0) {
+                x = x.next[i];
+            }
+            if (x.next[i] == node) {
+                x.span[i] += node.span[i] - 1;
+                x.next[i] = node.next[i];
+            } else {
+                x.span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    /**
+     * Negative if the node comes before the given member and score, positive if after.
+     */
+    private static <K extends Comparable<K>> int compare(Node<K> node, K member, long score) {
+        int byScore = Long.compare(score, node.score);
+        return byScore != 0 ? byScore : node.member.compareTo(member);
+    }
+
+    /**
+     * Levels with a probability of 1/4 to go one level higher.
+     */
+    private static int randomLevel() {
+        int level = 1;
+        while (level < MAX_LEVEL && (ThreadLocalRandom.current().nextInt() & 3) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    private static final class Node<K> {
+
+        private final K member;
+        private final long score;
+        private final Node<K>[] next;
+        private final long[] span;
+
+        @SuppressWarnings("unchecked")
+        private Node(K member, long score, int level) {
+            this.member = member;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new long[level];
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.oopproject.util;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets by key, created on first use and dropped once idle.
+ * <p>
+ * The buckets are spread over a power-of-two number of {@link ConcurrentHashMap} stripes.
+ * There is no background thread: every {@code idleTimeout / stripes}, the request that wins
+ * a compare-and-set sweeps the next stripe in turn and removes the buckets that have been
+ * full for {@code idleTimeout}. Each sweep thus only visits a fraction of the keys, and every
+ * idle bucket is gone within twice the idle timeout whichever keys the traffic hits.
+ *
+ * @param <K> the key type, e.g. a subject and a route
+ */
+public class RateLimiter<K> {
+
+    private final ConcurrentHashMap<K, TokenBucket>[] stripes;
+    private final long idleNanos;
+    private final long sweepIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong nextSweepAt;
+    private final AtomicInteger sweepCursor = new AtomicInteger();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a rate limiter on the system clock.
+     *
+     * @param stripes the number of map stripes, rounded up to a power of two
+     * @param idleTimeout how long a full bucket is kept before it is dropped
+     */
+    public RateLimiter(int stripes, Duration idleTimeout) {
+        this(stripes, idleTimeout, System::nanoTime);
+    }
+
+    /**
+     * Constructs a rate limiter on the given clock.
+     *
+     * @param stripes the number of map stripes, rounded up to a power of two
+     * @param idleTimeout how long a full bucket is kept before it is dropped
+     * @param nanoClock the source of {@link System#nanoTime()}-like times
+     */
+    @SuppressWarnings("unchecked")
+    public RateLimiter(int stripes, Duration idleTimeout, LongSupplier nanoClock) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(stripes, 1 << 16) * 2 - 1));
+        this.stripes = new ConcurrentHashMap[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.idleNanos = idleTimeout.toNanos();
+        this.sweepIntervalNanos = Math.max(1, idleNanos / count);
+        this.nanoClock = nanoClock;
+        this.nextSweepAt = new AtomicLong(nanoClock.getAsLong() + sweepIntervalNanos);
+    }
+
+    /**
+     * Takes a token from the key's bucket, creating a full bucket on first use.
+     * The capacity and rate only apply when the bucket is created, so they should be
+     * the same for every call with the same key.
+     *
+     * @param key the bucket key
+     * @param capacity the bucket capacity
+     * @param refillPerSecond the tokens added per second
+     * @return 0 if the request is allowed, otherwise how long until it would be, in nanoseconds
+     */
+    public long tryAcquire(K key, long capacity, double refillPerSecond) {
+        long now = nanoClock.getAsLong();
+        ConcurrentHashMap<K, TokenBucket> stripe = stripes[stripeOf(key)];
+        TokenBucket bucket = stripe.get(key);
+        if (bucket == null) {
+            bucket = stripe.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, now));
+        }
+        long wait = bucket.tryConsume(now);
+        sweepIfDue(now);
+        return wait;
+    }
+
+    /**
+     * Returns the number of buckets currently kept.
+     *
+     * @return the bucket count
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<K, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private int stripeOf(K key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweepAt.get();
+        if (now - due < 0 || !nextSweepAt.compareAndSet(due, now + sweepIntervalNanos)) {
+            return;
+        }
+        ConcurrentHashMap<K, TokenBucket> stripe = stripes[sweepCursor.getAndIncrement() & (stripes.length - 1)];
+        stripe.values().removeIf(bucket -> {
+            boolean idle = bucket.isIdle(now, idleNanos);
+            if (idle) {
+                evictions.increment();
+            }
+            return idle;
+        });
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.oopproject.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one query ("single flight").
+ * <p>
+ * The first caller of a query runs it; callers asking for the same query while it is in
+ * flight wait for it and get the same result, or the same exception, instead of running
+ * their own. Nothing is cached: once the query returns, the next caller runs it again.
+ * Results are shared between the collapsed callers, so they must not be modified.
+ * <p>
+ * A query that fails because its caller was interrupted or cancelled (e.g. a dashboard
+ * branch past its deadline) is not shared: its flight is dropped and the callers waiting for
+ * it run the query again, one of them for all the others. A waiting caller that is itself
+ * interrupted stops waiting with a {@link CancellationException}.
+ * <p>
+ * Queries are grouped by name, e.g. the collection they read. A write to a collection
+ * should {@linkplain #invalidate invalidate} its name, so that reads arriving after the
+ * write start a new query rather than joining one that may have started before it.
+ */
+@Component
+public class RequestCoalescer {
+
+    /** Outcome of a flight whose caller was interrupted, telling the waiting callers to retry. */
+    private static final Object ABANDONED = new Object();
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Flights> flightsByName = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the coalescer; the request counts of each query name are registered
+     * as metrics on first use.
+     *
+     * @param enabled whether reads are collapsed at all
+     * @param meterRegistry the registry for the executed/collapsed metrics
+     */
+    @Autowired
+    public RequestCoalescer(@Value("${app.coalescing.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Constructs the coalescer without metrics.
+     *
+     * @param enabled whether reads are collapsed at all
+     */
+    public RequestCoalescer(boolean enabled) {
+        this(enabled, null);
+    }
+
+    /**
+     * Runs the query, or waits for the identical one already in flight and returns its result.
+     *
+     * @param name the query group, e.g. the collection read
+     * @param key the query and its arguments; null elements are allowed
+     * @param query the query to run
+     * @param <T> the result type
+     * @return the result of the query
+     * @throws CancellationException if the caller is interrupted while waiting for the query in flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String name, List<?> key, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        Flights flights = flightsByName.computeIfAbsent(name, this::register);
+
+        boolean joined = false;
+        while (true) {
+            CompletableFuture<Object> flight = new CompletableFuture<>();
+            CompletableFuture<Object> inFlight = flights.inFlight.putIfAbsent(key, flight);
+            if (inFlight == null) {
+                return run(flights, key, flight, query);
+            }
+            if (!joined) {
+                flights.collapsed.increment();
+                joined = true;
+            }
+            Object result = await(inFlight);
+            if (result != ABANDONED) {
+                return (T) result;
+            }
+        }
+    }
+
+    /**
+     * Makes the next reads of a query group run new queries instead of joining those in flight.
+     *
+     * @param name the query group whose data was written
+     */
+    public void invalidate(String name) {
+        Flights flights = flightsByName.get(name);
+        if (flights != null) {
+            flights.inFlight.clear();
+        }
+    }
+
+    /**
+     * Returns the number of queries that ran.
+     *
+     * @param name the query group
+     * @return the executed count
+     */
+    public long getExecutedCount(String name) {
+        Flights flights = flightsByName.get(name);
+        return flights == null ? 0 : flights.executed.sum();
+    }
+
+    /**
+     * Returns the number of reads that joined a query already in flight.
+     *
+     * @param name the query group
+     * @return the collapsed count
+     */
+    public long getCollapsedCount(String name) {
+        Flights flights = flightsByName.get(name);
+        return flights == null ? 0 : flights.collapsed.sum();
+    }
+
+    private <T> T run(Flights flights, List<?> key, CompletableFuture<Object> flight, Supplier<T> query) {
+        flights.executed.increment();
+        try {
+            T result = query.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (isInterruption(e)) {
+                // the failure is this caller's, not the query's: the others run it again
+                flights.inFlight.remove(key, flight);
+                flight.complete(ABANDONED);
+            } else {
+                flight.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            flights.inFlight.remove(key, flight);
+        }
+    }
+
+    private Flights register(String name) {
+        Flights flights = new Flights();
+        if (meterRegistry != null) {
+            FunctionCounter.builder("coalescing.requests", flights.executed, LongAdder::sum)
+                    .tag("query", name)
+                    .tag("result", "executed")
+                    .description("Reads that ran their own query")
+                    .register(meterRegistry);
+            FunctionCounter.builder("coalescing.requests", flights.collapsed, LongAdder::sum)
+                    .tag("query", name)
+                    .tag("result", "collapsed")
+                    .description("Reads that shared the result of an identical query in flight")
+                    .register(meterRegistry);
+            Gauge.builder("coalescing.in.flight", flights.inFlight, ConcurrentHashMap::size)
+                    .tag("query", name)
+                    .description("Queries currently in flight")
+                    .register(meterRegistry);
+        }
+        return flights;
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a query in flight");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Whether a query failed because the thread running it was interrupted or cancelled,
+     * which drivers report wrapped in their own exceptions.
+     */
+    private static boolean isInterruption(Throwable failure) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException || cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Flights {
+
+        private final ConcurrentHashMap<List<?>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder collapsed = new LongAdder();
+    }
+}
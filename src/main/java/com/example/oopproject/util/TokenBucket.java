@@ -0,0 +1,81 @@
+package com.example.oopproject.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code capacity} tokens and refilled at a steady rate.
+ * <p>
+ * The whole state is one {@link AtomicLong}: the instant at which the bucket will be full
+ * again (the "theoretical arrival time" of the generic cell rate algorithm, which behaves
+ * exactly like a token bucket). Taking a token moves that instant one refill interval forward
+ * with a single compare-and-set; a rejected request only reads it, so a client hammering an
+ * empty bucket causes no write contention. Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * Constructs a full bucket.
+     *
+     * @param capacity the maximum number of tokens, i.e. the largest burst allowed
+     * @param refillPerSecond the number of tokens added per second
+     * @param nowNanos the current time
+     */
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || !(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("A token bucket needs a positive capacity and refill rate, got "
+                    + capacity + " tokens refilled at " + refillPerSecond + "/s");
+        }
+        this.refillIntervalNanos = Math.max(1, Math.round(1_000_000_000d / refillPerSecond));
+        this.burstNanos = capacity > Long.MAX_VALUE / 4 / refillIntervalNanos
+                ? Long.MAX_VALUE / 4
+                : capacity * refillIntervalNanos;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @param nowNanos the current time
+     * @return 0 if a token was taken, otherwise how long until one is available, in nanoseconds
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + refillIntervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tokens left.
+     *
+     * @param nowNanos the current time
+     * @return the whole tokens currently in the bucket
+     */
+    public long available(long nowNanos) {
+        long missing = Math.max(0, fullAt.get() - nowNanos);
+        return (burstNanos - missing) / refillIntervalNanos;
+    }
+
+    /**
+     * Whether the bucket has been full for at least the given time. Dropping such a bucket
+     * loses nothing: a new one starts full as well.
+     *
+     * @param nowNanos the current time
+     * @param idleNanos the minimum idle time
+     * @return true if the bucket can be evicted
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - fullAt.get() >= idleNanos;
+    }
+}
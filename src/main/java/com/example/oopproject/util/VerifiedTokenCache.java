@@ -0,0 +1,149 @@
+package com.example.oopproject.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of JWT tokens whose signature has already been verified.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the raw token, so the token itself is never
+ * kept in memory, and each entry expires at the token's own {@code exp} claim.
+ * The entries are held in a size-bounded Caffeine cache: expired tokens are dropped by
+ * Caffeine's timer wheel in amortized constant time, and when the cache is full of live
+ * tokens the least recently used ones make room for new tokens.
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<String, Entry> entries;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache holding at most {@code maxSize} verified tokens.
+     *
+     * @param maxSize the maximum number of cached tokens; 0 disables caching
+     */
+    public VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(entry.ttlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(entry.ttlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the cached authentication for the given token if it was verified before
+     * and has not expired yet.
+     *
+     * @param token the raw JWT token
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the cached authentication, or null if the token must be verified
+     */
+    public Authentication get(String token, long nowMillis) {
+        String key = digest(token);
+        Entry entry = entries.getIfPresent(key);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis <= nowMillis) {
+            entries.asMap().remove(key, entry);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.authentication;
+    }
+
+    /**
+     * Caches the authentication built from a verified token until the token expires.
+     *
+     * @param token the raw JWT token that was verified
+     * @param authentication the authentication built from its claims
+     * @param expiresAtMillis the token's expiration time in epoch milliseconds
+     * @param nowMillis the current time in epoch milliseconds
+     */
+    public void put(String token, Authentication authentication, long expiresAtMillis, long nowMillis) {
+        if (maxSize <= 0 || expiresAtMillis <= nowMillis) {
+            return;
+        }
+        entries.put(digest(token), new Entry(authentication, expiresAtMillis, expiresAtMillis - nowMillis));
+    }
+
+    /**
+     * Performs the pending expirations and evictions now instead of during later lookups.
+     */
+    public void cleanUp() {
+        entries.cleanUp();
+    }
+
+    /**
+     * Gets the number of cached tokens.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    /**
+     * Gets the number of lookups that returned a cached authentication.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that required the token to be verified.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A cached authentication; {@code ttlMillis} is the token's remaining lifetime when it was cached.
+     */
+    private record Entry(Authentication authentication, long expiresAtMillis, long ttlMillis) {
+    }
+}
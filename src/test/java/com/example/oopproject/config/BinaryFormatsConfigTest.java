@@ -0,0 +1,126 @@
+package com.example.oopproject.config;
+
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.repositories.WorkoutRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles({"test", "memory"})
+public class BinaryFormatsConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final BinaryFormatsConfig config = new BinaryFormatsConfig();
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    private MockMvc mockMvc;
+
+    private Workout stored;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+
+        Workout workout = new Workout("user1", new Date(), 45, "strength", 380, null);
+        workout.setName("Upper body");
+        stored = workoutRepository.save(workout);
+    }
+
+    @Test
+    void testSmileRoundTrip() throws IOException {
+        roundTrip(config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()), SMILE);
+    }
+
+    @Test
+    void testCborRoundTrip() throws IOException {
+        roundTrip(config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()), MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSmileIsNegotiated() throws Exception {
+        assertNegotiated(SMILE, Jackson2ObjectMapperBuilder.smile().build());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testCborIsNegotiated() throws Exception {
+        assertNegotiated(MediaType.APPLICATION_CBOR, Jackson2ObjectMapperBuilder.cbor().build());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testJsonWithoutAcceptHeader() throws Exception {
+        mockMvc.perform(get("/api/workouts/" + stored.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.name").value("Upper body"));
+    }
+
+    private void assertNegotiated(MediaType mediaType, ObjectMapper decoder) throws Exception {
+        byte[] body = mockMvc.perform(get("/api/workouts/" + stored.getId()).header(HttpHeaders.ACCEPT, mediaType.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Workout read = decoder.readValue(body, Workout.class);
+        assertEquals(stored.getId(), read.getId());
+        assertEquals("Upper body", read.getName());
+    }
+
+    private static void roundTrip(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) throws IOException {
+        assertTrue(converter.canWrite(Workout.class, mediaType));
+        assertTrue(converter.canRead(Workout.class, mediaType));
+        assertFalse(converter.canWrite(Workout.class, MediaType.APPLICATION_JSON));
+
+        Workout workout = new Workout("user1", new Date(), 60, "strength", 450,
+                List.of(new Exercise("ex1", "Bench press", 8, 3, "workout1")));
+        workout.setId("workout1");
+        workout.setVersion(4L);
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(workout, mediaType, output);
+        byte[] body = output.getBodyAsBytes();
+        assertEquals(mediaType, output.getHeaders().getContentType());
+
+        Workout read = (Workout) converter.read(Workout.class, new MockHttpInputMessage(body));
+        assertEquals("workout1", read.getId());
+        assertEquals(workout.getDate(), read.getDate());
+        assertEquals("Bench press", read.getExercises().get(0).getName());
+        // @JsonIgnore applies as for JSON
+        assertNull(read.getVersion());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.oopproject.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoClientFactoryTest {
+
+    private MongoClientProperties properties;
+    private MongoMetricsListener listener;
+    private MongoClientFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MongoClientProperties();
+        listener = new MongoMetricsListener(new SimpleMeterRegistry());
+        factory = new MongoClientFactory(properties, listener);
+    }
+
+    @Test
+    void testConnectionStringOptionsTakePrecedence() {
+        properties.getPool().setMaxSize(20);
+        properties.getPool().setMaxWaitTime(Duration.ofMillis(500));
+        properties.getTimeouts().setSocketRead(Duration.ofSeconds(15));
+
+        MongoClientSettings settings = factory.createSettings(
+                "mongodb://localhost:27017/fitness_tracker?maxPoolSize=5&readPreference=secondary&compressors=zlib");
+
+        assertEquals(5, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(ReadPreference.secondary(), settings.getReadPreference());
+        assertEquals(List.of("zlib"), settings.getCompressorList().stream().map(MongoCompressor::getName).toList());
+        assertEquals(500, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(15000, settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testConfiguredSettingsFillInTheConnectionString() {
+        properties.getPool().setMaxSize(20);
+
+        MongoClientSettings settings = factory.createSettings("mongodb://localhost:27017/fitness_tracker");
+
+        assertEquals(20, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(ReadPreference.primary(), settings.getReadPreference());
+        assertEquals(List.of("zstd", "snappy"),
+                settings.getCompressorList().stream().map(MongoCompressor::getName).toList());
+    }
+
+    @Test
+    void testAutoConfiguredClientKeepsTheOptionsOfItsUri() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.data.mongodb.uri", "mongodb://localhost:27017/test?maxPoolSize=7");
+        factory = new MongoClientFactory(properties, listener, environment);
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://localhost:27017/test?maxPoolSize=7"));
+
+        factory.customize(builder);
+
+        MongoClientSettings settings = builder.build();
+        assertEquals(7, settings.getConnectionPoolSettings().getMaxSize());
+        assertEquals(2000, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testMetricsListenerIsAdded() {
+        MongoClientSettings settings = factory.createSettings("mongodb://localhost:27017");
+
+        assertTrue(settings.getCommandListeners().contains(listener));
+        assertTrue(settings.getConnectionPoolSettings().getConnectionPoolListeners().contains(listener));
+    }
+
+    @Test
+    void testUnknownCompressorIsRejected() {
+        properties.setCompressors(List.of("lz4"));
+
+        assertThrows(IllegalArgumentException.class, () -> factory.createSettings("mongodb://localhost:27017"));
+    }
+
+    @Test
+    void testAnalyticsTemplateReadsFromSecondaries() {
+        properties.getAnalytics().setReadPreference("secondary");
+        properties.getAnalytics().setMaxStaleness(Duration.ofSeconds(120));
+
+        // the client connects lazily, so no server is needed
+        try (MongoClient client = MongoClients.create("mongodb://localhost:27017")) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, "fitness_tracker");
+            MongoTemplate analyticsTemplate = factory.createAnalyticsTemplate(mongoTemplate);
+
+            ReadPreference readPreference = analyticsTemplate.getReadPreference();
+            assertEquals("secondary", readPreference.getName());
+            assertEquals(120L, ((TaggableReadPreference) readPreference).getMaxStaleness(TimeUnit.SECONDS));
+            assertSame(mongoTemplate.getMongoDatabaseFactory(), analyticsTemplate.getMongoDatabaseFactory());
+        }
+    }
+}
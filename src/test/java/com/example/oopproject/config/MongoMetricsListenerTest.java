@@ -0,0 +1,93 @@
+package com.example.oopproject.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoMetricsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MongoMetricsListener listener;
+    private ServerId serverId;
+    private ConnectionDescription connection;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new MongoMetricsListener(meterRegistry);
+        serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+        connection = new ConnectionDescription(serverId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoMetricsListener.setRepositoryMethod(null);
+    }
+
+    @Test
+    void testCommandIsTaggedWithCollectionAndRepositoryMethod() {
+        MongoMetricsListener.setRepositoryMethod("WorkoutRepository.findByUserId");
+        listener.commandStarted(new CommandStartedEvent(null, 1L, 7, connection, "fitness_tracker", "find",
+                new BsonDocument("find", new BsonString("workouts"))));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1L, 7, connection, "fitness_tracker", "find",
+                new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(5)));
+
+        Timer timer = meterRegistry.get("mongodb.commands")
+                .tag("collection", "workouts")
+                .tag("command", "find")
+                .tag("repository.method", "WorkoutRepository.findByUserId")
+                .tag("status", "success")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(5, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void testGetMoreUsesCollectionFieldAndFailureStatus() {
+        BsonDocument getMore = new BsonDocument("getMore", new BsonInt64(42))
+                .append("collection", new BsonString("exercises"));
+        listener.commandStarted(new CommandStartedEvent(null, 1L, 8, connection, "fitness_tracker", "getMore", getMore));
+        listener.commandFailed(new CommandFailedEvent(null, 1L, 8, connection, "fitness_tracker", "getMore",
+                1000L, new RuntimeException("cursor killed")));
+
+        assertEquals(1, meterRegistry.get("mongodb.commands")
+                .tag("collection", "exercises")
+                .tag("repository.method", "none")
+                .tag("status", "failure")
+                .timer().count());
+    }
+
+    @Test
+    void testPoolGaugesAndCheckoutWait() {
+        ConnectionId connectionId = new ConnectionId(serverId);
+        listener.connectionCreated(new ConnectionCreatedEvent(connectionId));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, 1L, TimeUnit.MILLISECONDS.toNanos(2)));
+
+        assertEquals(1, meterRegistry.get("mongodb.pool.size").gauge().value());
+        assertEquals(1, meterRegistry.get("mongodb.pool.checkedout").gauge().value());
+        assertEquals(1, meterRegistry.get("mongodb.pool.checkout").timer().count());
+
+        listener.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId, 1L));
+        assertEquals(0, meterRegistry.get("mongodb.pool.checkedout").gauge().value());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.oopproject.config;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class QueryPlanVerifierTest {
+
+    private static final Document INDEX_SCAN = new Document("stage", "FETCH")
+            .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "userId_1"));
+
+    private static final Document COLLECTION_SCAN = new Document("stage", "SORT")
+            .append("inputStage", new Document("stage", "COLLSCAN").append("direction", "forward"));
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        queryPlanVerifier = new QueryPlanVerifier(mongoTemplate, false);
+    }
+
+    @Test
+    void testIndexScansPassTheCheck(CapturedOutput output) {
+        givenWinningPlans(collection -> INDEX_SCAN);
+
+        assertEquals(List.of(), queryPlanVerifier.findCollectionScans());
+
+        queryPlanVerifier.run(new DefaultApplicationArguments());
+        assertTrue(output.getOut().contains("Index check passed: all " + QueryPlanVerifier.queryShapes().size()));
+        assertFalse(output.getOut().contains("COLLSCAN for"));
+    }
+
+    @Test
+    void testCollectionScansAreReportedAsWarnings(CapturedOutput output) {
+        givenWinningPlans(collection -> "users".equals(collection) ? COLLECTION_SCAN : INDEX_SCAN);
+
+        assertEquals(List.of("users.findByUsername", "users.findByEmail"), queryPlanVerifier.findCollectionScans());
+
+        queryPlanVerifier.run(new DefaultApplicationArguments());
+        assertTrue(output.getOut().contains("WARN"));
+        assertTrue(output.getOut().contains("Index check: COLLSCAN for users.findByUsername"));
+        assertTrue(output.getOut().contains("Index check: COLLSCAN for users.findByEmail"));
+        assertFalse(output.getOut().contains("Index check passed"));
+    }
+
+    @Test
+    void testCollectionScanInsideAnOrPlanIsFound() {
+        Document or = new Document("stage", "SUBPLAN").append("inputStage", new Document("stage", "OR")
+                .append("inputStages", List.of(INDEX_SCAN, new Document("stage", "COLLSCAN"))));
+        givenWinningPlans(collection -> "fitness_goals".equals(collection) ? or : INDEX_SCAN);
+
+        List<String> collectionScans = queryPlanVerifier.findCollectionScans();
+
+        assertFalse(collectionScans.isEmpty());
+        assertTrue(collectionScans.stream().allMatch(shape -> shape.startsWith("fitness_goals.")));
+    }
+
+    @Test
+    void testFailedExplainIsLoggedWithoutStoppingTheStartup(CapturedOutput output) {
+        when(mongoTemplate.getCollection(anyString())).thenThrow(new MongoTimeoutException("no server"));
+
+        assertDoesNotThrow(() -> queryPlanVerifier.run(new DefaultApplicationArguments()));
+        assertTrue(output.getOut().contains("Index check could not be completed: no server"));
+    }
+
+    /**
+     * Answers the explain of every query on a collection with the given winning plan.
+     */
+    @SuppressWarnings("unchecked")
+    private void givenWinningPlans(Function<String, Document> winningPlan) {
+        when(mongoTemplate.getCollection(anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            MongoCollection<Document> collection = mock(MongoCollection.class);
+            FindIterable<Document> find = mock(FindIterable.class);
+            when(collection.find(any(Bson.class))).thenReturn(find);
+            when(find.sort(any(Bson.class))).thenReturn(find);
+            when(find.explain(ExplainVerbosity.QUERY_PLANNER)).thenReturn(
+                    new Document("queryPlanner", new Document("winningPlan", winningPlan.apply(name))));
+            return collection;
+        });
+    }
+}
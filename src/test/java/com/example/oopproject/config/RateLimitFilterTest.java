@@ -0,0 +1,119 @@
+package com.example.oopproject.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRequestsBeyondTheRouteLimitAreRejectedWithRetryAfter() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper(), now::get);
+
+        assertEquals(200, perform(filter, "GET", "/exercises/filter").getStatus());
+        assertEquals(200, perform(filter, "GET", "/exercises/filter/paged").getStatus());
+        MockHttpServletResponse rejected = perform(filter, "GET", "/exercises/filter");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+
+        now.set(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(200, perform(filter, "GET", "/exercises/filter").getStatus());
+    }
+
+    @Test
+    void testRoutesAndClientsHaveSeparateBuckets() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper(), now::get);
+        perform(filter, "GET", "/exercises/filter");
+        perform(filter, "GET", "/exercises/filter");
+
+        assertEquals(200, perform(filter, "GET", "/api/workouts").getStatus());
+        assertEquals(200, perform(filter, "POST", "/exercises/filter").getStatus());
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, List.of(new SimpleGrantedAuthority("USER"))));
+        assertEquals(200, perform(filter, "GET", "/exercises/filter").getStatus());
+    }
+
+    @Test
+    void testUnlimitedRoutesAndDisabledLimiterPassEverything() throws Exception {
+        RateLimitProperties properties = properties();
+        properties.getDefaultLimit().setCapacity(0);
+        RateLimitFilter unlimited = new RateLimitFilter(properties, new ObjectMapper(), now::get);
+        properties.setEnabled(false);
+        RateLimitFilter disabled = new RateLimitFilter(properties, new ObjectMapper(), now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform(unlimited, "GET", "/api/users").getStatus());
+            assertEquals(200, perform(disabled, "GET", "/exercises/filter").getStatus());
+        }
+    }
+
+    @Test
+    void testDecisionsAreCounted() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper(), registry);
+        for (int i = 0; i < 3; i++) {
+            perform(filter, "GET", "/exercises/filter");
+        }
+
+        assertEquals(2, registry.get("rate.limit.requests").tag("route", "exercise-filter").tag("result", "allowed")
+                .functionCounter().count());
+        assertEquals(1, registry.get("rate.limit.requests").tag("route", "exercise-filter").tag("result", "rejected")
+                .functionCounter().count());
+        assertEquals(0, registry.get("rate.limit.requests").tag("route", RateLimitFilter.DEFAULT_ROUTE)
+                .tag("result", "allowed").functionCounter().count());
+        assertEquals(1, registry.get("rate.limit.buckets").gauge().value());
+    }
+
+    @Test
+    void testRouteWithoutRefillRateIsRejectedAtStartup() {
+        RateLimitProperties properties = properties();
+        properties.getRoutes().get("exercise-filter").setRefillPerSecond(0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitFilter(properties, new ObjectMapper(), now::get));
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaultLimit().setCapacity(100);
+        properties.getDefaultLimit().setRefillPerSecond(10);
+
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath("/exercises/filter/**");
+        route.setMethods(List.of("get"));
+        route.setCapacity(2);
+        route.setRefillPerSecond(0.5);
+        properties.getRoutes().put("exercise-filter", route);
+        return properties;
+    }
+
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String method, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
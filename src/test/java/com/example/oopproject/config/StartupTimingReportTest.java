@@ -0,0 +1,28 @@
+package com.example.oopproject.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupTimingReportTest {
+
+    @Test
+    void testFormatListsSlowestStepsFirst() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep slow = startup.start("spring.beans.instantiate").tag("beanName", "slowBean");
+        Thread.sleep(20);
+        slow.end();
+        startup.start("spring.beans.instantiate").tag("beanName", "fastBean").end();
+        refresh.end();
+
+        String[] lines = StartupTimingReport.format(startup.getBufferedTimeline(), 2).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].endsWith("spring.context.refresh"), lines[0]);
+        assertTrue(lines[1].endsWith("spring.beans.instantiate [beanName=slowBean]"), lines[1]);
+    }
+}
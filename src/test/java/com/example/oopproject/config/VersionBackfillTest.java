@@ -0,0 +1,47 @@
+package com.example.oopproject.config;
+
+import com.example.oopproject.models.Workout;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class VersionBackfillTest {
+
+    @Test
+    void testRunsBeforeTheWebServerStarts() {
+        VersionBackfill backfill = new VersionBackfill(mock(MongoTemplate.class));
+
+        assertTrue(backfill.isAutoStartup());
+        // the web server starts one phase group before graceful shutdown, at SMART_LIFECYCLE_PHASE - 1024
+        assertTrue(backfill.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    void testStartSetsTheInitialVersionOnEveryCollection() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), any(Class.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        VersionBackfill backfill = new VersionBackfill(mongoTemplate);
+
+        backfill.start();
+
+        assertTrue(backfill.isRunning());
+        verify(mongoTemplate, times(VersionBackfill.VERSIONED_ENTITIES.size()))
+                .updateMulti(queries.capture(), updates.capture(), any(Class.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Workout.class));
+        assertEquals(new Document("version", new Document("$exists", false)), queries.getValue().getQueryObject());
+        assertEquals(0L, ((Document) updates.getValue().getUpdateObject().get("$set")).get("version"));
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.oopproject.controllers;
 
+import com.example.oopproject.models.Exercise;
 import com.example.oopproject.models.Workout;
+import com.example.oopproject.repositories.ExerciseRepository;
 import com.example.oopproject.repositories.WorkoutRepository;
 import com.example.oopproject.services.WorkoutService;
+import com.example.oopproject.util.RequestCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
@@ -17,15 +21,20 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
-@ActiveProfiles("test")
+@ActiveProfiles({"test", "memory"})
 public class WorkoutControllerIntegrationTest {
 
     @Autowired
@@ -37,6 +46,12 @@ public class WorkoutControllerIntegrationTest {
     @Autowired
     private WorkoutService workoutService;
 
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
     @Autowired
     private WebApplicationContext context;
 
@@ -115,6 +130,107 @@ public class WorkoutControllerIntegrationTest {
                 .andExpect(jsonPath("$.id").value(id));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void testConditionalGetAnswersNotModified() throws Exception {
+        Workout workout = workoutRepository.save(new Workout("user1", new Date(), 30, "cardio", 300, null));
+
+        String etag = mockMvc.perform(get("/api/workouts/" + workout.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/workouts/" + workout.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/workouts/" + workout.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testStaleIfMatchIsRejected() throws Exception {
+        Workout workout = workoutRepository.save(new Workout("user1", new Date(), 30, "cardio", 300, null));
+        String body = """
+                {"name": "Evening run", "workoutType": "cardio", "duration": 40, "caloriesBurned": 400, "date": "2025-05-17"}
+                """;
+
+        mockMvc.perform(put("/api/workouts/" + workout.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/workouts/" + workout.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(delete("/api/workouts/" + workout.getId()).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        Exercise exercise = exerciseRepository.save(new Exercise("Squat", 12, 4, workout.getId()));
+        mockMvc.perform(put("/exercises/" + exercise.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Front Squat\", \"reps\": 10, \"sets\": 4}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/exercises/" + exercise.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Front Squat\", \"reps\": 10, \"sets\": 4}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.name").value("Front Squat"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testEndpointsNeedingMongoAreNotMapped() throws Exception {
+        Workout workout = workoutRepository.save(new Workout("user1", new Date(), 30, "cardio", 300, null));
+
+        mockMvc.perform(post("/api/workouts/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isMethodNotAllowed());
+        mockMvc.perform(patch("/api/workouts/" + workout.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"duration\": 45}"))
+                .andExpect(status().isMethodNotAllowed());
+        mockMvc.perform(get("/api/workouts").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get("/api/users/user1/stats"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetFullWorkoutJoinsExercises() throws Exception {
+        Workout workout = new Workout("user1", dateFormat.parse("2025-05-17"), 30, "strength", 250, null);
+        workout = workoutRepository.save(workout);
+        exerciseRepository.deleteAll();
+        exerciseRepository.save(new Exercise("Push Up", 10, 3, workout.getId()));
+        exerciseRepository.save(new Exercise("Squat", 12, 4, workout.getId()));
+
+        mockMvc.perform(get("/api/workouts/" + workout.getId() + "/full"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(workout.getId()))
+                .andExpect(jsonPath("$.exercises", hasSize(2)));
+
+        mockMvc.perform(get("/api/workouts/full")
+                        .param("startDate", "2025-05-17")
+                        .param("endDate", "2025-05-17")
+                        .param("userId", "user1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].exercises", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/workouts/full")
+                        .param("startDate", "2025-05-17")
+                        .param("endDate", "2025-05-17")
+                        .param("size", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void testUpdateWorkout() throws Exception {
@@ -272,4 +388,91 @@ public class WorkoutControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSearchAfterWriteDoesNotJoinQueryInFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread reader = Thread.ofVirtual().start(() -> requestCoalescer.coalesce(WorkoutService.QUERIES,
+                Arrays.asList("byType", "hiit"), () -> {
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return List.of();
+                }));
+        try {
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            mockMvc.perform(post("/api/workouts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"Intervals\",\"workoutType\":\"hiit\",\"duration\":20}"))
+                    .andExpect(status().isCreated());
+
+            mockMvc.perform(get("/api/workouts/search")
+                            .param("workoutType", "hiit"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].name").value("Intervals"));
+        } finally {
+            release.countDown();
+            reader.join();
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testScrollWorkoutsWithCursor() throws Exception {
+        workoutRepository.deleteAll();
+
+        for (int i = 0; i < 5; i++) {
+            Workout workout = new Workout();
+            workout.setName("Workout " + i);
+            workout.setWorkoutType("test");
+            workout.setDuration(10 + i);
+            workout.setCaloriesBurned(100);
+            workout.setDate(new Date());
+            workoutRepository.save(workout);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/workouts/scroll")
+                        .param("size", "2")
+                        .param("sortBy", "duration")
+                        .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].duration").value(14))
+                .andExpect(jsonPath("$.items[1].duration").value(13))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String cursor = firstPage.split("\"nextCursor\":\"")[1].split("\"")[0];
+
+        // a workout inserted before the cursor position must not shift the next page
+        Workout inserted = new Workout();
+        inserted.setName("Inserted");
+        inserted.setWorkoutType("test");
+        inserted.setDuration(20);
+        inserted.setDate(new Date());
+        workoutRepository.save(inserted);
+
+        mockMvc.perform(get("/api/workouts/scroll")
+                        .param("cursor", cursor)
+                        .param("size", "2")
+                        .param("sortBy", "duration")
+                        .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].duration").value(12))
+                .andExpect(jsonPath("$.items[1].duration").value(11));
+
+        mockMvc.perform(get("/api/workouts/scroll")
+                        .param("cursor", cursor)
+                        .param("sortBy", "date"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.oopproject.load;
+
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the throughput and latency of the main REST endpoints under an open workload.
+ *
+ * <p>The application runs against an in-memory MongoDB, optionally behind a proxy delaying
+ * every reply by {@code load.mongo-latency} milliseconds (default 0), seeded with
+ * {@code load.users} users (default 50), each with {@code load.workouts-per-user} workouts
+ * (default 10) of {@code load.exercises-per-workout} exercises (default 5) and
+ * {@code load.goals-per-user} goals (default 3).</p>
+ *
+ * <p>Requests arrive at {@code load.rate} per second (default 100) as a Poisson process, each one
+ * sent on schedule whether or not the earlier ones were answered, the way independent users
+ * arrive. Every request goes to one of the endpoints below, picked at random with the weights of
+ * {@code load.mix}, e.g. {@code workouts=40,exercises-filter=30,goals=25,login=5} (the default).
+ * Latency is measured from the moment a request was due rather than from when it was sent, so a
+ * stalled server shows up in the percentiles instead of lowering the request rate (no
+ * coordinated omission). After a {@code load.warmup} (default 5s) the load is applied for
+ * {@code load.duration} (default 30s); a summary is printed and the HdrHistogram percentile
+ * distribution of every endpoint is written to {@code load.report-dir} as
+ * {@code <endpoint>.hgrm}, which the HdrHistogram plotter reads.</p>
+ *
+ * <ul>
+ *     <li>{@code workouts}: {@code GET /api/workouts}</li>
+ *     <li>{@code exercises-filter}: {@code GET /exercises/filter?workoutId=} a random workout</li>
+ *     <li>{@code goals}: {@code GET /api/fitness-goals/user/}{@code {id}} of a random user</li>
+ *     <li>{@code login}: {@code POST /api/auth/login}</li>
+ * </ul>
+ *
+ * <p>Tagged {@code api-load}: not part of {@code gradle test}, run it with {@code gradle apiLoadTest}.</p>
+ */
+@Tag("api-load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.index-check.enabled=false",
+        "app.rate-limit.enabled=false",
+        "app.goals.expiry-sweep.cron=-",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.springframework.data.mongodb=WARN",
+        "logging.level.com.example.oopproject=WARN"
+})
+public class ApiLoadTest {
+
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+    private static final LatencyProxy PROXY;
+    private static final InetSocketAddress MONGO_ADDRESS;
+
+    static {
+        InetSocketAddress mongoAddress = MONGO.bind();
+        long latency = Long.getLong("load.mongo-latency", 0);
+        PROXY = latency > 0 ? new LatencyProxy(mongoAddress, Duration.ofMillis(latency)) : null;
+        MONGO_ADDRESS = mongoAddress;
+    }
+
+    private static final String DEFAULT_MIX = "workouts=40,exercises-filter=30,goals=25,login=5";
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> workoutIds = new ArrayList<>();
+    private String token;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        int mongoPort = PROXY != null ? PROXY.port() : MONGO_ADDRESS.getPort();
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://localhost:" + mongoPort + "/fitness_tracker");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (PROXY != null) {
+            PROXY.close();
+        }
+        MONGO.shutdownNow();
+    }
+
+    @Test
+    void measureEndpointLatency() throws Exception {
+        seed(Integer.getInteger("load.users", 50), Integer.getInteger("load.workouts-per-user", 10),
+                Integer.getInteger("load.exercises-per-workout", 5), Integer.getInteger("load.goals-per-user", 3));
+        token = login();
+
+        List<Endpoint> mix = mix(System.getProperty("load.mix", DEFAULT_MIX));
+        double rate = Double.parseDouble(System.getProperty("load.rate", "100"));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+        Path reportDir = Path.of(System.getProperty("load.report-dir", "build/reports/load"));
+
+        // warm up (JIT, connection pools) at the same rate, then start from empty histograms
+        run(mix, rate, Duration.ofSeconds(Long.getLong("load.warmup", 5)));
+        mix.forEach(Endpoint::reset);
+        run(mix, rate, duration);
+
+        Files.createDirectories(reportDir);
+        System.out.printf("%n%-18s %8s %8s %9s %9s %9s %9s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (Endpoint endpoint : mix) {
+            Histogram histogram = endpoint.latencies;
+            System.out.printf("%-18s %8d %8.1f %9.2f %9.2f %9.2f %9.2f %7d%n", endpoint.name,
+                    histogram.getTotalCount(), histogram.getTotalCount() / (duration.toMillis() / 1000.0),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()), endpoint.errors.get());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(reportDir.resolve(endpoint.name + ".hgrm")))) {
+                // values are recorded in microseconds and reported in milliseconds
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("HDR latency reports written to " + reportDir.toAbsolutePath());
+
+        for (Endpoint endpoint : mix) {
+            assertThat(endpoint.errors.get()).as("failed %s requests", endpoint.name).isZero();
+        }
+    }
+
+    private void seed(int users, int workoutsPerUser, int exercisesPerWorkout, int goalsPerUser) {
+        mongoTemplate.getDb().drop();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Date now = new Date();
+        Date nextMonth = new Date(now.getTime() + TimeUnit.DAYS.toMillis(30));
+
+        List<User> userDocuments = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            userDocuments.add(new User("load-user-" + u, "load-user-" + u + "@example.com", "password" + u));
+        }
+        mongoTemplate.insertAll(userDocuments).forEach(user -> userIds.add(user.getId()));
+
+        List<Workout> workouts = new ArrayList<>();
+        List<FitnessGoal> goals = new ArrayList<>();
+        for (String userId : userIds) {
+            for (int w = 0; w < workoutsPerUser; w++) {
+                Date date = new Date(now.getTime() - TimeUnit.DAYS.toMillis(w));
+                workouts.add(new Workout(userId, date, 20 + random.nextInt(70), w % 2 == 0 ? "cardio" : "strength",
+                        100 + random.nextInt(600), null));
+            }
+            for (int g = 0; g < goalsPerUser; g++) {
+                goals.add(new FitnessGoal(userId, List.of("calories", "duration", "sessions").get(g % 3),
+                        "Load test goal " + g, 0, 1000, nextMonth));
+            }
+        }
+        mongoTemplate.insertAll(workouts).forEach(workout -> workoutIds.add(workout.getId()));
+        mongoTemplate.insertAll(goals);
+
+        List<Exercise> exercises = new ArrayList<>();
+        for (String workoutId : workoutIds) {
+            for (int e = 0; e < exercisesPerWorkout; e++) {
+                Exercise exercise = new Exercise("Exercise " + e, 8 + random.nextInt(5), 3 + random.nextInt(2), workoutId);
+                exercise.setWeight(20 + random.nextInt(60));
+                exercise.setEquipment(e % 2 == 0 ? "barbell" : "dumbbell");
+                exercise.setMuscleGroups(List.of("chest", "triceps"));
+                exercises.add(exercise);
+            }
+        }
+        mongoTemplate.insertAll(exercises);
+    }
+
+    private List<Endpoint> mix(String spec) {
+        Map<String, Function<ThreadLocalRandom, HttpRequest>> requests = new LinkedHashMap<>();
+        requests.put("workouts", random -> get("/api/workouts"));
+        requests.put("exercises-filter", random ->
+                get("/exercises/filter?workoutId=" + workoutIds.get(random.nextInt(workoutIds.size()))));
+        requests.put("goals", random ->
+                get("/api/fitness-goals/user/" + userIds.get(random.nextInt(userIds.size()))));
+        requests.put("login", random -> HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build());
+
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=");
+            Function<ThreadLocalRandom, HttpRequest> request = requests.get(nameAndWeight[0].trim());
+            if (request == null || nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("load.mix entry '" + entry + "' is not one of "
+                        + requests.keySet() + " followed by =<weight>");
+            }
+            endpoints.add(new Endpoint(nameAndWeight[0].trim(), Double.parseDouble(nameAndWeight[1].trim()), request));
+        }
+        return endpoints;
+    }
+
+    /**
+     * Sends requests at exponentially distributed intervals averaging {@code 1 / rate} seconds
+     * until the duration is over, then waits for the outstanding ones.
+     */
+    private void run(List<Endpoint> mix, double rate, Duration duration) throws InterruptedException {
+        double totalWeight = mix.stream().mapToDouble(endpoint -> endpoint.weight).sum();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            long due = start;
+            while (due < end) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(Duration.ofNanos(wait));
+                }
+                Endpoint endpoint = pick(mix, totalWeight, random.nextDouble());
+                HttpRequest request = endpoint.request.apply(random);
+                long intended = due;
+                inFlight.incrementAndGet();
+                senders.submit(() -> {
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() / 100 == 2) {
+                            endpoint.record(System.nanoTime() - intended);
+                        } else {
+                            endpoint.errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        endpoint.errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+                due += (long) (-Math.log(1 - random.nextDouble()) / rate * 1_000_000_000L);
+            }
+        }
+        assertThat(inFlight.get()).isZero();
+    }
+
+    private static Endpoint pick(List<Endpoint> mix, double totalWeight, double sample) {
+        double threshold = sample * totalWeight;
+        for (Endpoint endpoint : mix) {
+            threshold -= endpoint.weight;
+            if (threshold < 0) {
+                return endpoint;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private String login() throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            return objectMapper.readTree(response.body()).get("token").asText();
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private final double weight;
+        private final Function<ThreadLocalRandom, HttpRequest> request;
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        private Endpoint(String name, double weight, Function<ThreadLocalRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        private void record(long nanos) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_LATENCY_MICROS));
+        }
+
+        private void reset() {
+            latencies.reset();
+            errors.set(0);
+        }
+    }
+}
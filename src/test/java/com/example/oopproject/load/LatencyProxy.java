@@ -0,0 +1,131 @@
+package com.example.oopproject.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * TCP proxy in front of the in-memory MongoDB that holds back every reply by a fixed
+ * latency, simulating the network round trip to a real cluster.
+ */
+final class LatencyProxy implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final InetSocketAddress target;
+    private final Duration latency;
+
+    LatencyProxy(InetSocketAddress target, Duration latency) {
+        this.target = target;
+        this.latency = latency;
+        try {
+            this.serverSocket = new ServerSocket(0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the proxy port", e);
+        }
+        Thread.ofVirtual().start(this::accept);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket server = new Socket(target.getAddress(), target.getPort());
+                client.setTcpNoDelay(true);
+                server.setTcpNoDelay(true);
+                Thread.ofVirtual().start(() -> pump(client, server));
+                Thread.ofVirtual().start(() -> delayedPump(server, client));
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private static void pump(Socket from, Socket to) {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // connection closed by either side
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    /**
+     * Forwards every chunk {@code latency} after it was received. Chunks are queued rather
+     * than delayed one after the other, so a reply split into several writes is held back
+     * once, like on a real link.
+     */
+    private void delayedPump(Socket from, Socket to) {
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().start(() -> {
+            try (OutputStream out = to.getOutputStream()) {
+                Chunk chunk;
+                while ((chunk = queue.take()).data().length > 0) {
+                    long wait = chunk.dueNanos() - System.nanoTime();
+                    if (wait > 0) {
+                        Thread.sleep(Duration.ofNanos(wait));
+                    }
+                    out.write(chunk.data());
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // connection closed by either side
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        });
+
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = from.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                queue.add(new Chunk(System.nanoTime() + latency.toNanos(), Arrays.copyOf(buffer, read)));
+            }
+        } catch (IOException e) {
+            // connection closed by either side
+        } finally {
+            queue.add(new Chunk(0, new byte[0]));
+        }
+    }
+
+    private record Chunk(long dueNanos, byte[] data) {
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(serverSocket);
+    }
+
+    private static void closeQuietly(ServerSocket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.oopproject.load;
+
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.repositories.WorkoutRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares how many concurrent connections the blocking and the reactive read path can serve.
+ *
+ * <p>The application runs against an in-memory MongoDB behind a proxy that delays every reply
+ * by {@code load.mongo-latency} (default 50ms), so requests spend most of their time waiting on
+ * the database, as they do against a remote cluster. Tomcat is limited to
+ * {@code load.tomcat-threads} (default 10) threads. The same query is then sent by 10, 100 and
+ * 400 concurrent clients ({@code load.concurrency}) to {@code /api/workouts/search} and
+ * {@code /api/reactive/workouts/search} for {@code load.duration} (default 5s) each, and the
+ * throughput and latency percentiles are printed. A blocking request holds its Tomcat thread
+ * for the whole round trip, so its throughput stops growing at about threads / latency
+ * (200 req/s with the defaults); a reactive request only needs the thread to dispatch and
+ * write, so it keeps scaling until the Mongo connection pool or the CPU is saturated.</p>
+ *
+ * <p>Both paths are called with {@code Accept: application/json}. For that media type Spring MVC
+ * collects the reactive {@code Flux} into a list before writing it, so the reactive path is
+ * measured without streaming: it saves threads, not memory or time to first byte. The small
+ * per-user result used here keeps that buffering negligible; large collections should be read
+ * as NDJSON, which is streamed.</p>
+ *
+ * <p>Tagged {@code load}: not part of {@code gradle test}, run it with {@code gradle loadTest}.</p>
+ */
+@Tag("load")
+@ActiveProfiles({"test", "reactive"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=${load.tomcat-threads:10}",
+        "server.tomcat.threads.min-spare=${load.tomcat-threads:10}",
+        "app.index-check.enabled=false",
+        "app.rate-limit.enabled=false",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.springframework.data.mongodb=WARN",
+        "logging.level.com.example.oopproject=WARN"
+})
+public class ReadPathLoadTest {
+
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+    private static final LatencyProxy PROXY;
+
+    static {
+        InetSocketAddress mongoAddress = MONGO.bind();
+        PROXY = new LatencyProxy(mongoAddress, Duration.ofMillis(Long.getLong("load.mongo-latency", 50)));
+    }
+
+    private static final String USER_ID = "load-test-user";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://localhost:" + PROXY.port() + "/fitness_tracker");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        PROXY.close();
+        MONGO.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        workoutRepository.deleteAll();
+        token = login();
+
+        List<Workout> workouts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            workouts.add(new Workout(USER_ID, new Date(), 30 + i, "cardio", 200 + i, null));
+        }
+        workoutRepository.saveAll(workouts);
+    }
+
+    @Test
+    void compareConcurrentConnectionCapacity() {
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 5));
+        int[] concurrencyLevels = Arrays.stream(System.getProperty("load.concurrency", "10,100,400").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        String query = "/workouts/search?workoutType=cardio&userId=" + USER_ID;
+
+        // warm up both paths (JIT, connection pools) before measuring
+        run("/api" + query, 20, Duration.ofSeconds(2));
+        run("/api/reactive" + query, 20, Duration.ofSeconds(2));
+
+        System.out.printf("%n%-10s %12s %10s %10s %10s %8s%n", "stack", "connections", "req/s", "p50 ms", "p99 ms", "errors");
+        for (int concurrency : concurrencyLevels) {
+            for (String stack : List.of("blocking", "reactive")) {
+                String path = ("blocking".equals(stack) ? "/api" : "/api/reactive") + query;
+                Result result = run(path, concurrency, duration);
+                System.out.printf("%-10s %12d %10.0f %10.1f %10.1f %8d%n", stack, concurrency,
+                        result.throughput(duration), result.percentile(0.50), result.percentile(0.99), result.errors.get());
+
+                assertThat(result.errors.get()).as("failed %s requests", stack).isZero();
+                assertThat(result.latenciesNanos).isNotEmpty();
+            }
+        }
+    }
+
+    private String login() throws IOException, InterruptedException {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            return objectMapper.readTree(response.body()).get("token").asText();
+        }
+    }
+
+    /**
+     * Sends GET requests from {@code concurrency} clients, each waiting for its response
+     * before sending the next, until the duration is over.
+     */
+    private Result run(String path, int concurrency, Duration duration) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        Result result = new Result();
+        long end = System.nanoTime() + duration.toNanos();
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.add(System.nanoTime() - start);
+                            } else {
+                                result.errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            result.errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                    result.add(latencies);
+                });
+            }
+        }
+        return result;
+    }
+
+    private static final class Result {
+        private final List<Long> latenciesNanos = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        private synchronized void add(List<Long> latencies) {
+            latenciesNanos.addAll(latencies);
+        }
+
+        private double throughput(Duration duration) {
+            return latenciesNanos.size() / (duration.toMillis() / 1000.0);
+        }
+
+        private double percentile(double p) {
+            if (latenciesNanos.isEmpty()) {
+                return 0;
+            }
+            List<Long> sorted = latenciesNanos.stream().sorted().toList();
+            int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+            return sorted.get(Math.max(0, index)) / 1_000_000.0;
+        }
+    }
+}
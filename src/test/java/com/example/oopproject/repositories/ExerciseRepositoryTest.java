@@ -1,21 +1,54 @@
 package com.example.oopproject.repositories;
 
+import com.example.oopproject.config.AnalyticsMongoConfig;
+import com.example.oopproject.config.MongoClientFactory;
+import com.example.oopproject.config.MongoClientProperties;
+import com.example.oopproject.config.MongoMetricsListener;
 import com.example.oopproject.models.Exercise;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+/**
+ * Runs the MongoDB repository, with its server-side filter queries, against an in-process
+ * MongoDB server (mongo-java-server).
+ */
 @DataMongoTest
+@ImportAutoConfiguration(AnalyticsMongoConfig.class)
+@Import({MongoClientFactory.class, MongoClientProperties.class, MongoMetricsListener.class, SimpleMeterRegistry.class})
 public class ExerciseRepositoryTest {
 
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+
     @Autowired
     private ExerciseRepository exerciseRepository;
 
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://localhost:" + MONGO.bind().getPort() + "/fitness_tracker");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        MONGO.shutdownNow();
+    }
+
     @Test
     public void testCreateAndFindById() {
         Exercise exercise = new Exercise("Push Up", 15, 3, "workout123");
@@ -45,4 +78,47 @@ public class ExerciseRepositoryTest {
         exerciseRepository.deleteById(saved.getId());
         assertFalse(exerciseRepository.existsById(saved.getId()));
     }
+
+    @Test
+    public void testFindByFilterMatchesStreamFilter() {
+        exerciseRepository.deleteAll();
+        exerciseRepository.saveAll(List.of(
+                new Exercise("Push Up", 10, 3, "w1"),
+                new Exercise("Incline Push Up", 12, 3, "w1"),
+                new Exercise("Squats", 10, 4, "w2"),
+                new Exercise("push press", 10, 3, "w2"),
+                new Exercise("Plank (hold)", 1, 3, "w3")));
+
+        Integer[] repsOptions = {null, 10, 12};
+        Integer[] setsOptions = {null, 3, 4};
+        String[] nameOptions = {null, "push", "PUSH UP", "(hold)", "missing"};
+        String[] workoutIdOptions = {null, "w1", "w2"};
+
+        List<Exercise> all = exerciseRepository.findAll();
+
+        for (Integer reps : repsOptions) {
+            for (Integer sets : setsOptions) {
+                for (String name : nameOptions) {
+                    for (String workoutId : workoutIdOptions) {
+                        List<String> expected = all.stream()
+                                .filter(e -> reps == null || e.getReps() == reps)
+                                .filter(e -> sets == null || e.getSets() == sets)
+                                .filter(e -> name == null || e.getName().toLowerCase().contains(name.toLowerCase()))
+                                .filter(e -> workoutId == null || e.getWorkoutId().equals(workoutId))
+                                .map(Exercise::getId)
+                                .sorted()
+                                .collect(Collectors.toList());
+
+                        List<String> actual = exerciseRepository.findByFilter(reps, sets, name, workoutId).stream()
+                                .map(Exercise::getId)
+                                .sorted()
+                                .collect(Collectors.toList());
+
+                        assertEquals(expected, actual, "Mismatch for filter " +
+                                Arrays.asList(reps, sets, name, workoutId));
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package com.example.oopproject.repositories;
+
+import com.example.oopproject.config.AnalyticsMongoConfig;
+import com.example.oopproject.config.MongoClientFactory;
+import com.example.oopproject.config.MongoClientProperties;
+import com.example.oopproject.config.MongoMetricsListener;
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.models.Exercise;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages through exercises with {@link KeysetCursor} against an in-process MongoDB server
+ * (mongo-java-server), so that the criteria built from each cursor, including the branches
+ * for null sort keys, are run by a real query engine.
+ */
+@DataMongoTest
+@ImportAutoConfiguration(AnalyticsMongoConfig.class)
+@Import({MongoClientFactory.class, MongoClientProperties.class, MongoMetricsListener.class, SimpleMeterRegistry.class})
+public class KeysetCursorTest {
+
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://localhost:" + MONGO.bind().getPort() + "/fitness_tracker");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        MONGO.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        exerciseRepository.deleteAll();
+        exerciseRepository.saveAll(List.of(
+                new Exercise(null, 10, 3, "w1"),
+                new Exercise("Squats", 12, 3, "w1"),
+                new Exercise("Push Up", 10, 3, "w1"),
+                new Exercise(null, 8, 3, "w2"),
+                new Exercise("Push Up", 15, 3, "w2"),
+                new Exercise("Plank", 10, 3, "w2"),
+                new Exercise(null, 12, 3, "w3"),
+                new Exercise("Push Up", 8, 3, "w3")));
+    }
+
+    @Test
+    void testAscendingPagesPutNullKeysFirst() {
+        Comparator<Exercise> order = Comparator
+                .comparing(Exercise::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(Exercise::getId);
+
+        for (int size = 1; size <= 3; size++) {
+            assertEquals(expected(order), scroll("name", Sort.Direction.ASC, size), "page size " + size);
+        }
+    }
+
+    @Test
+    void testDescendingPagesPutNullKeysLast() {
+        Comparator<Exercise> order = Comparator
+                .comparing(Exercise::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(Exercise::getId)
+                .reversed();
+
+        for (int size = 1; size <= 3; size++) {
+            assertEquals(expected(order), scroll("name", Sort.Direction.DESC, size), "page size " + size);
+        }
+    }
+
+    @Test
+    void testPagesByRepsBreakTiesById() {
+        Comparator<Exercise> order = Comparator.comparingInt(Exercise::getReps).thenComparing(Exercise::getId);
+
+        assertEquals(expected(order), scroll("reps", Sort.Direction.ASC, 3));
+        assertEquals(expected(order.reversed()), scroll("reps", Sort.Direction.DESC, 3));
+    }
+
+    @Test
+    void testRejectsFieldsWithoutAnIndex() {
+        assertThrows(BadRequestException.class,
+                () -> exerciseRepository.findPageAfter(null, 2, "sets", Sort.Direction.ASC));
+    }
+
+    @Test
+    void testRejectsCursorOfAnotherSortOrder() {
+        String cursor = exerciseRepository.findPageAfter(null, 2, "name", Sort.Direction.ASC).getNextCursor();
+
+        assertThrows(BadRequestException.class,
+                () -> exerciseRepository.findPageAfter(cursor, 2, "name", Sort.Direction.DESC));
+        assertThrows(BadRequestException.class,
+                () -> exerciseRepository.findPageAfter(cursor, 2, "reps", Sort.Direction.ASC));
+    }
+
+    private List<String> scroll(String sortBy, Sort.Direction direction, int size) {
+        List<String> scrolled = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Exercise> page = exerciseRepository.findPageAfter(cursor, size, sortBy, direction);
+            assertTrue(page.getItems().size() <= size);
+            page.getItems().forEach(exercise -> scrolled.add(exercise.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return scrolled;
+    }
+
+    private List<String> expected(Comparator<Exercise> order) {
+        return exerciseRepository.findAll().stream()
+                .sorted(order)
+                .map(Exercise::getId)
+                .toList();
+    }
+}
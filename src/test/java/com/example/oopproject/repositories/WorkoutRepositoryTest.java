@@ -0,0 +1,163 @@
+package com.example.oopproject.repositories;
+
+import com.example.oopproject.config.AnalyticsMongoConfig;
+import com.example.oopproject.config.MongoClientFactory;
+import com.example.oopproject.config.MongoClientProperties;
+import com.example.oopproject.config.MongoMetricsListener;
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.Workout;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the workout aggregations joining the exercises collection, and their keyset paging,
+ * against an in-process MongoDB server (mongo-java-server).
+ */
+@DataMongoTest
+@ImportAutoConfiguration(AnalyticsMongoConfig.class)
+@Import({MongoClientFactory.class, MongoClientProperties.class, MongoMetricsListener.class, SimpleMeterRegistry.class})
+public class WorkoutRepositoryTest {
+
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    private Workout monday;
+    private Workout tuesday;
+    private Workout tuesdayAgain;
+    private Workout wednesday;
+    private Workout otherUser;
+    private Workout nextWeek;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://localhost:" + MONGO.bind().getPort() + "/fitness_tracker");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        MONGO.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        workoutRepository.deleteAll();
+        exerciseRepository.deleteAll();
+
+        monday = workoutRepository.save(workout("user1", "2024-05-06T08:00:00Z"));
+        tuesday = workoutRepository.save(workout("user1", "2024-05-07T08:00:00Z"));
+        tuesdayAgain = workoutRepository.save(workout("user1", "2024-05-07T08:00:00Z"));
+        wednesday = workoutRepository.save(workout("user1", "2024-05-08T08:00:00Z"));
+        otherUser = workoutRepository.save(workout("user2", "2024-05-07T12:00:00Z"));
+        nextWeek = workoutRepository.save(workout("user1", "2024-05-13T08:00:00Z"));
+
+        exerciseRepository.saveAll(List.of(
+                new Exercise("Push Up", 10, 3, monday.getId()),
+                new Exercise("Squats", 12, 3, monday.getId()),
+                new Exercise("Plank", 1, 3, tuesday.getId()),
+                new Exercise("Lunges", 10, 2, tuesdayAgain.getId()),
+                new Exercise("Row", 10, 2, otherUser.getId()),
+                new Exercise("Deadlift", 5, 5, nextWeek.getId())));
+    }
+
+    @Test
+    void testFindWithExercisesJoinsByTheWorkoutIdString() {
+        Optional<Workout> found = workoutRepository.findWithExercises(monday.getId());
+
+        assertTrue(found.isPresent());
+        assertEquals(monday.getId(), found.get().getId());
+        assertEquals(List.of("Push Up", "Squats"), names(found.get()));
+    }
+
+    @Test
+    void testFindWithExercisesOfAWorkoutWithoutExercises() {
+        Optional<Workout> found = workoutRepository.findWithExercises(wednesday.getId());
+
+        assertTrue(found.isPresent());
+        assertEquals(List.of(), found.get().getExercises());
+        assertTrue(workoutRepository.findWithExercises("000000000000000000000000").isEmpty());
+    }
+
+    @Test
+    void testFindWithExercisesBetweenPagesAcrossEqualDates() {
+        Date start = date("2024-05-06T00:00:00Z");
+        Date end = date("2024-05-13T00:00:00Z");
+        List<Workout> expected = Stream.of(monday, tuesday, tuesdayAgain, otherUser, wednesday)
+                .sorted(Comparator.comparing(Workout::getDate).thenComparing(Workout::getId))
+                .toList();
+
+        List<Workout> scrolled = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Workout> page = workoutRepository.findWithExercisesBetween(start, end, null, cursor, 2);
+            scrolled.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected.stream().map(Workout::getId).toList(), scrolled.stream().map(Workout::getId).toList());
+        for (Workout workout : scrolled) {
+            List<String> expectedNames = exerciseRepository.findByWorkoutId(workout.getId()).stream()
+                    .map(Exercise::getName)
+                    .sorted()
+                    .toList();
+            assertEquals(expectedNames, names(workout), "exercises of " + workout.getId());
+        }
+    }
+
+    @Test
+    void testFindWithExercisesBetweenFiltersByUser() {
+        CursorPage<Workout> first = workoutRepository.findWithExercisesBetween(
+                date("2024-05-07T00:00:00Z"), date("2024-05-14T00:00:00Z"), "user1", null, 2);
+        CursorPage<Workout> second = workoutRepository.findWithExercisesBetween(
+                date("2024-05-07T00:00:00Z"), date("2024-05-14T00:00:00Z"), "user1", first.getNextCursor(), 2);
+
+        List<String> ids = Stream.concat(first.getItems().stream(), second.getItems().stream())
+                .map(Workout::getId)
+                .toList();
+        List<String> tuesdays = Stream.of(tuesday.getId(), tuesdayAgain.getId()).sorted().toList();
+        assertEquals(List.of(tuesdays.get(0), tuesdays.get(1), wednesday.getId(), nextWeek.getId()), ids);
+        assertNull(second.getNextCursor());
+        assertEquals(List.of("Deadlift"), names(second.getItems().get(1)));
+    }
+
+    private static Workout workout(String userId, String date) {
+        return new Workout(userId, date(date), 30, "strength", 200, null);
+    }
+
+    private static Date date(String instant) {
+        return Date.from(Instant.parse(instant));
+    }
+
+    private static List<String> names(Workout workout) {
+        return workout.getExercises().stream().map(Exercise::getName).sorted().toList();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.oopproject.repositories.memory;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.repositories.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryExerciseRepositoryTest {
+
+    private InMemoryExerciseRepository exerciseRepository;
+
+    @BeforeEach
+    void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        exerciseRepository = new InMemoryExerciseRepository(converter);
+
+        exerciseRepository.saveAll(List.of(
+                new Exercise("Push Up", 10, 3, "w1"),
+                new Exercise("Incline Push Up", 12, 3, "w1"),
+                new Exercise("Squats", 10, 4, "w2"),
+                new Exercise("push press", 10, 3, "w2"),
+                new Exercise("Plank (hold)", 1, 3, "w3")));
+    }
+
+    @Test
+    void testDerivedQueries() {
+        assertEquals(List.of("Push Up"), names(exerciseRepository.findByName("Push Up")));
+        assertEquals(List.of("Squats", "push press"), names(exerciseRepository.findByWorkoutId("w2")));
+        assertEquals(3, exerciseRepository.findByReps(10).size());
+        assertEquals(List.of("Squats"), names(exerciseRepository.findBySets(4)));
+        assertEquals(List.of("Push Up", "Incline Push Up", "push press"),
+                names(exerciseRepository.findByNameContainingIgnoreCase("PUSH")));
+        assertEquals(List.of("Push Up", "push press"), names(exerciseRepository.findByNameContainingIgnoreCaseAndReps("push", 10)));
+        assertEquals(List.of("Push Up", "push press"), names(exerciseRepository.findByRepsAndSets(10, 3)));
+    }
+
+    @Test
+    void testMultikeyIndexAndUpdate() {
+        Exercise exercise = exerciseRepository.findByName("Squats").get(0);
+        exercise.setMuscleGroups(List.of("legs", "glutes"));
+        exercise.setEquipment("barbell");
+        exerciseRepository.save(exercise);
+
+        assertEquals(List.of("Squats"), names(exerciseRepository.findByMuscleGroupsContaining("glutes")));
+        assertEquals(List.of("Squats"), names(exerciseRepository.findByEquipment("barbell")));
+
+        exercise = exerciseRepository.findById(exercise.getId()).orElseThrow();
+        exercise.setMuscleGroups(List.of("legs"));
+        exerciseRepository.save(exercise);
+
+        // the index entry of the removed element is gone, the kept one still matches
+        assertTrue(exerciseRepository.findByMuscleGroupsContaining("glutes").isEmpty());
+        assertEquals(List.of("Squats"), names(exerciseRepository.findByMuscleGroupsContaining("legs")));
+    }
+
+    @Test
+    void testFindByFilterMatchesStreamFilter() {
+        Integer[] repsOptions = {null, 10, 12};
+        Integer[] setsOptions = {null, 3, 4};
+        String[] nameOptions = {null, "push", "PUSH UP", "(hold)", "missing"};
+        String[] workoutIdOptions = {null, "w1", "w2"};
+
+        List<Exercise> all = exerciseRepository.findAll();
+
+        for (Integer reps : repsOptions) {
+            for (Integer sets : setsOptions) {
+                for (String name : nameOptions) {
+                    for (String workoutId : workoutIdOptions) {
+                        List<String> expected = all.stream()
+                                .filter(e -> reps == null || e.getReps() == reps)
+                                .filter(e -> sets == null || e.getSets() == sets)
+                                .filter(e -> name == null || e.getName().toLowerCase().contains(name.toLowerCase()))
+                                .filter(e -> workoutId == null || e.getWorkoutId().equals(workoutId))
+                                .map(Exercise::getId)
+                                .collect(Collectors.toList());
+
+                        List<String> actual = exerciseRepository.findByFilter(reps, sets, name, workoutId).stream()
+                                .map(Exercise::getId)
+                                .collect(Collectors.toList());
+
+                        assertEquals(expected, actual, "Mismatch for filter " +
+                                Arrays.asList(reps, sets, name, workoutId));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFindByFilterPage() {
+        Page<Exercise> page = exerciseRepository.findByFilter(10, null, null, null,
+                PageRequest.of(0, 2, Sort.by(Sort.Order.asc("name").ignoreCase())));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("push press", "Push Up"), names(page.getContent()));
+    }
+
+    @Test
+    void testCursorPagesCoverAllExercisesOnce() {
+        List<String> scrolled = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Exercise> page = exerciseRepository.findPageAfter(cursor, 2, "reps", Sort.Direction.DESC);
+            page.getItems().forEach(exercise -> scrolled.add(exercise.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<String> expected = exerciseRepository.findAll(Sort.by(Sort.Direction.DESC, "reps", "id")).stream()
+                .map(Exercise::getId)
+                .toList();
+        assertEquals(expected, scrolled);
+        assertEquals(12, exerciseRepository.findById(scrolled.get(0)).orElseThrow().getReps());
+
+        assertThrows(BadRequestException.class,
+                () -> exerciseRepository.findPageAfter(null, 2, "equipment", Sort.Direction.ASC));
+        assertThrows(BadRequestException.class,
+                () -> exerciseRepository.findPageAfter(null, KeysetCursor.MAX_PAGE_SIZE + 1, "reps", Sort.Direction.ASC));
+    }
+
+    private static List<String> names(List<Exercise> exercises) {
+        return exercises.stream().map(Exercise::getName).toList();
+    }
+}
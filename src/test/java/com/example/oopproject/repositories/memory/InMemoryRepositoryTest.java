@@ -0,0 +1,191 @@
+package com.example.oopproject.repositories.memory;
+
+import com.example.oopproject.dto.CursorPage;
+import com.example.oopproject.models.Exercise;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryRepositoryTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private MappingMongoConverter converter;
+    private InMemoryExerciseRepository exerciseRepository;
+    private InMemoryWorkoutRepository workoutRepository;
+    private InMemoryUserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        exerciseRepository = new InMemoryExerciseRepository(converter);
+        workoutRepository = new InMemoryWorkoutRepository(converter, exerciseRepository);
+        userRepository = new InMemoryUserRepository(converter);
+    }
+
+    @Test
+    void testSaveAssignsIdAndVersionAndReturnsCopies() {
+        Workout workout = workoutRepository.save(new Workout("user1", new Date(0), 30, "cardio", 300, null));
+
+        assertNotNull(workout.getId());
+        assertEquals(0L, workout.getVersion());
+
+        Workout found = workoutRepository.findById(workout.getId()).orElseThrow();
+        found.setDuration(99);
+        assertEquals(30, workoutRepository.findById(workout.getId()).orElseThrow().getDuration());
+
+        Workout updated = workoutRepository.save(found);
+        assertEquals(1L, updated.getVersion());
+        assertEquals(List.of(updated.getId()),
+                workoutRepository.findTopByOrderByIdDesc().stream().map(Workout::getId).toList());
+    }
+
+    @Test
+    void testStaleSaveAndDeleteAreRejected() {
+        Workout workout = workoutRepository.save(new Workout("user1", new Date(0), 30, "cardio", 300, null));
+        Workout stale = workoutRepository.findById(workout.getId()).orElseThrow();
+        workoutRepository.save(workoutRepository.findById(workout.getId()).orElseThrow());
+
+        assertThrows(OptimisticLockingFailureException.class, () -> workoutRepository.save(stale));
+        assertThrows(OptimisticLockingFailureException.class, () -> workoutRepository.delete(stale));
+
+        workoutRepository.deleteById(workout.getId());
+        assertFalse(workoutRepository.existsById(workout.getId()));
+        assertTrue(workoutRepository.findByUserId("user1").isEmpty());
+    }
+
+    @Test
+    void testQueriesUseIndexedFields() {
+        workoutRepository.save(new Workout("user1", new Date(DAY), 30, "cardio", 300, null));
+        workoutRepository.save(new Workout("user1", new Date(2 * DAY), 45, "strength", 400, null));
+        workoutRepository.save(new Workout("user2", new Date(3 * DAY), 60, "cardio", 500, null));
+
+        assertEquals(2, workoutRepository.findByWorkoutType("cardio").size());
+        assertEquals(1, workoutRepository.findByUserIdAndWorkoutType("user1", "cardio").size());
+        // derived Between excludes both bounds, as in MongoDB
+        assertEquals(List.of(45), durations(workoutRepository.findByDateBetween(new Date(DAY), new Date(3 * DAY))));
+
+        Page<Workout> page = workoutRepository.findAll(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "duration")));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(60, 45), durations(page.getContent()));
+    }
+
+    @Test
+    void testFindWithExercisesJoinsByWorkoutId() {
+        Workout first = workoutRepository.save(new Workout("user1", new Date(DAY), 30, "strength", 300, null));
+        Workout second = workoutRepository.save(new Workout("user1", new Date(2 * DAY), 30, "strength", 300, null));
+        exerciseRepository.save(new Exercise("Push Up", 10, 3, first.getId()));
+        exerciseRepository.save(new Exercise("Squat", 12, 4, first.getId()));
+
+        assertEquals(2, workoutRepository.findWithExercises(first.getId()).orElseThrow().getExercises().size());
+
+        CursorPage<Workout> page = workoutRepository.findWithExercisesBetween(new Date(DAY), new Date(3 * DAY), "user1", null, 1);
+        assertEquals(List.of(first.getId()), page.getItems().stream().map(Workout::getId).toList());
+        assertEquals(2, page.getItems().get(0).getExercises().size());
+
+        page = workoutRepository.findWithExercisesBetween(new Date(DAY), new Date(3 * DAY), "user1", page.getNextCursor(), 1);
+        assertEquals(List.of(second.getId()), page.getItems().stream().map(Workout::getId).toList());
+        assertTrue(page.getItems().get(0).getExercises().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testQueryByExample() {
+        exerciseRepository.saveAll(List.of(
+                new Exercise("Push Up", 10, 3, "w1"),
+                new Exercise("Incline push up", 10, 3, "w1"),
+                new Exercise("Push Up", 12, 3, "w2"),
+                new Exercise("Squat", 10, 3, "w2")));
+        ExampleMatcher matcher = ExampleMatcher.matching()
+                .withIgnorePaths("weight", "difficultyLevel")
+                .withMatcher("name", ExampleMatcher.GenericPropertyMatchers.contains().ignoreCase());
+        Example<Exercise> example = Example.of(new Exercise("push", 10, 3, null), matcher);
+
+        assertEquals(List.of("Incline push up", "Push Up"), exerciseRepository.findAll(example, Sort.by("name")).stream()
+                .map(Exercise::getName).toList());
+        assertEquals(2, exerciseRepository.count(example));
+        assertEquals(List.of("Push Up"), exerciseRepository.findBy(example,
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "name")).limit(1).all()).stream()
+                .map(Exercise::getName).toList());
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> exerciseRepository.findOne(example));
+
+        Example<Exercise> any = Example.of(new Exercise("Squat", 12, 0, null),
+                ExampleMatcher.matchingAny()
+                        .withIgnorePaths("sets", "weight", "difficultyLevel", "equipment", "muscleGroups"));
+        Page<Exercise> page = exerciseRepository.findAll(any, PageRequest.of(0, 1, Sort.by("workoutId")));
+        assertEquals(2, page.getTotalElements());
+        assertEquals("w2", page.getContent().get(0).getWorkoutId());
+        assertFalse(exerciseRepository.exists(Example.of(new Exercise("Lunge", 10, 3, null),
+                ExampleMatcher.matching().withIgnorePaths("weight", "difficultyLevel"))));
+    }
+
+    @Test
+    void testUniqueIndexes() {
+        userRepository.save(new User("alice", "alice@example.com", "secret1"));
+
+        assertThrows(DuplicateKeyException.class,
+                () -> userRepository.save(new User("alice", "other@example.com", "secret1")));
+        assertTrue(userRepository.existsByEmail("alice@example.com"));
+        assertFalse(userRepository.existsByEmail("other@example.com"));
+
+        User alice = userRepository.findByUsername("alice").orElseThrow();
+        alice.setUsername("alicia");
+        userRepository.save(alice);
+        assertFalse(userRepository.existsByUsername("alice"));
+        userRepository.save(new User("alice", "new@example.com", "secret1"));
+    }
+
+    @Test
+    void testSnapshotRoundTrip(@TempDir Path directory) throws Exception {
+        Workout workout = workoutRepository.save(new Workout("user1", new Date(DAY), 30, "cardio", 300,
+                List.of(new Exercise("ex1", "Run", 1, 1, null))));
+        userRepository.save(new User("alice", "alice@example.com", "secret1"));
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        try {
+            new InMemorySnapshots(List.of(workoutRepository, userRepository), scheduler, directory, Duration.ofHours(1)).save();
+            assertTrue(Files.exists(directory.resolve("workouts.jsonl")));
+
+            InMemoryWorkoutRepository restoredWorkouts = new InMemoryWorkoutRepository(converter, exerciseRepository);
+            InMemoryUserRepository restoredUsers = new InMemoryUserRepository(converter);
+            new InMemorySnapshots(List.of(restoredWorkouts, restoredUsers), scheduler, directory, Duration.ofHours(1)).load();
+
+            Workout restored = restoredWorkouts.findById(workout.getId()).orElseThrow();
+            assertEquals(workout.getDate(), restored.getDate());
+            assertEquals(0L, restored.getVersion());
+            assertEquals("Run", restored.getExercises().get(0).getName());
+            assertEquals(1, restoredWorkouts.findByUserId("user1").size());
+            assertTrue(restoredUsers.existsByUsername("alice"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static List<Integer> durations(List<Workout> workouts) {
+        return workouts.stream().map(Workout::getDuration).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.dto.BatchItemResult;
+import com.example.oopproject.dto.BatchResult;
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.models.Workout;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BatchInsertServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private BatchInsertService batchInsertService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        batchInsertService = new BatchInsertService(mongoTemplate, validator, 2, 5);
+
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Workout.class)))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+    }
+
+    @Test
+    void testInsertAllWritesValidItemsInChunks() {
+        List<Workout> workouts = List.of(workout("Run"), workout("Swim"), workout("Row"));
+
+        BatchResult result = batchInsertService.insertAll(workouts, Workout.class, Workout::getId, Workout::setId);
+
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getInserted());
+        assertEquals(0, result.getFailed());
+        verify(mongoTemplate, times(2)).bulkOps(BulkOperations.BulkMode.UNORDERED, Workout.class);
+        verify(bulkOperations, times(2)).execute();
+        result.getItems().forEach(item -> {
+            assertEquals(BatchItemResult.INSERTED, item.getStatus());
+            assertNotNull(item.getId());
+        });
+        workouts.forEach(workout -> assertEquals(0L, workout.getVersion()));
+    }
+
+    @Test
+    void testInsertAllReportsInvalidItemsWithoutWritingThem() {
+        Workout invalid = workout("No user");
+        invalid.setUserId(null);
+        List<Workout> workouts = Arrays.asList(workout("Run"), invalid, null);
+
+        BatchResult result = batchInsertService.insertAll(workouts, Workout.class, Workout::getId, Workout::setId);
+
+        assertEquals(1, result.getInserted());
+        assertEquals(2, result.getFailed());
+        assertEquals(BatchItemResult.INVALID, result.getItems().get(1).getStatus());
+        assertTrue(result.getItems().get(1).getErrors().get(0).startsWith("userId"));
+        assertEquals(BatchItemResult.INVALID, result.getItems().get(2).getStatus());
+        verify(bulkOperations, times(1)).execute();
+    }
+
+    @Test
+    void testInsertAllMapsBulkWriteErrorsToItems() {
+        BulkWriteError duplicate = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        MongoBulkWriteException cause = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(duplicate), null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk write failed", cause));
+
+        List<Workout> workouts = List.of(workout("Run"), workout("Swim"));
+
+        BatchResult result = batchInsertService.insertAll(workouts, Workout.class, Workout::getId, Workout::setId);
+
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(BatchItemResult.INSERTED, result.getItems().get(0).getStatus());
+        assertEquals(BatchItemResult.FAILED, result.getItems().get(1).getStatus());
+        assertEquals(List.of("duplicate key"), result.getItems().get(1).getErrors());
+    }
+
+    @Test
+    void testInsertAllReportsUnacknowledgedChunkAsUnknownWithItsIds() {
+        when(bulkOperations.execute())
+                .thenReturn(null)
+                .thenThrow(new DataAccessResourceFailureException("timed out"));
+
+        List<Workout> workouts = List.of(workout("Run"), workout("Swim"), workout("Row"));
+
+        BatchResult result = batchInsertService.insertAll(workouts, Workout.class, Workout::getId, Workout::setId);
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUnknown());
+        assertEquals(0, result.getFailed());
+        BatchItemResult unknown = result.getItems().get(2);
+        assertEquals(BatchItemResult.UNKNOWN, unknown.getStatus());
+        assertEquals(workouts.get(2).getId(), unknown.getId());
+        assertEquals(List.of("timed out"), unknown.getErrors());
+    }
+
+    @Test
+    void testInsertAllRejectsOversizedBatch() {
+        List<Workout> workouts = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            workouts.add(workout("Workout " + i));
+        }
+
+        assertThrows(BadRequestException.class,
+                () -> batchInsertService.insertAll(workouts, Workout.class, Workout::getId, Workout::setId));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    private Workout workout(String name) {
+        Workout workout = new Workout();
+        workout.setName(name);
+        workout.setUserId("user1");
+        workout.setWorkoutType("cardio");
+        workout.setDate(new Date());
+        workout.setDuration(30);
+        return workout;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.dto.UserDashboard;
+import com.example.oopproject.exceptions.ResourceNotFoundException;
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DashboardServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private FitnessGoalService fitnessGoalService;
+
+    @Mock
+    private WorkoutService workoutService;
+
+    @Mock
+    private ExerciseService exerciseService;
+
+    private DashboardService dashboardService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        dashboardService = new DashboardService(userService, fitnessGoalService, workoutService,
+                exerciseService, Duration.ofMillis(300));
+
+        user = new User("alice", "alice@example.com", "secret");
+        user.setId("1");
+        when(userService.getUserById("1")).thenReturn(user);
+        when(fitnessGoalService.getFitnessGoalsByUserId("1")).thenReturn(List.of(new FitnessGoal()));
+        when(workoutService.getWorkoutsByUserId("1")).thenReturn(List.of(new Workout("Run", 30)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void testLookupsRunInParallel() {
+        when(fitnessGoalService.getFitnessGoalsByUserId("1")).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return List.of(new FitnessGoal());
+        });
+        when(workoutService.getWorkoutsByUserId("1")).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return List.of(new Workout("Run", 30));
+        });
+
+        long start = System.nanoTime();
+        UserDashboard dashboard = dashboardService.getDashboard("1", null, null);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertSame(user, dashboard.getUser());
+        assertEquals(1, dashboard.getGoals().size());
+        assertEquals(1, dashboard.getWorkouts().size());
+        assertNull(dashboard.getExercises());
+        assertTrue(dashboard.getIncomplete().isEmpty());
+        assertTrue(elapsedMillis < 390, "lookups should overlap, took " + elapsedMillis + " ms");
+        verifyNoInteractions(exerciseService);
+    }
+
+    @Test
+    void testSlowPartIsLeftOut() {
+        when(workoutService.getWorkoutsByUserId("1")).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return List.of();
+        });
+
+        UserDashboard dashboard = dashboardService.getDashboard("1", null, null);
+
+        assertSame(user, dashboard.getUser());
+        assertNotNull(dashboard.getGoals());
+        assertNull(dashboard.getWorkouts());
+        assertEquals(List.of("workouts"), dashboard.getIncomplete());
+    }
+
+    @Test
+    void testFailedPartIsLeftOut() {
+        when(exerciseService.getExercisesByFilter(null, null, null, "w1"))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        UserDashboard dashboard = dashboardService.getDashboard("1", null, "w1");
+
+        assertNull(dashboard.getExercises());
+        assertEquals(List.of("exercises"), dashboard.getIncomplete());
+    }
+
+    @Test
+    void testMissingUserIsNotFound() {
+        when(userService.getUserById("2")).thenThrow(new ResourceNotFoundException("User not found with id: 2"));
+
+        assertThrows(ResourceNotFoundException.class, () -> dashboardService.getDashboard("2", null, null));
+    }
+}
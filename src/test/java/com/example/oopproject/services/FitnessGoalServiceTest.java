@@ -0,0 +1,63 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.repositories.FitnessGoalRepository;
+import com.example.oopproject.util.RequestCoalescer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class FitnessGoalServiceTest {
+
+    @Mock
+    private FitnessGoalRepository fitnessGoalRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ObjectProvider<MergePatchService> mergePatchServiceProvider;
+
+    @Mock
+    private MergePatchService mergePatchService;
+
+    @Mock
+    private RequestCoalescer requestCoalescer;
+
+    private FitnessGoalService fitnessGoalService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mergePatchServiceProvider.getObject()).thenReturn(mergePatchService);
+        fitnessGoalService = new FitnessGoalService(fitnessGoalRepository, mongoTemplate,
+                mergePatchServiceProvider, requestCoalescer);
+    }
+
+    @Test
+    void testPatchFitnessGoalInvalidatesTheGoalLookups() {
+        FitnessGoal patched = new FitnessGoal();
+        patched.setStatus("completed");
+        JsonNode patch = new ObjectMapper().createObjectNode().put("status", "completed");
+        when(mergePatchService.apply(eq(FitnessGoal.class), eq("g1"), eq(patch), eq(2L), eq(Set.of()), any()))
+                .thenReturn(new MergePatchService.Patched<>(new FitnessGoal(), patched));
+
+        FitnessGoal result = fitnessGoalService.patchFitnessGoal("g1", patch, 2L);
+
+        assertSame(patched, result);
+        assertNotNull(result.getCompletedDate());
+        verify(requestCoalescer).invalidate(FitnessGoalService.QUERIES);
+    }
+}
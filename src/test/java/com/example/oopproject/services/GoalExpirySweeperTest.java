@@ -0,0 +1,108 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.util.RequestCoalescer;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class GoalExpirySweeperTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RequestCoalescer requestCoalescer;
+
+    private MeterRegistry meterRegistry;
+
+    private GoalExpirySweeper goalExpirySweeper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        goalExpirySweeper = new GoalExpirySweeper(mongoTemplate, 2, meterRegistry, requestCoalescer);
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(FitnessGoal.class)))
+                .thenAnswer(invocation -> {
+                    Query query = invocation.getArgument(0);
+                    List<?> ids = (List<?>) ((Document) query.getQueryObject().get("_id")).get("$in");
+                    return UpdateResult.acknowledged(ids.size(), (long) ids.size(), null);
+                });
+    }
+
+    @Test
+    void testOverdueGoalsAreExpiredInBatches() {
+        when(mongoTemplate.stream(any(Query.class), eq(FitnessGoal.class)))
+                .thenReturn(Stream.of(goal("g1", 3), goal("g2", 1), goal("g3", 2)));
+
+        long expired = goalExpirySweeper.sweep();
+
+        assertEquals(3, expired);
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(queries.capture(), updates.capture(), eq(FitnessGoal.class));
+        assertEquals(List.of("g1", "g2"), ((Document) queries.getAllValues().get(0).getQueryObject().get("_id")).get("$in"));
+        assertEquals(List.of("g3"), ((Document) queries.getAllValues().get(1).getQueryObject().get("_id")).get("$in"));
+        assertEquals(GoalExpirySweeper.EXPIRED, ((Document) updates.getValue().getUpdateObject().get("$set")).get("status"));
+
+        verify(requestCoalescer, times(2)).invalidate(FitnessGoalService.QUERIES);
+        assertEquals(3.0, meterRegistry.get("fitness_goals.expired").counter().count());
+        assertEquals(1, meterRegistry.get("fitness_goals.expiry.sweep").timer().count());
+        // the oldest goal was three days overdue
+        assertEquals(3 * 24 * 60 * 60, meterRegistry.get("fitness_goals.expiry.lag").gauge().value(), 5);
+    }
+
+    @Test
+    void testOnlyOpenOverdueGoalsAreRead() {
+        when(mongoTemplate.stream(any(Query.class), eq(FitnessGoal.class))).thenReturn(Stream.empty());
+
+        goalExpirySweeper.sweep();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(FitnessGoal.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(GoalExpirySweeper.TERMINAL_STATUSES, ((Document) filter.get("status")).get("$nin"));
+        assertTrue(((Document) filter.get("targetDate")).containsKey("$lt"));
+        assertEquals(new Document("targetDate", 1), query.getValue().getFieldsObject());
+        assertEquals(2, query.getValue().getMeta().getCursorBatchSize());
+    }
+
+    @Test
+    void testNothingOverdue() {
+        when(mongoTemplate.stream(any(Query.class), eq(FitnessGoal.class))).thenReturn(Stream.empty());
+
+        assertEquals(0, goalExpirySweeper.sweep());
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(FitnessGoal.class));
+        verifyNoInteractions(requestCoalescer);
+        assertEquals(0.0, meterRegistry.get("fitness_goals.expiry.lag").gauge().value());
+    }
+
+    private static FitnessGoal goal(String id, int daysOverdue) {
+        FitnessGoal goal = new FitnessGoal();
+        goal.setId(id);
+        goal.setTargetDate(new Date(System.currentTimeMillis() - daysOverdue * DAY));
+        return goal;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.util.RequestCoalescer;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class GoalProgressServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private RequestCoalescer requestCoalescer;
+
+    private GoalProgressService goalProgressService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        goalProgressService = new GoalProgressService(mongoTemplate, taskScheduler, Duration.ofSeconds(2), requestCoalescer);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(FitnessGoal.class)))
+                .thenReturn(bulkOperations);
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(FitnessGoal.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    void testStartSchedulesTheFlush() {
+        goalProgressService.start();
+
+        verify(taskScheduler, times(1)).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void testChangesOfOneUserAndDayAreBatched() {
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout("user1", 30, 300)));
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout("user1", 45, 500)));
+
+        long completed = goalProgressService.flush();
+
+        Map<Object, Object> increments = capturedIncrements(3);
+        assertEquals(800.0, increments.get("calories"));
+        assertEquals(75.0, increments.get("duration"));
+        assertEquals(2.0, increments.get("sessions"));
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(1, completed);
+    }
+
+    @Test
+    void testGoalsMustCoverTheWorkoutDay() {
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout("user1", 30, 300)));
+
+        goalProgressService.flush();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations, times(3)).updateMulti(queries.capture(), any(Update.class));
+        Document query = queries.getValue().getQueryObject();
+        assertEquals("user1", query.get("userId"));
+        assertEquals(GoalProgressService.IN_PROGRESS, query.get("status"));
+        assertEquals(utcDate(2025, 5, 16), ((Document) query.get("startDate")).get("$lt"));
+        assertEquals(utcDate(2025, 5, 15), ((Document) query.get("targetDate")).get("$gte"));
+    }
+
+    @Test
+    void testUpdateOnlyAppliesTheDifference() {
+        Workout previous = workout("user1", 30, 300);
+        Workout updated = workout("user1", 40, 300);
+
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.updated(previous, updated));
+        goalProgressService.flush();
+
+        Map<Object, Object> increments = capturedIncrements(1);
+        assertEquals(Map.of("duration", 10.0), increments);
+    }
+
+    @Test
+    void testDeleteDecrementsTheGoals() {
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.deleted(workout("user1", 30, 300)));
+        goalProgressService.flush();
+
+        Map<Object, Object> increments = capturedIncrements(3);
+        assertEquals(-300.0, increments.get("calories"));
+        assertEquals(-1.0, increments.get("sessions"));
+    }
+
+    @Test
+    void testCompletionMarksGoalsThatReachedTheirTarget() {
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout("user1", 30, 300)));
+        goalProgressService.flush();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).updateMulti(query.capture(), update.capture(), eq(FitnessGoal.class));
+        List<?> conditions = (List<?>) query.getValue().getQueryObject().get("$and");
+        assertTrue(((Document) conditions.get(0)).containsKey("$expr"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(GoalProgressService.COMPLETED, set.get("status"));
+        assertNotNull(set.get("completedDate"));
+    }
+
+    @Test
+    void testFlushInvalidatesTheGoalLookups() {
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout("user1", 30, 300)));
+        goalProgressService.flush();
+
+        verify(requestCoalescer).invalidate(FitnessGoalService.QUERIES);
+    }
+
+    @Test
+    void testFailedFlushStillInvalidatesTheGoalLookups() {
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("timed out"));
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout("user1", 30, 300)));
+
+        assertEquals(0, goalProgressService.flush());
+
+        verify(requestCoalescer).invalidate(FitnessGoalService.QUERIES);
+    }
+
+    @Test
+    void testFlushWithoutChangesDoesNothing() {
+        assertEquals(0, goalProgressService.flush());
+
+        verifyNoInteractions(mongoTemplate, requestCoalescer);
+    }
+
+    @Test
+    void testPendingChangesAreAppliedOnlyOnce() {
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout("user1", 30, 300)));
+        goalProgressService.flush();
+        goalProgressService.flush();
+
+        verify(bulkOperations, times(1)).execute();
+    }
+
+    @Test
+    void testWorkoutsWithoutUserAreIgnored() {
+        goalProgressService.onWorkoutChanged(WorkoutChangedEvent.created(workout(null, 30, 300)));
+
+        assertEquals(0, goalProgressService.flush());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private Map<Object, Object> capturedIncrements(int expectedUpdates) {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(expectedUpdates)).updateMulti(queries.capture(), updates.capture());
+
+        List<Query> capturedQueries = queries.getAllValues();
+        List<Update> capturedUpdates = updates.getAllValues();
+        return IntStream.range(0, expectedUpdates).boxed().collect(Collectors.toMap(
+                i -> capturedQueries.get(i).getQueryObject().get("goalType"),
+                i -> ((Document) capturedUpdates.get(i).getUpdateObject().get("$inc")).get("currentValue")));
+    }
+
+    private static Workout workout(String userId, int duration, int calories) {
+        // Thursday 15 May 2025, 10:00 UTC
+        Date date = Date.from(LocalDate.of(2025, 5, 15).atTime(10, 0).toInstant(ZoneOffset.UTC));
+        return new Workout(userId, date, duration, "cardio", calories, null);
+    }
+
+    private static Date utcDate(int year, int month, int day) {
+        return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.dto.LeaderboardPage;
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.exceptions.ResourceNotFoundException;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.repositories.WorkoutRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class LeaderboardServiceTest {
+
+    // a Wednesday: the week starts on 2025-05-12, the month on 2025-05-01
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-05-14T12:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private WorkoutRepository workoutRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @TempDir
+    Path directory;
+
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        MockitoAnnotations.openMocks(this);
+        when(taskScheduler.getClock()).thenReturn(CLOCK);
+        when(workoutRepository.streamByDateGreaterThanEqual(any(Date.class))).thenAnswer(invocation -> Stream.of(
+                workout("alice", "2025-05-13", 30, 300),
+                workout("bob", "2025-05-12", 60, 500),
+                workout("carol", "2025-05-02", 90, 900),
+                workout("alice", "2025-05-14", 45, 400)));
+        leaderboardService = service(null);
+        leaderboardService.start();
+        leaderboardService.awaitStartupRebuild();
+    }
+
+    @Test
+    void testStartRebuildsTheWeeklyAndMonthlyBoards() {
+        LeaderboardPage week = leaderboardService.getLeaderboard("week", "calories", null, 0, 10);
+        LeaderboardPage month = leaderboardService.getLeaderboard("month", "duration", null, 0, 10);
+
+        assertEquals(List.of("alice", "bob"), userIds(week));
+        assertEquals(List.of(700L, 500L), week.getEntries().stream().map(e -> e.getValue()).toList());
+        assertEquals(date("2025-05-12"), week.getPeriodStart());
+        assertEquals(List.of("carol", "alice", "bob"), userIds(month));
+        assertEquals(3, month.getTotalUsers());
+        verify(workoutRepository).streamByDateGreaterThanEqual(date("2024-05-01"));
+    }
+
+    @Test
+    void testWorkoutChangesMoveUsers() {
+        Workout bobs = workout("bob", "2025-05-14", 20, 300);
+        leaderboardService.onWorkoutChanged(WorkoutChangedEvent.created(bobs));
+        assertEquals(1, leaderboardService.getRank("bob", "week", "calories", null).getEntries().get(0).getRank());
+
+        Workout moved = workout("bob", "2025-05-05", 20, 300);
+        leaderboardService.onWorkoutChanged(WorkoutChangedEvent.updated(bobs, moved));
+        assertEquals(2, leaderboardService.getRank("bob", "week", "calories", null).getEntries().get(0).getRank());
+        assertEquals(1, leaderboardService.getRank("bob", "week", "calories", date("2025-05-05"))
+                .getEntries().get(0).getRank());
+
+        leaderboardService.onWorkoutChanged(WorkoutChangedEvent.deleted(moved));
+        assertThrows(ResourceNotFoundException.class,
+                () -> leaderboardService.getRank("bob", "week", "calories", date("2025-05-05")));
+    }
+
+    @Test
+    void testOffsetAndLimitSelectARangeOfRanks() {
+        LeaderboardPage page = leaderboardService.getLeaderboard("month", "calories", date("2025-05-20"), 1, 1);
+
+        assertEquals(1, page.getEntries().size());
+        assertEquals(2, page.getEntries().get(0).getRank());
+        assertEquals("alice", page.getEntries().get(0).getUserId());
+    }
+
+    @Test
+    void testPeriodsOutsideTheHistoryAreIgnored() {
+        leaderboardService.onWorkoutChanged(WorkoutChangedEvent.created(workout("dave", "2024-01-10", 30, 300)));
+
+        LeaderboardPage page = leaderboardService.getLeaderboard("month", "calories", date("2024-01-10"), 0, 10);
+        assertEquals(0, page.getTotalUsers());
+        assertTrue(page.getEntries().isEmpty());
+    }
+
+    @Test
+    void testInvalidParametersAreRejected() {
+        assertThrows(BadRequestException.class, () -> leaderboardService.getLeaderboard("day", "calories", null, 0, 10));
+        assertThrows(BadRequestException.class, () -> leaderboardService.getLeaderboard("week", "steps", null, 0, 10));
+        assertThrows(BadRequestException.class, () -> leaderboardService.getLeaderboard("week", "calories", null, 0, 101));
+        assertThrows(BadRequestException.class, () -> leaderboardService.getLeaderboard("week", "calories", null, -1, 10));
+    }
+
+    @Test
+    void testSnapshotIsLoadedAtStartup() throws InterruptedException {
+        Path file = directory.resolve("leaderboards.jsonl");
+        LeaderboardService saving = service(file);
+        saving.start();
+        saving.awaitStartupRebuild();
+        saving.shutdown();
+
+        LeaderboardService restored = service(file);
+        assertTrue(restored.loadSnapshot());
+
+        assertEquals(List.of("carol", "alice", "bob"),
+                userIds(restored.getLeaderboard("month", "calories", null, 0, 10)));
+        assertEquals(2, restored.getRank("bob", "week", "calories", null).getEntries().get(0).getRank());
+    }
+
+    @Test
+    void testChangesDuringRebuildAreCountedOnce() {
+        Workout streamedBefore = workout("alice", "2025-05-13", 30, 300, "w1", 0L);
+        Workout streamedAfter = workout("bob", "2025-05-12", 60, 500, "w2", 0L);
+        Workout updatedBefore = workout("alice", "2025-05-13", 30, 350, "w1", 1L);
+        Workout updatedAfter = workout("bob", "2025-05-12", 60, 550, "w2", 1L);
+        Workout created = workout("carol", "2025-05-14", 90, 900, "w3", 0L);
+        // the changes are made while the stream is between both workouts: it has read w1 before
+        // its update and reads w2 after its update, and never sees w3
+        when(workoutRepository.streamByDateGreaterThanEqual(any(Date.class))).thenAnswer(invocation -> Stream.of(
+                streamedBefore, updatedAfter).peek(workout -> {
+            if (workout == streamedBefore) {
+                leaderboardService.onWorkoutChanged(WorkoutChangedEvent.updated(
+                        WorkoutRollupService.snapshot(streamedBefore), updatedBefore));
+                leaderboardService.onWorkoutChanged(WorkoutChangedEvent.updated(
+                        WorkoutRollupService.snapshot(streamedAfter), updatedAfter));
+                leaderboardService.onWorkoutChanged(WorkoutChangedEvent.created(created));
+            }
+        }));
+
+        leaderboardService.rebuild();
+
+        LeaderboardPage week = leaderboardService.getLeaderboard("week", "calories", null, 0, 10);
+        assertEquals(List.of("carol", "bob", "alice"), userIds(week));
+        assertEquals(List.of(900L, 550L, 350L), week.getEntries().stream().map(e -> e.getValue()).toList());
+    }
+
+    @Test
+    void testDeletionDuringRebuildRemovesOnlyWhatWasCounted() {
+        Workout counted = workout("alice", "2025-05-13", 30, 300, "w1", 2L);
+        Workout notYetRead = workout("bob", "2025-05-12", 60, 500, "w2", 0L);
+        when(workoutRepository.streamByDateGreaterThanEqual(any(Date.class))).thenAnswer(invocation -> Stream.of(
+                counted).peek(workout -> {
+            leaderboardService.onWorkoutChanged(WorkoutChangedEvent.deleted(counted));
+            leaderboardService.onWorkoutChanged(WorkoutChangedEvent.deleted(notYetRead));
+        }));
+
+        leaderboardService.rebuild();
+
+        assertEquals(0, leaderboardService.getLeaderboard("week", "calories", null, 0, 10).getTotalUsers());
+    }
+
+    private LeaderboardService service(Path snapshotFile) {
+        return new LeaderboardService(workoutRepository, taskScheduler, 12, snapshotFile, Duration.ofMinutes(5), CLOCK);
+    }
+
+    private static List<String> userIds(LeaderboardPage page) {
+        return page.getEntries().stream().map(e -> e.getUserId()).toList();
+    }
+
+    private static Workout workout(String userId, String day, int duration, int calories) {
+        return new Workout(userId, date(day), duration, "cardio", calories, null);
+    }
+
+    private static Workout workout(String userId, String day, int duration, int calories, String id, Long version) {
+        Workout workout = workout(userId, day, duration, calories);
+        workout.setId(id);
+        workout.setVersion(version);
+        return workout;
+    }
+
+    private static Date date(String day) {
+        return Date.from(LocalDate.parse(day).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
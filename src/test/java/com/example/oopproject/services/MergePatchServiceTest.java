@@ -0,0 +1,189 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.exceptions.PreconditionFailedException;
+import com.example.oopproject.exceptions.ResourceNotFoundException;
+import com.example.oopproject.models.FitnessGoal;
+import com.example.oopproject.models.User;
+import com.example.oopproject.models.Workout;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class MergePatchServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private MergePatchService mergePatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        mergePatchService = new MergePatchService(mongoTemplate, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void testPatchIsOneAtomicUpdateOfTheGivenFields() throws Exception {
+        Workout stored = workout();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Workout.class)))
+                .thenReturn(stored);
+
+        MergePatchService.Patched<Workout> patched = mergePatchService.apply(Workout.class, "w1",
+                json("{\"duration\": 45, \"name\": null}"), null, Set.of());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Workout.class));
+        verify(mongoTemplate, never()).findById(any(), any());
+        assertEquals(new Document("_id", "w1"), query.getValue().getQueryObject());
+        Document updateObject = update.getValue().getUpdateObject();
+        assertEquals(new Document("duration", 45), updateObject.get("$set"));
+        assertEquals(new Document("name", 1), updateObject.get("$unset"));
+        assertEquals(new Document("version", 1), updateObject.get("$inc"));
+
+        assertSame(stored, patched.previous());
+        assertEquals(30, patched.previous().getDuration());
+        assertEquals(45, patched.current().getDuration());
+        assertNull(patched.current().getName());
+        assertEquals("user1", patched.current().getUserId());
+        assertEquals(4L, patched.current().getVersion());
+    }
+
+    @Test
+    void testExpectedVersionIsPartOfTheFilter() throws Exception {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Workout.class)))
+                .thenReturn(workout());
+
+        mergePatchService.apply(Workout.class, "w1", json("{\"caloriesBurned\": 300}"), 3L, Set.of());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Workout.class));
+        assertEquals(new Document("_id", "w1").append("version", 3L), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void testStaleVersionFailsThePrecondition() throws Exception {
+        when(mongoTemplate.exists(any(Query.class), eq(Workout.class))).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"duration\": 45}"), 2L, Set.of()));
+    }
+
+    @Test
+    void testMissingDocumentIsNotFound() throws Exception {
+        assertThrows(ResourceNotFoundException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"duration\": 45}"), null, Set.of()));
+    }
+
+    @Test
+    void testUpdatedAtIsRefreshed() throws Exception {
+        FitnessGoal goal = new FitnessGoal();
+        goal.setId("g1");
+        goal.setVersion(0L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(FitnessGoal.class)))
+                .thenReturn(goal);
+
+        FitnessGoal patched = mergePatchService.apply(FitnessGoal.class, "g1", json("{\"targetValue\": 10}"), null, Set.of())
+                .current();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(FitnessGoal.class));
+        assertTrue(((Document) update.getValue().getUpdateObject().get("$set")).get("updatedAt") instanceof Date);
+        assertEquals(10.0, patched.getTargetValue());
+        assertNotNull(patched.getUpdatedAt());
+    }
+
+    @Test
+    void testFurtherChangesAreWrittenWithThePatch() throws Exception {
+        FitnessGoal goal = new FitnessGoal();
+        goal.setId("g1");
+        goal.setVersion(2L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(FitnessGoal.class)))
+                .thenReturn(goal);
+        Date completedDate = new Date();
+
+        FitnessGoal patched = mergePatchService.apply(FitnessGoal.class, "g1", json("{\"status\": \"completed\"}"), 2L, Set.of(),
+                update -> update.min("completedDate", completedDate)).current();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(FitnessGoal.class));
+        Document updateObject = update.getValue().getUpdateObject();
+        assertEquals("completed", ((Document) updateObject.get("$set")).get("status"));
+        assertEquals(completedDate, ((Document) updateObject.get("$min")).get("completedDate"));
+        assertEquals(1, ((Document) updateObject.get("$inc")).get("version"));
+        assertEquals(3L, patched.getVersion());
+    }
+
+    @Test
+    void testInvalidPatchesAreRejectedBeforeWriting() {
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("[1, 2]"), null, Set.of()));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{}"), null, Set.of()));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"unknown\": 1}"), null, Set.of()));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"id\": \"w2\"}"), null, Set.of()));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"version\": 7}"), null, Set.of()));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"name\": \"x\"}"), null, Set.of("name")));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(User.class, "u1", json("{\"password\": \"secret123\"}"), null, Set.of("role", "password")));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"duration\": \"long\"}"), null, Set.of()));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"duration\": null}"), null, Set.of()));
+        // @Min(1) and @NotBlank
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"duration\": 0}"), null, Set.of()));
+        assertThrows(BadRequestException.class, () ->
+                mergePatchService.apply(Workout.class, "w1", json("{\"userId\": null}"), null, Set.of()));
+
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Workout.class));
+    }
+
+    private JsonNode json(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+
+    private static Workout workout() {
+        Workout workout = new Workout();
+        workout.setId("w1");
+        workout.setVersion(3L);
+        workout.setName("Morning run");
+        workout.setUserId("user1");
+        workout.setDate(new Date());
+        workout.setDuration(30);
+        workout.setWorkoutType("cardio");
+        return workout;
+    }
+}
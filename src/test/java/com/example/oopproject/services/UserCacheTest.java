@@ -0,0 +1,94 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.models.User;
+import com.example.oopproject.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, 100, Duration.ofMinutes(10), meterRegistry);
+
+        user = new User("alice", "alice@example.com", "secret");
+        user.setId("1");
+    }
+
+    @Test
+    void testSecondaryKeysShareOneEntry() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+
+        assertSame(user, userCache.findByUsername("alice").orElseThrow());
+        assertSame(user, userCache.findById("1").orElseThrow());
+        assertSame(user, userCache.findByEmail("alice@example.com").orElseThrow());
+        assertSame(user, userCache.findByUsername("alice").orElseThrow());
+
+        verify(userRepository, times(1)).findByUsername("alice");
+        verify(userRepository, never()).findById("1");
+        verify(userRepository, never()).findByEmail("alice@example.com");
+        assertEquals(0.75, userCache.hitRatio());
+        assertEquals(1, meterRegistry.get("user.cache.load").timer().count());
+    }
+
+    @Test
+    void testInvalidateRemovesAllKeys() {
+        when(userRepository.findById("1")).thenReturn(Optional.of(user));
+        userCache.findById("1");
+
+        userCache.invalidate("1");
+
+        User renamed = new User("alice2", "alice@example.com", "secret");
+        renamed.setId("1");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(renamed));
+
+        assertTrue(userCache.findByUsername("alice").isEmpty());
+        assertEquals("alice2", userCache.findByEmail("alice@example.com").orElseThrow().getUsername());
+        verify(userRepository, times(1)).findByUsername("alice");
+        verify(userRepository, times(1)).findByEmail("alice@example.com");
+    }
+
+    @Test
+    void testInvalidateDuringLoadIsNotLost() {
+        when(userRepository.findById("1")).thenAnswer(invocation -> {
+            // the user is updated and invalidated after it was read, before it is cached
+            userCache.invalidate("1");
+            return Optional.of(user);
+        }).thenReturn(Optional.of(user));
+
+        assertSame(user, userCache.findById("1").orElseThrow());
+        userCache.findById("1");
+
+        verify(userRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void testMissingUserIsNotCached() {
+        when(userRepository.findById("2")).thenReturn(Optional.empty());
+
+        assertTrue(userCache.findById("2").isEmpty());
+        assertTrue(userCache.findById("2").isEmpty());
+
+        verify(userRepository, times(2)).findById("2");
+        assertEquals(0.0, userCache.hitRatio());
+    }
+}
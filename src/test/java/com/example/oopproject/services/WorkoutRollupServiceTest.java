@@ -0,0 +1,238 @@
+package com.example.oopproject.services;
+
+import com.example.oopproject.exceptions.BadRequestException;
+import com.example.oopproject.models.Workout;
+import com.example.oopproject.models.WorkoutRollup;
+import com.example.oopproject.models.WorkoutRollup.Period;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class WorkoutRollupServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private WorkoutRollupService workoutRollupService;
+
+    private Workout workout;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        workoutRollupService = new WorkoutRollupService(mongoTemplate);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(WorkoutRollup.class)))
+                .thenReturn(bulkOperations);
+
+        // Thursday 15 May 2025
+        workout = new Workout("user1", utcDate(2025, 5, 15), 30, "cardio", 300, null);
+    }
+
+    @Test
+    void testPeriodStart() {
+        Date date = utcDate(2025, 5, 15);
+
+        assertEquals(LocalDate.of(2025, 5, 15), Period.DAY.startOf(date));
+        assertEquals(LocalDate.of(2025, 5, 12), Period.WEEK.startOf(date));
+        assertEquals(LocalDate.of(2025, 5, 1), Period.MONTH.startOf(date));
+    }
+
+    @Test
+    void testRecordCreatedUpsertsDayWeekAndMonth() {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+
+        workoutRollupService.recordCreated(workout);
+
+        verify(bulkOperations, times(3)).upsert(queries.capture(), updates.capture());
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(List.of("user1:DAY:2025-05-15", "user1:WEEK:2025-05-12", "user1:MONTH:2025-05-01"),
+                queries.getAllValues().stream().map(query -> query.getQueryObject().get("_id")).toList());
+
+        Document inc = (Document) updates.getValue().getUpdateObject().get("$inc");
+        assertEquals(1L, inc.get("count"));
+        assertEquals(30L, inc.get("totalDuration"));
+        assertEquals(300L, inc.get("totalCaloriesBurned"));
+        assertEquals(1L, inc.get("countByType.cardio"));
+    }
+
+    @Test
+    void testRecordDeletedDecrementsAndRemovesEmptyRollups() {
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+
+        workoutRollupService.recordDeleted(workout);
+
+        verify(bulkOperations, times(3)).upsert(any(Query.class), updates.capture());
+        Document inc = (Document) updates.getValue().getUpdateObject().get("$inc");
+        assertEquals(-1L, inc.get("count"));
+        assertEquals(-30L, inc.get("totalDuration"));
+        verify(mongoTemplate, times(1)).remove(any(Query.class), eq(WorkoutRollup.class));
+    }
+
+    @Test
+    void testBatchIsSummedIntoOneBulkWrite() {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        Workout sameDay = new Workout("user1", utcDate(2025, 5, 15), 45, "strength", 200, null);
+        Workout nextWeek = new Workout("user1", utcDate(2025, 5, 19), 20, "cardio", 100, null);
+
+        workoutRollupService.recordAllCreated(List.of(workout, sameDay, nextWeek));
+
+        verify(mongoTemplate, times(1)).bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(WorkoutRollup.class));
+        verify(bulkOperations, times(5)).upsert(queries.capture(), updates.capture());
+        verify(bulkOperations, times(1)).execute();
+        assertEquals(List.of("user1:DAY:2025-05-15", "user1:WEEK:2025-05-12", "user1:MONTH:2025-05-01",
+                        "user1:DAY:2025-05-19", "user1:WEEK:2025-05-19"),
+                queries.getAllValues().stream().map(query -> query.getQueryObject().get("_id")).toList());
+
+        Document month = (Document) updates.getAllValues().get(2).getUpdateObject().get("$inc");
+        assertEquals(3L, month.get("count"));
+        assertEquals(95L, month.get("totalDuration"));
+        assertEquals(2L, month.get("countByType.cardio"));
+        assertEquals(1L, month.get("countByType.strength"));
+    }
+
+    @Test
+    void testUnchangedUpdateWritesNothing() {
+        workoutRollupService.recordUpdated(WorkoutRollupService.snapshot(workout), workout);
+
+        verifyNoInteractions(bulkOperations);
+    }
+
+    @Test
+    void testRebuildUpsertsWithoutEmptyingTheCollection() {
+        givenUsers("user1");
+        when(mongoTemplate.find(any(Query.class), eq(Workout.class))).thenReturn(List.of(workout));
+        when(mongoTemplate.remove(any(Query.class), eq(WorkoutRollup.class))).thenReturn(DeleteResult.acknowledged(2));
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+
+        assertEquals(3, workoutRollupService.rebuild());
+
+        verify(bulkOperations, times(3)).upsert(any(Query.class), updates.capture());
+        verify(bulkOperations, times(1)).execute();
+        Document set = (Document) updates.getValue().getUpdateObject().get("$set");
+        assertEquals(1L, set.get("count"));
+        assertEquals(300L, set.get("totalCaloriesBurned"));
+        verify(mongoTemplate, never()).insert(anyList(), eq(WorkoutRollup.class));
+        verify(mongoTemplate).remove(removed.capture(), eq(WorkoutRollup.class));
+        assertFalse(removed.getValue().getQueryObject().isEmpty());
+    }
+
+    @Test
+    void testChangesMadeWhileAUserIsRebuiltAreReplayedOnce() {
+        Workout seen = workout("w1", 1L, 20);
+        Workout stale = workout("w2", 0L, 30);
+        Workout updated = workout("w2", 1L, 50);
+        givenUsers("user1");
+        // both workouts are updated while they are read: the read sees the first update, not the second
+        when(mongoTemplate.find(any(Query.class), eq(Workout.class))).thenAnswer(invocation -> {
+            workoutRollupService.write(() -> {
+                workoutRollupService.recordUpdated(WorkoutRollupService.snapshot(workout("w1", 0L, 10)), seen);
+                workoutRollupService.recordUpdated(WorkoutRollupService.snapshot(stale), updated);
+                return null;
+            });
+            return List.of(seen, stale);
+        });
+        when(mongoTemplate.remove(any(Query.class), eq(WorkoutRollup.class))).thenReturn(DeleteResult.acknowledged(0));
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+
+        workoutRollupService.rebuild();
+
+        // two live updates, the rebuilt day, week and month, then the replayed second update
+        verify(bulkOperations, times(12)).upsert(any(Query.class), updates.capture());
+        List<Update> written = updates.getAllValues();
+        for (Update set : written.subList(6, 9)) {
+            assertEquals(50L, ((Document) set.getUpdateObject().get("$set")).get("totalDuration"));
+        }
+        for (Update replayed : written.subList(9, 12)) {
+            Document inc = (Document) replayed.getUpdateObject().get("$inc");
+            assertEquals(0L, inc.get("count"));
+            assertEquals(20L, inc.get("totalDuration"));
+        }
+    }
+
+    @Test
+    void testRebuildReadsOneUserAtATime() {
+        givenUsers("user1", "user2");
+        when(mongoTemplate.find(any(Query.class), eq(Workout.class))).thenReturn(List.of(workout));
+        when(mongoTemplate.remove(any(Query.class), eq(WorkoutRollup.class))).thenReturn(DeleteResult.acknowledged(0));
+        ArgumentCaptor<Query> reads = ArgumentCaptor.forClass(Query.class);
+
+        workoutRollupService.rebuild();
+
+        verify(mongoTemplate, times(2)).find(reads.capture(), eq(Workout.class));
+        assertEquals(List.of("user1", "user2"),
+                reads.getAllValues().stream().map(query -> query.getQueryObject().get("userId")).toList());
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Workout.class));
+        verify(bulkOperations, times(2)).execute();
+    }
+
+    @Test
+    void testWorkoutWithoutDateIsIgnored() {
+        workout.setDate(null);
+
+        workoutRollupService.recordCreated(workout);
+
+        verifyNoInteractions(bulkOperations);
+    }
+
+    @Test
+    void testTypeKeyEscapesFieldNameCharacters() {
+        assertEquals("hiit_v2", WorkoutRollupService.typeKey("hiit.v2"));
+        assertEquals("_set", WorkoutRollupService.typeKey("$set"));
+        assertEquals("unknown", WorkoutRollupService.typeKey(null));
+    }
+
+    @Test
+    void testGetStatsRejectsUnknownPeriod() {
+        assertThrows(BadRequestException.class,
+                () -> workoutRollupService.getStats("user1", "fortnight", null, null));
+    }
+
+    /**
+     * Answers the walk over the userId index with the given users, in order.
+     */
+    private void givenUsers(String... userIds) {
+        List<Workout> firsts = Stream.of(userIds).map(userId -> new Workout(userId, null, 0, null, 0, null)).toList();
+        var stubbing = when(mongoTemplate.findOne(any(Query.class), eq(Workout.class)));
+        for (Workout first : firsts) {
+            stubbing = stubbing.thenReturn(first);
+        }
+        stubbing.thenReturn(null);
+    }
+
+    private static Workout workout(String id, Long version, int duration) {
+        Workout workout = new Workout("user1", utcDate(2025, 5, 15), duration, "cardio", 300, null);
+        workout.setId(id);
+        workout.setVersion(version);
+        return workout;
+    }
+
+    private static Date utcDate(int year, int month, int day) {
+        return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
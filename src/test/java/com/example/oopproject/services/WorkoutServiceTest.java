@@ -1,12 +1,22 @@
 package com.example.oopproject.services;
 
+import com.example.oopproject.dto.BatchItemResult;
+import com.example.oopproject.dto.BatchResult;
+import com.example.oopproject.exceptions.PreconditionFailedException;
 import com.example.oopproject.models.Workout;
 import com.example.oopproject.repositories.WorkoutRepository;
+import com.example.oopproject.util.RequestCoalescer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 
 import java.text.ParseException;
@@ -15,9 +25,12 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class WorkoutServiceTest {
@@ -25,6 +38,21 @@ public class WorkoutServiceTest {
     @Mock
     private WorkoutRepository workoutRepository;
 
+    @Mock
+    private WorkoutRollupService workoutRollupService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BatchInsertService batchInsertService;
+
+    @Mock
+    private MergePatchService mergePatchService;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(true);
+
     @InjectMocks
     private WorkoutService workoutService;
 
@@ -36,6 +64,7 @@ public class WorkoutServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(workoutRollupService.write(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
         dateFormat = new SimpleDateFormat("yyyy-MM-dd");
 
         workout1 = new Workout();
@@ -77,6 +106,10 @@ public class WorkoutServiceTest {
         assertEquals("Running", result.getName());
         assertEquals("cardio", result.getWorkoutType());
         verify(workoutRepository, times(1)).save(any(Workout.class));
+        verify(workoutRollupService, times(1)).recordCreated(workout1);
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                event instanceof WorkoutChangedEvent changed
+                        && changed.getPrevious() == null && changed.getCurrent() == workout1));
     }
 
     @Test
@@ -118,6 +151,7 @@ public class WorkoutServiceTest {
         when(workoutRepository.save(any(Workout.class))).thenReturn(workout1);
 
         Workout updatedWorkout = new Workout();
+        updatedWorkout.setName("Intervals");
         updatedWorkout.setWorkoutType("hiit");
         updatedWorkout.setDuration(20);
         updatedWorkout.setCaloriesBurned(250);
@@ -126,6 +160,7 @@ public class WorkoutServiceTest {
         Workout result = workoutService.updateWorkout("1", updatedWorkout);
 
         assertNotNull(result);
+        assertEquals("Intervals", result.getName());
         assertEquals("hiit", result.getWorkoutType());
         assertEquals(20, result.getDuration());
         assertEquals(250, result.getCaloriesBurned());
@@ -145,15 +180,160 @@ public class WorkoutServiceTest {
         assertNull(result);
         verify(workoutRepository, times(1)).findById("999");
         verify(workoutRepository, never()).save(any(Workout.class));
+        verify(workoutRollupService, never()).recordUpdated(any(Workout.class), any(Workout.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testUpdateWorkout_StaleVersion() {
+        workout1.setVersion(3L);
+        when(workoutRepository.findById("1")).thenReturn(Optional.of(workout1));
+
+        Workout updatedWorkout = new Workout();
+        updatedWorkout.setWorkoutType("hiit");
+
+        assertThrows(PreconditionFailedException.class, () -> workoutService.updateWorkout("1", updatedWorkout, 2L));
+        verify(workoutRepository, never()).save(any(Workout.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testUpdateWorkout_CurrentVersion() {
+        workout1.setVersion(3L);
+        when(workoutRepository.findById("1")).thenReturn(Optional.of(workout1));
+        when(workoutRepository.save(any(Workout.class))).thenReturn(workout1);
+
+        Workout updatedWorkout = new Workout();
+        updatedWorkout.setWorkoutType("hiit");
+
+        assertNotNull(workoutService.updateWorkout("1", updatedWorkout, 3L));
+        verify(workoutRepository, times(1)).save(workout1);
+    }
+
+    @Test
+    void testCreateWorkouts_RecordsOnlyTheInsertedWorkouts() {
+        List<Workout> workouts = List.of(workout1, workout2);
+        when(batchInsertService.insertAll(eq(workouts), eq(Workout.class), any(), any())).thenReturn(new BatchResult(List.of(
+                new BatchItemResult(0, "1", BatchItemResult.INSERTED, List.of()),
+                new BatchItemResult(1, "2", BatchItemResult.INVALID, List.of("date: must not be null")))));
+
+        BatchResult result = workoutService.createWorkouts(workouts);
+
+        assertEquals(1, result.getInserted());
+        verify(workoutRollupService).recordAllCreated(List.of(workout1));
+        verify(eventPublisher, times(1)).publishEvent(any(WorkoutChangedEvent.class));
+    }
+
+    @Test
+    void testCreateWorkouts_RecordsTheUnknownWorkoutsThatWereWritten() {
+        Workout workout3 = new Workout();
+        workout3.setId("3");
+        List<Workout> workouts = List.of(workout1, workout2, workout3);
+        when(batchInsertService.insertAll(eq(workouts), eq(Workout.class), any(), any())).thenReturn(new BatchResult(List.of(
+                new BatchItemResult(0, "1", BatchItemResult.INSERTED, List.of()),
+                new BatchItemResult(1, "2", BatchItemResult.UNKNOWN, List.of("timed out")),
+                new BatchItemResult(2, "3", BatchItemResult.UNKNOWN, List.of("timed out")))));
+        when(workoutRepository.findAllById(List.of("2", "3"))).thenReturn(List.of(workout2));
+
+        BatchResult result = workoutService.createWorkouts(workouts);
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUnknown());
+        assertEquals(BatchItemResult.INSERTED, result.getItems().get(1).getStatus());
+        assertEquals(BatchItemResult.UNKNOWN, result.getItems().get(2).getStatus());
+        assertEquals("3", result.getItems().get(2).getId());
+        verify(workoutRollupService).recordAllCreated(List.of(workout1, workout2));
+        verify(eventPublisher, times(2)).publishEvent(any(WorkoutChangedEvent.class));
+    }
+
+    @Test
+    void testCreateWorkouts_KeepsItemsUnknownWhenTheyCannotBeChecked() {
+        List<Workout> workouts = List.of(workout1);
+        when(batchInsertService.insertAll(eq(workouts), eq(Workout.class), any(), any())).thenReturn(new BatchResult(List.of(
+                new BatchItemResult(0, "1", BatchItemResult.UNKNOWN, List.of("timed out")))));
+        when(workoutRepository.findAllById(List.of("1"))).thenThrow(new DataAccessResourceFailureException("down"));
+
+        BatchResult result = workoutService.createWorkouts(workouts);
+
+        assertEquals(1, result.getUnknown());
+        verify(workoutRollupService).recordAllCreated(List.of());
+        verify(eventPublisher, never()).publishEvent(any(WorkoutChangedEvent.class));
+    }
+
+    @Test
+    void testPatchWorkout_RecordsTheChange() {
+        Workout previous = WorkoutRollupService.snapshot(workout1);
+        JsonNode patch = new ObjectMapper().createObjectNode().put("duration", 45);
+        when(mergePatchService.apply(Workout.class, "1", patch, 3L, Set.of()))
+                .thenReturn(new MergePatchService.Patched<>(previous, workout1));
+
+        assertSame(workout1, workoutService.patchWorkout("1", patch, 3L));
+
+        verify(workoutRollupService).recordUpdated(previous, workout1);
+        verify(eventPublisher).publishEvent(any(WorkoutChangedEvent.class));
     }
 
     @Test
     void testDeleteWorkout() {
-        doNothing().when(workoutRepository).deleteById("1");
+        when(workoutRepository.findById("1")).thenReturn(Optional.of(workout1));
+
+        assertTrue(workoutService.deleteWorkout("1"));
+
+        verify(workoutRepository, times(1)).delete(workout1);
+        verify(workoutRepository, never()).deleteById("1");
+        verify(workoutRollupService).recordDeleted(workout1);
+        verify(eventPublisher).publishEvent(any(WorkoutChangedEvent.class));
+    }
+
+    @Test
+    void testDeleteWorkout_UpdatedMeanwhileSubtractsTheDeletedVersion() {
+        Workout updated = new Workout();
+        updated.setId("1");
+        updated.setVersion(1L);
+        updated.setCaloriesBurned(500);
+        workout1.setVersion(0L);
+        when(workoutRepository.findById("1")).thenReturn(Optional.of(workout1)).thenReturn(Optional.of(updated));
+        doThrow(new OptimisticLockingFailureException("modified")).when(workoutRepository).delete(workout1);
+
+        assertTrue(workoutService.deleteWorkout("1"));
+
+        verify(workoutRepository).delete(updated);
+        verify(workoutRollupService).recordDeleted(updated);
+        verify(workoutRollupService, never()).recordDeleted(workout1);
+    }
+
+    @Test
+    void testDeleteWorkout_DeletedMeanwhileHasNoSideEffects() {
+        when(workoutRepository.findById("1")).thenReturn(Optional.of(workout1)).thenReturn(Optional.empty());
+        doThrow(new OptimisticLockingFailureException("deleted")).when(workoutRepository).delete(workout1);
+
+        assertFalse(workoutService.deleteWorkout("1"));
+
+        verify(workoutRollupService, never()).recordDeleted(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testDeleteWorkout_ConditionalDeleteOfAChangedWorkoutFails() {
+        workout1.setVersion(3L);
+        when(workoutRepository.findById("1")).thenReturn(Optional.of(workout1));
+        doThrow(new OptimisticLockingFailureException("modified")).when(workoutRepository).delete(workout1);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> workoutService.deleteWorkout("1", 3L));
+
+        verify(workoutRepository, times(1)).findById("1");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testDeleteWorkout_ConditionalDeletesTheReadVersion() {
+        workout1.setVersion(3L);
+        when(workoutRepository.findById("1")).thenReturn(Optional.of(workout1));
 
-        workoutService.deleteWorkout("1");
+        workoutService.deleteWorkout("1", 3L);
 
-        verify(workoutRepository, times(1)).deleteById("1");
+        verify(workoutRepository, times(1)).delete(workout1);
+        verify(workoutRepository, never()).deleteById("1");
     }
 
     @Test
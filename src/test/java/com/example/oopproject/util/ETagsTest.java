@@ -0,0 +1,50 @@
+package com.example.oopproject.util;
+
+import com.example.oopproject.exceptions.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ETagsTest {
+
+    @Test
+    void testTagIsTheQuotedVersion() {
+        assertEquals("\"7\"", ETags.of(7L));
+        assertNull(ETags.of(null));
+    }
+
+    @Test
+    void testOkSetsTheTagOnlyForVersionedDocuments() {
+        ResponseEntity<String> versioned = ETags.ok("body", 7L);
+        ResponseEntity<String> unversioned = ETags.ok("body", null);
+
+        assertEquals("\"7\"", versioned.getHeaders().getETag());
+        assertEquals("body", versioned.getBody());
+        assertNull(unversioned.getHeaders().getETag());
+    }
+
+    @Test
+    void testExpectedVersion() {
+        assertEquals(7L, ETags.expectedVersion("\"7\""));
+        assertEquals(7L, ETags.expectedVersion(" \"7\" "));
+        assertNull(ETags.expectedVersion(null));
+        assertNull(ETags.expectedVersion("*"));
+    }
+
+    @Test
+    void testTagsNeverIssuedCannotMatch() {
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("W/\"7\""));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("\"abc\""));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("7"));
+    }
+
+    @Test
+    void testRequireVersion() {
+        assertDoesNotThrow(() -> ETags.requireVersion(null, 3L, "Workout 1"));
+        assertDoesNotThrow(() -> ETags.requireVersion(3L, 3L, "Workout 1"));
+        PreconditionFailedException e = assertThrows(PreconditionFailedException.class,
+                () -> ETags.requireVersion(2L, 3L, "Workout 1"));
+        assertTrue(e.getMessage().contains("Workout 1"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.oopproject.util;
+
+import com.example.oopproject.models.Exercise;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class NdjsonExporterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private NdjsonExporter ndjsonExporter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ndjsonExporter = new NdjsonExporter(mongoTemplate, new ObjectMapper());
+    }
+
+    @Test
+    void testExportWritesOneDocumentPerLine() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Stream<Exercise> cursor = Stream.of(
+                        new Exercise("1", "Push Up", 10, 3, "w1"),
+                        new Exercise("2", "Squat", 12, 4, "w1"))
+                .onClose(() -> closed.set(true));
+        when(mongoTemplate.stream(any(Query.class), eq(Exercise.class))).thenReturn(cursor);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ndjsonExporter.export(Exercise.class, response);
+
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"1\",\"name\":\"Push Up\""));
+        assertTrue(lines[1].startsWith("{\"id\":\"2\",\"name\":\"Squat\""));
+        assertTrue(response.getContentAsString().endsWith("\n"));
+        assertTrue(closed.get(), "cursor should be closed after the export");
+    }
+}
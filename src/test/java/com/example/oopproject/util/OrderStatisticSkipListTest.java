@@ -0,0 +1,94 @@
+package com.example.oopproject.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatisticSkipListTest {
+
+    @Test
+    void testMembersAreRankedByScoreThenMember() {
+        OrderStatisticSkipList<String> list = new OrderStatisticSkipList<>();
+        list.put("carol", 300);
+        list.put("alice", 500);
+        list.put("dave", 300);
+        list.put("bob", 100);
+
+        assertEquals(List.of(
+                new OrderStatisticSkipList.Entry<>(1, "alice", 500),
+                new OrderStatisticSkipList.Entry<>(2, "carol", 300),
+                new OrderStatisticSkipList.Entry<>(3, "dave", 300),
+                new OrderStatisticSkipList.Entry<>(4, "bob", 100)), list.range(1, 10));
+        assertEquals(3, list.rank("dave"));
+        assertEquals(300L, list.score("dave"));
+        assertEquals(0, list.rank("erin"));
+        assertNull(list.score("erin"));
+    }
+
+    @Test
+    void testPutMovesAndRemoveDropsAMember() {
+        OrderStatisticSkipList<String> list = new OrderStatisticSkipList<>();
+        list.put("alice", 500);
+        list.put("bob", 100);
+
+        list.put("bob", 900);
+        assertEquals(1, list.rank("bob"));
+        assertEquals(2, list.rank("alice"));
+
+        assertTrue(list.remove("bob"));
+        assertFalse(list.remove("bob"));
+        assertEquals(1, list.size());
+        assertEquals(1, list.rank("alice"));
+    }
+
+    @Test
+    void testRangeOutsideTheListIsEmpty() {
+        OrderStatisticSkipList<String> list = new OrderStatisticSkipList<>();
+        list.put("alice", 500);
+
+        assertTrue(list.range(2, 10).isEmpty());
+        assertTrue(list.range(0, 10).isEmpty());
+        assertTrue(list.range(1, 0).isEmpty());
+    }
+
+    @Test
+    void testRanksMatchASortedListAfterRandomUpdates() {
+        Random random = new Random(42);
+        OrderStatisticSkipList<Integer> list = new OrderStatisticSkipList<>();
+        Map<Integer, Long> scores = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int member = random.nextInt(2_000);
+            if (random.nextInt(5) == 0) {
+                assertEquals(scores.remove(member) != null, list.remove(member));
+            } else {
+                long score = random.nextInt(500);
+                scores.put(member, score);
+                list.put(member, score);
+            }
+        }
+
+        List<Map.Entry<Integer, Long>> expected = new ArrayList<>(scores.entrySet());
+        expected.sort(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        assertEquals(expected.size(), list.size());
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            Map.Entry<Integer, Long> entry = expected.get(rank - 1);
+            assertEquals(rank, list.rank(entry.getKey()));
+        }
+        List<OrderStatisticSkipList.Entry<Integer>> middle = list.range(100, 50);
+        for (int i = 0; i < middle.size(); i++) {
+            assertEquals(expected.get(99 + i).getKey(), middle.get(i).member());
+            assertEquals(100 + i, middle.get(i).rank());
+        }
+        assertEquals(50, middle.size());
+    }
+}
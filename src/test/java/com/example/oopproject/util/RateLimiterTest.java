@@ -0,0 +1,113 @@
+package com.example.oopproject.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBucketAllowsABurstThenRefillsAtItsRate() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(3, bucket.available(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND / 2, bucket.tryConsume(0));
+        assertEquals(0, bucket.available(0));
+
+        assertEquals(SECOND / 4, bucket.tryConsume(SECOND / 4));
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+        assertEquals(SECOND / 2, bucket.tryConsume(SECOND / 2));
+
+        assertEquals(3, bucket.available(10 * SECOND));
+    }
+
+    @Test
+    void testBucketNeverHoldsMoreThanItsCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.tryConsume(100 * SECOND));
+        assertEquals(0, bucket.tryConsume(100 * SECOND));
+        assertTrue(bucket.tryConsume(100 * SECOND) > 0);
+    }
+
+    @Test
+    void testBucketRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+
+    @Test
+    void testConcurrentRequestsNeverTakeMoreThanTheCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, 0);
+        AtomicInteger allowed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (bucket.tryConsume(0) == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        assertEquals(1000, allowed.get());
+    }
+
+    @Test
+    void testKeysHaveTheirOwnBuckets() {
+        RateLimiter<String> limiter = new RateLimiter<>(4, Duration.ofMinutes(1), () -> 0);
+
+        assertEquals(0, limiter.tryAcquire("alice", 1, 1));
+        assertTrue(limiter.tryAcquire("alice", 1, 1) > 0);
+        assertEquals(0, limiter.tryAcquire("bob", 1, 1));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void testIdleBucketsAreEvictedOnceFull() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter<String> limiter = new RateLimiter<>(2, Duration.ofSeconds(10), now::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("client-" + i, 5, 1);
+        }
+        assertEquals(100, limiter.size());
+
+        // every 5 s one of the two stripes is swept, removing the buckets full for 10 s
+        now.set(15 * SECOND);
+        limiter.tryAcquire("active", 5, 1);
+        now.set(21 * SECOND);
+        limiter.tryAcquire("active", 5, 1);
+
+        assertEquals(1, limiter.size());
+        assertEquals(100, limiter.getEvictionCount());
+    }
+
+    @Test
+    void testBucketsInUseAreKept() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter<String> limiter = new RateLimiter<>(1, Duration.ofSeconds(10), now::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("busy", 5, 0.1);
+        }
+
+        now.set(11 * SECOND);
+        limiter.tryAcquire("other", 5, 1);
+
+        assertEquals(2, limiter.size());
+    }
+}
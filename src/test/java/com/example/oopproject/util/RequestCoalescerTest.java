@@ -0,0 +1,223 @@
+package com.example.oopproject.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void testConcurrentIdenticalReadsRunOneQuery() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequestCoalescer coalescer = new RequestCoalescer(true, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        List<String> result = List.of("goal");
+
+        List<Object> results = runConcurrently(coalescer, () -> {
+            queries.incrementAndGet();
+            await(release);
+            return result;
+        }, release);
+
+        assertEquals(1, queries.get());
+        results.forEach(r -> assertSame(result, r));
+        assertEquals(1, registry.get("coalescing.requests").tag("query", "goals").tag("result", "executed")
+                .functionCounter().count());
+        assertEquals(CALLERS - 1, registry.get("coalescing.requests").tag("query", "goals").tag("result", "collapsed")
+                .functionCounter().count());
+        assertEquals(0, registry.get("coalescing.in.flight").tag("query", "goals").gauge().value());
+    }
+
+    @Test
+    void testCollapsedReadsGetTheQueryException() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = runConcurrently(coalescer, () -> {
+            await(release);
+            throw new IllegalStateException("query failed");
+        }, release);
+
+        assertEquals(CALLERS, results.size());
+        results.forEach(r -> assertInstanceOf(IllegalStateException.class, r));
+    }
+
+    @Test
+    void testCollapsedReadsRetryWhenTheRunningReadIsCancelled() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        List<String> key = List.of("byUserId", "user1");
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> coalescer.coalesce("goals", key, () -> {
+                queries.incrementAndGet();
+                leaderStarted.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    return "leader";
+                } catch (InterruptedException e) {
+                    // as the driver does, the interruption surfaces wrapped in a runtime exception
+                    throw new IllegalStateException("interrupted", e);
+                }
+            }));
+            assertTrue(leaderStarted.await(10, TimeUnit.SECONDS));
+            Future<Object> follower = executor.submit(() -> coalescer.coalesce("goals", key, () -> {
+                queries.incrementAndGet();
+                return "follower";
+            }));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (coalescer.getCollapsedCount("goals") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            leader.cancel(true);
+
+            assertEquals("follower", follower.get(10, TimeUnit.SECONDS));
+            assertEquals(2, queries.get());
+        }
+    }
+
+    @Test
+    void testInterruptedWaitStopsWaiting() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        List<String> key = List.of("byUserId", "user1");
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> coalescer.coalesce("goals", key, () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "leader";
+            }));
+            assertTrue(leaderStarted.await(10, TimeUnit.SECONDS));
+            CountDownLatch followerDone = new CountDownLatch(1);
+            List<Object> outcome = new ArrayList<>();
+            Thread follower = Thread.ofVirtual().start(() -> {
+                try {
+                    outcome.add(coalescer.coalesce("goals", key, () -> "follower"));
+                } catch (RuntimeException e) {
+                    outcome.add(e);
+                    outcome.add(Thread.currentThread().isInterrupted());
+                }
+                followerDone.countDown();
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (coalescer.getCollapsedCount("goals") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            follower.interrupt();
+
+            assertTrue(followerDone.await(10, TimeUnit.SECONDS));
+            assertInstanceOf(CancellationException.class, outcome.get(0));
+            assertEquals(true, outcome.get(1));
+            release.countDown();
+            assertEquals("leader", leader.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testResultsAreNotCached() {
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        AtomicInteger queries = new AtomicInteger();
+
+        coalescer.coalesce("goals", Arrays.asList("byUserId", null), queries::incrementAndGet);
+        coalescer.coalesce("goals", Arrays.asList("byUserId", null), queries::incrementAndGet);
+
+        assertEquals(2, queries.get());
+        assertEquals(2, coalescer.getExecutedCount("goals"));
+        assertEquals(0, coalescer.getCollapsedCount("goals"));
+    }
+
+    @Test
+    void testReadsAfterInvalidateRunANewQuery() {
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        List<String> key = List.of("byUserId", "user1");
+
+        String result = coalescer.coalesce("goals", key, () -> {
+            coalescer.invalidate("goals");
+            // the query in flight was started before the write, so it is not joined
+            return coalescer.coalesce("goals", key, () -> "after write");
+        });
+
+        assertEquals("after write", result);
+        assertEquals(2, coalescer.getExecutedCount("goals"));
+    }
+
+    @Test
+    void testDisabledCoalescerRunsEveryQuery() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(false);
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(CALLERS);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                executor.submit(() -> coalescer.coalesce("goals", List.of("all"), () -> {
+                    queries.incrementAndGet();
+                    started.countDown();
+                    return await(started);
+                }));
+            }
+        }
+
+        assertEquals(CALLERS, queries.get());
+    }
+
+    /**
+     * Starts {@link #CALLERS} identical reads, releases the query once all but the first have
+     * joined it, and returns what each read returned or threw.
+     */
+    private static List<Object> runConcurrently(RequestCoalescer coalescer, Supplier<?> query,
+                                                CountDownLatch release) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return coalescer.coalesce("goals", List.of("byUserId", "user1"), query);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (coalescer.getCollapsedCount("goals") < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.oopproject.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void testTokensAreServedUntilTheyExpire() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Authentication authentication = authentication("alice");
+        cache.put("token", authentication, NOW + 60_000, NOW);
+
+        assertSame(authentication, cache.get("token", NOW + 59_999));
+        assertNull(cache.get("token", NOW + 60_000));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testFullCacheOfLiveTokensStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, authentication("user-" + i), NOW + 60_000, NOW);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void testZeroSizeDisablesCaching() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("token", authentication("alice"), NOW + 60_000, NOW);
+
+        assertNull(cache.get("token", NOW));
+        assertEquals(0, cache.size());
+    }
+
+    private static Authentication authentication(String username) {
+        return new UsernamePasswordAuthenticationToken(username, null, List.of());
+    }
+}